@@ -0,0 +1,265 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Compares the results of a JMH run with a stored baseline. Both files use the JSON format of JMH ({@code -rf json}),
+ * so a new baseline is recorded by copying the results of a run on the reference machine. A benchmark regresses if
+ * its score is worse than the score of the baseline by more than the given tolerance. Benchmarks without a baseline
+ * are reported with a warning only, so the check passes until a baseline has been recorded on the reference machine.
+ *
+ * <p>
+ * Additionally, the results of a run can be compared with each other, independent of the machine: a ratio {@code
+ * benchmark:reference:factor} requires that the benchmark is at most {@code factor} times slower than the reference
+ * benchmark with the same parameters.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class BaselineChecker {
+    private static final String THROUGHPUT = "thrpt";
+
+    private final double tolerance;
+
+    /**
+     * Compares the results with the baseline and fails if at least one benchmark regressed.
+     *
+     * @param args
+     *         the baseline file, the result file, the tolerance (optional, default 0.25), and the comma separated
+     *         ratios (optional)
+     *
+     * @throws IOException
+     *         if one of the files could not be read
+     * @throws IllegalStateException
+     *         if at least one benchmark regressed
+     */
+    public static void main(final String... args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: BaselineChecker baseline.json jmh-result.json [tolerance] "
+                    + "[benchmark:reference:factor,...]");
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        List<String> report = new ArrayList<>();
+        BaselineChecker checker = new BaselineChecker(tolerance);
+        String results = read(Paths.get(args[1]));
+        List<String> regressions = checker.check(read(Paths.get(args[0])), results, report);
+        if (args.length > 3) {
+            for (String ratio : StringUtils.split(args[3], ',')) {
+                String[] parts = StringUtils.split(ratio.trim(), ':');
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Ratio must be benchmark:reference:factor: " + ratio);
+                }
+                regressions.addAll(checker.checkRatio(results, parts[0], parts[1], Double.parseDouble(parts[2]),
+                        report));
+            }
+        }
+        report.forEach(System.out::println);
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(String.format(Locale.ENGLISH,
+                    "%d benchmarks regressed by more than %.0f%%:%n%s",
+                    regressions.size(), tolerance * 100, String.join(System.lineSeparator(), regressions)));
+        }
+    }
+
+    private static String read(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return "[]";
+        }
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new instance of {@link BaselineChecker}.
+     *
+     * @param tolerance
+     *         the tolerated relative deviation from the baseline, e.g. 0.25 for 25 percent
+     */
+    public BaselineChecker(final double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compares the specified results with the baseline.
+     *
+     * @param baseline
+     *         the baseline in the JSON format of JMH
+     * @param results
+     *         the results in the JSON format of JMH
+     * @param report
+     *         the report of all compared benchmarks, the lines will be appended to this list
+     *
+     * @return the benchmarks that regressed, an empty list if all benchmarks are within the tolerance or have no
+     *         baseline
+     */
+    public List<String> check(final String baseline, final String results, final List<String> report) {
+        Map<String, JSONObject> baselineScores = index(baseline);
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JSONObject> result : index(results).entrySet()) {
+            String name = result.getKey();
+            JSONObject expected = baselineScores.get(name);
+            double actualScore = getScore(result.getValue());
+            String unit = getUnit(result.getValue());
+            if (expected == null) {
+                String line = String.format(Locale.ENGLISH, "%s: %.3f %s (no baseline)", name, actualScore, unit);
+                report.add("WARN " + line);
+                continue;
+            }
+            double expectedScore = getScore(expected);
+            double deviation = getDeviation(result.getValue(), expectedScore, actualScore);
+            String line = String.format(Locale.ENGLISH, "%s: %.3f %s (baseline %.3f %s, %+.1f%%)",
+                    name, actualScore, unit, expectedScore, getUnit(expected), deviation * 100);
+            if (deviation > tolerance) {
+                report.add("FAIL " + line);
+                regressions.add(line);
+            }
+            else {
+                report.add("OK   " + line);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Compares the results of a benchmark with the results of a reference benchmark of the same run. The benchmarks
+     * are selected by the suffix of their names (e.g. {@code GitRepositoryMinerBenchmark.mineAll}), results with the
+     * same parameters are compared with each other.
+     *
+     * @param results
+     *         the results in the JSON format of JMH
+     * @param benchmark
+     *         the suffix of the name of the benchmark
+     * @param reference
+     *         the suffix of the name of the reference benchmark
+     * @param factor
+     *         the maximum factor the benchmark may be slower than the reference benchmark
+     * @param report
+     *         the report of all compared benchmarks, the lines will be appended to this list
+     *
+     * @return the benchmarks that are too slow, an empty list if all benchmarks are within the factor
+     */
+    public List<String> checkRatio(final String results, final String benchmark, final String reference,
+            final double factor, final List<String> report) {
+        Map<String, JSONObject> benchmarks = select(results, benchmark);
+        Map<String, JSONObject> references = select(results, reference);
+
+        List<String> regressions = new ArrayList<>();
+        if (benchmarks.isEmpty() || references.isEmpty()) {
+            report.add(String.format(Locale.ENGLISH, "SKIP %s/%s: no results", benchmark, reference));
+            return regressions;
+        }
+        for (Map.Entry<String, JSONObject> result : benchmarks.entrySet()) {
+            JSONObject expected = references.get(result.getKey());
+            if (expected == null) {
+                continue;
+            }
+            double slowdown = getSlowdown(result.getValue(), getScore(expected), getScore(result.getValue()));
+            String line = String.format(Locale.ENGLISH, "%s%s: %.2f times the cost of %s (maximum %.2f)",
+                    benchmark, result.getKey(), slowdown, reference, factor);
+            if (slowdown > factor) {
+                report.add("FAIL " + line);
+                regressions.add(line);
+            }
+            else {
+                report.add("OK   " + line);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Returns the factor the actual score is slower than the reference score: for throughput benchmarks a lower score
+     * is slower, for all other modes a higher score is slower.
+     */
+    private double getSlowdown(final JSONObject result, final double referenceScore, final double actualScore) {
+        if (referenceScore == 0 || actualScore == 0) {
+            return 1;
+        }
+        if (THROUGHPUT.equals(result.getString("mode"))) {
+            return referenceScore / actualScore;
+        }
+        return actualScore / referenceScore;
+    }
+
+    /**
+     * Selects the benchmarks with the specified suffix and indexes them by their parameters.
+     */
+    private Map<String, JSONObject> select(final String json, final String suffix) {
+        Map<String, JSONObject> benchmarks = new LinkedHashMap<>();
+        JSONArray array = JSONArray.fromObject(json);
+        for (int i = 0; i < array.size(); i++) {
+            JSONObject benchmark = array.getJSONObject(i);
+            String name = benchmark.getString("benchmark");
+            if (name.equals(suffix) || name.endsWith("." + suffix)) {
+                benchmarks.put(getParameters(benchmark), benchmark);
+            }
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Returns the relative deviation of the actual score from the expected score. Positive values are regressions:
+     * for throughput benchmarks a lower score is worse, for all other modes a higher score is worse.
+     */
+    private double getDeviation(final JSONObject result, final double expectedScore, final double actualScore) {
+        if (expectedScore == 0) {
+            return 0;
+        }
+        double deviation = (actualScore - expectedScore) / expectedScore;
+        if (THROUGHPUT.equals(result.getString("mode"))) {
+            return -deviation;
+        }
+        return deviation;
+    }
+
+    private double getScore(final JSONObject benchmark) {
+        return benchmark.getJSONObject("primaryMetric").getDouble("score");
+    }
+
+    private String getUnit(final JSONObject benchmark) {
+        return benchmark.getJSONObject("primaryMetric").optString("scoreUnit");
+    }
+
+    /**
+     * Indexes the benchmarks of the specified JMH results by their name and parameters.
+     */
+    private Map<String, JSONObject> index(final String json) {
+        Map<String, JSONObject> benchmarks = new LinkedHashMap<>();
+        JSONArray array = JSONArray.fromObject(json);
+        for (int i = 0; i < array.size(); i++) {
+            JSONObject benchmark = array.getJSONObject(i);
+            benchmarks.put(getName(benchmark), benchmark);
+        }
+        return benchmarks;
+    }
+
+    private String getName(final JSONObject benchmark) {
+        return benchmark.getString("benchmark") + getParameters(benchmark);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String getParameters(final JSONObject benchmark) {
+        JSONObject params = benchmark.optJSONObject("params");
+        if (params != null && !params.isEmpty()) {
+            Map<String, Object> sorted = new TreeMap<>(params);
+            return sorted.toString();
+        }
+        return StringUtils.EMPTY;
+    }
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+import io.jenkins.plugins.forensics.git.blame.GitBlamerAccess;
+
+/**
+ * Benchmarks the blame callback of the {@code GitBlamer}. The callback is invoked directly on the synthetic
+ * repository, so the benchmark measures the agent side of the blamer without the remote transfer.
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GitBlamerBenchmark {
+    /** Number of files that will be blamed in each invocation. */
+    @Param("20")
+    private int blamedFiles;
+
+    private FileLocations lines;
+    private FileLocations wholeFiles;
+
+    /**
+     * Selects the files to blame: the files are evenly distributed over the files of the repository.
+     *
+     * @param state
+     *         the synthetic repository
+     */
+    @Setup(Level.Trial)
+    public void selectFiles(final SyntheticRepositoryState state) {
+        lines = new FileLocations();
+        wholeFiles = new FileLocations();
+
+        List<String> fileNames = state.getFileNames();
+        int step = Math.max(1, fileNames.size() / blamedFiles);
+        for (int i = 0; i < fileNames.size() && i / step < blamedFiles; i += step) {
+            String fileName = fileNames.get(i);
+            lines.addLine(fileName, 1);
+            lines.addLine(fileName, 10);
+            lines.addLine(fileName, 25);
+            wholeFiles.addLine(fileName, 0);
+        }
+    }
+
+    /**
+     * Blames some lines of each of the selected files.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the blames
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public Blames blameLines(final SyntheticRepositoryState state) throws IOException, InterruptedException {
+        return blame(state, lines);
+    }
+
+    /**
+     * Finds the last commit of each of the selected files.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the blames
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public Blames blameWholeFiles(final SyntheticRepositoryState state) throws IOException, InterruptedException {
+        return blame(state, wholeFiles);
+    }
+
+    private Blames blame(final SyntheticRepositoryState state, final FileLocations locations)
+            throws IOException, InterruptedException {
+        Repository repository = state.getRepository();
+        repository.incrementOpen();
+
+        return GitBlamerAccess.blame(repository, locations, state.getHead());
+    }
+}
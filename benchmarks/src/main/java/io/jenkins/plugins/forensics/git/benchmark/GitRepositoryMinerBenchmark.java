@@ -0,0 +1,134 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jenkins.plugins.forensics.git.miner.GitRepositoryMiner;
+import io.jenkins.plugins.forensics.git.miner.GitRepositoryMinerAccess;
+import io.jenkins.plugins.forensics.git.miner.MiningResult;
+
+/**
+ * Benchmarks the mining callback of the {@link GitRepositoryMiner}. The callback is invoked directly on the synthetic
+ * repository, so the benchmark measures the agent side of the miner without the remote transfer.
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GitRepositoryMinerBenchmark {
+    private String latestMinedCommit;
+
+    /**
+     * Selects the latest mined commit for the incremental benchmark: 90 percent of the commits have been mined
+     * already.
+     *
+     * @param state
+     *         the synthetic repository
+     */
+    @Setup(Level.Trial)
+    public void selectLatestMinedCommit(final SyntheticRepositoryState state) {
+        List<String> commitIds = state.getCommitIds();
+        latestMinedCommit = commitIds.get(commitIds.size() * 9 / 10);
+    }
+
+    /**
+     * Mines all commits of the repository.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the statistics and the ownership index
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public MiningResult mineAll(final SyntheticRepositoryState state)
+            throws IOException, InterruptedException {
+        return mine(state, StringUtils.EMPTY);
+    }
+
+    /**
+     * Mines all commits of the repository without computing the churn, i.e. only the paths of the changed files are
+     * compared. The benchmark runs in a separate JVM that disables the churn calculation, so it is the reference
+     * for the cost of the churn: the throughput of {@link #mineAll} should be at least half of the throughput of this
+     * benchmark, see the property {@code benchmark.ratios} of the POM.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the statistics and the ownership index
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dio.jenkins.plugins.forensics.git.miner.ChurnCalculator.maxBlobSize=0")
+    public MiningResult mineAllWithoutChurn(final SyntheticRepositoryState state)
+            throws IOException, InterruptedException {
+        return mine(state, StringUtils.EMPTY);
+    }
+
+    /**
+     * Mines the commits that are newer than the latest mined commit.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the statistics and the ownership index
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the benchmark has been interrupted
+     */
+    @Benchmark
+    public MiningResult mineIncrementally(final SyntheticRepositoryState state)
+            throws IOException, InterruptedException {
+        return mine(state, latestMinedCommit);
+    }
+
+    /**
+     * Collects all files of the head commit using the {@code FilesCollector}.
+     *
+     * @param state
+     *         the synthetic repository
+     *
+     * @return the files
+     */
+    @Benchmark
+    public int collectFiles(final SyntheticRepositoryState state) {
+        try (ObjectReader reader = state.getRepository().newObjectReader()) {
+            return GitRepositoryMinerAccess.findAllFiles(reader, state.getHead()).size();
+        }
+    }
+
+    private MiningResult mine(final SyntheticRepositoryState state, final String latestCommitId)
+            throws IOException, InterruptedException {
+        Repository repository = state.getRepository();
+        repository.incrementOpen();
+
+        return GitRepositoryMinerAccess.mine(repository, latestCommitId);
+    }
+}
@@ -0,0 +1,122 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord;
+import io.jenkins.plugins.forensics.git.reference.GitCommitsRecordAccess;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Benchmarks {@link GitCommitsRecord#getReferencePoint(GitCommitsRecord, int, boolean)}. The commits of the synthetic
+ * repository are recorded in the builds of a reference job (e.g., the main branch), each build records the same
+ * number of commits. The build of the branch job has been started from a commit in the middle of the history of the
+ * reference job. The builds are mocked, so the benchmark measures the search and not the loading of builds.
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReferencePointBenchmark {
+    private static final String SCM_KEY = "git https://github.com/jenkinsci/git-forensics-plugin.git";
+    private static final int NEW_BRANCH_COMMITS = 5;
+
+    /** Number of commits that are recorded in each build of the reference job. */
+    @Param("10")
+    private int commitsPerBuild;
+    /** Maximum number of commits to look at. */
+    @Param({"200", "1000"})
+    private int maxCommits;
+
+    private GitCommitsRecord referenceRecord;
+    private GitCommitsRecord branchRecord;
+
+    /**
+     * Creates the builds of the reference job and the branch job.
+     *
+     * @param state
+     *         the synthetic repository
+     */
+    @Setup(Level.Trial)
+    public void createBuilds(final SyntheticRepositoryState state) {
+        List<String> commitIds = state.getCommitIds();
+
+        Run<?, ?> previous = null;
+        for (int start = 0; start < commitIds.size(); start += commitsPerBuild) {
+            List<String> commits = new ArrayList<>(
+                    commitIds.subList(start, Math.min(start + commitsPerBuild, commitIds.size())));
+            Collections.reverse(commits); // latest commit first
+            Run<?, ?> build = createBuild(previous);
+            referenceRecord = createRecord(build, commits);
+            previous = build;
+        }
+
+        int forkPoint = commitIds.size() / 2;
+        List<String> branchCommits = new ArrayList<>();
+        for (int i = 0; i < NEW_BRANCH_COMMITS; i++) {
+            branchCommits.add(String.format("%040x", i));
+        }
+        List<String> history = new ArrayList<>(commitIds.subList(Math.max(0, forkPoint - maxCommits), forkPoint));
+        Collections.reverse(history);
+        branchCommits.addAll(history);
+        branchRecord = createRecord(createBuild(null), branchCommits);
+    }
+
+    private Run<?, ?> createBuild(final Run<?, ?> previous) {
+        Run<?, ?> build = mock(Run.class);
+        doReturn(previous).when(build).getPreviousBuild();
+        return build;
+    }
+
+    private GitCommitsRecord createRecord(final Run<?, ?> build, final List<String> commits) {
+        GitCommitsRecord record = GitCommitsRecordAccess.createRecord(build, SCM_KEY, new FilteredLog("Errors"),
+                commits.get(0), commits);
+        doReturn(Collections.singletonList(record)).when(build).getActions(GitCommitsRecord.class);
+        return record;
+    }
+
+    /**
+     * Searches for the reference build of the branch build.
+     *
+     * @return the reference build
+     */
+    @Benchmark
+    public Optional<Run<?, ?>> findReferencePoint() {
+        return branchRecord.getReferencePoint(referenceRecord, maxCommits, false);
+    }
+
+    /**
+     * Searches for the reference build of the branch build, builds with unknown commits are skipped.
+     *
+     * @return the reference build
+     */
+    @Benchmark
+    public Optional<Run<?, ?>> findReferencePointSkippingUnknownCommits() {
+        return branchRecord.getReferencePoint(referenceRecord, maxCommits, true);
+    }
+}
@@ -0,0 +1,412 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+/**
+ * Generates a synthetic Git repository with a configurable number of commits, files, authors, and branches. The
+ * repository is created with the low level JGit API without a network connection or an installed Git executable.
+ * The generator is deterministic: the same configuration always creates a repository with the same commit IDs, so the
+ * results of benchmarks that use different revisions of the plugin are comparable.
+ *
+ * <p>
+ * The first commit creates all files, each subsequent commit changes, adds, or deletes some lines of a few files. With
+ * the probability {@link #setBranchiness(double) branchiness} a commit starts a short-lived side branch that will be
+ * merged back using a merge commit. Commits on the side branch and on the main branch are interleaved.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.TooManyFields")
+public class SyntheticRepositoryGenerator {
+    /** Time of the first commit: 2020-01-01T00:00:00Z. */
+    private static final long START_TIME = 1_577_836_800_000L;
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final int MAX_BRANCH_LENGTH = 5;
+    private static final int MAX_CHANGED_FILES = 3;
+    private static final int MAX_CHANGED_LINES = 5;
+    private static final double NEW_FILE_PROBABILITY = 0.02;
+    private static final double DELETE_FILE_PROBABILITY = 0.01;
+    private static final int DIRECTORY_FAN_OUT = 8;
+
+    private long seed = 42;
+    private int commits = 1000;
+    private int files = 200;
+    private double branchiness = 0.1;
+    private int linesPerFile = 100;
+    private int authors = 10;
+    private boolean packed = true;
+
+    /**
+     * Sets the seed of the random number generator.
+     *
+     * @param seed
+     *         the seed
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setSeed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the total number of commits, including merge commits.
+     *
+     * @param commits
+     *         the number of commits
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setCommits(final int commits) {
+        this.commits = Math.max(commits, 1);
+        return this;
+    }
+
+    /**
+     * Sets the number of files of the first commit.
+     *
+     * @param files
+     *         the number of files
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setFiles(final int files) {
+        this.files = Math.max(files, 1);
+        return this;
+    }
+
+    /**
+     * Sets the probability that a commit starts a new side branch. A value of 0 creates a linear history.
+     *
+     * @param branchiness
+     *         the probability in the range [0, 1]
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setBranchiness(final double branchiness) {
+        this.branchiness = Math.min(Math.max(branchiness, 0), 1);
+        return this;
+    }
+
+    /**
+     * Sets the average number of lines of the generated files. The actual sizes are uniformly distributed between
+     * half and one and a half of this value.
+     *
+     * @param linesPerFile
+     *         the average number of lines
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setLinesPerFile(final int linesPerFile) {
+        this.linesPerFile = Math.max(linesPerFile, 2);
+        return this;
+    }
+
+    /**
+     * Sets the number of different authors.
+     *
+     * @param authors
+     *         the number of authors
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setAuthors(final int authors) {
+        this.authors = Math.max(authors, 1);
+        return this;
+    }
+
+    /**
+     * Determines whether the objects of the generated repository should be stored in a pack file (like in a cloned
+     * repository) or as loose objects.
+     *
+     * @param packed
+     *         {@code true} if the objects should be packed, {@code false} otherwise
+     *
+     * @return this
+     */
+    public SyntheticRepositoryGenerator setPacked(final boolean packed) {
+        this.packed = packed;
+        return this;
+    }
+
+    /**
+     * Generates a new repository in the specified directory. The branch {@code master} points to the latest commit.
+     *
+     * @param workTree
+     *         the working tree of the new repository, the directory must be empty or must not exist
+     *
+     * @return the repository, the caller is responsible for closing it
+     * @throws IOException
+     *         if the repository could not be created
+     */
+    public Repository generate(final File workTree) throws IOException {
+        Repository repository = FileRepositoryBuilder.create(new File(workTree, Constants.DOT_GIT));
+        repository.create();
+
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            ObjectId head = new Generator(inserter).run();
+            inserter.flush();
+
+            RefUpdate update = repository.updateRef(Constants.R_HEADS + Constants.MASTER);
+            update.setNewObjectId(head);
+            update.forceUpdate();
+        }
+        if (packed) {
+            pack(repository);
+        }
+        return repository;
+    }
+
+    private void pack(final Repository repository) throws IOException {
+        try (Git git = new Git(repository)) {
+            git.gc().setAggressive(false).call();
+        }
+        catch (GitAPIException exception) {
+            throw new IOException("Can't pack the objects of the generated repository", exception);
+        }
+    }
+
+    /**
+     * Creates the commits of a single run of the generator.
+     */
+    private class Generator {
+        private final ObjectInserter inserter;
+        private final Random random = new Random(seed);
+        private final List<PersonIdent> identities = new ArrayList<>();
+        private int commitCount;
+        private int fileCount;
+
+        Generator(final ObjectInserter inserter) {
+            this.inserter = inserter;
+
+            for (int i = 0; i < authors; i++) {
+                identities.add(new PersonIdent("Author " + i, "author" + i + "@example.com"));
+            }
+        }
+
+        ObjectId run() throws IOException {
+            Branch main = new Branch(new TreeMap<>());
+            for (int i = 0; i < files; i++) {
+                main.put(createFileName(), createContent());
+            }
+            main.head = commit(main, Collections.emptyList(), "Initial commit");
+
+            Branch side = null;
+            int sideCommits = 0;
+            while (commitCount < commits) {
+                if (side == null) {
+                    if (commitCount < commits - 2 && random.nextDouble() < branchiness) {
+                        side = new Branch(main);
+                        sideCommits = 1 + random.nextInt(MAX_BRANCH_LENGTH);
+                    }
+                    else {
+                        change(main);
+                    }
+                }
+                else if (sideCommits == 0 || commitCount == commits - 1) {
+                    main.merge(side);
+                    main.head = commit(main, asList(main.head, side.head), "Merge side branch");
+                    side = null;
+                }
+                else if (random.nextBoolean()) {
+                    change(side);
+                    sideCommits--;
+                }
+                else {
+                    change(main);
+                }
+            }
+            return main.head;
+        }
+
+        private List<ObjectId> asList(final ObjectId first, final ObjectId second) {
+            List<ObjectId> parents = new ArrayList<>();
+            parents.add(first);
+            parents.add(second);
+            return parents;
+        }
+
+        private void change(final Branch branch) throws IOException {
+            if (random.nextDouble() < NEW_FILE_PROBABILITY) {
+                branch.put(createFileName(), createContent());
+            }
+            else if (branch.files.size() > 1 && random.nextDouble() < DELETE_FILE_PROBABILITY) {
+                branch.remove(branch.getRandomFile(random));
+            }
+            else {
+                int changedFiles = 1 + random.nextInt(MAX_CHANGED_FILES);
+                for (int i = 0; i < changedFiles; i++) {
+                    String file = branch.getRandomFile(random);
+                    branch.put(file, changeLines(branch.files.get(file).lines));
+                }
+            }
+            branch.head = commit(branch, Collections.singletonList(branch.head), "Commit " + commitCount);
+        }
+
+        private List<String> changeLines(final List<String> original) {
+            List<String> lines = new ArrayList<>(original);
+            int changedLines = 1 + random.nextInt(MAX_CHANGED_LINES);
+            for (int i = 0; i < changedLines; i++) {
+                int position = random.nextInt(lines.size());
+                int operation = random.nextInt(3);
+                if (operation == 0) {
+                    lines.add(position, createLine());
+                }
+                else if (operation == 1 && lines.size() > 1) {
+                    lines.remove(position);
+                }
+                else {
+                    lines.set(position, createLine());
+                }
+            }
+            return lines;
+        }
+
+        private String createFileName() {
+            int id = fileCount++;
+            return String.format("src/module%d/package%d/File%d.java",
+                    id % DIRECTORY_FAN_OUT, id / DIRECTORY_FAN_OUT % DIRECTORY_FAN_OUT, id);
+        }
+
+        private List<String> createContent() {
+            int size = linesPerFile / 2 + random.nextInt(linesPerFile + 1);
+            List<String> lines = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                lines.add(createLine());
+            }
+            return lines;
+        }
+
+        private String createLine() {
+            return "    statement(" + Long.toHexString(random.nextLong()) + ");";
+        }
+
+        private ObjectId commit(final Branch branch, final List<ObjectId> parents, final String message)
+                throws IOException {
+            DirCache index = DirCache.newInCore();
+            DirCacheBuilder builder = index.builder();
+            for (Map.Entry<String, FileContent> file : branch.files.entrySet()) {
+                DirCacheEntry entry = new DirCacheEntry(file.getKey());
+                entry.setFileMode(FileMode.REGULAR_FILE);
+                entry.setObjectId(file.getValue().getBlob(inserter));
+                builder.add(entry);
+            }
+            builder.finish();
+
+            PersonIdent identity = new PersonIdent(identities.get(random.nextInt(identities.size())),
+                    START_TIME + commitCount * HOUR, 0);
+
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(index.writeTree(inserter));
+            commit.setParentIds(parents);
+            commit.setAuthor(identity);
+            commit.setCommitter(identity);
+            commit.setMessage(message);
+
+            commitCount++;
+            return inserter.insert(commit);
+        }
+    }
+
+    /**
+     * The files of a branch. The contents are immutable, so branches can share them.
+     */
+    private static class Branch {
+        private final TreeMap<String, FileContent> files;
+        private final Set<String> changedFiles = new HashSet<>();
+        private ObjectId head;
+
+        Branch(final TreeMap<String, FileContent> files) {
+            this.files = files;
+        }
+
+        Branch(final Branch parent) {
+            this(new TreeMap<>(parent.files));
+
+            head = parent.head;
+        }
+
+        void put(final String file, final List<String> lines) {
+            files.put(file, new FileContent(lines));
+            changedFiles.add(file);
+        }
+
+        void remove(final String file) {
+            files.remove(file);
+            changedFiles.add(file);
+        }
+
+        String getRandomFile(final Random random) {
+            int index = random.nextInt(files.size());
+            for (String file : files.keySet()) {
+                if (index == 0) {
+                    return file;
+                }
+                index--;
+            }
+            throw new IllegalStateException("No files available");
+        }
+
+        /**
+         * Merges the changes of the specified branch into this branch. Files that have been changed in both branches
+         * are taken from the other branch.
+         */
+        void merge(final Branch other) {
+            for (String file : other.changedFiles) {
+                FileContent content = other.files.get(file);
+                if (content == null) {
+                    files.remove(file);
+                }
+                else {
+                    files.put(file, content);
+                }
+            }
+            changedFiles.addAll(other.changedFiles);
+        }
+    }
+
+    /**
+     * The lines of a file and the ID of the corresponding blob.
+     */
+    private static class FileContent {
+        private final List<String> lines;
+        private ObjectId blob;
+
+        FileContent(final List<String> lines) {
+            this.lines = Collections.unmodifiableList(lines);
+        }
+
+        ObjectId getBlob(final ObjectInserter inserter) throws IOException {
+            if (blob == null) {
+                blob = inserter.insert(Constants.OBJ_BLOB,
+                        (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return blob;
+        }
+    }
+}
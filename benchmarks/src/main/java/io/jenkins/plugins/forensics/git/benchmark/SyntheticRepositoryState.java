@@ -0,0 +1,130 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Provides a synthetic Git repository for the benchmarks. The repository is generated once per trial by the {@link
+ * SyntheticRepositoryGenerator} in a temporary folder and deleted afterwards. The size and shape of the repository are
+ * given by JMH parameters, so they can be changed on the command line, e.g. {@code -p commits=10000}.
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+public class SyntheticRepositoryState {
+    @Param("1000")
+    private int commits;
+    @Param("200")
+    private int files;
+    @Param("0.1")
+    private double branchiness;
+    @Param("100")
+    private int linesPerFile;
+    @Param("10")
+    private int authors;
+
+    private File workTree;
+    private Repository repository;
+    private ObjectId head;
+    private final List<String> fileNames = new ArrayList<>();
+    private final List<String> commitIds = new ArrayList<>();
+
+    /**
+     * Generates the repository.
+     *
+     * @throws IOException
+     *         if the repository could not be generated
+     */
+    @Setup(Level.Trial)
+    public void createRepository() throws IOException {
+        workTree = Files.createTempDirectory("git-forensics-benchmark").toFile();
+        repository = new SyntheticRepositoryGenerator()
+                .setCommits(commits)
+                .setFiles(files)
+                .setBranchiness(branchiness)
+                .setLinesPerFile(linesPerFile)
+                .setAuthors(authors)
+                .generate(workTree);
+        head = repository.resolve(Constants.HEAD);
+
+        try (RevWalk walk = new RevWalk(repository)) {
+            RevCommit headCommit = walk.parseCommit(head);
+            try (TreeWalk treeWalk = new TreeWalk(repository)) {
+                treeWalk.addTree(headCommit.getTree());
+                treeWalk.setRecursive(true);
+                while (treeWalk.next()) {
+                    fileNames.add(treeWalk.getPathString());
+                }
+            }
+
+            walk.sort(RevSort.TOPO);
+            walk.sort(RevSort.REVERSE, true);
+            walk.markStart(headCommit);
+            for (RevCommit commit : walk) {
+                commitIds.add(commit.getName());
+            }
+        }
+    }
+
+    /**
+     * Deletes the repository.
+     *
+     * @throws IOException
+     *         if the repository could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws IOException {
+        repository.close();
+        FileUtils.delete(workTree, FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+
+    /**
+     * Returns the repository. Note that the callbacks of the plugin close the repository after they have been invoked,
+     * so the open counter needs to be incremented before each invocation.
+     *
+     * @return the repository
+     */
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public ObjectId getHead() {
+        return head;
+    }
+
+    /**
+     * Returns the files of the head commit.
+     *
+     * @return the relative paths of the files
+     */
+    public List<String> getFileNames() {
+        return fileNames;
+    }
+
+    /**
+     * Returns the IDs of all commits, parents precede their children.
+     *
+     * @return the commit IDs
+     */
+    public List<String> getCommitIds() {
+        return commitIds;
+    }
+}
@@ -0,0 +1,42 @@
+package io.jenkins.plugins.forensics.git.blame;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import io.jenkins.plugins.forensics.blame.Blames;
+import io.jenkins.plugins.forensics.blame.FileLocations;
+
+/**
+ * Provides the benchmarks access to the package-private blame callback of the {@link GitBlamer}. This class is part
+ * of the benchmarks only, so the API of the plugin does not need to be widened.
+ *
+ * @author Ullrich Hafner
+ */
+public final class GitBlamerAccess {
+    /**
+     * Blames the specified locations by invoking the callback of the {@link GitBlamer} directly on the repository.
+     *
+     * @param repository
+     *         the repository to blame, the callback closes the repository after the blame
+     * @param locations
+     *         the locations to blame
+     * @param headCommit
+     *         the head commit to start the blame from
+     *
+     * @return the blames
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the blame has been interrupted
+     */
+    public static Blames blame(final Repository repository, final FileLocations locations, final ObjectId headCommit)
+            throws IOException, InterruptedException {
+        return GitBlamer.createCallback(locations, headCommit).invoke(repository, null).getResult();
+    }
+
+    private GitBlamerAccess() {
+        // prevents instantiation
+    }
+}
@@ -0,0 +1,59 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+
+/**
+ * Provides the benchmarks access to the package-private mining callback of the {@link GitRepositoryMiner} and to the
+ * {@link FilesCollector}. This class is part of the benchmarks only, so the API of the plugin does not need to be
+ * widened.
+ *
+ * @author Ullrich Hafner
+ */
+public final class GitRepositoryMinerAccess {
+    /**
+     * Mines the commits of the repository by invoking the callback of the {@link GitRepositoryMiner} directly on the
+     * repository. The identity mappings of the previous analysis are empty and the activity is collected per week.
+     *
+     * @param repository
+     *         the repository to mine, the callback closes the repository after mining
+     * @param latestCommitId
+     *         the latest commit that has been mined already, or an empty string to mine all commits
+     *
+     * @return the mining result
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if mining has been interrupted
+     */
+    public static MiningResult mine(final Repository repository, final String latestCommitId)
+            throws IOException, InterruptedException {
+        return GitRepositoryMiner.createCallback(latestCommitId, StringUtils.EMPTY, BucketSize.WEEK)
+                .invoke(repository, null).getResult();
+    }
+
+    /**
+     * Returns all files of the specified commit using the {@link FilesCollector}.
+     *
+     * @param reader
+     *         the reader to read the trees of the repository with
+     * @param commitId
+     *         the commit
+     *
+     * @return the files of the commit
+     */
+    public static Set<String> findAllFiles(final ObjectReader reader, final ObjectId commitId) {
+        return new FilesCollector(reader).findAllFor(commitId);
+    }
+
+    private GitRepositoryMinerAccess() {
+        // prevents instantiation
+    }
+}
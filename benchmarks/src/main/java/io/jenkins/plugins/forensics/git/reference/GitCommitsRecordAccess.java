@@ -0,0 +1,40 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.List;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import hudson.model.Run;
+
+/**
+ * Provides the benchmarks access to the package-private constructor of the {@link GitCommitsRecord}. This class is
+ * part of the benchmarks only, so the API of the plugin does not need to be widened.
+ *
+ * @author Ullrich Hafner
+ */
+public final class GitCommitsRecordAccess {
+    /**
+     * Creates a new {@link GitCommitsRecord} for the specified commits.
+     *
+     * @param owner
+     *         the build as owner of the Git commits
+     * @param scmKey
+     *         the ID of the SCM repository
+     * @param logger
+     *         the logger
+     * @param latestCommit
+     *         the latest commit of the build
+     * @param commits
+     *         the new commits in the build
+     *
+     * @return the record
+     */
+    public static GitCommitsRecord createRecord(final Run<?, ?> owner, final String scmKey, final FilteredLog logger,
+            final String latestCommit, final List<String> commits) {
+        return new GitCommitsRecord(owner, scmKey, logger, latestCommit, commits);
+    }
+
+    private GitCommitsRecordAccess() {
+        // prevents instantiation
+    }
+}
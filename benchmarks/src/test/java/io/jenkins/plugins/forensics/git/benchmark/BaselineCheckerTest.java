@@ -0,0 +1,136 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link BaselineChecker}.
+ *
+ * @author Ullrich Hafner
+ */
+class BaselineCheckerTest {
+    private static final String MINER = "benchmark.GitRepositoryMinerBenchmark.mineAll";
+    private static final String BLAMER = "benchmark.GitBlamerBenchmark.blameLines";
+
+    @Test
+    void shouldAcceptResultsWithinTolerance() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).check(
+                toJson(result(MINER, "avgt", 100), result(BLAMER, "thrpt", 100)),
+                toJson(result(MINER, "avgt", 120), result(BLAMER, "thrpt", 80)), report);
+
+        assertThat(regressions).isEmpty();
+        assertThat(report).hasSize(2).allMatch(line -> line.startsWith("OK"));
+    }
+
+    @Test
+    void shouldDetectRegressions() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).check(
+                toJson(result(MINER, "avgt", 100), result(BLAMER, "thrpt", 100)),
+                toJson(result(MINER, "avgt", 130), result(BLAMER, "thrpt", 70)), report);
+
+        assertThat(regressions).hasSize(2);
+        assertThat(regressions.get(0)).startsWith(MINER).contains("+30.0%");
+        assertThat(regressions.get(1)).startsWith(BLAMER).contains("+30.0%");
+    }
+
+    @Test
+    void shouldIgnoreImprovements() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).check(
+                toJson(result(MINER, "avgt", 100)), toJson(result(MINER, "avgt", 10)), report);
+
+        assertThat(regressions).isEmpty();
+        assertThat(report).hasSize(1);
+        assertThat(report.get(0)).startsWith("OK").contains("-90.0%");
+    }
+
+    @Test
+    void shouldWarnForBenchmarksWithoutBaseline() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).check(
+                toJson(result(MINER, "avgt", 100)),
+                toJson(result(MINER, "avgt", 100), result(BLAMER, "avgt", 1000)), report);
+
+        assertThat(regressions).isEmpty();
+        assertThat(report).hasSize(2);
+        assertThat(report.get(1)).startsWith("WARN").contains(BLAMER).endsWith("(no baseline)");
+
+        assertThat(new BaselineChecker(0.25).check("[]", toJson(result(MINER, "avgt", 100)), report)).isEmpty();
+    }
+
+    @Test
+    void shouldDistinguishParameters() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).check(
+                "[" + result(MINER, "avgt", 100, "1000") + "," + result(MINER, "avgt", 1000, "10000") + "]",
+                "[" + result(MINER, "avgt", 1000, "1000") + "," + result(MINER, "avgt", 1000, "10000") + "]", report);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("commits=1000}");
+    }
+
+    @Test
+    void shouldCompareBenchmarksOfTheSameRun() {
+        List<String> report = new ArrayList<>();
+
+        String results = "[" + result(MINER, "avgt", 190, "1000") + "," + result(MINER, "avgt", 2500, "10000") + ","
+                + result(MINER + "WithoutChurn", "avgt", 100, "1000") + ","
+                + result(MINER + "WithoutChurn", "avgt", 1000, "10000") + "]";
+        List<String> regressions = new BaselineChecker(0.25).checkRatio(results,
+                "GitRepositoryMinerBenchmark.mineAll", "GitRepositoryMinerBenchmark.mineAllWithoutChurn", 2.0, report);
+
+        assertThat(report).hasSize(2);
+        assertThat(report.get(0)).startsWith("OK").contains("commits=1000}").contains("1.90 times");
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("commits=10000}").contains("2.50 times");
+    }
+
+    @Test
+    void shouldCompareThroughputOfBenchmarksOfTheSameRun() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).checkRatio(
+                toJson(result(BLAMER, "thrpt", 40), result(BLAMER + "Reference", "thrpt", 100)),
+                "blameLines", "blameLinesReference", 2.0, report);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("2.50 times");
+    }
+
+    @Test
+    void shouldSkipRatiosWithoutResults() {
+        List<String> report = new ArrayList<>();
+
+        List<String> regressions = new BaselineChecker(0.25).checkRatio(toJson(result(MINER, "avgt", 100)),
+                "mineAll", "mineAllWithoutChurn", 2.0, report);
+
+        assertThat(regressions).isEmpty();
+        assertThat(report).containsExactly("SKIP mineAll/mineAllWithoutChurn: no results");
+    }
+
+    private String toJson(final String... results) {
+        return "[" + String.join(",", results) + "]";
+    }
+
+    private String result(final String benchmark, final String mode, final double score) {
+        return String.format(Locale.ENGLISH, "{\"benchmark\":\"%s\",\"mode\":\"%s\",\"primaryMetric\":{\"score\":%f,"
+                + "\"scoreUnit\":\"ms/op\"}}", benchmark, mode, score);
+    }
+
+    private String result(final String benchmark, final String mode, final double score, final String commits) {
+        return String.format(Locale.ENGLISH, "{\"benchmark\":\"%s\",\"mode\":\"%s\",\"params\":{\"commits\":\"%s\"},"
+                + "\"primaryMetric\":{\"score\":%f,\"scoreUnit\":\"ms/op\"}}", benchmark, mode, commits, score);
+    }
+}
@@ -0,0 +1,85 @@
+package io.jenkins.plugins.forensics.git.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link SyntheticRepositoryGenerator}.
+ *
+ * @author Ullrich Hafner
+ */
+class SyntheticRepositoryGeneratorTest {
+    private static final int COMMITS = 50;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void shouldCreateSameCommitsForSameConfiguration() throws IOException {
+        ObjectId first = getHead(createGenerator(42), "first");
+        ObjectId second = getHead(createGenerator(42), "second");
+        ObjectId other = getHead(createGenerator(7), "other");
+
+        assertThat(first).isEqualTo(second).isNotEqualTo(other);
+    }
+
+    @Test
+    void shouldCreateLinearHistory() throws IOException {
+        try (Repository repository = createGenerator(42).setBranchiness(0).generate(getWorkTree("linear"))) {
+            assertThat(countCommits(repository, false)).isEqualTo(COMMITS);
+            assertThat(countCommits(repository, true)).isZero();
+        }
+    }
+
+    @Test
+    void shouldCreateMergeCommits() throws IOException {
+        try (Repository repository = createGenerator(42).setBranchiness(0.5).generate(getWorkTree("branches"))) {
+            assertThat(countCommits(repository, false)).isEqualTo(COMMITS);
+            assertThat(countCommits(repository, true)).isPositive();
+        }
+    }
+
+    private SyntheticRepositoryGenerator createGenerator(final long seed) {
+        return new SyntheticRepositoryGenerator()
+                .setSeed(seed)
+                .setCommits(COMMITS)
+                .setFiles(20)
+                .setLinesPerFile(10)
+                .setAuthors(3)
+                .setPacked(false);
+    }
+
+    private ObjectId getHead(final SyntheticRepositoryGenerator generator, final String name) throws IOException {
+        try (Repository repository = generator.generate(getWorkTree(name))) {
+            return repository.resolve(Constants.HEAD);
+        }
+    }
+
+    private File getWorkTree(final String name) {
+        return folder.resolve(name).toFile();
+    }
+
+    private int countCommits(final Repository repository, final boolean onlyMerges) throws IOException {
+        int count = 0;
+        try (RevWalk walk = new RevWalk(repository)) {
+            walk.markStart(walk.parseCommit(repository.resolve(Constants.HEAD)));
+            for (RevCommit commit : walk) {
+                if (!onlyMerges || commit.getParentCount() > 1) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
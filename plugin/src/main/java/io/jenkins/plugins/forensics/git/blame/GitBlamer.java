@@ -1,6 +1,8 @@
 package io.jenkins.plugins.forensics.git.blame;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.stream.StreamSupport;
 
@@ -10,6 +12,7 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.JGitInternalException;
 import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -20,8 +23,8 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.model.Run;
 import hudson.plugins.git.GitException;
-import hudson.remoting.VirtualChannel;
 
 import io.jenkins.plugins.forensics.blame.Blamer;
 import io.jenkins.plugins.forensics.blame.Blames;
@@ -29,7 +32,16 @@ import io.jenkins.plugins.forensics.blame.FileBlame;
 import io.jenkins.plugins.forensics.blame.FileBlame.FileBlameBuilder;
 import io.jenkins.plugins.forensics.blame.FileLocations;
 import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
+import io.jenkins.plugins.forensics.git.util.ForensicsMetrics;
+import io.jenkins.plugins.forensics.git.util.ForensicsMetricsAction;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.HeapBudget;
+import io.jenkins.plugins.forensics.git.util.IdentityResolver;
+import io.jenkins.plugins.forensics.git.util.IdentityResolver.Identity;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.git.util.ResultChunker;
+import io.jenkins.plugins.forensics.git.util.StorageProfile;
+import io.jenkins.plugins.forensics.git.util.StreamingRepositoryCallback;
 
 /**
  * Assigns git blames to warnings. Based on the solution by John Gibson, see JENKINS-6748. This code is intended to run
@@ -52,6 +64,9 @@ class GitBlamer extends Blamer {
 
     private final GitClient git;
     private final String gitCommit;
+    private final StorageProfile storageProfile;
+    @CheckForNull
+    private final transient Run<?, ?> build;
 
     /**
      * Creates a new blamer for Git.
@@ -62,10 +77,29 @@ class GitBlamer extends Blamer {
      *         content of environment variable GIT_COMMIT
      */
     GitBlamer(final GitClient git, final String gitCommit) {
+        this(git, gitCommit, StorageProfile.jgitDefaults(), null);
+    }
+
+    /**
+     * Creates a new blamer for Git.
+     *
+     * @param git
+     *         git client
+     * @param gitCommit
+     *         content of environment variable GIT_COMMIT
+     * @param storageProfile
+     *         the storage profile for the JGit caches
+     * @param build
+     *         the build that will store the metrics of the blamer
+     */
+    GitBlamer(final GitClient git, final String gitCommit, final StorageProfile storageProfile,
+            @CheckForNull final Run<?, ?> build) {
         super();
 
         this.git = git;
         this.gitCommit = gitCommit;
+        this.storageProfile = storageProfile;
+        this.build = build;
     }
 
     @Override
@@ -84,8 +118,13 @@ class GitBlamer extends Blamer {
 
             long nano = System.nanoTime();
 
-            RemoteResultWrapper<Blames> wrapped = git.withRepository(new BlameCallback(locations, blames, headCommit));
+            AbstractRepositoryCallback<RemoteResultWrapper<Blames>> callback = createCallback(locations, headCommit);
+            callback.setStorageProfile(storageProfile);
+            callback.setIdentityAliases(GitForensicsConfiguration.getGlobalIdentityAliases());
+            RemoteResultWrapper<Blames> wrapped = StreamingRepositoryCallback.transfer(git, callback,
+                    new BlamesChunker());
             wrapped.getInfoMessages().forEach(log::logInfo);
+            ForensicsMetricsAction.record(build, "Git blamer", wrapped.getMetrics());
 
             log.logInfo("Blaming of authors took %d seconds", 1 + (System.nanoTime() - nano) / 1_000_000_000L);
             return wrapped.getResult();
@@ -102,16 +141,62 @@ class GitBlamer extends Blamer {
         return blames;
     }
 
+    /**
+     * Creates a callback that computes the blames for the specified locations.
+     *
+     * @param locations
+     *         the locations to blame
+     * @param headCommit
+     *         the commit to start the blame from
+     *
+     * @return the callback
+     */
+    static AbstractRepositoryCallback<RemoteResultWrapper<Blames>> createCallback(
+            final FileLocations locations, final ObjectId headCommit) {
+        return new BlameCallback(locations, new Blames(), headCommit);
+    }
+
+    /**
+     * Transfers the blames of each file as a separate element.
+     */
+    static class BlamesChunker implements ResultChunker<Blames> {
+        private static final long serialVersionUID = -2447870330512640290L;
+
+        @Override
+        public Blames createEmptyCopy(final Blames result) {
+            return new Blames();
+        }
+
+        @Override
+        public Iterator<FileBlame> split(final Blames result) {
+            return result.getFiles().stream().map(result::getBlame).iterator();
+        }
+
+        @Override
+        public void merge(final Blames target, final Serializable chunk) {
+            target.add((FileBlame) chunk);
+        }
+    }
+
     /**
      * Starts the blame commands.
      */
     static class BlameCallback extends AbstractRepositoryCallback<RemoteResultWrapper<Blames>> {
         private static final long serialVersionUID = 8794666938104738260L;
         private static final int WHOLE_FILE = 0;
+        private static final String BLAMED_FILES = "blamed files";
+        private static final String SLOWEST_FILES = "slowest files to blame";
+        private static final String SKIPPED_FILES = "skipped files";
+        private static final String ESTIMATED_BYTES = "estimated retained bytes";
+        /** Estimated size of the blames of a file without the lines (builder, maps, and file name). */
+        private static final int BYTES_PER_FILE = 256;
+        /** Estimated size of the blame of a single line (name, email, commit ID, and time). */
+        private static final int BYTES_PER_LINE = 160;
 
         private final ObjectId headCommit;
         private final FileLocations locations;
         private final Blames blames;
+        private transient IdentityResolver identities = IdentityResolver.empty();
 
         BlameCallback(final FileLocations locations, final Blames blames, final ObjectId headCommit) {
             super();
@@ -122,35 +207,48 @@ class GitBlamer extends Blamer {
         }
 
         @Override
-        public RemoteResultWrapper<Blames> invoke(final Repository repository, final VirtualChannel channel)
+        protected RemoteResultWrapper<Blames> process(final Repository repository, final ObjectReader reader)
                 throws InterruptedException {
-            try {
-                RemoteResultWrapper<Blames> log = new RemoteResultWrapper<>(blames, "Errors while running Git blame:");
-                log.logInfo("Git commit ID = '%s'", headCommit.getName());
-                log.logInfo("Git working tree = '%s'", getWorkTree(repository));
-
-                BlameRunner blameRunner = new BlameRunner(repository, headCommit);
-                LastCommitRunner lastCommitRunner = new LastCommitRunner(repository);
-
-                FileBlameBuilder builder = new FileBlameBuilder();
-                for (String file : locations.getFiles()) {
-                    run(builder, file, blameRunner, lastCommitRunner, log);
-
-                    if (Thread.interrupted()) { // Cancel request by user
-                        String message = "Blaming has been interrupted while computing blame information";
-                        log.logInfo(message);
-
-                        throw new InterruptedException(message);
-                    }
+            RemoteResultWrapper<Blames> log = new RemoteResultWrapper<>(blames, "Errors while running Git blame:");
+            log.logInfo("Git commit ID = '%s'", headCommit.getName());
+            log.logInfo("Git working tree = '%s'", getWorkTree(repository));
+
+            identities = createIdentityResolver(reader, headCommit, log);
+            ForensicsMetrics metrics = log.getMetrics();
+            BlameRunner blameRunner = new BlameRunner(repository, headCommit, metrics);
+            LastCommitRunner lastCommitRunner = new LastCommitRunner(repository, metrics);
+
+            FileBlameBuilder builder = new FileBlameBuilder();
+            HeapBudget budget = HeapBudget.create();
+            int remaining = locations.size();
+            for (String file : locations.getFiles()) {
+                if (budget.isExhausted()) {
+                    log.logError("Heap budget of the agent is exhausted (%s): skipping the remaining %d files",
+                            budget, remaining);
+                    metrics.add(SKIPPED_FILES, remaining);
+                    break;
                 }
+                long start = metrics.start();
+                run(builder, file, blameRunner, lastCommitRunner, log);
+                metrics.stopEntry(SLOWEST_FILES, file, start);
+                metrics.increment(BLAMED_FILES);
+                budget.allocate(BYTES_PER_FILE + 2L * file.length()
+                        + (long) BYTES_PER_LINE * locations.getLines(file).size());
+                remaining--;
+
+                if (Thread.interrupted()) { // Cancel request by user
+                    String message = "Blaming has been interrupted while computing blame information";
+                    log.logInfo(message);
+
+                    throw new InterruptedException(message);
+                }
+            }
 
-                log.logInfo("-> blamed authors of issues in %d files", blames.size());
+            log.logInfo("-> blamed authors of issues in %d files", blames.size());
+            metrics.add(ESTIMATED_BYTES, budget.getEstimatedBytes());
+            metrics.logSlowest(SLOWEST_FILES, log);
 
-                return log;
-            }
-            finally {
-                repository.close();
-            }
+            return log;
         }
 
         /**
@@ -207,8 +305,7 @@ class GitBlamer extends Blamer {
                         lineIndex, fileName);
             }
             else {
-                fileBlame.setName(line, who.getName());
-                fileBlame.setEmail(line, who.getEmailAddress());
+                setAuthor(fileBlame, line, who);
             }
             RevCommit commit = blame.getSourceCommit(lineIndex);
             if (commit == null) {
@@ -231,31 +328,46 @@ class GitBlamer extends Blamer {
                     who = revCommit.getCommitterIdent();
                 }
                 if (who != null) {
-                    fileBlame.setName(WHOLE_FILE, who.getName());
-                    fileBlame.setEmail(WHOLE_FILE, who.getEmailAddress());
+                    setAuthor(fileBlame, WHOLE_FILE, who);
                 }
             }
         }
+
+        private void setAuthor(final FileBlame fileBlame, final int line, final PersonIdent who) {
+            Identity identity = identities.resolve(who);
+            fileBlame.setName(line, identity.getName());
+            fileBlame.setEmail(line, identity.getEmail());
+        }
     }
 
     /**
      * Executes the Git blame command.
      */
     static class BlameRunner {
+        private static final String BLAME = "blame";
+
         private final Repository repo;
         private final ObjectId headCommit;
+        private final ForensicsMetrics metrics;
 
-        BlameRunner(final Repository repo, final ObjectId headCommit) {
+        BlameRunner(final Repository repo, final ObjectId headCommit, final ForensicsMetrics metrics) {
             this.repo = repo;
             this.headCommit = headCommit;
+            this.metrics = metrics;
         }
 
         @CheckForNull
         BlameResult run(final String fileName) throws GitAPIException {
-            BlameCommand blame = new BlameCommand(repo);
-            blame.setFilePath(fileName);
-            blame.setStartCommit(headCommit);
-            return blame.call();
+            long start = metrics.start();
+            try {
+                BlameCommand blame = new BlameCommand(repo);
+                blame.setFilePath(fileName);
+                blame.setStartCommit(headCommit);
+                return blame.call();
+            }
+            finally {
+                metrics.stop(BLAME, start);
+            }
         }
     }
 
@@ -263,18 +375,26 @@ class GitBlamer extends Blamer {
      * Executes the Git log command for a given file.
      */
     static class LastCommitRunner {
+        private static final String LAST_COMMIT_LOOKUP = "last commit lookup";
+
         private final Repository repo;
+        private final ForensicsMetrics metrics;
 
-        LastCommitRunner(final Repository repo) {
+        LastCommitRunner(final Repository repo, final ForensicsMetrics metrics) {
             this.repo = repo;
+            this.metrics = metrics;
         }
 
         Optional<RevCommit> run(final String fileName) throws GitAPIException {
+            long start = metrics.start();
             try (Git git = new Git(repo)) {
                 Iterable<RevCommit> commits = git.log().addPath(fileName).call();
 
                 return StreamSupport.stream(commits.spliterator(), false).findFirst();
             }
+            finally {
+                metrics.stop(LAST_COMMIT_LOOKUP, start);
+            }
         }
     }
 }
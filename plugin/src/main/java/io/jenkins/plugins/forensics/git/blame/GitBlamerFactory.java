@@ -28,7 +28,8 @@ public class GitBlamerFactory extends BlamerFactory {
         if (validator.isGitRepository()) {
             logger.logInfo("-> Git blamer successfully created in working tree '%s'", workTree);
 
-            return Optional.of(new GitBlamer(validator.createClient(), validator.getHead()));
+            return Optional.of(new GitBlamer(validator.createClient(), validator.getHead(),
+                    validator.getStorageProfile(), build));
         }
         logger.logInfo("-> Git blamer could not be created for SCM '%s' in working tree '%s'", scm, workTree);
         return Optional.empty();
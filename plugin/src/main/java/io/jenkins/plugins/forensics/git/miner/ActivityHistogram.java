@@ -0,0 +1,225 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A histogram of the number of commits per time bucket (e.g., per week). The buckets are stored in a primitive array
+ * using a run-length encoding: a positive value is the number of commits of a single bucket, a negative value is a
+ * run of empty buckets. Since most files are changed in a few buckets only, a histogram requires just a few bytes
+ * even if it spans many years.
+ *
+ * <p>
+ * Commits are typically added in chronological order, so new commits are appended to the end of the encoded array.
+ * Commits of older buckets (e.g., of a branch that has been merged later) decode and re-encode the histogram.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class ActivityHistogram implements Serializable {
+    private static final long serialVersionUID = 6120387465470935520L;
+
+    private int start;
+    private int end;
+    private int[] runs = new int[2];
+    private int size;
+
+    /**
+     * Returns the index of the first bucket of this histogram.
+     *
+     * @return the index of the first bucket
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the index of the bucket after the last bucket of this histogram.
+     *
+     * @return the index of the bucket after the last bucket
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a commit to the specified bucket.
+     *
+     * @param bucket
+     *         the index of the bucket
+     */
+    public void add(final int bucket) {
+        add(bucket, 1);
+    }
+
+    /**
+     * Adds the specified number of commits to the specified bucket.
+     *
+     * @param bucket
+     *         the index of the bucket
+     * @param commits
+     *         the number of commits to add
+     */
+    public void add(final int bucket, final int commits) {
+        if (commits <= 0) {
+            return;
+        }
+        if (size == 0) {
+            start = bucket;
+            end = bucket;
+        }
+        if (bucket == end - 1) {
+            runs[size - 1] += commits;
+        }
+        else if (bucket >= end) {
+            int gap = bucket - end;
+            if (gap > 0) {
+                append(-gap);
+            }
+            append(commits);
+            end = bucket + 1;
+        }
+        else {
+            int[] counts = toArray(Math.min(start, bucket), end);
+            counts[bucket - Math.min(start, bucket)] += commits;
+            encode(Math.min(start, bucket), counts);
+        }
+    }
+
+    private void append(final int value) {
+        if (size == runs.length) {
+            runs = Arrays.copyOf(runs, size * 2);
+        }
+        runs[size++] = value;
+    }
+
+    private void encode(final int first, final int[] counts) {
+        size = 0;
+        start = first;
+        end = first;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                add(first + i, counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of commits of the specified bucket.
+     *
+     * @param bucket
+     *         the index of the bucket
+     *
+     * @return the number of commits
+     */
+    public int get(final int bucket) {
+        int current = start;
+        for (int i = 0; i < size && current <= bucket; i++) {
+            if (runs[i] < 0) {
+                current -= runs[i];
+            }
+            else {
+                if (current == bucket) {
+                    return runs[i];
+                }
+                current++;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the total number of commits of all buckets.
+     *
+     * @return the total number of commits
+     */
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (runs[i] > 0) {
+                total += runs[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of commits of the specified range of buckets.
+     *
+     * @param from
+     *         the index of the first bucket (inclusive)
+     * @param to
+     *         the index of the last bucket (exclusive)
+     *
+     * @return the number of commits of each bucket of the range
+     */
+    public int[] toArray(final int from, final int to) {
+        int[] counts = new int[Math.max(to - from, 0)];
+        int current = start;
+        for (int i = 0; i < size && current < to; i++) {
+            if (runs[i] < 0) {
+                current -= runs[i];
+            }
+            else {
+                if (current >= from) {
+                    counts[current - from] = runs[i];
+                }
+                current++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Adds the commits of all buckets of the specified histogram to this histogram.
+     *
+     * @param other
+     *         the histogram to add
+     */
+    public void addAll(final ActivityHistogram other) {
+        int current = other.start;
+        for (int i = 0; i < other.size; i++) {
+            if (other.runs[i] < 0) {
+                current -= other.runs[i];
+            }
+            else {
+                add(current, other.runs[i]);
+                current++;
+            }
+        }
+    }
+
+    void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(start);
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            output.writeInt(runs[i]);
+        }
+    }
+
+    static ActivityHistogram readFrom(final DataInput input) throws IOException {
+        ActivityHistogram histogram = new ActivityHistogram();
+        histogram.start = input.readInt();
+        histogram.end = histogram.start;
+        histogram.size = input.readInt();
+        histogram.runs = new int[Math.max(histogram.size, 1)];
+        for (int i = 0; i < histogram.size; i++) {
+            int run = input.readInt();
+            histogram.runs[i] = run;
+            histogram.end += run < 0 ? -run : 1;
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%d, %d): %s", start, end, Arrays.toString(Arrays.copyOf(runs, size)));
+    }
+}
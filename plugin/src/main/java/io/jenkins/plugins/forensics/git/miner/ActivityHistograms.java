@@ -0,0 +1,316 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * The commit activity of a repository and of each of its files, bucketed by week or month. The histograms are
+ * computed in the commit loop of the miner and contain only the commits that are new in a build. They are merged with
+ * the histograms of the previous build, so trend charts can be rendered without another walk of the history.
+ *
+ * <p>
+ * The size of the buckets can be configured using the system property {@code
+ * io.jenkins.plugins.forensics.git.miner.ActivityHistograms.bucketSize} ({@code WEEK} or {@code MONTH}, default
+ * {@code WEEK}) on the controller. If the bucket size is changed, then all commits are mined again, since the
+ * histograms of previous builds can't be merged with histograms of another bucket size.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ * @see ActivityHistogram
+ */
+public class ActivityHistograms implements MinedIndex<ActivityHistograms>, Serializable {
+    private static final long serialVersionUID = -2302066802431604373L;
+    private static final int FORMAT_VERSION = 1;
+    private static final String BUCKET_SIZE
+            = SystemProperties.getString(ActivityHistograms.class.getName() + ".bucketSize", BucketSize.WEEK.name());
+
+    private final String baseCommitId;
+    private final String latestCommitId;
+    private final BucketSize bucketSize;
+    private final ActivityHistogram repository = new ActivityHistogram();
+    private final Map<String, ActivityHistogram> files = new HashMap<>();
+    /** Files that have been deleted by the new commits, used when merging with the previous histograms. */
+    private final Set<String> deletedFiles = new HashSet<>();
+
+    /**
+     * Creates new empty {@link ActivityHistograms}.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous histograms, all commits up to this commit are not part of these
+     *         histograms (empty if the histograms contain all commits)
+     * @param latestCommitId
+     *         the latest commit of these histograms
+     * @param bucketSize
+     *         the size of the buckets
+     */
+    public ActivityHistograms(final String baseCommitId, final String latestCommitId, final BucketSize bucketSize) {
+        this.baseCommitId = baseCommitId;
+        this.latestCommitId = latestCommitId;
+        this.bucketSize = bucketSize;
+    }
+
+    /**
+     * Returns the bucket size that has been configured using the system property of the controller.
+     *
+     * @return the configured bucket size
+     */
+    static BucketSize getConfiguredBucketSize() {
+        try {
+            return BucketSize.valueOf(BUCKET_SIZE.toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException exception) {
+            return BucketSize.WEEK;
+        }
+    }
+
+    @Override
+    public String getBaseCommitId() {
+        return baseCommitId;
+    }
+
+    @Override
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    public BucketSize getBucketSize() {
+        return bucketSize;
+    }
+
+    /**
+     * Returns the number of files with a histogram.
+     *
+     * @return the number of files
+     */
+    @Override
+    public int size() {
+        return files.size();
+    }
+
+    public Set<String> getFiles() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    /**
+     * Returns the commit activity of the whole repository.
+     *
+     * @return the histogram of the repository
+     */
+    public ActivityHistogram getRepository() {
+        return repository;
+    }
+
+    /**
+     * Returns the commit activity of the specified file.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the histogram of the file, or empty if the file has no commits
+     */
+    public Optional<ActivityHistogram> get(final String file) {
+        return Optional.ofNullable(files.get(file));
+    }
+
+    /**
+     * Records a commit of the repository.
+     *
+     * @param bucket
+     *         the bucket of the commit, see {@link BucketSize#getBucket(int)}
+     */
+    void addCommit(final int bucket) {
+        repository.add(bucket);
+    }
+
+    /**
+     * Records a commit that changed the specified file.
+     *
+     * @param file
+     *         the changed file
+     * @param bucket
+     *         the bucket of the commit, see {@link BucketSize#getBucket(int)}
+     */
+    void addCommit(final String file, final int bucket) {
+        files.computeIfAbsent(file, key -> new ActivityHistogram()).add(bucket);
+    }
+
+    /**
+     * Records that the specified file has been deleted. The commits of the file are removed.
+     *
+     * @param file
+     *         the deleted file
+     */
+    void deleteFile(final String file) {
+        files.remove(file);
+        deletedFiles.add(file);
+    }
+
+    /**
+     * Records that the specified files have been deleted by the commits of these histograms. In contrast to {@link
+     * #deleteFile(String)} the histograms of the files are not removed, so files that have been added again are
+     * retained.
+     *
+     * @param files
+     *         the deleted files
+     */
+    void addDeletedFiles(final Set<String> files) {
+        deletedFiles.addAll(files);
+    }
+
+    /**
+     * Returns the files that have been deleted by the commits of these histograms.
+     *
+     * @return the deleted files
+     */
+    Set<String> getDeletedFiles() {
+        return Collections.unmodifiableSet(deletedFiles);
+    }
+
+    /**
+     * Creates new histograms that contain the commits of the specified previous histograms and the commits of these
+     * histograms. If the bucket sizes of the histograms are different, then the previous histograms are skipped: the
+     * miner avoids this case by mining all commits again if the configured bucket size has been changed.
+     *
+     * @param previous
+     *         the histograms of the previous build
+     *
+     * @return the merged histograms
+     */
+    @Override
+    public ActivityHistograms merge(final ActivityHistograms previous) {
+        if (previous.bucketSize != bucketSize) {
+            return this;
+        }
+
+        ActivityHistograms merged = new ActivityHistograms(previous.baseCommitId, latestCommitId, bucketSize);
+        merged.repository.addAll(previous.repository);
+        merged.repository.addAll(repository);
+        previous.files.forEach((file, histogram) -> {
+            if (!deletedFiles.contains(file)) {
+                merged.files.computeIfAbsent(file, key -> new ActivityHistogram()).addAll(histogram);
+            }
+        });
+        files.forEach((file, histogram)
+                -> merged.files.computeIfAbsent(file, key -> new ActivityHistogram()).addAll(histogram));
+        return merged;
+    }
+
+    @Override
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(baseCommitId);
+        output.writeUTF(latestCommitId);
+        output.writeUTF(bucketSize.name());
+        repository.writeTo(output);
+        output.writeInt(files.size());
+        for (Map.Entry<String, ActivityHistogram> entry : files.entrySet()) {
+            output.writeUTF(entry.getKey());
+            entry.getValue().writeTo(output);
+        }
+    }
+
+    /**
+     * Reads histograms that have been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the histograms
+     * @throws IOException
+     *         if the histograms could not be read
+     */
+    public static ActivityHistograms readFrom(final DataInput input) throws IOException {
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format of activity histograms: " + version);
+        }
+        String baseCommitId = input.readUTF();
+        String latestCommitId = input.readUTF();
+        BucketSize bucketSize;
+        try {
+            bucketSize = BucketSize.valueOf(input.readUTF());
+        }
+        catch (IllegalArgumentException exception) {
+            throw new IOException("Unsupported bucket size of activity histograms", exception);
+        }
+        ActivityHistograms histograms = new ActivityHistograms(baseCommitId, latestCommitId, bucketSize);
+        histograms.repository.addAll(ActivityHistogram.readFrom(input));
+        int fileCount = input.readInt();
+        for (int i = 0; i < fileCount; i++) {
+            histograms.files.put(input.readUTF(), ActivityHistogram.readFrom(input));
+        }
+        return histograms;
+    }
+
+    /**
+     * The size of the buckets of a histogram.
+     */
+    public enum BucketSize {
+        /** Buckets of a week, starting on Monday (UTC). */
+        WEEK {
+            @Override
+            public int getBucket(final int commitTime) {
+                return (int) Math.floorDiv(Math.floorDiv(commitTime, SECONDS_PER_DAY) + DAYS_TO_MONDAY, DAYS_PER_WEEK);
+            }
+
+            @Override
+            public LocalDate getStartDate(final int bucket) {
+                return LocalDate.ofEpochDay((long) bucket * DAYS_PER_WEEK - DAYS_TO_MONDAY);
+            }
+        },
+        /** Buckets of a calendar month (UTC). */
+        MONTH {
+            @Override
+            public int getBucket(final int commitTime) {
+                LocalDate date = Instant.ofEpochSecond(commitTime).atOffset(ZoneOffset.UTC).toLocalDate();
+                return date.getYear() * MONTHS_PER_YEAR + date.getMonthValue() - 1;
+            }
+
+            @Override
+            public LocalDate getStartDate(final int bucket) {
+                return LocalDate.of(Math.floorDiv(bucket, MONTHS_PER_YEAR), Math.floorMod(bucket, MONTHS_PER_YEAR) + 1,
+                        1);
+            }
+        };
+
+        private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+        /** The epoch (1970-01-01) is a Thursday, the first week starts on Monday, 1969-12-29. */
+        private static final long DAYS_TO_MONDAY = 3;
+        private static final long DAYS_PER_WEEK = 7;
+        private static final int MONTHS_PER_YEAR = 12;
+
+        /**
+         * Returns the index of the bucket of the specified commit time.
+         *
+         * @param commitTime
+         *         the commit time in seconds since the epoch
+         *
+         * @return the index of the bucket
+         */
+        public abstract int getBucket(int commitTime);
+
+        /**
+         * Returns the first day of the specified bucket.
+         *
+         * @param bucket
+         *         the index of the bucket
+         *
+         * @return the first day of the bucket
+         */
+        public abstract LocalDate getStartDate(int bucket);
+    }
+}
@@ -0,0 +1,465 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * An append-only index of the files that have been changed by the commits of a job. The index answers the question
+ * "which files have been changed between commit A and commit B" on the controller, without walking the trees of the
+ * commits in the repository.
+ *
+ * <p>
+ * The index is stored in the folder of the job and consists of three files:
+ * </p>
+ * <ul>
+ *     <li>{@code paths.bin}: the dictionary of the paths, the ID of a path is its position in the dictionary</li>
+ *     <li>{@code changes.bin}: the IDs of the changed paths of all commits (as int values)</li>
+ *     <li>{@code commits.bin}: a table with an entry of fixed size for each commit (ID of the commit, offset and
+ *     number of its changes, ordinal of its first parent)</li>
+ * </ul>
+ *
+ * <p>
+ * Each commit gets an ordinal: its position in the commit table. The changes of a commit are the differences to its
+ * first parent, so the files that have been changed between two commits are the union of the changes of all commits
+ * on the first parent chain of the newer commit, up to the older commit. A query follows the parent ordinals of the
+ * commit table (the commits are appended in topological order, so a parent always has a lower ordinal than its
+ * children) and computes the union of the path IDs in a bit set. Commits that have been appended by other builds
+ * (e.g., before a force push) are not part of the chain, so they do not affect the result.
+ * </p>
+ *
+ * <p>
+ * New commits are appended to the files: the changes and the paths are written before the commit table, so an
+ * interrupted append leaves no commit entry that refers to missing changes. Incomplete trailing entries are
+ * truncated when the index is opened again.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class ChangedFilesIndex {
+    static final String INDEX_DIRECTORY = "git-forensics-changes";
+    private static final String PATHS_FILE = "paths.bin";
+    private static final String CHANGES_FILE = "changes.bin";
+    private static final String COMMITS_FILE = "commits.bin";
+
+    /** Size of an entry of the commit table: commit ID, offset of the changes, number of changes, parent ordinal. */
+    private static final int ENTRY_SIZE = Constants.OBJECT_ID_LENGTH + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Parent ordinal of a root commit. */
+    private static final int NO_PARENT = -1;
+    /** Parent ordinal of a commit whose parent is not part of the index. */
+    private static final int UNKNOWN_PARENT = -2;
+
+    private static final Map<Path, SoftReference<ChangedFilesIndex>> INDEXES = new HashMap<>();
+
+    private final Path directory;
+    private final List<String> paths = new ArrayList<>();
+    private final ObjectIntHashMap<String> pathIds = new ObjectIntHashMap<>();
+    private final ObjectIntHashMap<ObjectId> ordinals = new ObjectIntHashMap<>();
+    private final LongArrayList offsets = new LongArrayList();
+    private final IntArrayList counts = new IntArrayList();
+    private final IntArrayList parents = new IntArrayList();
+    private long pathsLength;
+    private long numberOfChanges;
+
+    /**
+     * Appends the changes of the new commits of the specified build to the index of its job. Commits that are already
+     * part of the index are skipped.
+     *
+     * @param build
+     *         the build that mined the commits
+     * @param delta
+     *         the changes of the new commits
+     * @param logger
+     *         the logger
+     */
+    public static void record(@CheckForNull final Run<?, ?> build, final CommitChanges delta,
+            final FilteredLog logger) {
+        if (build == null || delta.size() == 0) {
+            return;
+        }
+
+        Path directory = getDirectory(build.getParent());
+        try {
+            int appended = open(directory).append(delta);
+            logger.logInfo("-> indexed changed files of %d new commits", appended);
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Can't append the changed files to the index '%s'", directory);
+        }
+    }
+
+    /**
+     * Returns the files that have been changed between the commits of the specified builds of the same job. The
+     * commits are the latest mined commits of the builds.
+     *
+     * @param from
+     *         the older build, the commits up to the latest commit of this build are excluded
+     * @param to
+     *         the newer build, the commits up to the latest commit of this build are included
+     *
+     * @return the changed files, or empty if the index does not contain the commits of the builds or if the commit
+     *         of the older build is not an ancestor of the commit of the newer build
+     * @throws IOException
+     *         if the index could not be read
+     */
+    public static Optional<Set<String>> findChangedFiles(final Run<?, ?> from, final Run<?, ?> to)
+            throws IOException {
+        Optional<String> fromCommit = getLatestCommitId(from);
+        Optional<String> toCommit = getLatestCommitId(to);
+        if (!fromCommit.isPresent() || !toCommit.isPresent()) {
+            return Optional.empty();
+        }
+        return open(to.getParent()).getChangedFiles(fromCommit.get(), toCommit.get());
+    }
+
+    private static Optional<String> getLatestCommitId(final Run<?, ?> build) {
+        ForensicsBuildAction action = build.getAction(ForensicsBuildAction.class);
+        if (action == null) {
+            return Optional.empty();
+        }
+        return Optional.of(action.getResult().getLatestCommitId()).filter(StringUtils::isNotEmpty);
+    }
+
+    /**
+     * Opens the index of the specified job.
+     *
+     * @param job
+     *         the job
+     *
+     * @return the index
+     * @throws IOException
+     *         if the index could not be read
+     */
+    public static ChangedFilesIndex open(final Job<?, ?> job) throws IOException {
+        return open(getDirectory(job));
+    }
+
+    private static Path getDirectory(final Job<?, ?> job) {
+        return job.getRootDir().toPath().resolve(INDEX_DIRECTORY);
+    }
+
+    /**
+     * Opens the index in the specified directory. Opened indexes are cached as long as there is enough memory.
+     *
+     * @param directory
+     *         the directory of the index
+     *
+     * @return the index
+     * @throws IOException
+     *         if the index could not be read
+     */
+    @VisibleForTesting
+    static ChangedFilesIndex open(final Path directory) throws IOException {
+        synchronized (INDEXES) {
+            SoftReference<ChangedFilesIndex> reference = INDEXES.get(directory);
+            ChangedFilesIndex cached = reference == null ? null : reference.get();
+            if (cached != null) {
+                return cached;
+            }
+            ChangedFilesIndex index = new ChangedFilesIndex(directory);
+            INDEXES.put(directory, new SoftReference<>(index));
+            return index;
+        }
+    }
+
+    @VisibleForTesting
+    static void invalidate(final Path directory) {
+        synchronized (INDEXES) {
+            INDEXES.remove(directory);
+        }
+    }
+
+    private ChangedFilesIndex(final Path directory) throws IOException {
+        this.directory = directory;
+
+        readPaths();
+        readCommits();
+    }
+
+    private void readPaths() throws IOException {
+        Path file = directory.resolve(PATHS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        byte[] content = Files.readAllBytes(file);
+        try (ByteArrayInputStream bytes = new ByteArrayInputStream(content);
+                DataInputStream input = new DataInputStream(bytes)) {
+            while (bytes.available() > 0) {
+                addPath(input.readUTF());
+                pathsLength = content.length - bytes.available();
+            }
+        }
+        catch (EOFException exception) {
+            // ignore the incomplete path of an interrupted append, it will be truncated
+        }
+    }
+
+    private int addPath(final String path) {
+        int id = paths.size();
+        paths.add(path);
+        pathIds.put(path, id);
+        return id;
+    }
+
+    private void readCommits() throws IOException {
+        Path file = directory.resolve(COMMITS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        long existingChanges = getSize(CHANGES_FILE) / Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int size = (int) Math.min(channel.size() / ENTRY_SIZE, Integer.MAX_VALUE / ENTRY_SIZE);
+            MappedByteBuffer table = channel.map(MapMode.READ_ONLY, 0, (long) size * ENTRY_SIZE);
+            byte[] id = new byte[Constants.OBJECT_ID_LENGTH];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                table.get(id);
+                long offset = table.getLong();
+                int count = table.getInt();
+                int parent = table.getInt();
+                if (offset + count > existingChanges) {
+                    break; // changes of an interrupted append are incomplete
+                }
+                addCommit(ObjectId.fromRaw(id), offset, count, parent);
+                numberOfChanges = offset + count;
+            }
+        }
+    }
+
+    private void addCommit(final ObjectId commitId, final long offset, final int count, final int parent) {
+        ordinals.put(commitId, ordinals.size());
+        offsets.add(offset);
+        counts.add(count);
+        parents.add(parent);
+    }
+
+    private long getSize(final String fileName) throws IOException {
+        Path file = directory.resolve(fileName);
+        if (Files.exists(file)) {
+            return Files.size(file);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of commits in the index.
+     *
+     * @return the number of commits
+     */
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Returns whether the index contains the specified commit.
+     *
+     * @param commitId
+     *         the ID of the commit
+     *
+     * @return {@code true} if the commit is part of the index, {@code false} otherwise
+     */
+    public synchronized boolean contains(final String commitId) {
+        return ObjectId.isId(commitId) && ordinals.containsKey(ObjectId.fromString(commitId));
+    }
+
+    /**
+     * Appends the changes of the specified commits to the index. Commits that are already part of the index are
+     * skipped. The commits of the delta need to be in topological order, see {@link CommitChanges}.
+     *
+     * @param delta
+     *         the changes of the new commits
+     *
+     * @return the number of appended commits
+     * @throws IOException
+     *         if the index could not be written
+     */
+    synchronized int append(final CommitChanges delta) throws IOException {
+        Files.createDirectories(directory);
+
+        try (DataOutputStream pathsOutput = openForAppend(PATHS_FILE, pathsLength);
+                DataOutputStream changesOutput = openForAppend(CHANGES_FILE, numberOfChanges * Integer.BYTES);
+                DataOutputStream commitsOutput = openForAppend(COMMITS_FILE, (long) ordinals.size() * ENTRY_SIZE)) {
+            List<String> deltaPaths = delta.getPaths();
+            int[] ids = new int[deltaPaths.size()];
+            Arrays.fill(ids, -1);
+
+            List<ObjectId> commits = new ArrayList<>();
+            ObjectIntHashMap<ObjectId> appended = new ObjectIntHashMap<>();
+            List<long[]> entries = new ArrayList<>();
+            for (int commit = 0; commit < delta.size(); commit++) {
+                ObjectId commitId = ObjectId.fromString(delta.getCommits().get(commit));
+                if (ordinals.containsKey(commitId) || appended.containsKey(commitId)) {
+                    continue;
+                }
+                int[] changes = delta.getChanges(commit);
+                for (int change : changes) {
+                    if (ids[change] < 0) {
+                        ids[change] = getOrCreatePathId(deltaPaths.get(change), pathsOutput);
+                    }
+                    changesOutput.writeInt(ids[change]);
+                }
+                int parent = getParentOrdinal(delta.getParents().get(commit), appended);
+                appended.put(commitId, ordinals.size() + commits.size());
+                commits.add(commitId);
+                entries.add(new long[] {numberOfChanges, changes.length, parent});
+                numberOfChanges += changes.length;
+            }
+
+            pathsOutput.flush();
+            pathsLength += pathsOutput.size();
+            changesOutput.flush();
+            for (int i = 0; i < commits.size(); i++) {
+                long[] entry = entries.get(i);
+                commits.get(i).copyRawTo(commitsOutput);
+                commitsOutput.writeLong(entry[0]);
+                commitsOutput.writeInt((int) entry[1]);
+                commitsOutput.writeInt((int) entry[2]);
+                addCommit(commits.get(i), entry[0], (int) entry[1], (int) entry[2]);
+            }
+            return commits.size();
+        }
+        catch (IOException exception) {
+            invalidate(directory);
+            throw exception;
+        }
+    }
+
+    private int getParentOrdinal(final String parentId, final ObjectIntHashMap<ObjectId> appended) {
+        if (StringUtils.isEmpty(parentId)) {
+            return NO_PARENT;
+        }
+        ObjectId parent = ObjectId.fromString(parentId);
+        return ordinals.getIfAbsent(parent, appended.getIfAbsent(parent, UNKNOWN_PARENT));
+    }
+
+    private int getOrCreatePathId(final String path, final DataOutputStream pathsOutput) throws IOException {
+        int id = pathIds.getIfAbsent(path, -1);
+        if (id >= 0) {
+            return id;
+        }
+        pathsOutput.writeUTF(path);
+        return addPath(path);
+    }
+
+    /**
+     * Opens the specified file for appending. The file is truncated to the specified length first, so the incomplete
+     * entries of an interrupted append are overwritten.
+     */
+    private DataOutputStream openForAppend(final String fileName, final long length) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(length);
+            channel.position(length);
+        }
+        catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+        return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    }
+
+    /**
+     * Returns the files that have been changed by the commits after the specified commit up to (and including) the
+     * second specified commit. The commits are the commits on the first parent chain of the newer commit, so the
+     * older commit needs to be a first parent ancestor of the newer commit.
+     *
+     * @param fromCommitId
+     *         the ID of the older commit, its changes are excluded (empty to start with the root commit)
+     * @param toCommitId
+     *         the ID of the newer commit, its changes are included
+     *
+     * @return the changed files, or empty if the index does not contain the commits or if the older commit is not an
+     *         ancestor of the newer commit
+     * @throws IOException
+     *         if the index could not be read
+     */
+    public synchronized Optional<Set<String>> getChangedFiles(final String fromCommitId, final String toCommitId)
+            throws IOException {
+        int from = StringUtils.isEmpty(fromCommitId) ? NO_PARENT : getOrdinal(fromCommitId);
+        int to = getOrdinal(toCommitId);
+        if (to < 0 || (from < 0 && StringUtils.isNotEmpty(fromCommitId))) {
+            return Optional.empty();
+        }
+
+        BitSet changedPaths = new BitSet(paths.size());
+        if (to != from) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(CHANGES_FILE), StandardOpenOption.READ)) {
+                for (int ordinal = to; ordinal != from; ordinal = parents.get(ordinal)) {
+                    if (ordinal < 0) {
+                        return Optional.empty(); // the chain ends before the older commit has been reached
+                    }
+                    readChanges(channel, ordinal, changedPaths);
+                }
+            }
+        }
+
+        Set<String> files = new TreeSet<>();
+        for (int id = changedPaths.nextSetBit(0); id >= 0; id = changedPaths.nextSetBit(id + 1)) {
+            files.add(paths.get(id));
+        }
+        return Optional.of(files);
+    }
+
+    private void readChanges(final FileChannel channel, final int ordinal, final BitSet changedPaths)
+            throws IOException {
+        ByteBuffer changes = ByteBuffer.allocate(counts.get(ordinal) * Integer.BYTES);
+        long position = offsets.get(ordinal) * Integer.BYTES;
+        while (changes.hasRemaining()) {
+            int read = channel.read(changes, position + changes.position());
+            if (read < 0) {
+                throw new EOFException("Changes of commit " + ordinal + " are incomplete in " + directory);
+            }
+        }
+        changes.flip();
+        while (changes.hasRemaining()) {
+            changedPaths.set(changes.getInt());
+        }
+    }
+
+    private int getOrdinal(final String commitId) {
+        if (!ObjectId.isId(commitId)) {
+            return -1;
+        }
+        return ordinals.getIfAbsent(ObjectId.fromString(commitId), -1);
+    }
+}
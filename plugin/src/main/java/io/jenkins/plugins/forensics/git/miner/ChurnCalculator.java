@@ -0,0 +1,227 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.HistogramDiff;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Computes the churn of a changed file, i.e. the number of lines that have been added and deleted. The churn is
+ * computed from the edit list of the two blobs, the textual diff output is not created. In order to bound the cost of
+ * the diff, blobs that are larger than the configured limit or that contain binary content are skipped without
+ * computing an edit list. The size of a blob is obtained from the object database before the blob is loaded.
+ *
+ * <p>
+ * The new version of a file is typically the old version of the next change of the same file. So the texts of the
+ * recently loaded blobs are cached (up to a configured number of bytes): the blob is neither loaded nor split into
+ * lines a second time.
+ * </p>
+ *
+ * <p>
+ * The limits can be configured using the system properties {@code
+ * io.jenkins.plugins.forensics.git.miner.ChurnCalculator.maxBlobSize} (in KB, default 512, 0 disables the churn) and
+ * {@code io.jenkins.plugins.forensics.git.miner.ChurnCalculator.cacheSize} (in MB, default 16) on the agent.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class ChurnCalculator {
+    private static final int KB = 1024;
+    private static final int MAX_BLOB_SIZE
+            = SystemProperties.getInteger(ChurnCalculator.class.getName() + ".maxBlobSize", 512);
+    private static final int CACHE_SIZE
+            = SystemProperties.getInteger(ChurnCalculator.class.getName() + ".cacheSize", 16);
+
+    private final ObjectReader reader;
+    private final long maxBlobSize;
+    private final TextCache cache;
+    private final HistogramDiff diff = new HistogramDiff();
+
+    private int binaryFiles;
+    private int largeFiles;
+
+    ChurnCalculator(final ObjectReader reader) {
+        this(reader, (long) MAX_BLOB_SIZE * KB, (long) CACHE_SIZE * KB * KB);
+    }
+
+    @VisibleForTesting
+    ChurnCalculator(final ObjectReader reader, final long maxBlobSize, final long cacheSize) {
+        this.reader = reader;
+        this.maxBlobSize = maxBlobSize;
+        cache = new TextCache(cacheSize);
+    }
+
+    /**
+     * Computes the churn of the specified change.
+     *
+     * @param change
+     *         the changed file
+     *
+     * @return the number of added and deleted lines, {@link Churn#NONE} if the file has been skipped
+     * @throws IOException
+     *         if the blobs could not be read
+     */
+    Churn compute(final FileChange change) throws IOException {
+        if (maxBlobSize <= 0) {
+            return Churn.NONE;
+        }
+        if (isTooLarge(change.getOldId()) || isTooLarge(change.getNewId())) {
+            largeFiles++;
+            return Churn.NONE;
+        }
+
+        RawText oldText = read(change.getOldId());
+        RawText newText = read(change.getNewId());
+        if (oldText == null || newText == null) {
+            binaryFiles++;
+            return Churn.NONE;
+        }
+
+        EditList edits = diff.diff(RawTextComparator.DEFAULT, oldText, newText);
+        int added = 0;
+        int deleted = 0;
+        for (Edit edit : edits) {
+            deleted += edit.getLengthA();
+            added += edit.getLengthB();
+        }
+        return new Churn(added, deleted);
+    }
+
+    private boolean isTooLarge(final ObjectId blob) throws IOException {
+        return !ObjectId.zeroId().equals(blob) && !cache.contains(blob)
+                && reader.getObjectSize(blob, Constants.OBJ_BLOB) > maxBlobSize;
+    }
+
+    /**
+     * Returns the text of the specified blob.
+     *
+     * @return the text, or {@code null} if the blob contains binary content
+     */
+    @CheckForNull
+    private RawText read(final ObjectId blob) throws IOException {
+        if (ObjectId.zeroId().equals(blob)) {
+            return RawText.EMPTY_TEXT;
+        }
+        if (cache.contains(blob)) {
+            return cache.get(blob);
+        }
+
+        byte[] content = reader.open(blob, Constants.OBJ_BLOB)
+                .getCachedBytes((int) Math.min(maxBlobSize, Integer.MAX_VALUE));
+        RawText text = RawText.isBinary(content) ? null : new RawText(content);
+        cache.put(blob.copy(), text, content.length);
+        return text;
+    }
+
+    /**
+     * Returns the number of files that have been skipped since they contain binary content.
+     *
+     * @return the number of binary files
+     */
+    int getBinaryFiles() {
+        return binaryFiles;
+    }
+
+    /**
+     * Returns the number of files that have been skipped since they exceed the size limit.
+     *
+     * @return the number of large files
+     */
+    int getLargeFiles() {
+        return largeFiles;
+    }
+
+    int getCacheHits() {
+        return cache.hits;
+    }
+
+    /**
+     * The number of added and deleted lines of a change.
+     */
+    static class Churn {
+        static final Churn NONE = new Churn(0, 0);
+
+        private final int added;
+        private final int deleted;
+
+        Churn(final int added, final int deleted) {
+            this.added = added;
+            this.deleted = deleted;
+        }
+
+        int getAdded() {
+            return added;
+        }
+
+        int getDeleted() {
+            return deleted;
+        }
+    }
+
+    /**
+     * Caches the texts of the recently loaded blobs, bounded by the total size of the blobs. Binary blobs are cached
+     * as well (without a text), so they are not loaded again. The least recently used blobs are evicted first.
+     */
+    private static class TextCache {
+        private final long capacity;
+        private final Map<ObjectId, CachedText> texts = new LinkedHashMap<>(16, 0.75f, true);
+        private long size;
+        private int hits;
+
+        TextCache(final long capacity) {
+            this.capacity = capacity;
+        }
+
+        boolean contains(final ObjectId blob) {
+            return texts.containsKey(blob);
+        }
+
+        @CheckForNull
+        RawText get(final ObjectId blob) {
+            hits++;
+            return texts.get(blob).text;
+        }
+
+        void put(final ObjectId blob, @CheckForNull final RawText text, final int bytes) {
+            if (bytes > capacity) {
+                return;
+            }
+            texts.put(blob, new CachedText(text, bytes));
+            size += bytes;
+
+            Iterator<CachedText> eldest = texts.values().iterator();
+            while (size > capacity && eldest.hasNext()) {
+                size -= eldest.next().bytes;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * The text of a cached blob.
+     */
+    private static class CachedText {
+        @CheckForNull
+        private final RawText text;
+        private final int bytes;
+
+        CachedText(@CheckForNull final RawText text, final int bytes) {
+            this.text = text;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Run;
+
+/**
+ * Stores the {@link OwnershipIndex} of the files of a build.
+ *
+ * @author Ullrich Hafner
+ */
+public class CodeOwnershipAction extends MinedIndexAction<OwnershipIndex> {
+    static final String OWNERSHIP_FILE = "git-forensics-ownership.bin";
+
+    CodeOwnershipAction(final OwnershipIndex index) {
+        super(index);
+    }
+
+    /**
+     * Records the ownership index of the specified build. The specified index contains only the commits that are new
+     * in this build. If the index of the previous build contains all commits up to the base commit of the new index,
+     * then both indexes are merged. Otherwise, the index of the build contains the new commits only.
+     *
+     * @param build
+     *         the build to attach the index to
+     * @param delta
+     *         the index of the new commits
+     * @param logger
+     *         the logger
+     *
+     * @return the recorded index
+     */
+    public static OwnershipIndex record(@CheckForNull final Run<?, ?> build, final OwnershipIndex delta,
+            final FilteredLog logger) {
+        OwnershipIndex index = record(build, delta, CodeOwnershipAction.class, CodeOwnershipAction::new, logger);
+        logger.logInfo("-> recorded owners of %d files", index.size());
+        return index;
+    }
+
+    @Override
+    protected String getFileName() {
+        return OWNERSHIP_FILE;
+    }
+
+    @Override
+    protected OwnershipIndex read(final DataInput input) throws IOException {
+        return OwnershipIndex.readFrom(input);
+    }
+}
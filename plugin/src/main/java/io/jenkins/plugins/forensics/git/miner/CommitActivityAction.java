@@ -0,0 +1,101 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Optional;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Stores the {@link ActivityHistograms} of the repository and the files of a build.
+ *
+ * @author Ullrich Hafner
+ */
+public class CommitActivityAction extends MinedIndexAction<ActivityHistograms> {
+    static final String ACTIVITY_FILE = "git-forensics-activity.bin";
+
+    @CheckForNull
+    private final BucketSize bucketSize; // might be null for builds of previous versions
+
+    CommitActivityAction(final ActivityHistograms histograms) {
+        super(histograms);
+
+        bucketSize = histograms.getBucketSize();
+    }
+
+    /**
+     * Records the activity histograms of the specified build. The specified histograms contain only the commits that
+     * are new in this build. If the histograms of the previous build contain all commits up to the base commit of the
+     * new histograms, then both histograms are merged.
+     *
+     * @param build
+     *         the build to attach the histograms to
+     * @param delta
+     *         the histograms of the new commits
+     * @param logger
+     *         the logger
+     *
+     * @return the recorded histograms
+     */
+    public static ActivityHistograms record(@CheckForNull final Run<?, ?> build, final ActivityHistograms delta,
+            final FilteredLog logger) {
+        ActivityHistograms histograms = record(build, delta, CommitActivityAction.class, CommitActivityAction::new,
+                logger);
+        logger.logInfo("-> recorded commit activity per %s of %d files",
+                histograms.getBucketSize().name().toLowerCase(Locale.ENGLISH), histograms.size());
+        return histograms;
+    }
+
+    /**
+     * Returns the bucket size of the histograms of the latest previous build of the specified build that has mined the
+     * repository. Older builds are not inspected, since the histograms of the current build are merged with the
+     * histograms of this build only.
+     *
+     * @param build
+     *         the build to start the search with
+     *
+     * @return the bucket size, or empty if the previous build that has mined the repository has not recorded
+     *         histograms
+     */
+    public static Optional<BucketSize> findPreviousBucketSize(@CheckForNull final Run<?, ?> build) {
+        if (build == null) {
+            return Optional.empty();
+        }
+        for (Run<?, ?> previous = build.getPreviousBuild(); previous != null; previous = previous.getPreviousBuild()) {
+            if (previous.getAction(ForensicsBuildAction.class) != null) {
+                return Optional.ofNullable(previous.getAction(CommitActivityAction.class))
+                        .flatMap(CommitActivityAction::getBucketSize);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the size of the buckets of the histograms.
+     *
+     * @return the bucket size, or empty if the histograms could not be read
+     */
+    public Optional<BucketSize> getBucketSize() {
+        if (bucketSize != null) {
+            return Optional.of(bucketSize);
+        }
+        return getIndex().map(ActivityHistograms::getBucketSize);
+    }
+
+    @Override
+    protected String getFileName() {
+        return ACTIVITY_FILE;
+    }
+
+    @Override
+    protected ActivityHistograms read(final DataInput input) throws IOException {
+        return ActivityHistograms.readFrom(input);
+    }
+}
@@ -0,0 +1,180 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * The files that have been changed by the mined commits. The paths are stored as IDs of a dictionary, the changes of a
+ * commit are a slice of a primitive array of path IDs. The changes are recorded on the agent in the commit loop of the
+ * miner and appended to the {@link ChangedFilesIndex} of the job on the controller.
+ *
+ * @author Ullrich Hafner
+ */
+public class CommitChanges implements Serializable {
+    private static final long serialVersionUID = 3418563393208542707L;
+    private static final int FORMAT_VERSION = 1;
+
+    private final List<String> commits = new ArrayList<>();
+    /** The first parent of each commit, empty for a root commit. */
+    private final List<String> parents = new ArrayList<>();
+    /** The position of the first change of each commit in {@link #changes}. */
+    private final IntArrayList offsets = new IntArrayList();
+    private final IntArrayList changes = new IntArrayList();
+    private final List<String> paths = new ArrayList<>();
+    private transient ObjectIntHashMap<String> pathIds = new ObjectIntHashMap<>();
+
+    /**
+     * Starts the changes of a new commit. The changes are the differences between the commit and its first parent. The
+     * commits need to be started in topological order, i.e. a parent needs to be started before its children.
+     *
+     * @param commitId
+     *         the ID of the commit
+     * @param parentId
+     *         the ID of the first parent of the commit, empty for a root commit
+     */
+    void startCommit(final String commitId, final String parentId) {
+        commits.add(commitId);
+        parents.add(parentId);
+        offsets.add(changes.size());
+    }
+
+    /**
+     * Records a changed file of the current commit.
+     *
+     * @param path
+     *         the path of the added, modified, or deleted file
+     */
+    void addFile(final String path) {
+        if (pathIds == null) {
+            pathIds = new ObjectIntHashMap<>();
+            for (int i = 0; i < paths.size(); i++) {
+                pathIds.put(paths.get(i), i);
+            }
+        }
+        int id = pathIds.getIfAbsent(path, -1);
+        if (id < 0) {
+            id = paths.size();
+            paths.add(path);
+            pathIds.put(path, id);
+        }
+        changes.add(id);
+    }
+
+    /**
+     * Returns the number of commits.
+     *
+     * @return the number of commits
+     */
+    public int size() {
+        return commits.size();
+    }
+
+    public List<String> getCommits() {
+        return Collections.unmodifiableList(commits);
+    }
+
+    /**
+     * Returns the first parents of the commits, see {@link #getCommits()}.
+     *
+     * @return the IDs of the first parents, an empty string for a root commit
+     */
+    public List<String> getParents() {
+        return Collections.unmodifiableList(parents);
+    }
+
+    /**
+     * Returns the dictionary of the paths: the ID of a path is its position in the list.
+     *
+     * @return the paths
+     */
+    public List<String> getPaths() {
+        return Collections.unmodifiableList(paths);
+    }
+
+    /**
+     * Returns the IDs of the paths that have been changed by the specified commit.
+     *
+     * @param commit
+     *         the position of the commit, see {@link #getCommits()}
+     *
+     * @return the IDs of the changed paths
+     */
+    public int[] getChanges(final int commit) {
+        int from = offsets.get(commit);
+        int to = commit + 1 < offsets.size() ? offsets.get(commit + 1) : changes.size();
+        int[] ids = new int[to - from];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = changes.get(from + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the changes in a compact binary format.
+     *
+     * @param output
+     *         the output to write to
+     *
+     * @throws IOException
+     *         if the changes could not be written
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(commits.size());
+        for (int i = 0; i < commits.size(); i++) {
+            output.writeUTF(commits.get(i));
+            output.writeUTF(parents.get(i));
+            output.writeInt(offsets.get(i));
+        }
+        output.writeInt(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            output.writeInt(changes.get(i));
+        }
+        output.writeInt(paths.size());
+        for (String path : paths) {
+            output.writeUTF(path);
+        }
+    }
+
+    /**
+     * Reads the changes that have been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the changes
+     * @throws IOException
+     *         if the changes could not be read
+     */
+    public static CommitChanges readFrom(final DataInput input) throws IOException {
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format of commit changes: " + version);
+        }
+        CommitChanges commitChanges = new CommitChanges();
+        int commitCount = input.readInt();
+        for (int i = 0; i < commitCount; i++) {
+            commitChanges.commits.add(input.readUTF());
+            commitChanges.parents.add(input.readUTF());
+            commitChanges.offsets.add(input.readInt());
+        }
+        int changeCount = input.readInt();
+        for (int i = 0; i < changeCount; i++) {
+            commitChanges.changes.add(input.readInt());
+        }
+        int pathCount = input.readInt();
+        for (int i = 0; i < pathCount; i++) {
+            commitChanges.paths.add(input.readUTF());
+        }
+        commitChanges.pathIds = null; // rebuilt on demand
+        return commitChanges;
+    }
+}
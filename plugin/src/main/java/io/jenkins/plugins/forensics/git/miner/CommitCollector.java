@@ -1,50 +1,85 @@
 package io.jenkins.plugins.forensics.git.miner;
 
 import java.io.IOException;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.LogCommand;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 /**
- * Collects all commits for a git repository.
+ * Collects all commits for a git repository that have not been mined yet. All commits that are reachable from the
+ * latest commit of the previous mining run are skipped.
  *
  * @author Giulia Del Bravo
  */
 class CommitCollector {
-    private final Repository repository;
-    private final Git git;
-    //TODO Assign later when incremental analysis is implemented.
-    private final String latestRevisionOfPreviousCommit;
-
-    CommitCollector(final Repository repository, final Git git, final String latestCommitId) {
-        this.repository = repository;
-        this.git = git;
-        latestRevisionOfPreviousCommit = latestCommitId;
+    private final ObjectReader reader;
+    private final String latestCommitId;
+
+    CommitCollector(final ObjectReader reader, final String latestCommitId) {
+        this.reader = reader;
+        this.latestCommitId = latestCommitId;
     }
 
-    List<RevCommit> findAllCommits() throws IOException, GitAPIException {
-        ObjectId headCommit = repository.resolve(Constants.HEAD);
-        LogCommand logCommand = git.log().add(headCommit);
-        Iterable<RevCommit> commits = logCommand.call();
-        Iterator<RevCommit> iterator = commits.iterator();
-        RevCommit next;
-        List<RevCommit> newCommits = new LinkedList<>();
-        while (iterator.hasNext()) {
-            next = iterator.next();
-            String commitId = next.getId().getName();
-            if (commitId.equals(latestRevisionOfPreviousCommit)) {
-                break;
+    /**
+     * Returns the latest commit of the previous mining run, if this commit is still part of the repository. If the
+     * commit is not available anymore (e.g., after a force push), then all commits of the repository will be mined
+     * again, so the results of the previous run must not be merged with the new results.
+     *
+     * @return the latest commit of the previous mining run, or an empty string if all commits will be mined
+     * @throws IOException
+     *         if the object database could not be read
+     */
+    String findBaseCommitId() throws IOException {
+        ObjectId latestCommit = findLatestCommit();
+        return latestCommit == null ? StringUtils.EMPTY : latestCommitId;
+    }
+
+    /**
+     * Returns all commits that are reachable from the specified head commit but not from the latest commit of the
+     * previous mining run. The commits are sorted in topological order: the children of a commit are listed before
+     * the commit.
+     *
+     * @param headCommit
+     *         the head commit
+     *
+     * @return the new commits
+     * @throws IOException
+     *         if the commits could not be read
+     */
+    List<RevCommit> findAllCommits(final ObjectId headCommit) throws IOException {
+        List<RevCommit> newCommits = new ArrayList<>();
+        try (RevWalk walk = new RevWalk(reader)) {
+            walk.sort(RevSort.TOPO);
+            walk.markStart(walk.parseCommit(headCommit));
+            ObjectId latestCommit = findLatestCommit();
+            if (latestCommit != null) {
+                walk.markUninteresting(walk.parseCommit(latestCommit));
+            }
+            for (RevCommit next : walk) {
+                newCommits.add(next);
             }
-            newCommits.add(next);
         }
         return newCommits;
     }
+
+    @CheckForNull
+    private ObjectId findLatestCommit() throws IOException {
+        if (!ObjectId.isId(latestCommitId)) {
+            return null;
+        }
+        ObjectId latestCommit = ObjectId.fromString(latestCommitId);
+        if (reader.has(latestCommit, Constants.OBJ_COMMIT)) {
+            return latestCommit;
+        }
+        return null;
+    }
 }
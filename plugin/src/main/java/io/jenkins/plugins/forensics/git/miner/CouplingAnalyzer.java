@@ -0,0 +1,218 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Counts how often pairs of files are changed in the same commit. Files are mapped to int IDs, a pair of files is
+ * stored as a long key that packs the IDs of both files, so the counters of all pairs are stored in a single primitive
+ * map.
+ *
+ * <p>
+ * The number of pairs is quadratic in the number of files of a commit. So commits that change more files than the
+ * configured limit (e.g., a reformatting of the whole code base) are skipped. Additionally, the number of counted pairs
+ * is bounded: when the limit is reached, the rarely coupled pairs are pruned (lossy counting). The pruning threshold
+ * is raised until at most half of the limit remains, so frequently coupled pairs survive while the memory of the
+ * analyzer stays fixed.
+ * </p>
+ *
+ * <p>
+ * The counters are stored in a {@link TemporalCoupling} index that is merged with the index of the previous build, see
+ * {@link #addAll(TemporalCoupling, Set)}.
+ * </p>
+ *
+ * <p>
+ * The limits can be configured using the system properties {@code
+ * io.jenkins.plugins.forensics.git.miner.CouplingAnalyzer.maxFilesPerCommit} (default 100), {@code
+ * io.jenkins.plugins.forensics.git.miner.CouplingAnalyzer.maxPairs} (default 1,000,000), and {@code
+ * io.jenkins.plugins.forensics.git.miner.CouplingAnalyzer.topPairs} (number of reported pairs, default 100). The
+ * limits apply to the mining on the agent and to the merging of the indexes on the controller.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class CouplingAnalyzer {
+    private static final int MAX_FILES_PER_COMMIT
+            = SystemProperties.getInteger(CouplingAnalyzer.class.getName() + ".maxFilesPerCommit", 100);
+    private static final int MAX_PAIRS
+            = SystemProperties.getInteger(CouplingAnalyzer.class.getName() + ".maxPairs", 1_000_000);
+    static final int TOP_PAIRS = SystemProperties.getInteger(CouplingAnalyzer.class.getName() + ".topPairs", 100);
+
+    private final int maxFilesPerCommit;
+    private final int maxPairs;
+
+    private final ObjectIntHashMap<String> fileIds = new ObjectIntHashMap<>();
+    private final List<String> files = new ArrayList<>();
+    private final IntIntHashMap commitsPerFile = new IntIntHashMap();
+    private final Set<String> deletedFiles = new HashSet<>();
+    private MutableLongIntMap pairs = new LongIntHashMap();
+
+    private int skippedCommits;
+    private int prunedPairs;
+    private int threshold;
+
+    /**
+     * Creates a new instance of {@link CouplingAnalyzer} with the limits of the system properties.
+     */
+    CouplingAnalyzer() {
+        this(MAX_FILES_PER_COMMIT, MAX_PAIRS);
+    }
+
+    /**
+     * Creates a new instance of {@link CouplingAnalyzer}.
+     *
+     * @param maxFilesPerCommit
+     *         commits that change more files will be skipped
+     * @param maxPairs
+     *         the maximum number of pairs to count
+     */
+    CouplingAnalyzer(final int maxFilesPerCommit, final int maxPairs) {
+        this.maxFilesPerCommit = maxFilesPerCommit;
+        this.maxPairs = Math.max(maxPairs, 2);
+    }
+
+    /**
+     * Inspects the files of a commit.
+     *
+     * @param changedFiles
+     *         the files that have been changed by the commit
+     */
+    void inspect(final Collection<String> changedFiles) {
+        if (changedFiles.size() > maxFilesPerCommit) {
+            skippedCommits++;
+            return;
+        }
+
+        int[] ids = new int[changedFiles.size()];
+        int index = 0;
+        for (String file : changedFiles) {
+            int id = getFileId(file);
+            ids[index++] = id;
+            commitsPerFile.addToValue(id, 1);
+        }
+        Arrays.sort(ids);
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = i + 1; j < ids.length; j++) {
+                pairs.addToValue(TemporalCoupling.pack(ids[i], ids[j]), 1);
+            }
+        }
+        if (pairs.size() > maxPairs) {
+            prune();
+        }
+    }
+
+    private int getFileId(final String file) {
+        int id = fileIds.getIfAbsent(file, -1);
+        if (id < 0) {
+            id = files.size();
+            files.add(file);
+            fileIds.put(file, id);
+        }
+        return id;
+    }
+
+    /**
+     * Records that the specified file has been deleted. When merged with the index of the previous build, then the
+     * pairs of the file in the previous index are removed.
+     *
+     * @param file
+     *         the deleted file
+     */
+    void deleteFile(final String file) {
+        deletedFiles.add(file);
+    }
+
+    /**
+     * Adds the counters of the specified index.
+     *
+     * @param index
+     *         the index to add
+     * @param excludedFiles
+     *         files whose counters should be skipped
+     */
+    void addAll(final TemporalCoupling index, final Set<String> excludedFiles) {
+        int[] mapping = new int[index.getNumberOfFiles()];
+        index.forEachFile((position, file, commits) -> {
+            if (excludedFiles.contains(file)) {
+                mapping[position] = -1;
+            }
+            else {
+                mapping[position] = getFileId(file);
+                commitsPerFile.addToValue(mapping[position], commits);
+            }
+        });
+        index.forEachPair((first, second, sharedCommits) -> {
+            int firstId = mapping[first];
+            int secondId = mapping[second];
+            if (firstId >= 0 && secondId >= 0) {
+                pairs.addToValue(TemporalCoupling.pack(Math.min(firstId, secondId), Math.max(firstId, secondId)),
+                        sharedCommits);
+            }
+        });
+        skippedCommits += index.getSkippedCommits();
+        if (pairs.size() > maxPairs) {
+            prune();
+        }
+    }
+
+    private void prune() {
+        int size = pairs.size();
+        while (pairs.size() > maxPairs / 2) {
+            threshold++;
+            int minimum = threshold;
+            pairs = pairs.reject((pair, count) -> count <= minimum);
+        }
+        prunedPairs += size - pairs.size();
+    }
+
+    int getSkippedCommits() {
+        return skippedCommits;
+    }
+
+    int getPrunedPairs() {
+        return prunedPairs;
+    }
+
+    int getPairs() {
+        return pairs.size();
+    }
+
+    /**
+     * Returns the counters of this analyzer as an index.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous index, all commits up to this commit are not part of the index (empty
+     *         if the index contains all commits)
+     * @param latestCommitId
+     *         the latest commit of the index
+     *
+     * @return the temporal coupling of the files
+     */
+    TemporalCoupling getCoupling(final String baseCommitId, final String latestCommitId) {
+        int[] commits = new int[files.size()];
+        commitsPerFile.forEachKeyValue((id, count) -> commits[id] = count);
+        long[] keys = new long[pairs.size()];
+        int[] counts = new int[keys.length];
+        int[] position = {0};
+        pairs.forEachKeyValue((pair, count) -> {
+            keys[position[0]] = pair;
+            counts[position[0]] = count;
+            position[0]++;
+        });
+        TemporalCoupling coupling = new TemporalCoupling(baseCommitId, latestCommitId, files.toArray(new String[0]),
+                commits, keys, counts, skippedCommits);
+        coupling.addDeletedFiles(deletedFiles);
+        return coupling;
+    }
+}
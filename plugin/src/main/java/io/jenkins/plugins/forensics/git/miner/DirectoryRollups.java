@@ -0,0 +1,240 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import io.jenkins.plugins.forensics.git.util.HyperLogLog;
+
+/**
+ * The statistics of all directories of a repository. In the exact mode, the authors of all directories are stored as
+ * int IDs, the distinct authors of a directory are stored in a bitset. In the approximate mode, the distinct authors of
+ * a directory are stored in a {@link HyperLogLog} sketch of constant size, the authors themselves are not stored.
+ *
+ * @author Ullrich Hafner
+ * @see DirectoryTree
+ */
+public class DirectoryRollups implements MinedIndex<DirectoryRollups>, Serializable {
+    private static final long serialVersionUID = 2816624404620497232L;
+    private static final int FORMAT_VERSION = 1;
+
+    private final String baseCommitId;
+    private final String latestCommitId;
+    private final List<String> authors;
+    private final Map<String, DirectoryStatistics> directories = new HashMap<>();
+
+    /**
+     * Creates a new empty instance of {@link DirectoryRollups}.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous rollups, all commits up to this commit are not part of these rollups
+     *         (empty if the rollups contain all commits)
+     * @param latestCommitId
+     *         the latest commit of these rollups
+     */
+    public DirectoryRollups(final String baseCommitId, final String latestCommitId) {
+        this(baseCommitId, latestCommitId, new ArrayList<>());
+    }
+
+    DirectoryRollups(final String baseCommitId, final String latestCommitId, final List<String> authors) {
+        this.baseCommitId = baseCommitId;
+        this.latestCommitId = latestCommitId;
+        this.authors = authors;
+    }
+
+    void add(final DirectoryStatistics statistics) {
+        directories.put(statistics.getPath(), statistics);
+    }
+
+    @Override
+    public String getBaseCommitId() {
+        return baseCommitId;
+    }
+
+    @Override
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    /**
+     * Returns the number of directories.
+     *
+     * @return the number of directories
+     */
+    @Override
+    public int size() {
+        return directories.size();
+    }
+
+    public Collection<DirectoryStatistics> getDirectories() {
+        return Collections.unmodifiableCollection(directories.values());
+    }
+
+    /**
+     * Returns the statistics of the specified directory.
+     *
+     * @param path
+     *         the path of the directory, an empty string for the root of the repository
+     *
+     * @return the statistics of the directory, or empty if the directory does not exist
+     */
+    public Optional<DirectoryStatistics> get(final String path) {
+        return Optional.ofNullable(directories.get(path));
+    }
+
+    /**
+     * Creates new rollups that contain the commits of the specified previous rollups and the commits of these
+     * rollups. The directories and files are taken from these rollups, directories that do not exist anymore are
+     * removed. If the authors of a directory have been counted in different modes (exact and approximate), then only
+     * the authors of these rollups are retained.
+     *
+     * @param previous
+     *         the rollups of the previous build
+     *
+     * @return the merged rollups
+     */
+    @Override
+    public DirectoryRollups merge(final DirectoryRollups previous) {
+        List<String> mergedAuthors = new ArrayList<>(authors);
+        ObjectIntHashMap<String> ids = new ObjectIntHashMap<>(mergedAuthors.size());
+        for (int i = 0; i < mergedAuthors.size(); i++) {
+            ids.put(mergedAuthors.get(i), i);
+        }
+        int[] mapping = new int[previous.authors.size()];
+        for (int i = 0; i < mapping.length; i++) {
+            String author = previous.authors.get(i);
+            int id = ids.getIfAbsent(author, -1);
+            if (id < 0) {
+                id = mergedAuthors.size();
+                mergedAuthors.add(author);
+                ids.put(author, id);
+            }
+            mapping[i] = id;
+        }
+
+        DirectoryRollups merged = new DirectoryRollups(previous.baseCommitId, latestCommitId, mergedAuthors);
+        for (DirectoryStatistics current : directories.values()) {
+            DirectoryStatistics old = previous.directories.get(current.getPath());
+            if (old == null) {
+                merged.add(current);
+            }
+            else {
+                merged.add(merge(current, old, mapping));
+            }
+        }
+        return merged;
+    }
+
+    private DirectoryStatistics merge(final DirectoryStatistics current, final DirectoryStatistics old,
+            final int[] mapping) {
+        int commits = current.getNumberOfCommits() + old.getNumberOfCommits();
+        int lastModification = Math.max(current.getLastModificationTime(), old.getLastModificationTime());
+
+        HyperLogLog currentSketch = current.getAuthorSketch();
+        if (currentSketch != null) {
+            HyperLogLog mergedSketch = currentSketch.copy();
+            HyperLogLog oldSketch = old.getAuthorSketch();
+            if (oldSketch != null && oldSketch.getPrecision() == mergedSketch.getPrecision()) {
+                mergedSketch.merge(oldSketch);
+            }
+            return new DirectoryStatistics(current.getPath(), current.getNumberOfFiles(), commits, lastModification,
+                    mergedSketch);
+        }
+
+        BitSet mergedIds = (BitSet) current.getAuthors().clone();
+        if (!old.isApproximate()) {
+            BitSet oldIds = old.getAuthors();
+            for (int id = oldIds.nextSetBit(0); id >= 0; id = oldIds.nextSetBit(id + 1)) {
+                mergedIds.set(mapping[id]);
+            }
+        }
+        return new DirectoryStatistics(current.getPath(), current.getNumberOfFiles(), commits, lastModification,
+                mergedIds);
+    }
+
+    @Override
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(baseCommitId);
+        output.writeUTF(latestCommitId);
+        output.writeInt(authors.size());
+        for (String author : authors) {
+            output.writeUTF(author);
+        }
+        output.writeInt(directories.size());
+        for (DirectoryStatistics directory : directories.values()) {
+            output.writeUTF(directory.getPath());
+            output.writeInt(directory.getNumberOfFiles());
+            output.writeInt(directory.getNumberOfCommits());
+            output.writeInt(directory.getLastModificationTime());
+            HyperLogLog sketch = directory.getAuthorSketch();
+            if (sketch == null) {
+                output.writeBoolean(false);
+                long[] words = directory.getAuthors().toLongArray();
+                output.writeInt(words.length);
+                for (long word : words) {
+                    output.writeLong(word);
+                }
+            }
+            else {
+                output.writeBoolean(true);
+                sketch.writeTo(output);
+            }
+        }
+    }
+
+    /**
+     * Reads rollups that have been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the rollups
+     * @throws IOException
+     *         if the rollups could not be read
+     */
+    public static DirectoryRollups readFrom(final DataInput input) throws IOException {
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format of directory rollups: " + version);
+        }
+        String baseCommitId = input.readUTF();
+        String latestCommitId = input.readUTF();
+        int authorCount = input.readInt();
+        List<String> authors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            authors.add(input.readUTF());
+        }
+        DirectoryRollups rollups = new DirectoryRollups(baseCommitId, latestCommitId, authors);
+        int directoryCount = input.readInt();
+        for (int i = 0; i < directoryCount; i++) {
+            String path = input.readUTF();
+            int files = input.readInt();
+            int commits = input.readInt();
+            int lastModification = input.readInt();
+            if (input.readBoolean()) {
+                rollups.add(new DirectoryStatistics(path, files, commits, lastModification,
+                        HyperLogLog.readFrom(input)));
+            }
+            else {
+                long[] words = new long[input.readInt()];
+                for (int j = 0; j < words.length; j++) {
+                    words[j] = input.readLong();
+                }
+                rollups.add(new DirectoryStatistics(path, files, commits, lastModification, BitSet.valueOf(words)));
+            }
+        }
+        return rollups;
+    }
+}
@@ -0,0 +1,124 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.forensics.git.util.HyperLogLog;
+
+/**
+ * Statistics of a directory of a repository: the number of files in the directory and all subdirectories, the number
+ * of commits that changed at least one of these files, the number of distinct authors of these commits, and the time
+ * of the latest change. The distinct authors are counted exactly using a bitset of author IDs or approximately using a
+ * {@link HyperLogLog} sketch.
+ *
+ * @author Ullrich Hafner
+ */
+public class DirectoryStatistics implements Serializable {
+    private static final long serialVersionUID = -6198567437049562617L;
+
+    private final String path;
+    private final int numberOfFiles;
+    private final int numberOfCommits;
+    private final int lastModificationTime;
+    @CheckForNull
+    private final BitSet authors;
+    @CheckForNull
+    private final HyperLogLog authorSketch;
+
+    DirectoryStatistics(final String path, final int numberOfFiles, final int numberOfCommits,
+            final int lastModificationTime, final BitSet authors) {
+        this(path, numberOfFiles, numberOfCommits, lastModificationTime, authors, null);
+    }
+
+    DirectoryStatistics(final String path, final int numberOfFiles, final int numberOfCommits,
+            final int lastModificationTime, final HyperLogLog authorSketch) {
+        this(path, numberOfFiles, numberOfCommits, lastModificationTime, null, authorSketch);
+    }
+
+    private DirectoryStatistics(final String path, final int numberOfFiles, final int numberOfCommits,
+            final int lastModificationTime, @CheckForNull final BitSet authors,
+            @CheckForNull final HyperLogLog authorSketch) {
+        this.path = path;
+        this.numberOfFiles = numberOfFiles;
+        this.numberOfCommits = numberOfCommits;
+        this.lastModificationTime = lastModificationTime;
+        this.authors = authors;
+        this.authorSketch = authorSketch;
+    }
+
+    /**
+     * Returns the path of the directory, relative to the root of the repository.
+     *
+     * @return the path of the directory, an empty string for the root of the repository
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public int getNumberOfFiles() {
+        return numberOfFiles;
+    }
+
+    public int getNumberOfCommits() {
+        return numberOfCommits;
+    }
+
+    /**
+     * Returns the number of distinct authors. If the authors are counted approximately, then the number is an
+     * estimate.
+     *
+     * @return the number of distinct authors
+     * @see #isApproximate()
+     */
+    public int getNumberOfAuthors() {
+        if (authorSketch != null) {
+            return (int) authorSketch.estimate();
+        }
+        return authors == null ? 0 : authors.cardinality();
+    }
+
+    /**
+     * Returns whether the authors are counted approximately.
+     *
+     * @return {@code true} if the number of authors is an estimate, {@code false} if it is exact
+     */
+    public boolean isApproximate() {
+        return authorSketch != null;
+    }
+
+    /**
+     * Returns the time of the latest commit that changed a file in this directory.
+     *
+     * @return the commit time in seconds since the epoch, or 0 if no commit has been mined
+     */
+    public int getLastModificationTime() {
+        return lastModificationTime;
+    }
+
+    /**
+     * Returns the IDs of the authors in the {@link DirectoryRollups} that contain this directory.
+     *
+     * @return the author IDs, an empty set if the authors are counted approximately
+     */
+    BitSet getAuthors() {
+        return authors == null ? new BitSet() : authors;
+    }
+
+    /**
+     * Returns the sketch of the authors.
+     *
+     * @return the sketch, or {@code null} if the authors are counted exactly
+     */
+    @CheckForNull
+    HyperLogLog getAuthorSketch() {
+        return authorSketch;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d files, %d commits, %d authors", path, numberOfFiles, numberOfCommits,
+                getNumberOfAuthors());
+    }
+}
@@ -0,0 +1,54 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Run;
+
+/**
+ * Stores the {@link DirectoryRollups} of the directories of a build.
+ *
+ * @author Ullrich Hafner
+ */
+public class DirectoryStatisticsAction extends MinedIndexAction<DirectoryRollups> {
+    static final String DIRECTORIES_FILE = "git-forensics-directories.bin";
+
+    DirectoryStatisticsAction(final DirectoryRollups rollups) {
+        super(rollups);
+    }
+
+    /**
+     * Records the directory rollups of the specified build. The specified rollups contain only the commits that are
+     * new in this build. If the rollups of the previous build contain all commits up to the base commit of the new
+     * rollups, then both rollups are merged.
+     *
+     * @param build
+     *         the build to attach the rollups to
+     * @param delta
+     *         the rollups of the new commits
+     * @param logger
+     *         the logger
+     *
+     * @return the recorded rollups
+     */
+    public static DirectoryRollups record(@CheckForNull final Run<?, ?> build, final DirectoryRollups delta,
+            final FilteredLog logger) {
+        DirectoryRollups rollups = record(build, delta, DirectoryStatisticsAction.class,
+                DirectoryStatisticsAction::new, logger);
+        logger.logInfo("-> recorded statistics of %d directories", rollups.size());
+        return rollups;
+    }
+
+    @Override
+    protected String getFileName() {
+        return DIRECTORIES_FILE;
+    }
+
+    @Override
+    protected DirectoryRollups read(final DataInput input) throws IOException {
+        return DirectoryRollups.readFrom(input);
+    }
+}
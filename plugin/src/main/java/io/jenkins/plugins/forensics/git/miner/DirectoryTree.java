@@ -0,0 +1,234 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.forensics.git.util.HyperLogLog;
+
+/**
+ * A prefix tree of the paths of the files of a repository. The miner inspects the changed files of each commit: the
+ * file is stored as a leaf of the tree with its authors and the time of its latest change. The directories on the
+ * path of the file count the commits that changed at least one of their files. The remaining statistics of the
+ * directories (files, authors, and the latest change) are aggregated in a single bottom-up pass over the tree when the
+ * {@link DirectoryRollups} are created. The distinct authors are stored as bitsets of author IDs and are merged using
+ * a bitwise OR.
+ *
+ * <p>
+ * The bitsets grow with the number of authors of a repository. So for repositories with thousands of contributors the
+ * authors can be counted approximately: then each file and directory uses a {@link HyperLogLog} sketch of constant
+ * size. The approximate mode is enabled using the system property {@code
+ * io.jenkins.plugins.forensics.git.miner.DirectoryTree.authorError} on the agent: the value defines the tolerated
+ * relative error in percent (default 0, i.e. the authors are counted exactly).
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class DirectoryTree {
+    private static final char SEPARATOR = '/';
+    private static final int AUTHOR_ERROR
+            = SystemProperties.getInteger(DirectoryTree.class.getName() + ".authorError", 0);
+
+    private final int precision;
+    private final Node root = new Node();
+    private final ObjectIntHashMap<String> authorIds = new ObjectIntHashMap<>();
+    private final List<String> authors = new ArrayList<>();
+    private int commit;
+
+    /**
+     * Creates a new instance of {@link DirectoryTree} that counts the authors in the mode of the system property.
+     */
+    DirectoryTree() {
+        this(AUTHOR_ERROR > 0 ? HyperLogLog.getPrecision(AUTHOR_ERROR / 100.0) : 0);
+    }
+
+    /**
+     * Creates a new instance of {@link DirectoryTree}.
+     *
+     * @param precision
+     *         the precision of the {@link HyperLogLog} sketches of the authors, 0 to count the authors exactly
+     */
+    @VisibleForTesting
+    DirectoryTree(final int precision) {
+        this.precision = precision;
+    }
+
+    boolean isApproximate() {
+        return precision > 0;
+    }
+
+    /**
+     * Starts the inspection of the files of a new commit.
+     */
+    void startCommit() {
+        commit++;
+    }
+
+    /**
+     * Inspects a file that has been changed by the current commit.
+     *
+     * @param file
+     *         the changed file
+     * @param commitTime
+     *         the time of the commit
+     * @param author
+     *         the author of the commit
+     */
+    void inspect(final String file, final int commitTime, final String author) {
+        Node leaf = getLeaf(file, true);
+        if (isApproximate()) {
+            leaf.getAuthorSketch(precision).add(author);
+        }
+        else {
+            leaf.getAuthors().set(getAuthorId(author));
+        }
+        leaf.lastModification = Math.max(leaf.lastModification, commitTime);
+    }
+
+    /**
+     * Marks the specified files as existing files of the repository. Only the directories of existing files are part
+     * of the rollups.
+     *
+     * @param files
+     *         the files of the head commit
+     */
+    void addExistingFiles(final Collection<String> files) {
+        for (String file : files) {
+            getLeaf(file, false).exists = true;
+        }
+    }
+
+    private Node getLeaf(final String file, final boolean countCommit) {
+        Node node = root;
+        if (countCommit) {
+            node.count(commit);
+        }
+        int start = 0;
+        int separator = file.indexOf(SEPARATOR);
+        while (separator >= 0) {
+            node = node.getChild(file.substring(start, separator));
+            if (countCommit) {
+                node.count(commit);
+            }
+            start = separator + 1;
+            separator = file.indexOf(SEPARATOR, start);
+        }
+        return node.getChild(file.substring(start));
+    }
+
+    private int getAuthorId(final String author) {
+        int id = authorIds.getIfAbsent(author, -1);
+        if (id < 0) {
+            id = authors.size();
+            authors.add(author);
+            authorIds.put(author, id);
+        }
+        return id;
+    }
+
+    /**
+     * Creates the rollups of all directories that contain existing files.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous rollups
+     * @param latestCommitId
+     *         the latest inspected commit
+     *
+     * @return the rollups
+     */
+    DirectoryRollups rollup(final String baseCommitId, final String latestCommitId) {
+        DirectoryRollups rollups = new DirectoryRollups(baseCommitId, latestCommitId, new ArrayList<>(authors));
+        rollup(root, "", rollups);
+        return rollups;
+    }
+
+    /**
+     * Aggregates the statistics of the specified node and all its children (post-order).
+     */
+    private void rollup(final Node node, final String path, final DirectoryRollups rollups) {
+        if (node.children == null) {
+            node.files = node.exists ? 1 : 0;
+            return;
+        }
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            Node child = entry.getValue();
+            rollup(child, path.isEmpty() ? entry.getKey() : path + SEPARATOR + entry.getKey(), rollups);
+            node.files += child.files;
+            if (child.authors != null) {
+                node.getAuthors().or(child.authors);
+            }
+            if (child.authorSketch != null) {
+                node.getAuthorSketch(precision).merge(child.authorSketch);
+            }
+            node.lastModification = Math.max(node.lastModification, child.lastModification);
+        }
+        if (node.files > 0) {
+            if (isApproximate()) {
+                rollups.add(new DirectoryStatistics(path, node.files, node.commits, node.lastModification,
+                        node.getAuthorSketch(precision)));
+            }
+            else {
+                rollups.add(new DirectoryStatistics(path, node.files, node.commits, node.lastModification,
+                        node.getAuthors()));
+            }
+        }
+    }
+
+    /**
+     * A file or directory of the tree. Directories have children, files have none.
+     */
+    private static class Node {
+        @CheckForNull
+        private Map<String, Node> children;
+        @CheckForNull
+        private BitSet authors;
+        @CheckForNull
+        private HyperLogLog authorSketch;
+        private int lastModification;
+        private int commits;
+        private int lastCommit;
+        private int files;
+        private boolean exists;
+
+        Node getChild(final String name) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(name, key -> new Node());
+        }
+
+        BitSet getAuthors() {
+            if (authors == null) {
+                authors = new BitSet();
+            }
+            return authors;
+        }
+
+        HyperLogLog getAuthorSketch(final int precision) {
+            if (authorSketch == null) {
+                authorSketch = new HyperLogLog(precision);
+            }
+            return authorSketch;
+        }
+
+        /**
+         * Counts the specified commit if it has not been counted yet.
+         */
+        void count(final int commitNumber) {
+            if (lastCommit != commitNumber) {
+                lastCommit = commitNumber;
+                commits++;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * A file that has been changed by a commit.
+ *
+ * @author Ullrich Hafner
+ */
+class FileChange {
+    private final String path;
+    private final ObjectId oldId;
+    private final ObjectId newId;
+    private final boolean deleted;
+
+    /**
+     * Creates a new instance of {@link FileChange}.
+     *
+     * @param path
+     *         the path of the file
+     * @param oldId
+     *         the blob of the file before the commit, {@link ObjectId#zeroId()} if the file has been added
+     * @param newId
+     *         the blob of the file after the commit, {@link ObjectId#zeroId()} if the file has been deleted
+     * @param deleted
+     *         determines whether the file has been deleted
+     */
+    FileChange(final String path, final ObjectId oldId, final ObjectId newId, final boolean deleted) {
+        this.path = path;
+        this.oldId = oldId;
+        this.newId = newId;
+        this.deleted = deleted;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    ObjectId getOldId() {
+        return oldId;
+    }
+
+    ObjectId getNewId() {
+        return newId;
+    }
+
+    boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,320 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.forensics.git.util.HeapBudget;
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+/**
+ * Aggregates the changes of the mined commits into {@link FileStatistics} instances. The changes must be inspected in
+ * chronological order, i.e. starting with the oldest commit. Initially, all statistics are aggregated in memory. Once
+ * the {@link HeapBudget} is exhausted, the aggregator switches to the spill mode: the subsequent changes are buffered
+ * and written as sorted runs to temporary files whenever the buffer is full. Since {@link FileStatistics} instances
+ * cannot be merged, the changes of the runs are replayed when the statistics are finished: an external k-way merge
+ * reads all runs sorted by file name, so the changes of a file are replayed at once on top of the statistics of the
+ * in-memory phase.
+ *
+ * <p>
+ * Note that spilling bounds the heap only while the commits are inspected: the changes of the spilled commits (one
+ * entry for each file and commit) are never held in memory at once. The statistics of all files are part of the result
+ * of the miner, so {@link #finish(Consumer)} creates the statistics of the spilled files in memory again. These
+ * statistics are passed one by one to the consumer, so no additional copy of the statistics is created.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class FileStatisticsAggregator implements Closeable {
+    /** Estimated size of the statistics of a file without the file name (statistics, authors, map entry). */
+    private static final int BYTES_PER_FILE = 256;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Orders the changes by file name, the stable sort keeps the chronological order of the changes of a file. */
+    private static final Comparator<Change> BY_FILE = Comparator.comparing(change -> change.file);
+
+    private final FileStatisticsBuilder builder = new FileStatisticsBuilder();
+    private final Map<String, FileStatistics> statistics = new HashMap<>();
+    private final HeapBudget budget;
+    private final int runSize;
+
+    private final List<Change> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    @CheckForNull
+    private Path spillDirectory;
+    private long spilledChanges;
+
+    /**
+     * Creates a new instance of {@link FileStatisticsAggregator}.
+     *
+     * @param budget
+     *         the heap budget that determines when to switch to the spill mode
+     * @param runSize
+     *         the number of changes that will be written in a single run
+     */
+    FileStatisticsAggregator(final HeapBudget budget, final int runSize) {
+        this.budget = budget;
+        this.runSize = Math.max(runSize, 1);
+    }
+
+    /**
+     * Inspects a change of a file.
+     *
+     * @param file
+     *         the changed file
+     * @param commitTime
+     *         the time of the commit
+     * @param author
+     *         the author of the commit
+     *
+     * @throws IOException
+     *         if the changes could not be written to a temporary file
+     */
+    void inspect(final String file, final int commitTime, final String author) throws IOException {
+        if (spillDirectory == null && budget.isExhausted()) {
+            spillDirectory = Files.createTempDirectory("git-forensics-miner");
+        }
+        if (spillDirectory == null) {
+            statistics.computeIfAbsent(file, this::create).inspectCommit(commitTime, author);
+        }
+        else {
+            buffer.add(new Change(file, commitTime, StringUtils.defaultString(author)));
+            spilledChanges++;
+            if (buffer.size() >= runSize) {
+                writeRun();
+            }
+        }
+    }
+
+    private FileStatistics create(final String file) {
+        budget.allocate(BYTES_PER_FILE + 2L * file.length());
+        return builder.build(file);
+    }
+
+    boolean isSpilling() {
+        return spillDirectory != null;
+    }
+
+    long getSpilledChanges() {
+        return spilledChanges;
+    }
+
+    int getRuns() {
+        return runs.size();
+    }
+
+    private void writeRun() throws IOException {
+        buffer.sort(BY_FILE);
+
+        Path run = spillDirectory.resolve("run-" + runs.size());
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(FileChannel.open(run, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)), BUFFER_SIZE))) {
+            output.writeInt(buffer.size());
+            for (Change change : buffer) {
+                output.writeUTF(change.file);
+                output.writeInt(change.commitTime);
+                output.writeUTF(change.author);
+            }
+        }
+        runs.add(run);
+        buffer.clear();
+    }
+
+    /**
+     * Finishes the aggregation and passes the statistics of all files to the specified consumer. If changes have been
+     * spilled, then the statistics of the spilled files are passed sorted by file name, followed by the statistics of
+     * the files that have been changed in the in-memory phase only.
+     *
+     * @param consumer
+     *         the consumer of the statistics
+     *
+     * @throws IOException
+     *         if the temporary files could not be read
+     */
+    void finish(final Consumer<FileStatistics> consumer) throws IOException {
+        if (!buffer.isEmpty()) {
+            writeRun();
+        }
+
+        PriorityQueue<RunReader> readers = new PriorityQueue<>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i), i);
+                if (reader.next()) {
+                    readers.add(reader);
+                }
+                else {
+                    reader.close();
+                }
+            }
+            while (!readers.isEmpty()) {
+                String file = readers.peek().file;
+                FileStatistics fileStatistics = statistics.remove(file);
+                if (fileStatistics == null) {
+                    fileStatistics = builder.build(file);
+                }
+                while (!readers.isEmpty() && readers.peek().file.equals(file)) {
+                    RunReader reader = readers.poll();
+                    if (reader.replay(fileStatistics)) {
+                        readers.add(reader);
+                    }
+                    else {
+                        reader.close();
+                    }
+                }
+                consumer.accept(fileStatistics);
+            }
+        }
+        finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        statistics.values().forEach(consumer);
+        statistics.clear();
+    }
+
+    /**
+     * Deletes the temporary files of the runs.
+     *
+     * @throws IOException
+     *         if the files could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (spillDirectory != null) {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    @VisibleForTesting
+    @CheckForNull
+    Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * A change of a file in a commit.
+     */
+    private static class Change {
+        private final String file;
+        private final int commitTime;
+        private final String author;
+
+        Change(final String file, final int commitTime, final String author) {
+            this.file = file;
+            this.commitTime = commitTime;
+            this.author = author;
+        }
+    }
+
+    /**
+     * Reads the changes of a run. Readers are ordered by the file name of the current change and then by the index of
+     * the run, so the changes of a file are replayed in chronological order.
+     */
+    private static class RunReader implements Comparable<RunReader>, Closeable {
+        private final DataInputStream input;
+        private final int index;
+        private int remaining;
+
+        private String file = StringUtils.EMPTY;
+        private int commitTime;
+        private String author = StringUtils.EMPTY;
+
+        RunReader(final Path run, final int index) throws IOException {
+            this.index = index;
+
+            input = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(run, StandardOpenOption.READ)), BUFFER_SIZE));
+            remaining = input.readInt();
+        }
+
+        /**
+         * Reads the next change.
+         *
+         * @return {@code true} if a change has been read, {@code false} if the run has no more changes
+         */
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            file = input.readUTF();
+            commitTime = input.readInt();
+            author = input.readUTF();
+            remaining--;
+            return true;
+        }
+
+        /**
+         * Replays all changes of the current file on the specified statistics.
+         *
+         * @return {@code true} if the run has more changes, {@code false} otherwise
+         */
+        boolean replay(final FileStatistics fileStatistics) throws IOException {
+            String current = file;
+            do {
+                fileStatistics.inspectCommit(commitTime, author);
+                if (!next()) {
+                    return false;
+                }
+            }
+            while (file.equals(current));
+            return true;
+        }
+
+        @Override
+        public int compareTo(final RunReader other) {
+            int comparison = file.compareTo(other.file);
+            if (comparison == 0) {
+                return Integer.compare(index, other.index);
+            }
+            return comparison;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RunReader that = (RunReader) o;
+            return index == that.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
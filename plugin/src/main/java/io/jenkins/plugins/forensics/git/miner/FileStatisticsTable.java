@@ -0,0 +1,295 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+
+/**
+ * The rows of the file statistics table that are paged, sorted, and filtered on the controller. The values of the
+ * files are stored in primitive arrays. For each column a sorted index (i.e., the positions of the files ordered by
+ * the values of the column) is computed once and cached, so a page of an unfiltered table requires {@code O(k)}
+ * operations only. A filtered table scans the sorted index once, the positions of the matching files are cached for
+ * the last search, so paging through the results of a search does not scan the index again.
+ *
+ * <p>
+ * Files with the same value are ordered by their file name, so the pages are stable.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class FileStatisticsTable {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private final String[] files;
+    private final String[] searchableFiles;
+    private final int[] authors;
+    private final int[] commits;
+    private final long[] lastModificationTimes;
+    private final long[] creationTimes;
+
+    private final Map<Column, int[]> sortedIndexes = new EnumMap<>(Column.class);
+    private String lastSearch = StringUtils.EMPTY;
+    private Column lastSearchColumn = Column.FILE;
+    private int[] lastSearchResult = new int[0];
+
+    /**
+     * Creates the table rows of the specified statistics.
+     *
+     * @param statistics
+     *         the statistics of the files
+     */
+    public FileStatisticsTable(final Collection<FileStatistics> statistics) {
+        int size = statistics.size();
+        files = new String[size];
+        searchableFiles = new String[size];
+        authors = new int[size];
+        commits = new int[size];
+        lastModificationTimes = new long[size];
+        creationTimes = new long[size];
+
+        int position = 0;
+        for (FileStatistics file : statistics) {
+            files[position] = file.getFileName();
+            searchableFiles[position] = toSearchable(file.getFileName());
+            authors[position] = file.getNumberOfAuthors();
+            commits[position] = file.getNumberOfCommits();
+            lastModificationTimes[position] = file.getLastModificationTime();
+            creationTimes[position] = file.getCreationTime();
+            position++;
+        }
+    }
+
+    private static String toSearchable(final String value) {
+        return value.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return files.length;
+    }
+
+    /**
+     * Returns a page of the table.
+     *
+     * @param start
+     *         the position of the first row of the page (in the sorted and filtered rows)
+     * @param length
+     *         the maximum number of rows of the page
+     * @param column
+     *         the column to sort the rows by
+     * @param ascending
+     *         determines whether the rows are sorted ascending or descending
+     * @param search
+     *         the text to filter the file names with (case-insensitive), an empty text shows all rows
+     *
+     * @return the page
+     */
+    public Page getPage(final int start, final int length, final Column column, final boolean ascending,
+            final String search) {
+        int[] sorted = StringUtils.isBlank(search) ? getSortedIndex(column) : filter(column, search.trim());
+
+        int from = Math.min(Math.max(start, 0), sorted.length);
+        int to = Math.min(from + Math.max(length, 0), sorted.length);
+        int[] rows = new int[to - from];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = ascending ? sorted[from + i] : sorted[sorted.length - 1 - from - i];
+        }
+        return new Page(rows, size(), sorted.length);
+    }
+
+    /**
+     * Returns the sorted index of the specified column, i.e. the positions of the files ordered by the values of the
+     * column (ascending). The index is computed once and cached for subsequent queries.
+     *
+     * @param column
+     *         the column to sort the files by
+     *
+     * @return the positions of the files, ordered by the values of the column
+     */
+    synchronized int[] getSortedIndex(final Column column) {
+        return sortedIndexes.computeIfAbsent(column, key -> IntStream.range(0, size())
+                .boxed()
+                .sorted(byValue(key))
+                .mapToInt(Integer::intValue)
+                .toArray());
+    }
+
+    private synchronized int[] filter(final Column column, final String search) {
+        String text = toSearchable(search);
+        if (!text.equals(lastSearch) || column != lastSearchColumn) {
+            int[] sorted = getSortedIndex(column);
+            lastSearchResult = Arrays.stream(sorted).filter(position -> searchableFiles[position].contains(text))
+                    .toArray();
+            lastSearch = text;
+            lastSearchColumn = column;
+        }
+        return lastSearchResult;
+    }
+
+    private Comparator<Integer> byValue(final Column column) {
+        return (first, second) -> {
+            int comparison = Long.compare(getValue(column, first), getValue(column, second));
+            if (comparison == 0) {
+                return files[first].compareTo(files[second]);
+            }
+            return comparison;
+        };
+    }
+
+    private long getValue(final Column column, final int position) {
+        switch (column) {
+            case FILE:
+                return 0;
+            case AUTHORS:
+                return authors[position];
+            case COMMITS:
+                return commits[position];
+            case LAST_COMMIT:
+                return lastModificationTimes[position];
+            case ADDED:
+                return creationTimes[position];
+            default:
+                throw new IllegalArgumentException("Unsupported column: " + column);
+        }
+    }
+
+    /**
+     * The columns of the table.
+     */
+    public enum Column {
+        /** The name of the file. */
+        FILE("fileName"),
+        /** The number of authors of a file. */
+        AUTHORS("authors"),
+        /** The number of commits of a file. */
+        COMMITS("commits"),
+        /** The time of the last commit of a file. */
+        LAST_COMMIT("lastCommit"),
+        /** The time of the commit that added a file. */
+        ADDED("added");
+
+        private final String property;
+
+        Column(final String property) {
+            this.property = property;
+        }
+
+        /**
+         * Returns the name of the property of the column in the JSON rows.
+         *
+         * @return the property
+         */
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Returns the column at the specified position of the table. If the position is out of range, then the
+         * first column is returned.
+         *
+         * @param position
+         *         the position of the column
+         *
+         * @return the column
+         */
+        public static Column fromPosition(final int position) {
+            Column[] columns = values();
+            if (position < 0 || position >= columns.length) {
+                return FILE;
+            }
+            return columns[position];
+        }
+    }
+
+    /**
+     * A page of the sorted and filtered rows of the table.
+     */
+    public class Page {
+        private final int[] rows;
+        private final int recordsTotal;
+        private final int recordsFiltered;
+
+        Page(final int[] rows, final int recordsTotal, final int recordsFiltered) {
+            this.rows = rows;
+            this.recordsTotal = recordsTotal;
+            this.recordsFiltered = recordsFiltered;
+        }
+
+        /**
+         * Returns the file names of the rows of this page.
+         *
+         * @return the file names
+         */
+        public String[] getFileNames() {
+            return Arrays.stream(rows).mapToObj(position -> files[position]).toArray(String[]::new);
+        }
+
+        public int getRecordsTotal() {
+            return recordsTotal;
+        }
+
+        public int getRecordsFiltered() {
+            return recordsFiltered;
+        }
+
+        /**
+         * Writes this page as JSON response of a DataTables server-side processing request. The rows are streamed
+         * to the specified writer, so no intermediate JSON model is created.
+         *
+         * @param draw
+         *         the draw counter of the request, DataTables uses the counter to ignore outdated responses
+         * @param zone
+         *         the time zone to format the dates with
+         * @param writer
+         *         the writer to write the JSON response to
+         *
+         * @throws IOException
+         *         if the response could not be written
+         */
+        public void writeTo(final int draw, final ZoneId zone, final Writer writer) throws IOException {
+            try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+                generator.writeStartObject();
+                generator.writeNumberField("draw", draw);
+                generator.writeNumberField("recordsTotal", recordsTotal);
+                generator.writeNumberField("recordsFiltered", recordsFiltered);
+                generator.writeArrayFieldStart("data");
+                for (int position : rows) {
+                    generator.writeStartObject();
+                    generator.writeStringField(Column.FILE.getProperty(), files[position]);
+                    generator.writeNumberField(Column.AUTHORS.getProperty(), authors[position]);
+                    generator.writeNumberField(Column.COMMITS.getProperty(), commits[position]);
+                    generator.writeStringField(Column.LAST_COMMIT.getProperty(),
+                            formatDate(lastModificationTimes[position], zone));
+                    generator.writeStringField(Column.ADDED.getProperty(), formatDate(creationTimes[position], zone));
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+
+        private String formatDate(final long time, final ZoneId zone) {
+            return DATE_FORMATTER.format(Instant.ofEpochSecond(time).atZone(zone));
+        }
+    }
+}
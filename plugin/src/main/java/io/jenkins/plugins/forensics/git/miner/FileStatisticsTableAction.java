@@ -0,0 +1,172 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+import jenkins.util.SystemProperties;
+
+import io.jenkins.plugins.datatables.TableColumn;
+import io.jenkins.plugins.forensics.git.miner.FileStatisticsTable.Column;
+import io.jenkins.plugins.forensics.git.miner.FileStatisticsTable.Page;
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Shows the file statistics of a build in a table that is paged, sorted, and filtered on the controller. The table
+ * uses the server-side processing mode of DataTables: the browser requests each visible page from the endpoint
+ * {@code rows} of this action that responds with the JSON rows of this page only. So the size of the page in the
+ * browser does not depend on the number of files in the repository. The table is linked in the side panel of the
+ * build.
+ *
+ * <p>
+ * The rows of the table are created on demand from the statistics of the build and referenced softly, so they can be
+ * garbage collected if memory is low.
+ * </p>
+ *
+ * <p>
+ * The maximum number of rows of a page can be configured with the system property {@code
+ * io.jenkins.plugins.forensics.git.miner.FileStatisticsTableAction.maxPageSize} (default: 1000).
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class FileStatisticsTableAction implements RunAction2 {
+    static final String URL_NAME = "forensics-files";
+    private static final String ICON = "/plugin/git-forensics/icons/git-24x24.png";
+    static final int MAX_PAGE_SIZE
+            = SystemProperties.getInteger(FileStatisticsTableAction.class.getName() + ".maxPageSize", 1000);
+
+    private transient Run<?, ?> owner;
+    @CheckForNull
+    private transient SoftReference<FileStatisticsTable> table;
+
+    /**
+     * Attaches the table of the file statistics to the specified build.
+     *
+     * @param build
+     *         the build to attach the table to
+     */
+    public static void record(@CheckForNull final Run<?, ?> build) {
+        if (build != null) {
+            build.addOrReplaceAction(new FileStatisticsTableAction());
+        }
+    }
+
+    public Run<?, ?> getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the columns of the table.
+     *
+     * @return the columns
+     */
+    public List<TableColumn> getColumns() {
+        return Arrays.asList(
+                new TableColumn(Messages.Table_Column_File(), Column.FILE.getProperty()),
+                new TableColumn(Messages.Table_Column_Authors(), Column.AUTHORS.getProperty()),
+                new TableColumn(Messages.Table_Column_Commits(), Column.COMMITS.getProperty()),
+                new TableColumn(Messages.Table_Column_LastCommit(), Column.LAST_COMMIT.getProperty()),
+                new TableColumn(Messages.Table_Column_Added(), Column.ADDED.getProperty()));
+    }
+
+    /**
+     * Returns the rows of the table.
+     *
+     * @return the rows, or empty if the build has no file statistics
+     */
+    public synchronized Optional<FileStatisticsTable> getTable() {
+        FileStatisticsTable cached = table == null ? null : table.get();
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (owner == null) {
+            return Optional.empty();
+        }
+        ForensicsBuildAction statistics = owner.getAction(ForensicsBuildAction.class);
+        if (statistics == null) {
+            return Optional.empty();
+        }
+        FileStatisticsTable created = new FileStatisticsTable(statistics.getResult().getFileStatistics());
+        table = new SoftReference<>(created);
+        return Optional.of(created);
+    }
+
+    /**
+     * Returns the rows of the requested page as JSON. The parameters of the request are the parameters of a
+     * DataTables server-side processing request: {@code draw}, {@code start}, {@code length}, {@code search[value]},
+     * {@code order[0][column]}, and {@code order[0][dir]}.
+     *
+     * @param request
+     *         the request
+     * @param response
+     *         the response
+     *
+     * @throws IOException
+     *         if the response could not be written
+     */
+    public void doRows(final StaplerRequest request, final StaplerResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        FileStatisticsTable rows = getTable().orElseGet(() -> new FileStatisticsTable(Collections.emptyList()));
+        Page page = getPage(rows,
+                request.getParameter("start"),
+                request.getParameter("length"),
+                request.getParameter("order[0][column]"),
+                request.getParameter("order[0][dir]"),
+                request.getParameter("search[value]"));
+        page.writeTo(NumberUtils.toInt(request.getParameter("draw")), ZoneId.systemDefault(), response.getWriter());
+    }
+
+    @VisibleForTesting
+    static Page getPage(final FileStatisticsTable rows, @CheckForNull final String start,
+            @CheckForNull final String length, @CheckForNull final String column, @CheckForNull final String direction,
+            @CheckForNull final String search) {
+        int pageSize = NumberUtils.toInt(length, MAX_PAGE_SIZE);
+        if (pageSize < 0 || pageSize > MAX_PAGE_SIZE) {
+            pageSize = MAX_PAGE_SIZE;
+        }
+        return rows.getPage(NumberUtils.toInt(start), pageSize,
+                Column.fromPosition(NumberUtils.toInt(column)),
+                !"desc".equalsIgnoreCase(direction),
+                StringUtils.defaultString(search));
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        owner = run;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        onAttached(run);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return ICON;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.Table_DisplayName();
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+}
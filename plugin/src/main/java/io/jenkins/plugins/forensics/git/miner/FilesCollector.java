@@ -6,7 +6,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.TreeWalk;
@@ -17,14 +17,14 @@ import org.eclipse.jgit.treewalk.TreeWalk;
  * @author Ullrich Hafner
  */
 class FilesCollector {
-    private final Repository repository;
+    private final ObjectReader reader;
 
-    FilesCollector(final Repository repository) {
-        this.repository = repository;
+    FilesCollector(final ObjectReader reader) {
+        this.reader = reader;
     }
 
     Set<String> findAllFor(final ObjectId commitId) {
-        try (RevWalk revWalk = new RevWalk(repository)) {
+        try (RevWalk revWalk = new RevWalk(reader)) {
             RevTree tree = revWalk.parseCommit(commitId).getTree();
 
             return walkRepositoryTree(tree);
@@ -35,7 +35,7 @@ class FilesCollector {
     }
 
     private Set<String> walkRepositoryTree(final RevTree tree) throws IOException {
-        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+        try (TreeWalk treeWalk = new TreeWalk(reader)) {
             treeWalk.setRecursive(true);
             treeWalk.addTree(tree);
             Set<String> files = new HashSet<>();
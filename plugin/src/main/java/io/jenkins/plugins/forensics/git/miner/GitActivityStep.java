@@ -0,0 +1,177 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousStepExecution;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+
+/**
+ * Pipeline step that returns the commit activity of the repository or of a single file, i.e. the number of commits
+ * in each of the latest buckets (weeks or months) of the {@link ActivityHistograms}. The step uses the histograms that
+ * have been mined in the current build (or in a previous build), so the commit history is not walked again. The step
+ * returns a list of maps, each map contains the first day and the number of commits of a bucket. The buckets of all
+ * files end with the latest bucket of the repository, so the activity of several files can be compared.
+ *
+ * <pre>
+ * def activity = gitActivity file: 'src/main/java/Main.java', count: 12
+ * </pre>
+ *
+ * @author Ullrich Hafner
+ */
+public class GitActivityStep extends Step implements Serializable {
+    private static final long serialVersionUID = 5493962165021924017L;
+    private static final int DEFAULT_COUNT = 12;
+
+    private String file = StringUtils.EMPTY;
+    private int count = DEFAULT_COUNT;
+
+    /**
+     * Creates a new instance of {@link GitActivityStep}.
+     */
+    @DataBoundConstructor
+    public GitActivityStep() {
+        super();
+
+        // empty constructor required for Stapler
+    }
+
+    /**
+     * Sets the file to return the commit activity for. If not set, then the activity of the whole repository is
+     * returned.
+     *
+     * @param file
+     *         the path of the file, relative to the root of the repository
+     */
+    @DataBoundSetter
+    public void setFile(final String file) {
+        this.file = file;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Sets the number of buckets to return.
+     *
+     * @param count
+     *         the number of buckets
+     */
+    @DataBoundSetter
+    public void setCount(final int count) {
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) {
+        return new Execution(context, this);
+    }
+
+    /**
+     * Queries the activity histograms that are attached to the build.
+     */
+    static class Execution extends SynchronousStepExecution<List<Map<String, Object>>> {
+        private static final long serialVersionUID = -1316853466011367618L;
+
+        private final GitActivityStep step;
+
+        Execution(final StepContext context, final GitActivityStep step) {
+            super(context);
+
+            this.step = step;
+        }
+
+        @Override
+        protected List<Map<String, Object>> run() throws Exception {
+            Optional<ActivityHistograms> histograms = findHistograms(getContext().get(Run.class));
+            if (!histograms.isPresent()) {
+                getContext().get(TaskListener.class).getLogger()
+                        .println("[Forensics] No commit activity found, skipping activity");
+                return Collections.emptyList();
+            }
+            return toMaps(histograms.get(), StringUtils.defaultString(step.getFile()), step.getCount());
+        }
+
+        private Optional<ActivityHistograms> findHistograms(final Run<?, ?> run) {
+            for (Run<?, ?> build = run; build != null; build = build.getPreviousBuild()) {
+                CommitActivityAction action = build.getAction(CommitActivityAction.class);
+                if (action != null) {
+                    return action.getIndex();
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @VisibleForTesting
+    static List<Map<String, Object>> toMaps(final ActivityHistograms histograms, final String file, final int count) {
+        ActivityHistogram repository = histograms.getRepository();
+        if (repository.isEmpty() || count <= 0) {
+            return Collections.emptyList();
+        }
+        Optional<ActivityHistogram> histogram = file.isEmpty() ? Optional.of(repository) : histograms.get(file);
+        int end = repository.getEnd();
+        int start = end - count;
+        int[] commits = histogram.map(values -> values.toArray(start, end)).orElseGet(() -> new int[count]);
+
+        BucketSize bucketSize = histograms.getBucketSize();
+        List<Map<String, Object>> maps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("start", bucketSize.getStartDate(start + i).toString());
+            values.put("commits", commits[i]);
+            maps.add(values);
+        }
+        return maps;
+    }
+
+    /**
+     * Descriptor for this step: defines the context and the UI elements.
+     */
+    @Extension
+    public static class Descriptor extends StepDescriptor {
+        @Override
+        public String getFunctionName() {
+            return "gitActivity";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.Activity_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousStepExecution;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Pipeline step that returns the files that have been changed since a reference build. The files are obtained from
+ * the {@link ChangedFilesIndex} of the job, so the repository is not accessed. The step requires that the repository
+ * has been mined in the current build and in the reference build. If the index cannot answer the query (e.g., since
+ * the commit of the reference build is not an ancestor of the current commit anymore), then the step returns {@code
+ * null}, so the caller can fall back to process all files.
+ *
+ * <pre>
+ * def changedFiles = gitChangedFiles referenceBuild: 42
+ * </pre>
+ *
+ * @author Ullrich Hafner
+ */
+public class GitChangedFilesStep extends Step implements Serializable {
+    private static final long serialVersionUID = 4508356127439406612L;
+
+    private int referenceBuild;
+
+    /**
+     * Creates a new instance of {@link GitChangedFilesStep}.
+     */
+    @DataBoundConstructor
+    public GitChangedFilesStep() {
+        super();
+
+        // empty constructor required for Stapler
+    }
+
+    /**
+     * Sets the number of the reference build. If not set, then the latest previous build that mined the repository
+     * is used.
+     *
+     * @param referenceBuild
+     *         the number of the reference build
+     */
+    @DataBoundSetter
+    public void setReferenceBuild(final int referenceBuild) {
+        this.referenceBuild = referenceBuild;
+    }
+
+    public int getReferenceBuild() {
+        return referenceBuild;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) {
+        return new Execution(context, this);
+    }
+
+    /**
+     * Queries the files that have been changed between the reference build and the current build.
+     */
+    static class Execution extends SynchronousStepExecution<List<String>> {
+        private static final long serialVersionUID = -2178304557362513490L;
+
+        private final GitChangedFilesStep step;
+
+        Execution(final StepContext context, final GitChangedFilesStep step) {
+            super(context);
+
+            this.step = step;
+        }
+
+        @Override
+        @CheckForNull
+        protected List<String> run() throws IOException, InterruptedException {
+            PrintStream logger = getContext().get(TaskListener.class).getLogger();
+
+            Run<?, ?> build = getContext().get(Run.class);
+            if (build.getAction(ForensicsBuildAction.class) == null) {
+                logger.println("[Forensics] The repository has not been mined in this build, "
+                        + "skipping changed files");
+                return null;
+            }
+
+            Run<?, ?> reference = findReferenceBuild(build);
+            if (reference == null) {
+                logger.println("[Forensics] No reference build found that mined the repository, "
+                        + "skipping changed files");
+                return null;
+            }
+
+            Optional<Set<String>> changedFiles = ChangedFilesIndex.findChangedFiles(reference, build);
+            if (!changedFiles.isPresent()) {
+                logger.printf("[Forensics] The changed files since build %s are not part of the index%n",
+                        reference.getDisplayName());
+                return null;
+            }
+            logger.printf("[Forensics] Found %d changed files since build %s%n",
+                    changedFiles.get().size(), reference.getDisplayName());
+            return new ArrayList<>(changedFiles.get());
+        }
+
+        @CheckForNull
+        private Run<?, ?> findReferenceBuild(final Run<?, ?> build) {
+            if (step.getReferenceBuild() > 0) {
+                Run<?, ?> reference = build.getParent().getBuildByNumber(step.getReferenceBuild());
+                if (reference != null && reference.getAction(ForensicsBuildAction.class) != null) {
+                    return reference;
+                }
+                return null;
+            }
+            for (Run<?, ?> previous = build.getPreviousBuild(); previous != null;
+                    previous = previous.getPreviousBuild()) {
+                if (previous.getAction(ForensicsBuildAction.class) != null) {
+                    return previous;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Descriptor for this step: defines the context and the UI elements.
+     */
+    @Extension
+    public static class Descriptor extends StepDescriptor {
+        @Override
+        public String getFunctionName() {
+            return "gitChangedFiles";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.ChangedFiles_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousStepExecution;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+/**
+ * Pipeline step that returns the statistics of the directories of the repository, i.e. the number of files, commits,
+ * and authors, and the time of the last modification of each directory. The step uses the {@link DirectoryRollups}
+ * that have been mined in the current build (or in a previous build) and returns a list of maps sorted by the path of
+ * the directories, each map contains the values of a directory.
+ *
+ * <pre>
+ * def directories = gitDirectoryStatistics path: 'src/main'
+ * </pre>
+ *
+ * @author Ullrich Hafner
+ */
+public class GitDirectoryStatisticsStep extends Step implements Serializable {
+    private static final long serialVersionUID = -8116335003542187326L;
+    private static final char SEPARATOR = '/';
+
+    private String path = StringUtils.EMPTY;
+
+    /**
+     * Creates a new instance of {@link GitDirectoryStatisticsStep}.
+     */
+    @DataBoundConstructor
+    public GitDirectoryStatisticsStep() {
+        super();
+
+        // empty constructor required for Stapler
+    }
+
+    /**
+     * Sets the path of the directory to return the statistics for. The statistics of the directory and all of its
+     * subdirectories are returned. If not set, then the statistics of all directories are returned.
+     *
+     * @param path
+     *         the path of the directory, relative to the root of the repository
+     */
+    @DataBoundSetter
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) {
+        return new Execution(context, this);
+    }
+
+    /**
+     * Queries the directory rollups that are attached to the build.
+     */
+    static class Execution extends SynchronousStepExecution<List<Map<String, Object>>> {
+        private static final long serialVersionUID = 8829546013526398474L;
+
+        private final GitDirectoryStatisticsStep step;
+
+        Execution(final StepContext context, final GitDirectoryStatisticsStep step) {
+            super(context);
+
+            this.step = step;
+        }
+
+        @Override
+        protected List<Map<String, Object>> run() throws Exception {
+            Optional<DirectoryRollups> rollups = findRollups(getContext().get(Run.class));
+            if (!rollups.isPresent()) {
+                getContext().get(TaskListener.class).getLogger()
+                        .println("[Forensics] No directory statistics found, skipping directories");
+                return Collections.emptyList();
+            }
+            return toMaps(rollups.get(), StringUtils.defaultString(step.getPath()));
+        }
+
+        private Optional<DirectoryRollups> findRollups(final Run<?, ?> run) {
+            for (Run<?, ?> build = run; build != null; build = build.getPreviousBuild()) {
+                DirectoryStatisticsAction action = build.getAction(DirectoryStatisticsAction.class);
+                if (action != null) {
+                    return action.getIndex();
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @VisibleForTesting
+    static List<Map<String, Object>> toMaps(final DirectoryRollups rollups, final String path) {
+        String directory = StringUtils.strip(path, String.valueOf(SEPARATOR));
+        return rollups.getDirectories().stream()
+                .filter(statistics -> isEqualOrBelow(statistics.getPath(), directory))
+                .sorted(Comparator.comparing(DirectoryStatistics::getPath))
+                .map(GitDirectoryStatisticsStep::toMap)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isEqualOrBelow(final String actual, final String directory) {
+        return directory.isEmpty() || actual.equals(directory) || actual.startsWith(directory + SEPARATOR);
+    }
+
+    private static Map<String, Object> toMap(final DirectoryStatistics statistics) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("path", statistics.getPath());
+        values.put("files", statistics.getNumberOfFiles());
+        values.put("commits", statistics.getNumberOfCommits());
+        values.put("authors", statistics.getNumberOfAuthors());
+        values.put("approximateAuthors", statistics.isApproximate());
+        values.put("lastModificationTime", statistics.getLastModificationTime());
+        return values;
+    }
+
+    /**
+     * Descriptor for this step: defines the context and the UI elements.
+     */
+    @Extension
+    public static class Descriptor extends StepDescriptor {
+        @Override
+        public String getFunctionName() {
+            return "gitDirectoryStatistics";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.DirectoryStatistics_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.SynchronousStepExecution;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ListBoxModel;
+
+import io.jenkins.plugins.forensics.git.miner.Hotspots.Hotspot;
+import io.jenkins.plugins.forensics.git.miner.Hotspots.Metric;
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Pipeline step that returns the hotspots of the repository, i.e. the top files ranked by the number of commits, the
+ * number of authors, the churn, or the time of the last modification. The step uses the statistics that have been
+ * mined in the current build (or in a previous build) and returns a list of maps, each map contains the values of a
+ * file.
+ *
+ * <pre>
+ * def hotspots = gitHotspots metric: 'CHURN', count: 10
+ * </pre>
+ *
+ * @author Ullrich Hafner
+ */
+public class GitHotspotsStep extends Step implements Serializable {
+    private static final long serialVersionUID = -3786440960453290318L;
+    private static final int DEFAULT_COUNT = 10;
+
+    private String metric = Metric.COMMITS.name();
+    private int count = DEFAULT_COUNT;
+
+    /**
+     * Creates a new instance of {@link GitHotspotsStep}.
+     */
+    @DataBoundConstructor
+    public GitHotspotsStep() {
+        super();
+
+        // empty constructor required for Stapler
+    }
+
+    /**
+     * Sets the metric to rank the files by.
+     *
+     * @param metric
+     *         the name of the metric, see {@link Metric}
+     */
+    @DataBoundSetter
+    public void setMetric(final String metric) {
+        this.metric = metric;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    /**
+     * Sets the maximum number of files to return.
+     *
+     * @param count
+     *         the number of files
+     */
+    @DataBoundSetter
+    public void setCount(final int count) {
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) {
+        return new Execution(context, this);
+    }
+
+    /**
+     * Queries the hotspots of the statistics that are attached to the build.
+     */
+    static class Execution extends SynchronousStepExecution<List<Map<String, Object>>> {
+        private static final long serialVersionUID = 2873015838547163393L;
+
+        private final GitHotspotsStep step;
+
+        Execution(final StepContext context, final GitHotspotsStep step) {
+            super(context);
+
+            this.step = step;
+        }
+
+        @Override
+        protected List<Map<String, Object>> run() throws Exception {
+            Metric metric = parseMetric(step.getMetric());
+
+            Run<?, ?> build = findBuildWithStatistics(getContext().get(Run.class));
+            if (build == null) {
+                getContext().get(TaskListener.class).getLogger()
+                        .println("[Forensics] No repository statistics found, skipping hotspots");
+                return Collections.emptyList();
+            }
+
+            return getHotspots(build)
+                    .map(hotspots -> toMaps(hotspots.getTop(metric, step.getCount())))
+                    .orElse(Collections.emptyList());
+        }
+
+        /**
+         * Returns the cached hotspots of the specified build. Builds that have been mined by a previous version of
+         * the plugin have no {@link HotspotsAction}, so the hotspots of these builds are created for this query only.
+         */
+        private Optional<Hotspots> getHotspots(final Run<?, ?> build) {
+            HotspotsAction action = build.getAction(HotspotsAction.class);
+            if (action == null) {
+                action = new HotspotsAction();
+                action.onAttached(build);
+            }
+            return action.getHotspots();
+        }
+
+        @CheckForNull
+        private Run<?, ?> findBuildWithStatistics(final Run<?, ?> run) {
+            for (Run<?, ?> build = run; build != null; build = build.getPreviousBuild()) {
+                if (build.getAction(ForensicsBuildAction.class) != null) {
+                    return build;
+                }
+            }
+            return null;
+        }
+    }
+
+    @VisibleForTesting
+    static Metric parseMetric(final String name) throws AbortException {
+        try {
+            return Metric.valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException exception) {
+            throw new AbortException(String.format("Unsupported metric '%s', use one of %s", name,
+                    Arrays.toString(Metric.values())));
+        }
+    }
+
+    @VisibleForTesting
+    static List<Map<String, Object>> toMaps(final List<Hotspot> hotspots) {
+        List<Map<String, Object>> maps = new ArrayList<>(hotspots.size());
+        for (Hotspot hotspot : hotspots) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("fileName", hotspot.getFileName());
+            values.put("commits", hotspot.getNumberOfCommits());
+            values.put("authors", hotspot.getNumberOfAuthors());
+            values.put("churn", hotspot.getChurn());
+            values.put("lastModificationTime", hotspot.getLastModificationTime());
+            maps.add(values);
+        }
+        return maps;
+    }
+
+    /**
+     * Descriptor for this step: defines the context and the UI elements.
+     */
+    @Extension
+    public static class Descriptor extends StepDescriptor {
+        @Override
+        public String getFunctionName() {
+            return "gitHotspots";
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.Hotspots_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        /**
+         * Returns a model with all available metrics.
+         *
+         * @return a model with all available metrics
+         */
+        public ListBoxModel doFillMetricItems() {
+            ListBoxModel model = new ListBoxModel();
+            for (Metric value : Metric.values()) {
+                model.add(value.name());
+            }
+            return model;
+        }
+    }
+}
@@ -28,7 +28,8 @@ public class GitMinerFactory extends MinerFactory {
         if (validator.isGitRepository()) {
             logger.logInfo("-> Git miner successfully created in working tree '%s'", workTree);
 
-            return Optional.of(new GitRepositoryMiner(validator.createClient()));
+            return Optional.of(new GitRepositoryMiner(validator.createClient(), validator.getStorageProfile(),
+                    build));
         }
         logger.logInfo("-> Git miner could not be created for SCM '%s' in working tree '%s'", scm, workTree);
         return Optional.empty();
@@ -1,40 +1,51 @@
 package io.jenkins.plugins.forensics.git.miner;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.treewalk.AbstractTreeIterator;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
-import hudson.remoting.VirtualChannel;
+import hudson.model.Run;
 
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+import io.jenkins.plugins.forensics.git.miner.ChurnCalculator.Churn;
 import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
+import io.jenkins.plugins.forensics.git.util.ForensicsMetrics;
+import io.jenkins.plugins.forensics.git.util.ForensicsMetricsAction;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
+import io.jenkins.plugins.forensics.git.util.HeapBudget;
+import io.jenkins.plugins.forensics.git.util.IdentityResolver;
+import io.jenkins.plugins.forensics.git.util.IdentityResolver.Identity;
 import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.forensics.git.util.ResultChunker;
+import io.jenkins.plugins.forensics.git.util.StorageProfile;
+import io.jenkins.plugins.forensics.git.util.StreamingRepositoryCallback;
 import io.jenkins.plugins.forensics.miner.FileStatistics;
-import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
 import io.jenkins.plugins.forensics.miner.RepositoryMiner;
 import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
 
@@ -51,11 +62,21 @@ public class GitRepositoryMiner extends RepositoryMiner {
     private static final long serialVersionUID = 1157958118716013983L;
 
     private final GitClient gitClient;
+    private final StorageProfile storageProfile;
+    @CheckForNull
+    private final transient Run<?, ?> build;
 
     GitRepositoryMiner(final GitClient gitClient) {
+        this(gitClient, StorageProfile.jgitDefaults(), null);
+    }
+
+    GitRepositoryMiner(final GitClient gitClient, final StorageProfile storageProfile,
+            @CheckForNull final Run<?, ?> build) {
         super();
 
         this.gitClient = gitClient;
+        this.storageProfile = storageProfile;
+        this.build = build;
     }
 
     @Override
@@ -64,11 +85,33 @@ public class GitRepositoryMiner extends RepositoryMiner {
         try {
             long nano = System.nanoTime();
             logger.logInfo("Analyzing the commit log of the Git repository '%s'", gitClient.getWorkTree());
-            RemoteResultWrapper<RepositoryStatistics> wrapped = gitClient.withRepository(
-                    new RepositoryStatisticsCallback(repositoryStatistics.getLatestCommitId()));
+            String latestCommitId = repositoryStatistics.getLatestCommitId();
+            BucketSize bucketSize = ActivityHistograms.getConfiguredBucketSize();
+            Optional<BucketSize> previousBucketSize = CommitActivityAction.findPreviousBucketSize(build);
+            if (StringUtils.isNotEmpty(latestCommitId)
+                    && previousBucketSize.isPresent() && previousBucketSize.get() != bucketSize) {
+                logger.logInfo("The bucket size of the activity histograms has been changed from %s to %s, "
+                        + "mining all commits again", previousBucketSize.get(), bucketSize);
+                latestCommitId = StringUtils.EMPTY;
+            }
+            AbstractRepositoryCallback<RemoteResultWrapper<MiningResult>> callback = createCallback(latestCommitId,
+                    IdentityMappingAction.findPrevious(build).orElse(StringUtils.EMPTY), bucketSize);
+            callback.setStorageProfile(storageProfile);
+            callback.setIdentityAliases(GitForensicsConfiguration.getGlobalIdentityAliases());
+            RemoteResultWrapper<MiningResult> wrapped
+                    = StreamingRepositoryCallback.transfer(gitClient, callback, new MiningResultChunker());
             wrapped.getInfoMessages().forEach(logger::logInfo);
+            ForensicsMetricsAction.record(build, "Git miner", wrapped.getMetrics());
+            IdentityMappingAction.record(build, wrapped.getResult().getIdentityFingerprint());
+            CodeOwnershipAction.record(build, wrapped.getResult().getOwnership(), logger);
+            DirectoryStatisticsAction.record(build, wrapped.getResult().getDirectories(), logger);
+            CommitActivityAction.record(build, wrapped.getResult().getActivity(), logger);
+            ChangedFilesIndex.record(build, wrapped.getResult().getCommitChanges(), logger);
+            FileStatisticsTableAction.record(build);
+            HotspotsAction.record(build);
+            TemporalCouplingAction.record(build, wrapped.getResult().getCoupling(), logger);
 
-            RepositoryStatistics statistics = wrapped.getResult();
+            RepositoryStatistics statistics = wrapped.getResult().getStatistics();
             logger.logInfo("-> created report for %d files in %d seconds", statistics.size(),
                     1 + (System.nanoTime() - nano) / 1_000_000_000L);
             return statistics;
@@ -80,126 +123,441 @@ public class GitRepositoryMiner extends RepositoryMiner {
         }
     }
 
+    /**
+     * Creates a callback that mines the repository.
+     *
+     * @param latestCommitId
+     *         the latest commit that has been mined already, all older commits will be skipped
+     * @param previousFingerprint
+     *         the fingerprint of the identity mappings of the previous analysis: if the mappings have been changed
+     *         since then, all commits will be mined again
+     * @param bucketSize
+     *         the size of the buckets of the activity histograms
+     *
+     * @return the callback
+     */
+    static AbstractRepositoryCallback<RemoteResultWrapper<MiningResult>> createCallback(
+            final String latestCommitId, final String previousFingerprint, final BucketSize bucketSize) {
+        return new RepositoryStatisticsCallback(latestCommitId, previousFingerprint, bucketSize);
+    }
+
+    /**
+     * Transfers the statistics of each file as a separate element. The analyses of the mining result are written in
+     * their compact binary format, followed by the files that have been deleted by the mined commits (these files are
+     * not part of the persisted format but required to merge the analyses with the previous build).
+     */
+    private static class MiningResultChunker implements ResultChunker<MiningResult> {
+        private static final long serialVersionUID = 2295487396839575447L;
+
+        @Override
+        public MiningResult createEmptyCopy(final MiningResult result) {
+            OwnershipIndex ownership = result.getOwnership();
+            MiningResult copy = new MiningResult(new RepositoryStatistics(result.getStatistics().getLatestCommitId()),
+                    new OwnershipIndex(ownership.getBaseCommitId(), ownership.getLatestCommitId()),
+                    result.getActivity().getBucketSize());
+            copy.setIdentityFingerprint(result.getIdentityFingerprint());
+            return copy;
+        }
+
+        @Override
+        public void writeBinary(final MiningResult result, final DataOutput output) throws IOException {
+            result.getOwnership().writeTo(output);
+            writeFiles(result.getOwnership().getDeletedFiles(), output);
+            result.getCoupling().writeTo(output);
+            writeFiles(result.getCoupling().getDeletedFiles(), output);
+            result.getActivity().writeTo(output);
+            writeFiles(result.getActivity().getDeletedFiles(), output);
+            result.getDirectories().writeTo(output);
+            result.getCommitChanges().writeTo(output);
+        }
+
+        private void writeFiles(final Set<String> files, final DataOutput output) throws IOException {
+            output.writeInt(files.size());
+            for (String file : files) {
+                output.writeUTF(file);
+            }
+        }
+
+        @Override
+        public void readBinary(final MiningResult target, final DataInput input) throws IOException {
+            OwnershipIndex ownership = OwnershipIndex.readFrom(input);
+            ownership.addDeletedFiles(readFiles(input));
+            target.setOwnership(ownership);
+            TemporalCoupling coupling = TemporalCoupling.readFrom(input);
+            coupling.addDeletedFiles(readFiles(input));
+            target.setCoupling(coupling);
+            ActivityHistograms activity = ActivityHistograms.readFrom(input);
+            activity.addDeletedFiles(readFiles(input));
+            target.setActivity(activity);
+            target.setDirectories(DirectoryRollups.readFrom(input));
+            target.setCommitChanges(CommitChanges.readFrom(input));
+        }
+
+        private Set<String> readFiles(final DataInput input) throws IOException {
+            int size = input.readInt();
+            Set<String> files = new HashSet<>(size);
+            for (int i = 0; i < size; i++) {
+                files.add(input.readUTF());
+            }
+            return files;
+        }
+
+        @Override
+        public Iterator<FileStatistics> split(final MiningResult result) {
+            RepositoryStatistics statistics = result.getStatistics();
+            return statistics.getFiles().stream().map(statistics::get).iterator();
+        }
+
+        @Override
+        public void merge(final MiningResult target, final Serializable chunk) {
+            target.getStatistics().addAll(Collections.singletonList((FileStatistics) chunk));
+        }
+    }
+
     private static class RepositoryStatisticsCallback
-            extends AbstractRepositoryCallback<RemoteResultWrapper<RepositoryStatistics>> {
+            extends AbstractRepositoryCallback<RemoteResultWrapper<MiningResult>> {
         private static final long serialVersionUID = 7667073858514128136L;
 
+        private static final String ERRORS_TITLE = "Errors while mining the Git repository:";
+        private static final String COMMIT_COLLECTION = "commit collection";
+        private static final String HEAD_FILE_WALK = "HEAD file walk";
+        private static final String DIFF = "diff";
+        private static final String COMMITS = "commits";
+        private static final String FILES = "files";
+        private static final String CHANGED_PATHS = "changed paths";
+        private static final String SLOWEST_COMMITS = "slowest commits to diff";
+        private static final String ESTIMATED_BYTES = "estimated retained bytes";
+        private static final String SPILLED_CHANGES = "spilled changes";
+        private static final String SPILLED_RUNS = "spilled runs";
+        private static final String OWNED_FILES = "files with new owners";
+        private static final String LINES_ADDED = "lines added";
+        private static final String LINES_DELETED = "lines deleted";
+        private static final String CHURN = "churn";
+        private static final String CHURN_BINARY_FILES = "churn skipped binary files";
+        private static final String CHURN_LARGE_FILES = "churn skipped large files";
+        private static final String CHURN_CACHE_HITS = "churn cached texts";
+        private static final String COUPLING = "coupling";
+        private static final String DIRECTORIES = "directories";
+        private static final String DIRECTORY_ROLLUP = "directory rollup";
+        private static final String COUPLED_PAIRS = "coupled pairs";
+        private static final String COUPLING_SKIPPED_COMMITS = "coupling skipped commits";
+        private static final String COUPLING_PRUNED_PAIRS = "coupling pruned pairs";
+        /** Estimated size of a parsed commit (object, parents, and the raw buffer of the message). */
+        private static final int BYTES_PER_COMMIT = 512;
+        /**
+         * Estimated size of a changed file of a commit in the analyses that are not spilled (path ID of the changed
+         * files, counters of the owner, bucket of the activity, and counters of the directories).
+         */
+        private static final int BYTES_PER_CHANGE = 64;
+        /** Estimated size of a counted pair of files in the primitive map of the coupling analyzer. */
+        private static final int BYTES_PER_PAIR = 24;
+        /** Number of changes that will be written in a single run if the statistics are spilled to disk. */
+        private static final int RUN_SIZE = 100_000;
+
         private final String latestCommitId;
+        private final String previousFingerprint;
+        private final BucketSize bucketSize;
 
-        RepositoryStatisticsCallback(final String latestCommitId) {
+        RepositoryStatisticsCallback(final String latestCommitId, final String previousFingerprint,
+                final BucketSize bucketSize) {
             super();
 
             this.latestCommitId = latestCommitId;
+            this.previousFingerprint = previousFingerprint;
+            this.bucketSize = bucketSize;
         }
 
         @Override
-        public RemoteResultWrapper<RepositoryStatistics> invoke(final Repository repository,
-                final VirtualChannel channel) {
-            RemoteResultWrapper<RepositoryStatistics> result = new RemoteResultWrapper<>(
-                    createStatisticsFromHead(repository), "Errors while mining the Git repository:");
+        protected RemoteResultWrapper<MiningResult> process(final Repository repository,
+                final ObjectReader reader) {
+            ObjectId head = resolveHead(repository);
+            RepositoryStatistics statistics = head == null
+                    ? new RepositoryStatistics() : new RepositoryStatistics(head.getName());
+            FilteredLog identityLog = new FilteredLog("Errors while reading the identity mappings:");
+            IdentityResolver identities = head == null
+                    ? IdentityResolver.empty() : createIdentityResolver(reader, head, identityLog);
+            boolean isRemapped = StringUtils.isNotEmpty(latestCommitId)
+                    && !identities.getFingerprint().equals(previousFingerprint);
+            CommitCollector collector = new CommitCollector(reader,
+                    isRemapped ? StringUtils.EMPTY : latestCommitId);
+            String baseCommitId = findBaseCommitId(collector);
+            RemoteResultWrapper<MiningResult> result = new RemoteResultWrapper<>(
+                    new MiningResult(statistics, new OwnershipIndex(baseCommitId, statistics.getLatestCommitId()),
+                            bucketSize),
+                    ERRORS_TITLE);
+            result.getResult().setIdentityFingerprint(identities.getFingerprint());
+            if (isRemapped) {
+                result.logInfo("The identity mappings have been changed since the previous analysis, "
+                        + "mining all commits again");
+            }
+            else if (baseCommitId.isEmpty() && StringUtils.isNotEmpty(latestCommitId)) {
+                result.logInfo("Commit '%s' of the previous analysis is not part of the repository anymore, "
+                        + "mining all commits", latestCommitId);
+            }
+            identityLog.getInfoMessages().forEach(result::logInfo);
+            identityLog.getErrorMessages().forEach(result::logError);
 
             try {
-                try (Git git = new Git(repository)) {
-                    List<RevCommit> commits = new CommitCollector(repository, git, latestCommitId).findAllCommits();
-                    Map<String, FileStatistics> fileStatistics = analyze(repository, git, commits, result);
-                    result.getResult().addAll(fileStatistics.values());
+                if (head == null) {
+                    result.logError("Can't obtain HEAD of the repository.");
                 }
-                catch (GitAPIException | IOException exception) {
-                    result.logException(exception, "Can't obtain all commits for the repository.");
+                else {
+                    ForensicsMetrics metrics = result.getMetrics();
+                    long start = metrics.start();
+                    List<RevCommit> commits = collector.findAllCommits(head);
+                    metrics.stop(COMMIT_COLLECTION, start);
+                    metrics.add(COMMITS, commits.size());
+
+                    HeapBudget budget = HeapBudget.create();
+                    budget.allocate((long) BYTES_PER_COMMIT * commits.size());
+                    analyze(reader, head, commits, budget, identities, result);
+                    metrics.add(FILES, statistics.size());
+                    metrics.add(OWNED_FILES, result.getResult().getOwnership().size());
+                    metrics.add(ESTIMATED_BYTES, budget.getEstimatedBytes());
+                    metrics.logSlowest(SLOWEST_COMMITS, result);
                 }
             }
-            finally {
-                repository.close();
+            catch (IOException exception) {
+                result.logException(exception, "Can't obtain all commits for the repository.");
             }
 
             return result;
         }
 
-        private RepositoryStatistics createStatisticsFromHead(final Repository repository) {
+        private String findBaseCommitId(final CommitCollector collector) {
             try {
-                ObjectId headId = repository.resolve(Constants.HEAD);
-                if (headId != null) {
-                    return new RepositoryStatistics(headId.getName());
-                }
+                return collector.findBaseCommitId();
             }
             catch (IOException exception) {
-                // ignore
+                return StringUtils.EMPTY; // the commits can't be collected as well, so the result will be empty
             }
-            return new RepositoryStatistics();
         }
 
-        Map<String, FileStatistics> analyze(final Repository repository, final Git git, final List<RevCommit> commits,
-                final RemoteResultWrapper<RepositoryStatistics> result)
-                throws IOException {
-            FileStatisticsBuilder builder = new FileStatisticsBuilder();
-            Map<String, FileStatistics> fileStatistics = new HashMap<>();
-            Set<String> filesInHead = new FilesCollector(repository).findAllFor(repository.resolve(Constants.HEAD));
-            for (int i = commits.size() - 1; i >= 0; i--) {
-                RevCommit newCommit = commits.get(i);
-                String oldCommitName = i < commits.size() - 1 ? commits.get(i + 1).getName() : null;
-                List<String> files = getFilesFromCommit(repository, git, oldCommitName, newCommit.getName(),
-                        result);
-
-                files.forEach(f -> fileStatistics.computeIfAbsent(f, builder::build)
-                        .inspectCommit(newCommit.getCommitTime(), getAuthor(newCommit)));
+        @CheckForNull
+        private ObjectId resolveHead(final Repository repository) {
+            try {
+                return repository.resolve(Constants.HEAD);
+            }
+            catch (IOException exception) {
+                return null; // the commits can't be collected as well, so the result will be empty
             }
-            fileStatistics.keySet().removeIf(f -> !filesInHead.contains(f));
-            return fileStatistics;
         }
 
-        private List<String> getFilesFromCommit(final Repository repository, final Git git, final String oldCommit,
-                final String newCommit, final FilteredLog logger) {
-            List<String> filePaths = new ArrayList<>();
+        /**
+         * Analyzes the specified commits, starting with the oldest commit, and adds the statistics of all files that
+         * are part of the head commit to the result. The owners of the changed files are recorded in the ownership
+         * index of the result, the files that are changed together are counted for the temporal coupling, and the
+         * statistics of the directories are aggregated in a prefix tree of the paths. The commits are counted in the
+         * activity histograms of the repository and the changed files. The changed files of each commit are recorded
+         * for the index of changed files. If the heap budget is exhausted, then the changes of the remaining commits
+         * are spilled to disk and merged at the end.
+         *
+         * <p>
+         * Only the changes of the file statistics can be spilled. The other analyses remain in memory, so their
+         * estimated growth (per changed file and per counted pair of files) is charged to the heap budget as well:
+         * the more memory these analyses retain, the earlier the changes of the file statistics are spilled. So the
+         * budget delays an {@link OutOfMemoryError}, but it does not bound the heap of the agent.
+         * </p>
+         *
+         * @param reader
+         *         the shared object reader
+         * @param head
+         *         the head commit
+         * @param commits
+         *         the commits to analyze in topological order, the children of a commit are listed before the commit
+         * @param budget
+         *         the heap budget of the callback
+         * @param identities
+         *         resolves the authors of the commits to their canonical identity
+         * @param result
+         *         the result that will be filled with the statistics
+         */
+        void analyze(final ObjectReader reader, final ObjectId head, final List<RevCommit> commits,
+                final HeapBudget budget, final IdentityResolver identities,
+                final RemoteResultWrapper<MiningResult> result) {
+            ForensicsMetrics metrics = result.getMetrics();
+            OwnershipIndex ownership = result.getResult().getOwnership();
+            ChurnCalculator churnCalculator = new ChurnCalculator(reader);
+            CouplingAnalyzer couplingAnalyzer = new CouplingAnalyzer();
+            DirectoryTree directoryTree = new DirectoryTree();
+            ActivityHistograms activity = result.getResult().getActivity();
+            BucketSize bucketSize = activity.getBucketSize();
+            CommitChanges commitChanges = result.getResult().getCommitChanges();
+            long linesAdded = 0;
+            long linesDeleted = 0;
+            int chargedPairs = 0;
 
-            try {
-                final List<DiffEntry> diffEntries = git.diff()
-                        .setOldTree(getTreeParser(repository, oldCommit))
-                        .setNewTree(getTreeParser(repository, newCommit))
-                        .call();
+            long start = metrics.start();
+            Set<String> filesInHead = new FilesCollector(reader).findAllFor(head);
+            metrics.stop(HEAD_FILE_WALK, start);
+
+            start = metrics.start();
+            try (FileStatisticsAggregator aggregator = new FileStatisticsAggregator(budget, RUN_SIZE);
+                    RevWalk parents = new RevWalk(reader);
+                    TreeWalk treeWalk = new TreeWalk(reader)) {
+                treeWalk.setRecursive(true);
+                treeWalk.setFilter(TreeFilter.ANY_DIFF);
+                for (int i = commits.size() - 1; i >= 0; i--) {
+                    RevCommit newCommit = commits.get(i);
+                    long commitStart = metrics.start();
+                    List<FileChange> files = getFilesFromCommit(treeWalk, parents, newCommit, result);
+                    metrics.stopEntry(SLOWEST_COMMITS, describe(newCommit, files), commitStart);
 
-                filePaths = diffEntries.stream()
-                        .map(DiffEntry::getNewPath)
-                        .collect(Collectors.toList());
+                    boolean wasSpilling = aggregator.isSpilling();
+                    String author = getAuthor(newCommit, identities);
+                    directoryTree.startCommit();
+                    int bucket = bucketSize.getBucket(newCommit.getCommitTime());
+                    activity.addCommit(bucket);
+                    commitChanges.startCommit(newCommit.getName(),
+                            newCommit.getParentCount() == 0 ? StringUtils.EMPTY : newCommit.getParent(0).getName());
+                    List<String> changedFilesInHead = new ArrayList<>(files.size());
+                    for (FileChange file : files) {
+                        String path = file.getPath();
+                        commitChanges.addFile(path);
+                        if (file.isDeleted()) {
+                            ownership.deleteFile(path);
+                            activity.deleteFile(path);
+                            couplingAnalyzer.deleteFile(path);
+                        }
+                        else if (filesInHead.contains(path)) {
+                            changedFilesInHead.add(path);
+                            aggregator.inspect(path, newCommit.getCommitTime(), author);
+                            directoryTree.inspect(path, newCommit.getCommitTime(), StringUtils.defaultString(author));
+                            activity.addCommit(path, bucket);
+                            long churnStart = metrics.start();
+                            Churn churn = isMerge(newCommit)
+                                    ? Churn.NONE : computeChurn(churnCalculator, file, result);
+                            metrics.stop(CHURN, churnStart);
+                            ownership.addCommit(path, StringUtils.defaultString(author),
+                                    churn.getAdded(), churn.getDeleted());
+                            linesAdded += churn.getAdded();
+                            linesDeleted += churn.getDeleted();
+                        }
+                    }
+                    long couplingStart = metrics.start();
+                    couplingAnalyzer.inspect(changedFilesInHead);
+                    metrics.stop(COUPLING, couplingStart);
+                    budget.allocate((long) BYTES_PER_CHANGE * files.size());
+                    if (couplingAnalyzer.getPairs() > chargedPairs) {
+                        budget.allocate((long) BYTES_PER_PAIR * (couplingAnalyzer.getPairs() - chargedPairs));
+                        chargedPairs = couplingAnalyzer.getPairs();
+                    }
+                    if (!wasSpilling && aggregator.isSpilling()) {
+                        result.logInfo("Heap budget of the agent is exhausted (%s): spilling the changes of the "
+                                + "newest %d commits to disk", budget, i + 1);
+                    }
+                    metrics.add(CHANGED_PATHS, files.size());
+                }
+                RepositoryStatistics statistics = result.getResult().getStatistics();
+                aggregator.finish(file -> statistics.addAll(Collections.singletonList(file)));
+                metrics.add(LINES_ADDED, linesAdded);
+                metrics.add(LINES_DELETED, linesDeleted);
+                metrics.add(CHURN_BINARY_FILES, churnCalculator.getBinaryFiles());
+                metrics.add(CHURN_LARGE_FILES, churnCalculator.getLargeFiles());
+                metrics.add(CHURN_CACHE_HITS, churnCalculator.getCacheHits());
+                result.getResult().setCoupling(
+                        couplingAnalyzer.getCoupling(ownership.getBaseCommitId(), head.getName()));
+                metrics.add(COUPLED_PAIRS, couplingAnalyzer.getPairs());
+                metrics.add(COUPLING_SKIPPED_COMMITS, couplingAnalyzer.getSkippedCommits());
+                metrics.add(COUPLING_PRUNED_PAIRS, couplingAnalyzer.getPrunedPairs());
 
-                filePaths.remove(DiffEntry.DEV_NULL);
-                return filePaths;
+                long rollupStart = metrics.start();
+                directoryTree.addExistingFiles(filesInHead);
+                DirectoryRollups directories = directoryTree.rollup(ownership.getBaseCommitId(), head.getName());
+                result.getResult().setDirectories(directories);
+                metrics.stop(DIRECTORY_ROLLUP, rollupStart);
+                metrics.add(DIRECTORIES, directories.size());
+                if (directoryTree.isApproximate()) {
+                    result.logInfo("Counting the authors of directories approximately");
+                }
+                if (aggregator.isSpilling()) {
+                    metrics.add(SPILLED_CHANGES, aggregator.getSpilledChanges());
+                    metrics.add(SPILLED_RUNS, aggregator.getRuns());
+                }
             }
-            catch (GitAPIException exception) {
-                logger.logException(exception, "Can't analyze files for commits.");
+            catch (IOException exception) {
+                result.logException(exception, "Can't spill the file statistics to disk, statistics are incomplete");
+            }
+            metrics.stop(DIFF, start);
+        }
+
+        /**
+         * Returns the files that have been added, modified, or deleted by the specified commit, i.e. the differences
+         * between the commit and its first parent. The files of a root commit are compared with an empty tree.
+         *
+         * @param treeWalk
+         *         the tree walk to compare the trees with (using the shared object reader)
+         * @param parents
+         *         the walk to parse the parents of the commits with (using the shared object reader)
+         * @param commit
+         *         the commit
+         * @param logger
+         *         the logger
+         *
+         * @return the changed files
+         */
+        private List<FileChange> getFilesFromCommit(final TreeWalk treeWalk, final RevWalk parents,
+                final RevCommit commit, final FilteredLog logger) {
+            List<FileChange> changes = new ArrayList<>();
+
+            try {
+                if (commit.getParentCount() == 0) {
+                    treeWalk.reset();
+                    treeWalk.addTree(new EmptyTreeIterator());
+                    treeWalk.addTree(commit.getTree());
+                }
+                else {
+                    RevCommit parent = parents.parseCommit(commit.getParent(0));
+                    treeWalk.reset(parent.getTree(), commit.getTree());
+                }
+                while (treeWalk.next()) {
+                    changes.add(new FileChange(treeWalk.getPathString(), treeWalk.getObjectId(0),
+                            treeWalk.getObjectId(1), treeWalk.getFileMode(1) == FileMode.MISSING));
+                }
             }
             catch (IOException exception) {
-                logger.logException(exception, "Can't get treeParser.");
+                logger.logException(exception, "Can't analyze files for commit %s.", commit.getName());
             }
-            return filePaths;
+            return changes;
+        }
+
+        /**
+         * Returns whether the specified commit is a merge commit. The lines of a merge commit are not counted in the
+         * churn: the differences to the first parent contain all changes of the merged branch, these lines have been
+         * counted in the commits of the branch already. Moreover, the diff of a merge of a long-lived branch is as
+         * large as the branch itself.
+         */
+        private boolean isMerge(final RevCommit commit) {
+            return commit.getParentCount() > 1;
         }
 
-        private AbstractTreeIterator getTreeParser(final Repository repository, final String objectId)
-                throws IOException {
-            if (objectId == null) {
-                return new EmptyTreeIterator();
+        private Churn computeChurn(final ChurnCalculator churnCalculator, final FileChange file,
+                final FilteredLog logger) {
+            try {
+                return churnCalculator.compute(file);
+            }
+            catch (IOException exception) {
+                logger.logException(exception, "Can't compute churn of file '%s'", file.getPath());
+                return Churn.NONE;
             }
-            try (RevWalk walk = new RevWalk(repository)) {
-                RevCommit commit = walk.parseCommit(repository.resolve(objectId));
-                RevTree tree = walk.parseTree(commit.getTree().getId());
+        }
 
-                CanonicalTreeParser treeParser = new CanonicalTreeParser();
-                try (ObjectReader reader = repository.newObjectReader()) {
-                    treeParser.reset(reader, tree.getId());
-                }
-                walk.dispose();
-                return treeParser;
+        private String describe(final RevCommit commit, final List<FileChange> files) {
+            if (commit.getParentCount() > 1) {
+                return String.format("%s (merge, %d paths)", commit.getName(), files.size());
             }
+            return String.format("%s (%d paths)", commit.getName(), files.size());
         }
 
         @CheckForNull
-        private String getAuthor(final RevCommit commit) {
+        private String getAuthor(final RevCommit commit, final IdentityResolver identities) {
             PersonIdent author = commit.getAuthorIdent();
-            if (author != null) {
-                return StringUtils.defaultString(author.getEmailAddress(), author.getName());
+            if (author == null) {
+                author = commit.getCommitterIdent();
             }
-            PersonIdent committer = commit.getCommitterIdent();
-            if (committer != null) {
-                return StringUtils.defaultString(committer.getEmailAddress(), committer.getName());
+            if (author != null) {
+                Identity identity = identities.resolve(author);
+                return StringUtils.defaultString(identity.getEmail(), identity.getName());
             }
             return StringUtils.EMPTY;
         }
@@ -0,0 +1,248 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+
+/**
+ * Answers queries for the hotspots of a repository, i.e. the files with the most commits, the most authors, the
+ * highest churn, or the most recent changes. The values of the files are stored in primitive arrays. A query for the
+ * top {@code k} files selects the files with a bounded heap of size {@code k}, so the files are not sorted: the query
+ * requires {@code O(n log k)} operations. If a metric is queried again, then the complete ranking of the metric is
+ * computed (see {@link #getRanking(Metric)}) and kept as a precomputed rank index, so subsequent queries of this metric
+ * require {@code O(k)} operations only. The hotspots of a build are cached in the {@link HotspotsAction} of the build.
+ *
+ * <p>
+ * Files with the same value are ordered by their file name, so the results are stable.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class Hotspots {
+    private final String[] files;
+    private final int[] commits;
+    private final int[] authors;
+    private final long[] churn;
+    private final long[] lastModificationTimes;
+
+    private final Map<Metric, int[]> rankings = new EnumMap<>(Metric.class);
+    private final Set<Metric> queriedMetrics = EnumSet.noneOf(Metric.class);
+
+    /**
+     * Creates the hotspots of the specified statistics.
+     *
+     * @param statistics
+     *         the statistics of the files
+     * @param ownership
+     *         the ownership index that provides the churn of the files, might be {@code null} if the churn is not
+     *         available
+     */
+    public Hotspots(final Collection<FileStatistics> statistics, @CheckForNull final OwnershipIndex ownership) {
+        int size = statistics.size();
+        files = new String[size];
+        commits = new int[size];
+        authors = new int[size];
+        churn = new long[size];
+        lastModificationTimes = new long[size];
+
+        int position = 0;
+        for (FileStatistics file : statistics) {
+            files[position] = file.getFileName();
+            commits[position] = file.getNumberOfCommits();
+            authors[position] = file.getNumberOfAuthors();
+            churn[position] = ownership == null ? 0 : ownership.getChurn(file.getFileName());
+            lastModificationTimes[position] = file.getLastModificationTime();
+            position++;
+        }
+    }
+
+    /**
+     * Returns the number of files.
+     *
+     * @return the number of files
+     */
+    public int size() {
+        return files.length;
+    }
+
+    /**
+     * Returns the top files of the specified metric, ordered by the metric (descending).
+     *
+     * @param metric
+     *         the metric to rank the files by
+     * @param count
+     *         the maximum number of files to return
+     *
+     * @return the top files
+     */
+    public List<Hotspot> getTop(final Metric metric, final int count) {
+        int limit = Math.min(Math.max(count, 0), size());
+        if (limit == 0) {
+            return Collections.emptyList();
+        }
+
+        if (isRepeatedQuery(metric)) {
+            return toHotspots(getRanking(metric), limit);
+        }
+        return toHotspots(select(metric, limit), limit);
+    }
+
+    private synchronized boolean isRepeatedQuery(final Metric metric) {
+        return !queriedMetrics.add(metric);
+    }
+
+    /**
+     * Returns the ranking of all files of the specified metric, i.e. the positions of the files ordered by the metric
+     * (descending). The ranking is computed once and cached as rank index for subsequent queries.
+     *
+     * @param metric
+     *         the metric to rank the files by
+     *
+     * @return the positions of the files, ordered by the metric
+     */
+    synchronized int[] getRanking(final Metric metric) {
+        return rankings.computeIfAbsent(metric, key -> IntStream.range(0, size())
+                .boxed()
+                .sorted(byRank(key))
+                .mapToInt(Integer::intValue)
+                .toArray());
+    }
+
+    synchronized boolean hasRanking(final Metric metric) {
+        return rankings.containsKey(metric);
+    }
+
+    /**
+     * Selects the top files with a bounded heap. The head of the heap is the lowest ranked file of the current
+     * selection, it is replaced whenever a file with a higher rank is found.
+     */
+    private int[] select(final Metric metric, final int limit) {
+        Comparator<Integer> byRank = byRank(metric);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit, byRank.reversed());
+        for (int position = 0; position < size(); position++) {
+            if (heap.size() < limit) {
+                heap.add(position);
+            }
+            else if (byRank.compare(position, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(position);
+            }
+        }
+
+        int[] selection = new int[heap.size()];
+        for (int i = selection.length - 1; i >= 0; i--) {
+            selection[i] = heap.poll();
+        }
+        return selection;
+    }
+
+    private Comparator<Integer> byRank(final Metric metric) {
+        return (first, second) -> {
+            int comparison = Long.compare(getValue(metric, second), getValue(metric, first));
+            if (comparison == 0) {
+                return files[first].compareTo(files[second]);
+            }
+            return comparison;
+        };
+    }
+
+    private long getValue(final Metric metric, final int position) {
+        switch (metric) {
+            case COMMITS:
+                return commits[position];
+            case AUTHORS:
+                return authors[position];
+            case CHURN:
+                return churn[position];
+            case RECENCY:
+                return lastModificationTimes[position];
+            default:
+                throw new IllegalArgumentException("Unsupported metric: " + metric);
+        }
+    }
+
+    private List<Hotspot> toHotspots(final int[] positions, final int limit) {
+        List<Hotspot> hotspots = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            hotspots.add(get(positions[i]));
+        }
+        return hotspots;
+    }
+
+    Hotspot get(final int position) {
+        return new Hotspot(files[position], commits[position], authors[position], churn[position],
+                lastModificationTimes[position]);
+    }
+
+    /**
+     * The metrics that can be used to rank the files.
+     */
+    public enum Metric {
+        /** The number of commits of a file. */
+        COMMITS,
+        /** The number of authors of a file. */
+        AUTHORS,
+        /** The number of added and deleted lines of a file. */
+        CHURN,
+        /** The time of the last modification of a file. */
+        RECENCY
+    }
+
+    /**
+     * The values of a file that has been selected by a query.
+     */
+    public static class Hotspot {
+        private final String fileName;
+        private final int numberOfCommits;
+        private final int numberOfAuthors;
+        private final long churn;
+        private final long lastModificationTime;
+
+        Hotspot(final String fileName, final int numberOfCommits, final int numberOfAuthors, final long churn,
+                final long lastModificationTime) {
+            this.fileName = fileName;
+            this.numberOfCommits = numberOfCommits;
+            this.numberOfAuthors = numberOfAuthors;
+            this.churn = churn;
+            this.lastModificationTime = lastModificationTime;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public int getNumberOfCommits() {
+            return numberOfCommits;
+        }
+
+        public int getNumberOfAuthors() {
+            return numberOfAuthors;
+        }
+
+        public long getChurn() {
+            return churn;
+        }
+
+        public long getLastModificationTime() {
+            return lastModificationTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d commits, %d authors, churn %d", fileName, numberOfCommits, numberOfAuthors,
+                    churn);
+        }
+    }
+}
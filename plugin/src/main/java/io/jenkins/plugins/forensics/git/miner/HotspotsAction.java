@@ -0,0 +1,81 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.lang.ref.SoftReference;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Caches the {@link Hotspots} of a build. The hotspots are created on demand from the statistics and the ownership
+ * index of the build and referenced softly, so subsequent queries of the step {@code gitHotspots} reuse the values
+ * and the rank indexes of the files while memory is available.
+ *
+ * @author Ullrich Hafner
+ */
+public class HotspotsAction extends InvisibleAction implements RunAction2 {
+    private transient Run<?, ?> owner;
+    @CheckForNull
+    private transient SoftReference<Hotspots> hotspots;
+
+    /**
+     * Attaches the hotspots of the file statistics to the specified build.
+     *
+     * @param build
+     *         the build to attach the hotspots to
+     */
+    public static void record(@CheckForNull final Run<?, ?> build) {
+        if (build != null) {
+            build.addOrReplaceAction(new HotspotsAction());
+        }
+    }
+
+    public Run<?, ?> getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the hotspots of the build.
+     *
+     * @return the hotspots, or empty if the build has no file statistics
+     */
+    public synchronized Optional<Hotspots> getHotspots() {
+        Hotspots cached = hotspots == null ? null : hotspots.get();
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (owner == null) {
+            return Optional.empty();
+        }
+        ForensicsBuildAction statistics = owner.getAction(ForensicsBuildAction.class);
+        if (statistics == null) {
+            return Optional.empty();
+        }
+        Hotspots created = new Hotspots(statistics.getResult().getFileStatistics(), findOwnership().orElse(null));
+        hotspots = new SoftReference<>(created);
+        return Optional.of(created);
+    }
+
+    private Optional<OwnershipIndex> findOwnership() {
+        CodeOwnershipAction action = owner.getAction(CodeOwnershipAction.class);
+        if (action == null) {
+            return Optional.empty();
+        }
+        return action.getIndex();
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        owner = run;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        onAttached(run);
+    }
+}
@@ -0,0 +1,70 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+/**
+ * Stores the fingerprint of the identity mappings that have been used to resolve the authors of the mined commits of
+ * a build. The analyses of a build are merged with the analyses of the previous build. So the identities of the
+ * authors of both builds must have been resolved using the same mappings.
+ *
+ * @author Ullrich Hafner
+ * @see io.jenkins.plugins.forensics.git.util.IdentityResolver#getFingerprint()
+ */
+public class IdentityMappingAction extends InvisibleAction {
+    private final String fingerprint;
+
+    IdentityMappingAction(final String fingerprint) {
+        super();
+
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Records the fingerprint of the identity mappings of the specified build.
+     *
+     * @param build
+     *         the build to attach the fingerprint to
+     * @param fingerprint
+     *         the fingerprint of the identity mappings
+     */
+    public static void record(@CheckForNull final Run<?, ?> build, final String fingerprint) {
+        if (build != null) {
+            build.addOrReplaceAction(new IdentityMappingAction(fingerprint));
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the identity mappings that have been used by the latest previous build of the
+     * specified build that has mined the repository. Older builds are not inspected, since the analyses of the current
+     * build are merged with the analyses of this build only.
+     *
+     * @param build
+     *         the build to start the search with
+     *
+     * @return the fingerprint, or empty if the previous build that has mined the repository has not recorded a
+     *         fingerprint
+     */
+    public static Optional<String> findPrevious(@CheckForNull final Run<?, ?> build) {
+        if (build == null) {
+            return Optional.empty();
+        }
+        for (Run<?, ?> previous = build.getPreviousBuild(); previous != null; previous = previous.getPreviousBuild()) {
+            if (previous.getAction(ForensicsBuildAction.class) != null) {
+                return Optional.ofNullable(previous.getAction(IdentityMappingAction.class))
+                        .map(IdentityMappingAction::getFingerprint);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+}
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An index that is created by the {@link GitRepositoryMiner} from the commits of a build. The index of a build
+ * contains only the commits that are new in the build, i.e. the commits after the base commit. It is merged with the
+ * index of the previous build if the previous index ends at the base commit.
+ *
+ * @param <T>
+ *         the type of the index
+ *
+ * @author Ullrich Hafner
+ */
+public interface MinedIndex<T extends MinedIndex<T>> {
+    /**
+     * Returns the latest commit of the previous index. All commits up to this commit are not part of this index.
+     *
+     * @return the base commit ID, or an empty string if the index contains all commits
+     */
+    String getBaseCommitId();
+
+    /**
+     * Returns the latest commit of this index.
+     *
+     * @return the latest commit ID
+     */
+    String getLatestCommitId();
+
+    /**
+     * Returns the number of entries (e.g., files or directories) in this index.
+     *
+     * @return the number of entries
+     */
+    int size();
+
+    /**
+     * Creates a new index that contains the commits of the specified previous index and the commits of this index.
+     *
+     * @param previous
+     *         the index of the previous build
+     *
+     * @return the merged index
+     */
+    T merge(T previous);
+
+    /**
+     * Writes this index in a compact binary format.
+     *
+     * @param output
+     *         the output to write to
+     *
+     * @throws IOException
+     *         if the index could not be written
+     */
+    void writeTo(DataOutput output) throws IOException;
+}
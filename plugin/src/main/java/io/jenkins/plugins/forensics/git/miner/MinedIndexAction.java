@@ -0,0 +1,208 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.function.Function;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Stores a {@link MinedIndex} of a build. The index is persisted in a compact binary file in the folder of the build,
+ * the action itself contains only the properties of the index. The index is loaded on demand and referenced weakly, so
+ * it can be garbage collected if it is not used anymore.
+ *
+ * @param <T>
+ *         the type of the index
+ *
+ * @author Ullrich Hafner
+ */
+public abstract class MinedIndexAction<T extends MinedIndex<T>> extends InvisibleAction implements RunAction2 {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private transient Run<?, ?> owner;
+    @CheckForNull
+    private transient WeakReference<T> index;
+
+    private final String latestCommitId;
+    private final int size;
+
+    /**
+     * Creates a new instance of {@link MinedIndexAction}.
+     *
+     * @param index
+     *         the index of the build
+     */
+    protected MinedIndexAction(final T index) {
+        super();
+
+        latestCommitId = index.getLatestCommitId();
+        size = index.size();
+        this.index = new WeakReference<>(index);
+    }
+
+    /**
+     * Records the index of the specified build. The specified index contains only the commits that are new in this
+     * build. If the index of the previous build contains all commits up to the base commit of the new index, then both
+     * indexes are merged. Otherwise, the index of the build contains the new commits only.
+     *
+     * @param build
+     *         the build to attach the index to
+     * @param delta
+     *         the index of the new commits
+     * @param type
+     *         the type of the action
+     * @param factory
+     *         creates the action for the merged index
+     * @param logger
+     *         the logger
+     * @param <T>
+     *         the type of the index
+     * @param <A>
+     *         the type of the action
+     *
+     * @return the recorded index
+     */
+    protected static <T extends MinedIndex<T>, A extends MinedIndexAction<T>> T record(
+            @CheckForNull final Run<?, ?> build, final T delta, final Class<A> type, final Function<T, A> factory,
+            final FilteredLog logger) {
+        if (build == null) {
+            return delta;
+        }
+
+        T merged = merge(build, delta, type, logger);
+        A action = factory.apply(merged);
+        try {
+            write(build, action.getFileName(), merged);
+            build.addOrReplaceAction(action);
+        }
+        catch (IOException exception) {
+            logger.logException(exception, "Can't write the index '%s' of build %s", action.getFileName(), build);
+        }
+        return merged;
+    }
+
+    private static <T extends MinedIndex<T>, A extends MinedIndexAction<T>> T merge(final Run<?, ?> build,
+            final T delta, final Class<A> type, final FilteredLog logger) {
+        if (delta.getBaseCommitId().isEmpty()) {
+            return delta;
+        }
+        Optional<T> previous = findPrevious(build, type);
+        if (previous.isPresent() && previous.get().getLatestCommitId().equals(delta.getBaseCommitId())) {
+            return delta.merge(previous.get());
+        }
+        logger.logInfo("-> no %s found for commit %s, index contains the new commits only",
+                type.getSimpleName(), delta.getBaseCommitId());
+        return delta;
+    }
+
+    private static <T extends MinedIndex<T>, A extends MinedIndexAction<T>> Optional<T> findPrevious(
+            final Run<?, ?> build, final Class<A> type) {
+        for (Run<?, ?> previous = build.getPreviousBuild(); previous != null; previous = previous.getPreviousBuild()) {
+            A action = previous.getAction(type);
+            if (action != null) {
+                return action.getIndex();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void write(final Run<?, ?> build, final String fileName, final MinedIndex<?> index)
+            throws IOException {
+        Path file = getFile(build, fileName);
+        Path temp = file.resolveSibling(fileName + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+            index.writeTo(output);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path getFile(final Run<?, ?> build, final String fileName) {
+        return new File(build.getRootDir(), fileName).toPath();
+    }
+
+    /**
+     * Returns the name of the file in the build folder that stores the index.
+     *
+     * @return the file name
+     */
+    protected abstract String getFileName();
+
+    /**
+     * Reads the index from the specified input.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the index
+     * @throws IOException
+     *         if the index could not be read
+     */
+    protected abstract T read(DataInput input) throws IOException;
+
+    public Run<?, ?> getOwner() {
+        return owner;
+    }
+
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the build. The index is read from the folder of the build if it is not in memory anymore.
+     *
+     * @return the index, or empty if the index could not be read
+     */
+    public synchronized Optional<T> getIndex() {
+        T cached = index == null ? null : index.get();
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (owner == null) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(getFile(owner, getFileName())), BUFFER_SIZE))) {
+            T loaded = read(input);
+            index = new WeakReference<>(loaded);
+            return Optional.of(loaded);
+        }
+        catch (IOException exception) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        owner = run;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        onAttached(run);
+    }
+}
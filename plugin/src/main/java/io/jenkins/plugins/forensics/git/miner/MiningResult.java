@@ -0,0 +1,134 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
+
+/**
+ * The result of a mining run of the {@link GitRepositoryMiner}: the statistics of the files of the repository and the
+ * analyses that have been computed in the same walk of the commit history.
+ *
+ * @author Ullrich Hafner
+ */
+public class MiningResult implements Serializable {
+    private static final long serialVersionUID = 5291742087346529718L;
+
+    private final RepositoryStatistics statistics;
+    private OwnershipIndex ownership;
+    private TemporalCoupling coupling;
+    private DirectoryRollups directories;
+    private ActivityHistograms activity;
+    private CommitChanges commitChanges = new CommitChanges();
+    private String identityFingerprint = StringUtils.EMPTY;
+
+    /**
+     * Creates a new instance of {@link MiningResult}.
+     *
+     * @param statistics
+     *         the statistics of the files
+     * @param ownership
+     *         the owners of the files, contains only the mined commits
+     * @param bucketSize
+     *         the size of the buckets of the activity histograms
+     */
+    public MiningResult(final RepositoryStatistics statistics, final OwnershipIndex ownership,
+            final BucketSize bucketSize) {
+        this.statistics = statistics;
+        this.ownership = ownership;
+        coupling = new TemporalCoupling(ownership.getBaseCommitId(), ownership.getLatestCommitId());
+        directories = new DirectoryRollups(ownership.getBaseCommitId(), ownership.getLatestCommitId());
+        activity = new ActivityHistograms(ownership.getBaseCommitId(), ownership.getLatestCommitId(), bucketSize);
+    }
+
+    public RepositoryStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the owners of the files. The index contains only the commits that have been mined in this run, use
+     * {@link OwnershipIndex#merge(OwnershipIndex)} to combine it with the index of a previous run.
+     *
+     * @return the ownership index of the mined commits
+     */
+    public OwnershipIndex getOwnership() {
+        return ownership;
+    }
+
+    void setOwnership(final OwnershipIndex ownership) {
+        this.ownership = ownership;
+    }
+
+    /**
+     * Returns the temporal coupling of the files. The index contains only the commits that have been mined in this
+     * run, use {@link TemporalCoupling#merge(TemporalCoupling)} to combine it with the index of a previous run.
+     *
+     * @return the temporal coupling of the mined commits
+     */
+    public TemporalCoupling getCoupling() {
+        return coupling;
+    }
+
+    void setCoupling(final TemporalCoupling coupling) {
+        this.coupling = coupling;
+    }
+
+    /**
+     * Returns the statistics of the directories. The statistics contain only the commits that have been mined in
+     * this run, use {@link DirectoryRollups#merge(DirectoryRollups)} to combine them with the statistics of a previous
+     * run.
+     *
+     * @return the statistics of the directories
+     */
+    public DirectoryRollups getDirectories() {
+        return directories;
+    }
+
+    void setDirectories(final DirectoryRollups directories) {
+        this.directories = directories;
+    }
+
+    /**
+     * Returns the commit activity of the repository and its files. The histograms contain only the commits that have
+     * been mined in this run, use {@link ActivityHistograms#merge(ActivityHistograms)} to combine them with the
+     * histograms of a previous run.
+     *
+     * @return the commit activity
+     */
+    public ActivityHistograms getActivity() {
+        return activity;
+    }
+
+    void setActivity(final ActivityHistograms activity) {
+        this.activity = activity;
+    }
+
+    /**
+     * Returns the files that have been changed by the mined commits.
+     *
+     * @return the changed files of each mined commit
+     */
+    public CommitChanges getCommitChanges() {
+        return commitChanges;
+    }
+
+    void setCommitChanges(final CommitChanges commitChanges) {
+        this.commitChanges = commitChanges;
+    }
+
+    /**
+     * Returns the fingerprint of the mappings that have been used to resolve the identities of the authors.
+     *
+     * @return the fingerprint of the identity mappings
+     * @see io.jenkins.plugins.forensics.git.util.IdentityResolver#getFingerprint()
+     */
+    public String getIdentityFingerprint() {
+        return identityFingerprint;
+    }
+
+    void setIdentityFingerprint(final String identityFingerprint) {
+        this.identityFingerprint = identityFingerprint;
+    }
+}
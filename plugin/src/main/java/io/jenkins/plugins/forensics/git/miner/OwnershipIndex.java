@@ -0,0 +1,469 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Index of the owners of the files of a repository. For each file the index stores the number of commits and the
+ * number of added and deleted lines of each author. Authors are stored as int IDs, the counters of a file are stored
+ * in primitive arrays, so the index of a repository with hundreds of thousands of files requires just a few bytes per
+ * file and author.
+ *
+ * <p>
+ * The index is built incrementally: the miner creates an index that contains only the new commits of a build. This
+ * index is then merged with the index of the previous build using {@link #merge(OwnershipIndex)}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class OwnershipIndex implements MinedIndex<OwnershipIndex>, Serializable {
+    private static final long serialVersionUID = -4386722431596620566L;
+    private static final int FORMAT_VERSION = 1;
+
+    private final String baseCommitId;
+    private final String latestCommitId;
+    private final List<String> authors = new ArrayList<>();
+    private final Map<String, FileOwnership> files = new HashMap<>();
+    /** Files that have been deleted by the new commits, used when merging with the previous index (not persisted). */
+    private final Set<String> deletedFiles = new HashSet<>();
+
+    @CheckForNull
+    private transient ObjectIntHashMap<String> authorIds;
+
+    /**
+     * Creates a new empty {@link OwnershipIndex}.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous index, all commits up to this commit are not part of this index (empty
+     *         if the index contains all commits)
+     * @param latestCommitId
+     *         the latest commit of this index
+     */
+    public OwnershipIndex(final String baseCommitId, final String latestCommitId) {
+        this.baseCommitId = baseCommitId;
+        this.latestCommitId = latestCommitId;
+    }
+
+    @Override
+    public String getBaseCommitId() {
+        return baseCommitId;
+    }
+
+    @Override
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    /**
+     * Returns the number of files in this index.
+     *
+     * @return the number of files
+     */
+    @Override
+    public int size() {
+        return files.size();
+    }
+
+    public int getNumberOfAuthors() {
+        return authors.size();
+    }
+
+    public Set<String> getFiles() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    /**
+     * Records a commit of the specified author that changed the specified file.
+     *
+     * @param file
+     *         the changed file
+     * @param author
+     *         the author of the commit
+     * @param linesAdded
+     *         the number of added lines
+     * @param linesDeleted
+     *         the number of deleted lines
+     */
+    public void addCommit(final String file, final String author, final int linesAdded, final int linesDeleted) {
+        add(file, getAuthorId(author), 1, linesAdded, linesDeleted);
+    }
+
+    /**
+     * Records that the specified file has been deleted. The commits of the file that have been recorded so far are
+     * removed. When merged with the index of the previous build, then the commits of the previous index are removed
+     * as well, even if the file has been added again by a subsequent commit.
+     *
+     * @param file
+     *         the deleted file
+     */
+    public void deleteFile(final String file) {
+        files.remove(file);
+        deletedFiles.add(file);
+    }
+
+    /**
+     * Records that the specified files have been deleted by the commits of this index. In contrast to {@link
+     * #deleteFile(String)} the commits of the files are not removed, so files that have been added again are
+     * retained.
+     *
+     * @param files
+     *         the deleted files
+     */
+    void addDeletedFiles(final Set<String> files) {
+        deletedFiles.addAll(files);
+    }
+
+    /**
+     * Returns the files that have been deleted by the commits of this index.
+     *
+     * @return the deleted files
+     */
+    Set<String> getDeletedFiles() {
+        return Collections.unmodifiableSet(deletedFiles);
+    }
+
+    private void add(final String file, final int authorId, final int commits, final long linesAdded,
+            final long linesDeleted) {
+        files.computeIfAbsent(file, key -> new FileOwnership()).add(authorId, commits, linesAdded, linesDeleted);
+    }
+
+    private int getAuthorId(final String author) {
+        ObjectIntHashMap<String> ids = getAuthorIds();
+        int id = ids.getIfAbsent(author, -1);
+        if (id < 0) {
+            id = authors.size();
+            authors.add(author);
+            ids.put(author, id);
+        }
+        return id;
+    }
+
+    private ObjectIntHashMap<String> getAuthorIds() {
+        if (authorIds == null) {
+            authorIds = new ObjectIntHashMap<>(authors.size());
+            for (int i = 0; i < authors.size(); i++) {
+                authorIds.put(authors.get(i), i);
+            }
+        }
+        return authorIds;
+    }
+
+    /**
+     * Creates a new index that contains the commits of the specified previous index and the commits of this index.
+     * Files that have been deleted by the commits of this index are removed.
+     *
+     * @param previous
+     *         the index of the previous build
+     *
+     * @return the merged index
+     */
+    @Override
+    public OwnershipIndex merge(final OwnershipIndex previous) {
+        OwnershipIndex merged = new OwnershipIndex(previous.baseCommitId, latestCommitId);
+        merged.addAll(previous);
+        deletedFiles.forEach(merged.files::remove);
+        merged.addAll(this);
+        return merged;
+    }
+
+    private void addAll(final OwnershipIndex other) {
+        int[] mapping = new int[other.authors.size()];
+        for (int i = 0; i < mapping.length; i++) {
+            mapping[i] = getAuthorId(other.authors.get(i));
+        }
+        other.files.forEach((file, ownership) -> {
+            for (int i = 0; i < ownership.size; i++) {
+                add(file, mapping[ownership.authorIds[i]], ownership.commits[i], ownership.added[i],
+                        ownership.deleted[i]);
+            }
+        });
+    }
+
+    /**
+     * Returns the owners of the specified file. The owner with the most commits is the first element.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the owners of the file, or an empty list if the file is not part of the index
+     */
+    public List<Owner> getOwners(final String file) {
+        FileOwnership ownership = files.get(file);
+        if (ownership == null) {
+            return Collections.emptyList();
+        }
+
+        long totalCommits = 0;
+        long totalChurn = 0;
+        for (int i = 0; i < ownership.size; i++) {
+            totalCommits += ownership.commits[i];
+            totalChurn += ownership.getChurn(i);
+        }
+        List<Owner> owners = new ArrayList<>(ownership.size);
+        for (int i = 0; i < ownership.size; i++) {
+            owners.add(new Owner(authors.get(ownership.authorIds[i]), ownership.commits[i], ownership.added[i],
+                    ownership.deleted[i], share(ownership.commits[i], totalCommits),
+                    share(ownership.getChurn(i), totalChurn)));
+        }
+        owners.sort(Comparator.comparingInt(Owner::getCommits)
+                .thenComparingLong(Owner::getChurn)
+                .reversed()
+                .thenComparing(Owner::getAuthor));
+        return owners;
+    }
+
+    private double share(final long value, final long total) {
+        if (total == 0) {
+            return 0;
+        }
+        return (double) value / total;
+    }
+
+    /**
+     * Returns the number of lines that have been added to the specified file by all authors.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the number of added lines
+     */
+    public long getLinesAdded(final String file) {
+        FileOwnership ownership = files.get(file);
+        return ownership == null ? 0 : ownership.sum(ownership.added);
+    }
+
+    /**
+     * Returns the number of lines that have been deleted from the specified file by all authors.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the number of deleted lines
+     */
+    public long getLinesDeleted(final String file) {
+        FileOwnership ownership = files.get(file);
+        return ownership == null ? 0 : ownership.sum(ownership.deleted);
+    }
+
+    /**
+     * Returns the churn of the specified file, i.e. the number of lines that have been added and deleted by all
+     * authors.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the churn of the file
+     */
+    public long getChurn(final String file) {
+        return getLinesAdded(file) + getLinesDeleted(file);
+    }
+
+    /**
+     * Returns the primary owner of the specified file, i.e. the author with the most commits.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the primary owner, or empty if the file is not part of the index
+     */
+    public Optional<Owner> getPrimaryOwner(final String file) {
+        return getOwners(file).stream().findFirst();
+    }
+
+    @Override
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(baseCommitId);
+        output.writeUTF(latestCommitId);
+        output.writeInt(authors.size());
+        for (String author : authors) {
+            output.writeUTF(author);
+        }
+        output.writeInt(files.size());
+        for (Map.Entry<String, FileOwnership> entry : files.entrySet()) {
+            output.writeUTF(entry.getKey());
+            FileOwnership ownership = entry.getValue();
+            output.writeInt(ownership.size);
+            for (int i = 0; i < ownership.size; i++) {
+                output.writeInt(ownership.authorIds[i]);
+                output.writeInt(ownership.commits[i]);
+                output.writeLong(ownership.added[i]);
+                output.writeLong(ownership.deleted[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads an index that has been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the index
+     * @throws IOException
+     *         if the index could not be read
+     */
+    public static OwnershipIndex readFrom(final DataInput input) throws IOException {
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format of ownership index: " + version);
+        }
+        OwnershipIndex index = new OwnershipIndex(input.readUTF(), input.readUTF());
+        int authorCount = input.readInt();
+        for (int i = 0; i < authorCount; i++) {
+            index.authors.add(input.readUTF());
+        }
+        int fileCount = input.readInt();
+        for (int i = 0; i < fileCount; i++) {
+            String file = input.readUTF();
+            int size = input.readInt();
+            FileOwnership ownership = new FileOwnership(size);
+            for (int j = 0; j < size; j++) {
+                ownership.add(input.readInt(), input.readInt(), input.readLong(), input.readLong());
+            }
+            index.files.put(file, ownership);
+        }
+        return index;
+    }
+
+    /**
+     * The counters of the authors of a single file, stored in parallel primitive arrays. Files typically have only a
+     * few authors, so the authors are found using a linear search.
+     */
+    private static class FileOwnership implements Serializable {
+        private static final long serialVersionUID = 1798153318735325466L;
+
+        private int size;
+        private int[] authorIds;
+        private int[] commits;
+        private long[] added;
+        private long[] deleted;
+
+        FileOwnership() {
+            this(1);
+        }
+
+        FileOwnership(final int capacity) {
+            authorIds = new int[Math.max(capacity, 1)];
+            commits = new int[authorIds.length];
+            added = new long[authorIds.length];
+            deleted = new long[authorIds.length];
+        }
+
+        void add(final int authorId, final int commitCount, final long linesAdded, final long linesDeleted) {
+            for (int i = 0; i < size; i++) {
+                if (authorIds[i] == authorId) {
+                    commits[i] += commitCount;
+                    added[i] += linesAdded;
+                    deleted[i] += linesDeleted;
+                    return;
+                }
+            }
+            if (size == authorIds.length) {
+                int capacity = size * 2;
+                authorIds = Arrays.copyOf(authorIds, capacity);
+                commits = Arrays.copyOf(commits, capacity);
+                added = Arrays.copyOf(added, capacity);
+                deleted = Arrays.copyOf(deleted, capacity);
+            }
+            authorIds[size] = authorId;
+            commits[size] = commitCount;
+            added[size] = linesAdded;
+            deleted[size] = linesDeleted;
+            size++;
+        }
+
+        long getChurn(final int index) {
+            return added[index] + deleted[index];
+        }
+
+        long sum(final long[] values) {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * The share of an author in a file.
+     */
+    public static class Owner {
+        private final String author;
+        private final int commits;
+        private final long linesAdded;
+        private final long linesDeleted;
+        private final double commitShare;
+        private final double churnShare;
+
+        Owner(final String author, final int commits, final long linesAdded, final long linesDeleted,
+                final double commitShare, final double churnShare) {
+            this.author = author;
+            this.commits = commits;
+            this.linesAdded = linesAdded;
+            this.linesDeleted = linesDeleted;
+            this.commitShare = commitShare;
+            this.churnShare = churnShare;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public int getCommits() {
+            return commits;
+        }
+
+        public long getLinesAdded() {
+            return linesAdded;
+        }
+
+        public long getLinesDeleted() {
+            return linesDeleted;
+        }
+
+        /**
+         * Returns the churn of this author, i.e. the number of lines that have been added and deleted.
+         *
+         * @return the churn
+         */
+        public long getChurn() {
+            return linesAdded + linesDeleted;
+        }
+
+        /**
+         * Returns the share of the commits of this author in all commits of the file.
+         *
+         * @return the share in the range [0, 1]
+         */
+        public double getCommitShare() {
+            return commitShare;
+        }
+
+        /**
+         * Returns the share of the churn of this author in the churn of all commits of the file.
+         *
+         * @return the share in the range [0, 1]
+         */
+        public double getChurnShare() {
+            return churnShare;
+        }
+    }
+}
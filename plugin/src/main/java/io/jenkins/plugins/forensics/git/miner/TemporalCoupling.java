@@ -0,0 +1,378 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Index of the temporal coupling of the files of a repository, i.e. the number of commits that changed a pair of
+ * files together. For each file the index stores the number of commits that changed the file, for each pair of files
+ * the number of shared commits. The pairs are stored as long keys that pack the IDs of both files.
+ *
+ * <p>
+ * The index is built incrementally: the miner creates an index that contains only the new commits of a build. This
+ * index is then merged with the index of the previous build using {@link #merge(TemporalCoupling)}. The number of
+ * pairs of the merged index is bounded in the same way as in the {@link CouplingAnalyzer}, so rarely coupled pairs
+ * will be pruned.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class TemporalCoupling implements MinedIndex<TemporalCoupling>, Serializable {
+    private static final long serialVersionUID = -4720262290364582105L;
+    private static final int FORMAT_VERSION = 1;
+    private static final long INT_MASK = 0xFFFF_FFFFL;
+
+    private final String baseCommitId;
+    private final String latestCommitId;
+    private final String[] files;
+    private final int[] commitsPerFile;
+    private final long[] pairs;
+    private final int[] sharedCommits;
+    private final int skippedCommits;
+    /** Files that have been deleted by the new commits, used when merging with the previous index (not persisted). */
+    private final Set<String> deletedFiles = new HashSet<>();
+
+    @CheckForNull
+    private transient List<CoupledFiles> topPairs;
+
+    /**
+     * Creates a new empty {@link TemporalCoupling}.
+     *
+     * @param baseCommitId
+     *         the latest commit of the previous index, all commits up to this commit are not part of this index (empty
+     *         if the index contains all commits)
+     * @param latestCommitId
+     *         the latest commit of this index
+     */
+    public TemporalCoupling(final String baseCommitId, final String latestCommitId) {
+        this(baseCommitId, latestCommitId, new String[0], new int[0], new long[0], new int[0], 0);
+    }
+
+    TemporalCoupling(final String baseCommitId, final String latestCommitId, final String[] files,
+            final int[] commitsPerFile, final long[] pairs, final int[] sharedCommits, final int skippedCommits) {
+        this.baseCommitId = baseCommitId;
+        this.latestCommitId = latestCommitId;
+        this.files = files;
+        this.commitsPerFile = commitsPerFile;
+        this.pairs = pairs;
+        this.sharedCommits = sharedCommits;
+        this.skippedCommits = skippedCommits;
+    }
+
+    static long pack(final int first, final int second) {
+        return ((long) first << Integer.SIZE) | (second & INT_MASK);
+    }
+
+    static int first(final long pair) {
+        return (int) (pair >>> Integer.SIZE);
+    }
+
+    static int second(final long pair) {
+        return (int) (pair & INT_MASK);
+    }
+
+    @Override
+    public String getBaseCommitId() {
+        return baseCommitId;
+    }
+
+    @Override
+    public String getLatestCommitId() {
+        return latestCommitId;
+    }
+
+    /**
+     * Returns the number of counted pairs in this index.
+     *
+     * @return the number of pairs
+     */
+    @Override
+    public int size() {
+        return pairs.length;
+    }
+
+    public int getNumberOfFiles() {
+        return files.length;
+    }
+
+    public int getSkippedCommits() {
+        return skippedCommits;
+    }
+
+    public boolean isEmpty() {
+        return pairs.length == 0;
+    }
+
+    /**
+     * Returns the pairs of files that have been changed together most often. The number of pairs can be configured
+     * using the system property {@code io.jenkins.plugins.forensics.git.miner.CouplingAnalyzer.topPairs}.
+     *
+     * @return the coupled pairs, the most often coupled pair first
+     */
+    public synchronized List<CoupledFiles> getPairs() {
+        if (topPairs == null) {
+            topPairs = Collections.unmodifiableList(getPairs(CouplingAnalyzer.TOP_PAIRS));
+        }
+        return topPairs;
+    }
+
+    /**
+     * Returns the pairs of files that have been changed together most often. The pairs are selected using a bounded
+     * heap, so the pairs are not sorted completely.
+     *
+     * @param size
+     *         the maximum number of pairs to return
+     *
+     * @return the coupled pairs, the most often coupled pair first
+     */
+    public List<CoupledFiles> getPairs(final int size) {
+        if (size <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(size + 1, this::compare);
+        for (int position = 0; position < pairs.length; position++) {
+            heap.add(position);
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+
+        List<CoupledFiles> coupled = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int position = heap.poll();
+            int first = first(pairs[position]);
+            int second = second(pairs[position]);
+            coupled.add(new CoupledFiles(files[first], files[second], sharedCommits[position],
+                    commitsPerFile[first], commitsPerFile[second]));
+        }
+        Collections.reverse(coupled);
+        return coupled;
+    }
+
+    /**
+     * Orders the pairs by their number of shared commits, pairs with the same count are ordered by their key in
+     * descending order so that the result is deterministic.
+     */
+    private int compare(final int left, final int right) {
+        int comparison = Integer.compare(sharedCommits[left], sharedCommits[right]);
+        if (comparison == 0) {
+            return Long.compare(pairs[right], pairs[left]);
+        }
+        return comparison;
+    }
+
+    /**
+     * Creates a new index that contains the counters of the specified previous index and the counters of this index.
+     * Files that have been deleted by the commits of this index are removed.
+     *
+     * @param previous
+     *         the index of the previous build
+     *
+     * @return the merged index
+     */
+    @Override
+    public TemporalCoupling merge(final TemporalCoupling previous) {
+        CouplingAnalyzer merged = new CouplingAnalyzer();
+        merged.addAll(previous, deletedFiles);
+        merged.addAll(this, Collections.emptySet());
+        return merged.getCoupling(previous.baseCommitId, latestCommitId);
+    }
+
+    /**
+     * Records that the specified files have been deleted by the commits of this index.
+     *
+     * @param files
+     *         the deleted files
+     */
+    void addDeletedFiles(final Set<String> files) {
+        deletedFiles.addAll(files);
+    }
+
+    /**
+     * Returns the files that have been deleted by the commits of this index.
+     *
+     * @return the deleted files
+     */
+    Set<String> getDeletedFiles() {
+        return Collections.unmodifiableSet(deletedFiles);
+    }
+
+    /**
+     * Passes the files of this index and the number of commits of each file to the specified consumer.
+     *
+     * @param consumer
+     *         the consumer that receives the position, the name, and the number of commits of each file
+     */
+    void forEachFile(final FileConsumer consumer) {
+        for (int position = 0; position < files.length; position++) {
+            consumer.accept(position, files[position], commitsPerFile[position]);
+        }
+    }
+
+    /**
+     * Passes the pairs of this index and the number of shared commits of each pair to the specified consumer.
+     *
+     * @param consumer
+     *         the consumer that receives the positions of both files and the number of shared commits
+     */
+    void forEachPair(final PairConsumer consumer) {
+        for (int position = 0; position < pairs.length; position++) {
+            consumer.accept(first(pairs[position]), second(pairs[position]), sharedCommits[position]);
+        }
+    }
+
+    @Override
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(baseCommitId);
+        output.writeUTF(latestCommitId);
+        output.writeInt(skippedCommits);
+        output.writeInt(files.length);
+        for (int position = 0; position < files.length; position++) {
+            output.writeUTF(files[position]);
+            output.writeInt(commitsPerFile[position]);
+        }
+        output.writeInt(pairs.length);
+        for (int position = 0; position < pairs.length; position++) {
+            output.writeLong(pairs[position]);
+            output.writeInt(sharedCommits[position]);
+        }
+    }
+
+    /**
+     * Reads an index that has been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the index
+     * @throws IOException
+     *         if the index could not be read
+     */
+    public static TemporalCoupling readFrom(final DataInput input) throws IOException {
+        int version = input.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format of coupling index: " + version);
+        }
+        String baseCommitId = input.readUTF();
+        String latestCommitId = input.readUTF();
+        int skippedCommits = input.readInt();
+        String[] files = new String[input.readInt()];
+        int[] commitsPerFile = new int[files.length];
+        for (int position = 0; position < files.length; position++) {
+            files[position] = input.readUTF();
+            commitsPerFile[position] = input.readInt();
+        }
+        long[] pairs = new long[input.readInt()];
+        int[] sharedCommits = new int[pairs.length];
+        for (int position = 0; position < pairs.length; position++) {
+            pairs[position] = input.readLong();
+            sharedCommits[position] = input.readInt();
+        }
+        return new TemporalCoupling(baseCommitId, latestCommitId, files, commitsPerFile, pairs, sharedCommits,
+                skippedCommits);
+    }
+
+    /**
+     * Receives the files of an index.
+     */
+    @FunctionalInterface
+    interface FileConsumer {
+        void accept(int position, String file, int commits);
+    }
+
+    /**
+     * Receives the pairs of an index.
+     */
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(int first, int second, int sharedCommits);
+    }
+
+    /**
+     * Two files that have been changed in the same commits.
+     */
+    public static class CoupledFiles implements Serializable {
+        private static final long serialVersionUID = 3217458796310617282L;
+
+        private final String firstFile;
+        private final String secondFile;
+        private final int sharedCommits;
+        private final int firstCommits;
+        private final int secondCommits;
+
+        /**
+         * Creates a new instance of {@link CoupledFiles}.
+         *
+         * @param firstFile
+         *         the first file
+         * @param secondFile
+         *         the second file
+         * @param sharedCommits
+         *         the number of commits that changed both files
+         * @param firstCommits
+         *         the number of commits that changed the first file
+         * @param secondCommits
+         *         the number of commits that changed the second file
+         */
+        public CoupledFiles(final String firstFile, final String secondFile, final int sharedCommits,
+                final int firstCommits, final int secondCommits) {
+            this.firstFile = firstFile;
+            this.secondFile = secondFile;
+            this.sharedCommits = sharedCommits;
+            this.firstCommits = firstCommits;
+            this.secondCommits = secondCommits;
+        }
+
+        public String getFirstFile() {
+            return firstFile;
+        }
+
+        public String getSecondFile() {
+            return secondFile;
+        }
+
+        public int getSharedCommits() {
+            return sharedCommits;
+        }
+
+        public int getFirstCommits() {
+            return firstCommits;
+        }
+
+        public int getSecondCommits() {
+            return secondCommits;
+        }
+
+        /**
+         * Returns the degree of coupling, i.e. the number of shared commits relative to the average number of commits
+         * of both files.
+         *
+         * @return the degree of coupling in the range [0, 1]
+         */
+        public double getDegree() {
+            int commits = firstCommits + secondCommits;
+            if (commits == 0) {
+                return 0;
+            }
+            return 2.0 * sharedCommits / commits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH, "%s <-> %s: %d shared commits (%.0f%%)",
+                    firstFile, secondFile, sharedCommits, getDegree() * 100);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import hudson.model.Run;
+
+/**
+ * Stores the {@link TemporalCoupling} of the files of a build.
+ *
+ * @author Ullrich Hafner
+ */
+public class TemporalCouplingAction extends MinedIndexAction<TemporalCoupling> {
+    static final String COUPLING_FILE = "git-forensics-coupling.bin";
+
+    TemporalCouplingAction(final TemporalCoupling coupling) {
+        super(coupling);
+    }
+
+    /**
+     * Records the temporal coupling of the specified build. The specified coupling contains only the commits that are
+     * new in this build. If the coupling of the previous build contains all commits up to the base commit of the new
+     * coupling, then both are merged.
+     *
+     * @param build
+     *         the build to attach the coupling to
+     * @param delta
+     *         the coupling of the new commits
+     * @param logger
+     *         the logger
+     *
+     * @return the recorded coupling
+     */
+    public static TemporalCoupling record(@CheckForNull final Run<?, ?> build, final TemporalCoupling delta,
+            final FilteredLog logger) {
+        TemporalCoupling coupling = record(build, delta, TemporalCouplingAction.class, TemporalCouplingAction::new,
+                logger);
+        logger.logInfo("-> recorded %d coupled pairs of files", coupling.size());
+        if (!coupling.isEmpty()) {
+            logger.logInfo("-> most often coupled files: %s", coupling.getPairs().get(0));
+        }
+        return coupling;
+    }
+
+    @Override
+    protected String getFileName() {
+        return COUPLING_FILE;
+    }
+
+    @Override
+    protected TemporalCoupling read(final DataInput input) throws IOException {
+        return TemporalCoupling.readFrom(input);
+    }
+}
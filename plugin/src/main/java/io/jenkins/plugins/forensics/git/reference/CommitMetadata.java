@@ -0,0 +1,217 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Metadata of the recorded commits of a build: the author, the commit time, the parents and the number of changed
+ * paths of each commit. The metadata is stored in columns of primitive arrays, the authors are stored in a dictionary
+ * and referenced by index. The index of a commit in the metadata corresponds to the index of the commit in the list of
+ * recorded commits.
+ *
+ * @author Ullrich Hafner
+ */
+public final class CommitMetadata implements Serializable {
+    private static final long serialVersionUID = -3164419342233856358L;
+
+    /** Number of changed paths of a commit whose changed paths have not been counted. */
+    public static final int UNKNOWN_CHANGED_PATHS = -1;
+
+    private final String[] authors;
+    private final int[] authorIndexes;
+    private final int[] commitTimes;
+    private final int[] parentOffsets;
+    private final byte[] parents;
+    private final int[] changedPaths;
+
+    private CommitMetadata(final String[] authors, final int[] authorIndexes, final int[] commitTimes,
+            final int[] parentOffsets, final byte[] parents, final int[] changedPaths) {
+        this.authors = authors;
+        this.authorIndexes = authorIndexes;
+        this.commitTimes = commitTimes;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+        this.changedPaths = changedPaths;
+    }
+
+    /**
+     * Creates an empty instance of {@link CommitMetadata}.
+     *
+     * @return empty metadata
+     */
+    public static CommitMetadata empty() {
+        return new CommitMetadataBuilder().build();
+    }
+
+    /**
+     * Returns the number of commits.
+     *
+     * @return the number of commits
+     */
+    public int size() {
+        return commitTimes.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the author of the commit with the specified index.
+     *
+     * @param index
+     *         the index of the commit
+     *
+     * @return the author (email or name)
+     */
+    public String getAuthor(final int index) {
+        return authors[authorIndexes[index]];
+    }
+
+    /**
+     * Returns the number of distinct authors of the commits.
+     *
+     * @return the number of authors
+     */
+    public int getNumberOfAuthors() {
+        return authors.length;
+    }
+
+    /**
+     * Returns the commit time of the commit with the specified index.
+     *
+     * @param index
+     *         the index of the commit
+     *
+     * @return the commit time in seconds since the epoch
+     */
+    public int getCommitTime(final int index) {
+        return commitTimes[index];
+    }
+
+    /**
+     * Returns the parents of the commit with the specified index.
+     *
+     * @param index
+     *         the index of the commit
+     *
+     * @return the IDs of the parents
+     */
+    public List<String> getParents(final int index) {
+        List<String> ids = new ArrayList<>();
+        for (int offset = parentOffsets[index]; offset < parentOffsets[index + 1]; offset++) {
+            ids.add(ObjectId.fromRaw(parents, offset * Constants.OBJECT_ID_LENGTH).getName());
+        }
+        return ids;
+    }
+
+    /**
+     * Returns whether the commit with the specified index is a merge commit.
+     *
+     * @param index
+     *         the index of the commit
+     *
+     * @return {@code true} if the commit has more than one parent, {@code false} otherwise
+     */
+    public boolean isMerge(final int index) {
+        return parentOffsets[index + 1] - parentOffsets[index] > 1;
+    }
+
+    /**
+     * Returns the number of paths that have been changed by the commit with the specified index.
+     *
+     * @param index
+     *         the index of the commit
+     *
+     * @return the number of changed paths, or {@link #UNKNOWN_CHANGED_PATHS} if the paths have not been counted
+     */
+    public int getChangedPaths(final int index) {
+        return changedPaths[index];
+    }
+
+    /**
+     * Creates {@link CommitMetadata} instances by appending the commits one by one.
+     */
+    public static class CommitMetadataBuilder {
+        private final Map<String, Integer> authorIndex = new HashMap<>();
+        private final List<String> authors = new ArrayList<>();
+        private int[] authorIndexes = new int[16];
+        private int[] commitTimes = new int[16];
+        private int[] parentOffsets = new int[17];
+        private byte[] parents = new byte[16 * Constants.OBJECT_ID_LENGTH];
+        private int[] changedPaths = new int[16];
+        private int size;
+
+        /**
+         * Appends the metadata of a commit.
+         *
+         * @param author
+         *         the author of the commit
+         * @param commitTime
+         *         the commit time in seconds since the epoch
+         * @param parentIds
+         *         the parents of the commit
+         * @param numberOfChangedPaths
+         *         the number of paths that have been changed by the commit, or {@link
+         *         CommitMetadata#UNKNOWN_CHANGED_PATHS} if the paths have not been counted
+         *
+         * @return this builder
+         */
+        public CommitMetadataBuilder add(final String author, final int commitTime,
+                final AnyObjectId[] parentIds, final int numberOfChangedPaths) {
+            ensureCapacity(size + 1, parentOffsets[size] + parentIds.length);
+
+            authorIndexes[size] = authorIndex.computeIfAbsent(author, key -> {
+                authors.add(key);
+                return authors.size() - 1;
+            });
+            commitTimes[size] = commitTime;
+            int offset = parentOffsets[size];
+            for (AnyObjectId parentId : parentIds) {
+                parentId.copyRawTo(parents, offset * Constants.OBJECT_ID_LENGTH);
+                offset++;
+            }
+            parentOffsets[size + 1] = offset;
+            changedPaths[size] = numberOfChangedPaths;
+            size++;
+
+            return this;
+        }
+
+        private void ensureCapacity(final int commits, final int parentCount) {
+            if (commits > commitTimes.length) {
+                int capacity = commitTimes.length * 2;
+                authorIndexes = Arrays.copyOf(authorIndexes, capacity);
+                commitTimes = Arrays.copyOf(commitTimes, capacity);
+                parentOffsets = Arrays.copyOf(parentOffsets, capacity + 1);
+                changedPaths = Arrays.copyOf(changedPaths, capacity);
+            }
+            if (parentCount * Constants.OBJECT_ID_LENGTH > parents.length) {
+                parents = Arrays.copyOf(parents,
+                        Math.max(parents.length * 2, parentCount * Constants.OBJECT_ID_LENGTH));
+            }
+        }
+
+        /**
+         * Creates a new instance of {@link CommitMetadata} that contains all appended commits.
+         *
+         * @return the metadata
+         */
+        public CommitMetadata build() {
+            return new CommitMetadata(authors.toArray(new String[0]),
+                    Arrays.copyOf(authorIndexes, size),
+                    Arrays.copyOf(commitTimes, size),
+                    Arrays.copyOf(parentOffsets, size + 1),
+                    Arrays.copyOf(parents, parentOffsets[size] * Constants.OBJECT_ID_LENGTH),
+                    Arrays.copyOf(changedPaths, size));
+        }
+    }
+}
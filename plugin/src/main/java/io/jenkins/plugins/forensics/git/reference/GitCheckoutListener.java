@@ -2,33 +2,38 @@ package io.jenkins.plugins.forensics.git.reference;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import edu.hm.hafner.util.FilteredLog;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
-import org.jenkinsci.plugins.gitclient.RepositoryCallback;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.model.listeners.SCMListener;
-import hudson.remoting.VirtualChannel;
 import hudson.scm.SCM;
 import hudson.scm.SCMRevisionState;
+import jenkins.util.SystemProperties;
 
+import io.jenkins.plugins.forensics.git.reference.CommitMetadata.CommitMetadataBuilder;
 import io.jenkins.plugins.forensics.git.reference.GitCommitsRecord.RecordingType;
+import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
 import io.jenkins.plugins.forensics.git.util.GitRepositoryValidator;
 import io.jenkins.plugins.util.LogHandler;
 
@@ -36,10 +41,20 @@ import io.jenkins.plugins.util.LogHandler;
  * Tracks all commits since the last build and writes them into a {@link GitCommitsRecord} action to be accessed
  * later. This listener is called on every checkout of a Git Repository in a Jenkins build.
  *
+ * <p>
+ * Counting the changed paths of the recorded commits requires a diff of the trees of each commit. This diff can be
+ * skipped by setting the system property {@code
+ * io.jenkins.plugins.forensics.git.reference.GitCheckoutListener.countChangedPaths} to {@code false} on the
+ * controller.
+ * </p>
+ *
  * @author Arne Schöntag
  */
 @Extension
 public class GitCheckoutListener extends SCMListener {
+    private static final boolean COUNT_CHANGED_PATHS
+            = SystemProperties.getBoolean(GitCheckoutListener.class.getName() + ".countChangedPaths", true);
+
     @Override
     public void onCheckout(final Run<?, ?> build, final SCM scm, final FilePath workspace,
             final TaskListener listener, final File changelogFile, final SCMRevisionState pollingBaseline) {
@@ -61,12 +76,7 @@ public class GitCheckoutListener extends SCMListener {
     }
 
     private boolean hasRecordForScm(final Run<?, ?> build, final String scmKey) {
-        return findRecordForScm(build, scmKey).isPresent();
-    }
-
-    private Optional<GitCommitsRecord> findRecordForScm(final Run<?, ?> build, final String scmKey) {
-        return build.getActions(GitCommitsRecord.class)
-                .stream().filter(record -> scmKey.equals(record.getScmKey())).findAny();
+        return GitCommitsRecordIndex.findRecordForScm(build, scmKey).isPresent();
     }
 
     private void recordNewCommits(final Run<?, ?> build, final GitClient gitClient,
@@ -75,7 +85,7 @@ public class GitCheckoutListener extends SCMListener {
 
         String latestRecordedCommit = getLatestRecordedCommit(build, scmKey, logger);
         GitCommitsRecord commitsRecord = recordNewCommits(build, gitClient, scmKey, logger, latestRecordedCommit);
-        build.addAction(commitsRecord);
+        GitCommitsRecordIndex.addRecord(build, commitsRecord);
     }
 
     private String getLatestRecordedCommit(final Run<?, ?> build, final String scmKey, final FilteredLog logger) {
@@ -95,7 +105,8 @@ public class GitCheckoutListener extends SCMListener {
 
     private GitCommitsRecord recordNewCommits(final Run<?, ?> build, final GitClient gitClient,
             final String scmKey, final FilteredLog logger, final String latestCommit) {
-        List<String> commits = recordCommitsSincePreviousBuild(latestCommit, gitClient, scmKey, logger);
+        RecordedCommits recordedCommits = recordCommitsSincePreviousBuild(latestCommit, gitClient, scmKey, logger);
+        List<String> commits = recordedCommits.getCommits();
         if (commits.isEmpty()) {
             logger.logInfo("-> No new commits found");
             return new GitCommitsRecord(build, scmKey, logger, latestCommit);
@@ -107,7 +118,8 @@ public class GitCheckoutListener extends SCMListener {
             else {
                 logger.logInfo("-> Recorded %d new commits", commits.size());
             }
-            return new GitCommitsRecord(build, scmKey, logger, commits.get(0), commits, getRecordingType(latestCommit));
+            return new GitCommitsRecord(build, scmKey, logger, commits.get(0), commits,
+                    getRecordingType(latestCommit), recordedCommits.getMetadata());
         }
     }
 
@@ -118,20 +130,20 @@ public class GitCheckoutListener extends SCMListener {
         return RecordingType.INCREMENTAL;
     }
 
-    private List<String> recordCommitsSincePreviousBuild(final String latestCommitName, final GitClient gitClient,
-            final String scmKey, final FilteredLog logger) {
+    private RecordedCommits recordCommitsSincePreviousBuild(final String latestCommitName,
+            final GitClient gitClient, final String scmKey, final FilteredLog logger) {
         try {
-            return gitClient.withRepository(new GitCommitsCollector(latestCommitName));
+            return gitClient.withRepository(new GitCommitsCollector(latestCommitName, COUNT_CHANGED_PATHS));
         }
         catch (IOException | InterruptedException exception) {
             logger.logException(exception, "Unable to record commits of git repository '%s'", scmKey);
-            return Collections.emptyList();
+            return new RecordedCommits(Collections.emptyList(), CommitMetadata.empty());
         }
     }
 
     private Optional<GitCommitsRecord> getPreviousRecord(final Run<?, ?> currentBuild, final String scmKey) {
         for (Run<?, ?> build = currentBuild.getPreviousBuild(); build != null; build = build.getPreviousBuild()) {
-            Optional<GitCommitsRecord> record = findRecordForScm(build, scmKey);
+            Optional<GitCommitsRecord> record = GitCommitsRecordIndex.findRecordForScm(build, scmKey);
             if (record.isPresent()) {
                 return record;
             }
@@ -140,39 +152,101 @@ public class GitCheckoutListener extends SCMListener {
     }
 
     /**
-     * Collects and records all commits since the last build.
+     * The commits that have been recorded since the last build, along with their metadata.
      */
-    private static class GitCommitsCollector implements RepositoryCallback<List<String>> {
+    private static class RecordedCommits implements Serializable {
+        private static final long serialVersionUID = 3958302640567384329L;
+
+        private final List<String> commits;
+        private final CommitMetadata metadata;
+
+        RecordedCommits(final List<String> commits, final CommitMetadata metadata) {
+            this.commits = commits;
+            this.metadata = metadata;
+        }
+
+        List<String> getCommits() {
+            return commits;
+        }
+
+        CommitMetadata getMetadata() {
+            return metadata;
+        }
+    }
+
+    /**
+     * Collects and records all commits since the last build. For each commit the author, the commit time, the parents
+     * and (optionally) the number of changed paths will be recorded as well.
+     */
+    private static class GitCommitsCollector extends AbstractRepositoryCallback<RecordedCommits> {
         private static final long serialVersionUID = -5980402198857923793L;
 
         private static final int MAX_COMMITS = 200; // TODO: should the number of recorded commits be configurable?
 
         private final String latestRecordedCommit;
+        private final boolean countChangedPaths;
+
+        GitCommitsCollector(final String latestRecordedCommit, final boolean countChangedPaths) {
+            super();
 
-        GitCommitsCollector(final String latestRecordedCommit) {
             this.latestRecordedCommit = latestRecordedCommit;
+            this.countChangedPaths = countChangedPaths;
         }
 
         @Override
-        public List<String> invoke(final Repository repository, final VirtualChannel channel) throws IOException {
+        protected RecordedCommits process(final Repository repository, final ObjectReader reader)
+                throws IOException {
             List<String> newCommits = new ArrayList<>();
-            try (Git git = new Git(repository)) {
-                for (RevCommit commit : git.log().add(getHead(repository)).call()) {
+            CommitMetadataBuilder metadata = new CommitMetadataBuilder();
+            try (RevWalk walk = new RevWalk(reader); TreeWalk treeWalk = new TreeWalk(reader)) {
+                ObjectId head = repository.resolve(Constants.HEAD);
+                if (head == null) {
+                    throw new IOException("Unable to record commits of git repository: HEAD is not available.");
+                }
+                walk.markStart(walk.parseCommit(head));
+                treeWalk.setRecursive(true);
+                for (RevCommit commit : walk) {
                     String commitId = commit.getName();
                     if (commitId.equals(latestRecordedCommit) || newCommits.size() >= MAX_COMMITS) {
-                        return newCommits;
+                        break;
                     }
                     newCommits.add(commitId);
+                    metadata.add(getAuthor(commit), commit.getCommitTime(), commit.getParents(),
+                            countChangedPaths ? countChangedPaths(walk, treeWalk, commit)
+                                    : CommitMetadata.UNKNOWN_CHANGED_PATHS);
                 }
             }
-            catch (GitAPIException e) {
-                throw new IOException("Unable to record commits of git repository.", e);
+            return new RecordedCommits(newCommits, metadata.build());
+        }
+
+        private String getAuthor(final RevCommit commit) {
+            PersonIdent author = commit.getAuthorIdent();
+            if (author == null) {
+                author = commit.getCommitterIdent();
+            }
+            if (author == null) {
+                return StringUtils.EMPTY;
             }
-            return newCommits;
+            return StringUtils.defaultIfEmpty(author.getEmailAddress(), StringUtils.defaultString(author.getName()));
         }
 
-        private RevCommit getHead(final Repository repo) throws IOException {
-            return new RevWalk(repo).parseCommit(repo.resolve(Constants.HEAD));
+        private int countChangedPaths(final RevWalk walk, final TreeWalk treeWalk, final RevCommit commit)
+                throws IOException {
+            if (commit.getParentCount() == 0) {
+                treeWalk.setFilter(TreeFilter.ALL);
+                treeWalk.reset(commit.getTree());
+            }
+            else {
+                RevCommit parent = commit.getParent(0);
+                walk.parseHeaders(parent);
+                treeWalk.setFilter(TreeFilter.ANY_DIFF);
+                treeWalk.reset(parent.getTree(), commit.getTree());
+            }
+            int count = 0;
+            while (treeWalk.next()) {
+                count++;
+            }
+            return count;
         }
     }
 }
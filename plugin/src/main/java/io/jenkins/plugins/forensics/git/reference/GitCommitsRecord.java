@@ -3,10 +3,13 @@ package io.jenkins.plugins.forensics.git.reference;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import hudson.model.Run;
@@ -35,6 +38,13 @@ public class GitCommitsRecord implements RunAction2, Serializable {
     private final List<String> commits;
     private final List<String> errorMessages;
     private final List<String> infoMessages;
+    /** Metadata of the recorded commits, not available in records of older releases. */
+    @CheckForNull
+    private final CommitMetadata metadata;
+
+    /** Index of the commits, created on demand. */
+    @CheckForNull
+    private transient Set<String> commitsIndex;
 
     /** Determines if this record is the starting point or an incremental record that is based on the previous record. */
     enum RecordingType {
@@ -57,10 +67,12 @@ public class GitCommitsRecord implements RunAction2, Serializable {
      *         the new commits in this build (since the previous build)
      * @param recordingType
      *         the recording type that indicates if the number of commits is
+     * @param metadata
+     *         the metadata of the new commits
      */
     GitCommitsRecord(final Run<?, ?> owner, final String scmKey,
             final FilteredLog logger, final String latestCommit, final List<String> commits,
-            final RecordingType recordingType) {
+            final RecordingType recordingType, final CommitMetadata metadata) {
         super();
 
         this.owner = owner;
@@ -70,6 +82,7 @@ public class GitCommitsRecord implements RunAction2, Serializable {
         this.commits = new ArrayList<>(commits);
         this.latestCommit = latestCommit;
         this.recordingType = recordingType;
+        this.metadata = metadata;
     }
 
     /**
@@ -88,7 +101,7 @@ public class GitCommitsRecord implements RunAction2, Serializable {
      */
     GitCommitsRecord(final Run<?, ?> owner, final String scmKey,
             final FilteredLog logger, final String latestCommit, final List<String> commits) {
-        this(owner, scmKey, logger, latestCommit, commits, RecordingType.INCREMENTAL);
+        this(owner, scmKey, logger, latestCommit, commits, RecordingType.INCREMENTAL, CommitMetadata.empty());
     }
 
     /**
@@ -157,6 +170,52 @@ public class GitCommitsRecord implements RunAction2, Serializable {
         return commits;
     }
 
+    /**
+     * Returns the metadata of the recorded commits. The index of a commit in the metadata corresponds to the index of
+     * the commit in {@link #getCommits()}. Records of older releases provide no metadata.
+     *
+     * @return the metadata of the recorded commits
+     */
+    public CommitMetadata getMetadata() {
+        if (metadata == null || metadata.size() != commits.size()) {
+            return CommitMetadata.empty();
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns whether one of the specified commits has been recorded in this record. The recorded commits are part of
+     * the build and are loaded together with this record, so they are scanned directly: an additional summary of the
+     * commits (e.g., a Bloom filter) would not save any work.
+     *
+     * @param candidates
+     *         the commits to look for
+     *
+     * @return {@code true} if at least one of the commits has been recorded, {@code false} otherwise
+     */
+    boolean containsAny(final Set<String> candidates) {
+        return commits.stream().anyMatch(candidates::contains);
+    }
+
+    /**
+     * Returns whether the specified commit has been recorded in this record.
+     *
+     * @param commit
+     *         the commit to look for
+     *
+     * @return {@code true} if the commit has been recorded, {@code false} otherwise
+     */
+    public boolean contains(final String commit) {
+        return getCommitsIndex().contains(commit);
+    }
+
+    private synchronized Set<String> getCommitsIndex() {
+        if (commitsIndex == null) {
+            commitsIndex = new HashSet<>(commits);
+        }
+        return commitsIndex;
+    }
+
     @Override
     public void onAttached(final Run<?, ?> run) {
         this.owner = run;
@@ -204,16 +263,20 @@ public class GitCommitsRecord implements RunAction2, Serializable {
     public Optional<Run<?, ?>> getReferencePoint(final GitCommitsRecord referenceCommits,
             final int maxCommits, final boolean skipUnknownCommits) {
         List<String> branchCommits = collectBranchCommits(maxCommits);
+        Set<String> branchCommitsSet = new HashSet<>(branchCommits);
 
-        List<String> masterCommits = new ArrayList<>(referenceCommits.getCommits());
+        boolean isReferenceIntersecting = referenceCommits.containsAny(branchCommitsSet);
+        int masterCommitsSize = referenceCommits.size();
         for (Run<?, ?> build = referenceCommits.owner;
-                masterCommits.size() < maxCommits && build != null;
+                masterCommitsSize < maxCommits && build != null;
                 build = build.getPreviousBuild()) {
-            List<String> additionalCommits = getCommitsForRepository(build);
-            if (!skipUnknownCommits || branchCommits.containsAll(additionalCommits)) {
-                masterCommits.addAll(additionalCommits);
-                Optional<String> referencePoint = branchCommits.stream().filter(masterCommits::contains).findFirst();
-                if (referencePoint.isPresent()) {
+            Optional<GitCommitsRecord> additionalRecord = getRecordForRepository(build);
+            List<String> additionalCommits = additionalRecord.map(GitCommitsRecord::getCommits)
+                    .orElse(Collections.emptyList());
+            if (!skipUnknownCommits || branchCommitsSet.containsAll(additionalCommits)) {
+                masterCommitsSize += additionalCommits.size();
+                if (isReferenceIntersecting
+                        || additionalRecord.filter(record -> record.containsAny(branchCommitsSet)).isPresent()) {
                     return Optional.of(build);
                 }
             }
@@ -221,6 +284,50 @@ public class GitCommitsRecord implements RunAction2, Serializable {
         return Optional.empty();
     }
 
+    /**
+     * Returns the build that recorded the specified commit. The search starts with the owner of this record and
+     * continues with the previous builds until the specified number of commits has been inspected.
+     *
+     * @param commit
+     *         the commit to look for
+     * @param maxCommits
+     *         maximal number of commits to look at
+     * @param skipUnknownCommits
+     *         determines whether a build with unknown commits should be skipped or not: if enabled and the found build
+     *         contains newer commits than the specified commit, then the previous build with recorded commits will be
+     *         returned
+     *
+     * @return the build that recorded the commit or empty if none has been found
+     */
+    public Optional<Run<?, ?>> findBuildWithCommit(final String commit, final int maxCommits,
+            final boolean skipUnknownCommits) {
+        int inspectedCommits = 0;
+        for (Run<?, ?> build = owner;
+                inspectedCommits < maxCommits && build != null;
+                build = build.getPreviousBuild()) {
+            Optional<GitCommitsRecord> record = getRecordForRepository(build);
+            if (record.isPresent()) {
+                if (record.get().contains(commit)) {
+                    if (skipUnknownCommits && !commit.equals(record.get().getLatestCommit())) {
+                        return findPreviousBuildWithRecord(build);
+                    }
+                    return Optional.of(build);
+                }
+                inspectedCommits += record.get().size();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Run<?, ?>> findPreviousBuildWithRecord(final Run<?, ?> start) {
+        for (Run<?, ?> build = start.getPreviousBuild(); build != null; build = build.getPreviousBuild()) {
+            if (getRecordForRepository(build).isPresent()) {
+                return Optional.of(build);
+            }
+        }
+        return Optional.empty();
+    }
+
     private List<String> collectBranchCommits(final int maxCommits) {
         List<String> branchCommits = new ArrayList<>(this.getCommits());
         for (Run<?, ?> build = owner;
@@ -232,11 +339,12 @@ public class GitCommitsRecord implements RunAction2, Serializable {
     }
 
     private List<String> getCommitsForRepository(final Run<?, ?> run) {
-        return run.getActions(GitCommitsRecord.class)
-                .stream()
-                .filter(gc -> this.getScmKey().equals(gc.getScmKey()))
-                .findAny()
+        return getRecordForRepository(run)
                 .map(GitCommitsRecord::getCommits)
                 .orElse(Collections.emptyList());
     }
+
+    private Optional<GitCommitsRecord> getRecordForRepository(final Run<?, ?> run) {
+        return GitCommitsRecordIndex.findRecordForScm(run, getScmKey());
+    }
 }
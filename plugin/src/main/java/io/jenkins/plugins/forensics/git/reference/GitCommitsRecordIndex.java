@@ -0,0 +1,105 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Indexes the {@link GitCommitsRecord} instances of a build by the key of their SCM repository. Builds that check out
+ * several repositories contain a record for each repository. Looking up the index itself requires a single scan of the
+ * actions of the build (see {@link Run#getAction(Class)}), the record of a given repository is then resolved by its
+ * key, so the costs of a lookup do not depend on the number of repositories. The index is not persisted, it is
+ * rebuilt from the records of the build when the build is loaded.
+ *
+ * @author Ullrich Hafner
+ */
+public class GitCommitsRecordIndex extends InvisibleAction implements RunAction2 {
+    private transient Map<String, GitCommitsRecord> records = createRecords();
+
+    /**
+     * Returns the record of the specified build that has been created for the specified SCM repository.
+     *
+     * @param run
+     *         the build to get the record from
+     * @param scmKey
+     *         the key of the SCM repository
+     *
+     * @return the record or empty if the build contains no record for the repository
+     */
+    public static Optional<GitCommitsRecord> findRecordForScm(final Run<?, ?> run, final String scmKey) {
+        GitCommitsRecordIndex index = run.getAction(GitCommitsRecordIndex.class);
+        if (index == null) { // builds of older releases
+            return run.getActions(GitCommitsRecord.class)
+                    .stream()
+                    .filter(record -> scmKey.equals(record.getScmKey()))
+                    .findAny();
+        }
+        return Optional.ofNullable(index.getRecords().get(scmKey));
+    }
+
+    /**
+     * Returns all records of the specified build.
+     *
+     * @param run
+     *         the build to get the records from
+     *
+     * @return the records of the build, in the order of their creation
+     */
+    public static List<GitCommitsRecord> findRecords(final Run<?, ?> run) {
+        GitCommitsRecordIndex index = run.getAction(GitCommitsRecordIndex.class);
+        if (index == null) { // builds of older releases
+            return new ArrayList<>(run.getActions(GitCommitsRecord.class));
+        }
+        return new ArrayList<>(index.getRecords().values());
+    }
+
+    /**
+     * Attaches the specified record to the build and adds it to the index of the build.
+     *
+     * @param run
+     *         the build to add the record to
+     * @param record
+     *         the record to add
+     */
+    static synchronized void addRecord(final Run<?, ?> run, final GitCommitsRecord record) {
+        GitCommitsRecordIndex index = run.getAction(GitCommitsRecordIndex.class);
+        if (index == null) {
+            index = new GitCommitsRecordIndex();
+            run.addAction(index);
+        }
+        run.addAction(record);
+        index.getRecords().put(record.getScmKey(), record);
+    }
+
+    private static Map<String, GitCommitsRecord> createRecords() {
+        return Collections.synchronizedMap(new LinkedHashMap<>());
+    }
+
+    private synchronized Map<String, GitCommitsRecord> getRecords() {
+        if (records == null) {
+            records = createRecords();
+        }
+        return records;
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        index(run);
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        index(run);
+    }
+
+    private void index(final Run<?, ?> run) {
+        run.getActions(GitCommitsRecord.class).forEach(record -> getRecords().putIfAbsent(record.getScmKey(), record));
+    }
+}
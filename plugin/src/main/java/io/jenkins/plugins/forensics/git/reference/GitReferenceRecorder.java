@@ -1,15 +1,22 @@
 package io.jenkins.plugins.forensics.git.reference;
 
+import java.io.IOException;
 import java.util.Optional;
 
+import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.jenkinsci.Symbol;
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.Run;
+import hudson.model.TaskListener;
 
 import io.jenkins.plugins.forensics.reference.ReferenceRecorder;
 import io.jenkins.plugins.util.JenkinsFacade;
@@ -22,8 +29,16 @@ import io.jenkins.plugins.util.JenkinsFacade;
  */
 @Extension(ordinal = 10_000) @SuppressWarnings("PMD.DataClass")
 public class GitReferenceRecorder extends ReferenceRecorder {
+    /**
+     * Resolver for the merge base of the build that is currently running this recorder on the current thread. The
+     * resolver is bound only while {@link #perform(Run, FilePath, Launcher, TaskListener)} invokes the lookup of the
+     * reference build, since {@link #find(Run, Run)} provides no access to the workspace.
+     */
+    private static final ThreadLocal<MergeBaseResolver> MERGE_BASE_RESOLVER = new ThreadLocal<>();
+
     private int maxCommits = 100;
     private boolean skipUnknownCommits = false;
+    private boolean useMergeBase = false;
 
     /**
      * Creates a new instance of {@link GitReferenceRecorder}.
@@ -71,14 +86,93 @@ public class GitReferenceRecorder extends ReferenceRecorder {
         return skipUnknownCommits;
     }
 
+    /**
+     * If enabled, then the reference build will be resolved using the merge base of the current HEAD and the head
+     * commits of the reference job. The merge base is computed in the Git repository of the workspace. If the merge
+     * base cannot be computed, then the recorded commits of the builds will be compared.
+     *
+     * @param useMergeBase
+     *         if {@code true} then the merge base will be used to find the reference build, otherwise the recorded
+     *         commits will be compared
+     */
+    @DataBoundSetter
+    public void setUseMergeBase(final boolean useMergeBase) {
+        this.useMergeBase = useMergeBase;
+    }
+
+    public boolean isUseMergeBase() {
+        return useMergeBase;
+    }
+
+    @Override
+    public void perform(@NonNull final Run<?, ?> run, @NonNull final FilePath workspace,
+            @NonNull final Launcher launcher, @NonNull final TaskListener listener)
+            throws InterruptedException, IOException {
+        if (!isUseMergeBase()) {
+            super.perform(run, workspace, launcher, listener);
+
+            return;
+        }
+
+        MERGE_BASE_RESOLVER.set(new MergeBaseResolver(workspace, listener));
+        try {
+            super.perform(run, workspace, launcher, listener);
+        }
+        finally {
+            MERGE_BASE_RESOLVER.remove();
+        }
+    }
+
     @Override
     protected Optional<Run<?, ?>> find(final Run<?, ?> owner, final Run<?, ?> lastCompletedBuildOfReferenceJob) {
-        GitCommitsRecord thisCommit = owner.getAction(GitCommitsRecord.class);
-        GitCommitsRecord referenceCommit = lastCompletedBuildOfReferenceJob.getAction(GitCommitsRecord.class);
+        return find(owner, lastCompletedBuildOfReferenceJob, MERGE_BASE_RESOLVER.get());
+    }
+
+    private Optional<Run<?, ?>> find(final Run<?, ?> owner, final Run<?, ?> lastCompletedBuildOfReferenceJob,
+            @CheckForNull final MergeBaseResolver resolver) {
+        for (GitCommitsRecord thisCommit : GitCommitsRecordIndex.findRecords(owner)) {
+            Optional<GitCommitsRecord> referenceCommit = GitCommitsRecordIndex.findRecordForScm(
+                    lastCompletedBuildOfReferenceJob, thisCommit.getScmKey());
+            if (referenceCommit.isPresent()) {
+                ReferenceBuildCache.Key key = new ReferenceBuildCache.Key(owner, lastCompletedBuildOfReferenceJob,
+                        thisCommit.getScmKey(), getMaxCommits(), isSkipUnknownCommits(), isUseMergeBase());
+                Optional<Run<?, ?>> referencePoint = ReferenceBuildCache.get(key,
+                        () -> findReferencePoint(resolver, thisCommit, referenceCommit.get()));
+                if (referencePoint.isPresent()) {
+                    return referencePoint;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Run<?, ?>> findReferencePoint(@CheckForNull final MergeBaseResolver resolver,
+            final GitCommitsRecord thisCommit, final GitCommitsRecord referenceCommit) {
+        if (resolver != null) {
+            Optional<Run<?, ?>> referencePoint = findWithMergeBase(resolver, thisCommit, referenceCommit);
+            if (referencePoint.isPresent()) {
+                return referencePoint;
+            }
+        }
 
         return thisCommit.getReferencePoint(referenceCommit, getMaxCommits(), isSkipUnknownCommits());
     }
 
+    private Optional<Run<?, ?>> findWithMergeBase(final MergeBaseResolver resolver,
+            final GitCommitsRecord thisCommit, final GitCommitsRecord referenceCommit) {
+        FilteredLog logger = new FilteredLog("Errors while resolving the reference build using the merge base:");
+        logger.logInfo("Resolving reference build using the merge base with the reference job");
+
+        Optional<Run<?, ?>> referencePoint = resolver.find(thisCommit, referenceCommit, getMaxCommits(),
+                isSkipUnknownCommits(), logger);
+        if (!referencePoint.isPresent()) {
+            logger.logInfo("-> No build found for the merge base, comparing the recorded commits");
+        }
+
+        resolver.log(logger);
+        return referencePoint;
+    }
+
     @Override
     @SuppressFBWarnings("BC")
     public Descriptor getDescriptor() {
@@ -0,0 +1,198 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import org.jenkinsci.plugins.gitclient.Git;
+import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.git.GitException;
+
+import io.jenkins.plugins.forensics.git.util.AbstractRepositoryCallback;
+import io.jenkins.plugins.forensics.git.util.RemoteResultWrapper;
+import io.jenkins.plugins.util.LogHandler;
+
+/**
+ * Resolves the reference build by computing the merge base of the current HEAD and the head commits of the reference
+ * job. The merge base is computed in the Git repository of the agent, afterwards the merge base commit is mapped to
+ * the build of the reference job that recorded this commit.
+ *
+ * @author Ullrich Hafner
+ */
+class MergeBaseResolver {
+    /** Maximum number of distinct head commits of the reference job that will be evaluated. */
+    private static final int MAX_HEADS = 10;
+
+    private final FilePath workspace;
+    private final TaskListener listener;
+
+    /**
+     * Creates a new {@link MergeBaseResolver}.
+     *
+     * @param workspace
+     *         the workspace that contains the Git working tree of the current build
+     * @param listener
+     *         the task listener of the current build
+     */
+    MergeBaseResolver(final FilePath workspace, final TaskListener listener) {
+        this.workspace = workspace;
+        this.listener = listener;
+    }
+
+    /**
+     * Tries to find a reference build using the merge base of the latest commit of the current build and the head
+     * commits of the reference job.
+     *
+     * @param thisCommit
+     *         the recorded commits of the current build
+     * @param referenceCommit
+     *         the recorded commits of the last completed build of the reference job
+     * @param maxCommits
+     *         maximal number of commits of the reference job to look at when searching for the merge base
+     * @param skipUnknownCommits
+     *         determines whether a build with unknown commits should be skipped or not
+     * @param logger
+     *         the logger
+     *
+     * @return the found reference build or empty if none has been found
+     */
+    Optional<Run<?, ?>> find(final GitCommitsRecord thisCommit, final GitCommitsRecord referenceCommit,
+            final int maxCommits, final boolean skipUnknownCommits, final FilteredLog logger) {
+        List<String> referenceHeads = collectReferenceHeads(referenceCommit);
+        if (StringUtils.isBlank(thisCommit.getLatestCommit()) || referenceHeads.isEmpty()) {
+            logger.logInfo("-> No head commits recorded, skipping merge base computation");
+
+            return Optional.empty();
+        }
+
+        Optional<String> mergeBase = computeMergeBase(thisCommit, referenceHeads, logger);
+        if (mergeBase.isPresent()) {
+            logger.logInfo("-> Merge base of '%s' and the reference job is '%s'",
+                    thisCommit.getLatestCommit(), mergeBase.get());
+
+            return referenceCommit.findBuildWithCommit(mergeBase.get(), maxCommits, skipUnknownCommits);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Prints the messages of the specified logger to the console log of the current build.
+     *
+     * @param logger
+     *         the logger with the messages
+     */
+    void log(final FilteredLog logger) {
+        new LogHandler(listener, "MergeBaseResolver").log(logger);
+    }
+
+    private List<String> collectReferenceHeads(final GitCommitsRecord referenceCommit) {
+        Set<String> heads = new LinkedHashSet<>();
+        for (Run<?, ?> build = referenceCommit.getOwner();
+                build != null && heads.size() < MAX_HEADS;
+                build = build.getPreviousBuild()) {
+            GitCommitsRecordIndex.findRecordForScm(build, referenceCommit.getScmKey())
+                    .map(GitCommitsRecord::getLatestCommit)
+                    .filter(StringUtils::isNotBlank)
+                    .ifPresent(heads::add);
+        }
+        return new ArrayList<>(heads);
+    }
+
+    private Optional<String> computeMergeBase(final GitCommitsRecord thisCommit, final List<String> referenceHeads,
+            final FilteredLog logger) {
+        try {
+            GitClient gitClient = Git.with(listener, thisCommit.getOwner().getEnvironment(listener))
+                    .in(workspace)
+                    .getClient();
+            RemoteResultWrapper<String> wrapped = gitClient.withRepository(
+                    new MergeBaseCallback(thisCommit.getLatestCommit(), referenceHeads));
+            wrapped.getInfoMessages().forEach(logger::logInfo);
+            wrapped.getErrorMessages().forEach(logger::logError);
+
+            return Optional.ofNullable(StringUtils.defaultIfBlank(wrapped.getResult(), null));
+        }
+        catch (IOException | GitException exception) {
+            logger.logException(exception, "Unable to compute merge base in working tree '%s'", workspace);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Computes the merge base of a commit and the first reference head that is available in the repository.
+     */
+    static class MergeBaseCallback extends AbstractRepositoryCallback<RemoteResultWrapper<String>> {
+        private static final long serialVersionUID = -2218932735113264413L;
+
+        private final String head;
+        private final List<String> referenceHeads;
+
+        MergeBaseCallback(final String head, final List<String> referenceHeads) {
+            super();
+
+            this.head = head;
+            this.referenceHeads = new ArrayList<>(referenceHeads);
+        }
+
+        @Override
+        protected RemoteResultWrapper<String> process(final Repository repository, final ObjectReader reader)
+                throws IOException {
+            List<String> messages = new ArrayList<>();
+            RemoteResultWrapper<String> result = new RemoteResultWrapper<>(
+                    computeMergeBase(repository, reader, messages), "Errors while computing the merge base:");
+            messages.forEach(result::logInfo);
+
+            return result;
+        }
+
+        private String computeMergeBase(final Repository repository, final ObjectReader reader,
+                final List<String> messages)
+                throws IOException {
+            ObjectId headId = repository.resolve(head);
+            if (headId == null) {
+                messages.add(String.format("Commit '%s' is not available in the repository", head));
+                return StringUtils.EMPTY;
+            }
+            for (String referenceHead : referenceHeads) {
+                ObjectId referenceId = repository.resolve(referenceHead);
+                if (referenceId != null && reader.has(referenceId)) {
+                    return findMergeBase(reader, headId, referenceId);
+                }
+                messages.add(String.format("Reference head '%s' is not available in the repository", referenceHead));
+            }
+            return StringUtils.EMPTY;
+        }
+
+        private String findMergeBase(final ObjectReader reader, final ObjectId headId, final ObjectId referenceId)
+                throws IOException {
+            try (RevWalk walk = new RevWalk(reader)) {
+                walk.setRevFilter(RevFilter.MERGE_BASE);
+                walk.markStart(walk.parseCommit(headId));
+                walk.markStart(walk.parseCommit(referenceId));
+                RevCommit mergeBase = walk.next();
+                if (mergeBase == null) {
+                    return StringUtils.EMPTY;
+                }
+                return mergeBase.getName();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Caches the resolved reference builds. Several publishers of a build query the reference build using the same
+ * parameters, so the search for the reference point should be performed only once. The cache uses the last completed
+ * build of the reference job as part of the key, so new builds of the reference job automatically lead to a new
+ * search. Entries that refer to deleted or completed builds are removed by the {@link CacheInvalidator}.
+ *
+ * @author Ullrich Hafner
+ */
+final class ReferenceBuildCache {
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final Map<Key, String> CACHE = Collections.synchronizedMap(new LruMap());
+
+    private ReferenceBuildCache() {
+        // prevents instantiation
+    }
+
+    /**
+     * Returns the reference build for the specified parameters. If the reference build has not been resolved yet,
+     * then the specified search will be invoked and the result will be stored in the cache.
+     *
+     * @param key
+     *         the parameters of the search
+     * @param search
+     *         the search that resolves the reference build
+     *
+     * @return the reference build or empty if none has been found
+     */
+    static Optional<Run<?, ?>> get(final Key key, final Supplier<Optional<Run<?, ?>>> search) {
+        String cached = CACHE.get(key);
+        if (cached != null) {
+            if (StringUtils.isEmpty(cached)) {
+                return Optional.empty();
+            }
+            Run<?, ?> referenceBuild = Run.fromExternalizableId(cached);
+            if (referenceBuild != null) {
+                return Optional.of(referenceBuild);
+            }
+        }
+
+        Optional<Run<?, ?>> referenceBuild = search.get();
+        CACHE.put(key, referenceBuild.map(Run::getExternalizableId).orElse(StringUtils.EMPTY));
+        return referenceBuild;
+    }
+
+    @VisibleForTesting
+    static int size() {
+        return CACHE.size();
+    }
+
+    private static void invalidate(final Run<?, ?> run) {
+        String jobName = run.getParent().getFullName();
+        String buildId = run.getExternalizableId();
+        synchronized (CACHE) {
+            CACHE.entrySet().removeIf(entry -> entry.getKey().refersTo(jobName, buildId)
+                    || buildId.equals(entry.getValue()));
+        }
+    }
+
+    /**
+     * Parameters of a search for a reference build.
+     */
+    static final class Key {
+        private final String ownerId;
+        private final String referenceJobName;
+        private final String lastCompletedBuildId;
+        private final String scmKey;
+        private final int maxCommits;
+        private final boolean skipUnknownCommits;
+        private final boolean useMergeBase;
+
+        Key(final Run<?, ?> owner, final Run<?, ?> lastCompletedBuildOfReferenceJob, final String scmKey,
+                final int maxCommits, final boolean skipUnknownCommits, final boolean useMergeBase) {
+            this.ownerId = owner.getExternalizableId();
+            this.referenceJobName = lastCompletedBuildOfReferenceJob.getParent().getFullName();
+            this.lastCompletedBuildId = lastCompletedBuildOfReferenceJob.getExternalizableId();
+            this.scmKey = scmKey;
+            this.maxCommits = maxCommits;
+            this.skipUnknownCommits = skipUnknownCommits;
+            this.useMergeBase = useMergeBase;
+        }
+
+        private boolean refersTo(final String jobName, final String buildId) {
+            return referenceJobName.equals(jobName) || ownerId.equals(buildId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return maxCommits == key.maxCommits
+                    && skipUnknownCommits == key.skipUnknownCommits
+                    && useMergeBase == key.useMergeBase
+                    && ownerId.equals(key.ownerId)
+                    && referenceJobName.equals(key.referenceJobName)
+                    && lastCompletedBuildId.equals(key.lastCompletedBuildId)
+                    && scmKey.equals(key.scmKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerId, referenceJobName, lastCompletedBuildId, scmKey, maxCommits,
+                    skipUnknownCommits, useMergeBase);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries if the maximum number of entries has been reached.
+     */
+    private static class LruMap extends LinkedHashMap<Key, String> {
+        private static final long serialVersionUID = -1618618813413582547L;
+
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Entry<Key, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+
+    /**
+     * Invalidates cached reference builds if a build of the reference job has been completed or deleted.
+     */
+    @Extension
+    public static class CacheInvalidator extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            invalidate(run);
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            invalidate(run);
+        }
+    }
+}
@@ -4,14 +4,27 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.LinkOption;
 
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.dircache.InvalidPathException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 
+import edu.hm.hafner.util.FilteredLog;
+
 import org.jenkinsci.plugins.gitclient.RepositoryCallback;
+import hudson.remoting.VirtualChannel;
+
+import io.jenkins.plugins.forensics.git.util.StorageProfile.CacheStatistics;
 
 /**
  * Code that gets executed on the machine where a Git working directory is local and {@link
- * org.eclipse.jgit.lib.Repository} object is accessible.
+ * org.eclipse.jgit.lib.Repository} object is accessible. The callback uses the repository that has been opened by the
+ * Git client and shares a single {@link ObjectReader} with all analyses of the callback, so pack indexes are loaded
+ * only once per callback. The repository is closed when the callback has been finished, so no files in the workspace
+ * are kept open. Subclasses implement {@link #process(Repository, ObjectReader)} and should read all objects using the
+ * provided {@link ObjectReader}: this reader counts the objects that have been read and their inflated bytes.
+ * Before the repository is read, the {@link StorageProfile} of the callback is installed.
  *
  * @param <T>
  *         the type of the return value
@@ -24,6 +37,95 @@ public abstract class AbstractRepositoryCallback<T> implements RepositoryCallbac
     private static final String SLASH = "/";
     private static final String BACK_SLASH = "\\";
 
+    private StorageProfile storageProfile = StorageProfile.jgitDefaults();
+    private String identityAliases = StringUtils.EMPTY;
+
+    /**
+     * Sets the storage profile that will be installed on the agent before the repository is read.
+     *
+     * @param storageProfile
+     *         the storage profile
+     */
+    public void setStorageProfile(final StorageProfile storageProfile) {
+        this.storageProfile = storageProfile;
+    }
+
+    /**
+     * Sets the alias rules that map the identities of authors and committers to their canonical identity, in
+     * addition to the {@code .mailmap} file of the repository.
+     *
+     * @param identityAliases
+     *         the alias rules in the format of a {@code .mailmap} file
+     */
+    public void setIdentityAliases(final String identityAliases) {
+        this.identityAliases = identityAliases;
+    }
+
+    /**
+     * Creates a resolver for the identities of the authors and committers. The resolver uses the {@code .mailmap}
+     * file of the specified commit and the alias rules of this callback.
+     *
+     * @param reader
+     *         the reader to use to read the objects of the repository
+     * @param head
+     *         the commit that contains the {@code .mailmap} file
+     * @param log
+     *         the logger
+     *
+     * @return the resolver
+     */
+    protected IdentityResolver createIdentityResolver(final ObjectReader reader, final ObjectId head,
+            final FilteredLog log) {
+        return IdentityResolver.create(reader, head, identityAliases, log);
+    }
+
+    @Override
+    public T invoke(final Repository repository, final VirtualChannel channel)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        String profile = storageProfile.apply();
+        CacheStatistics before = StorageProfile.getCacheStatistics();
+
+        try (CountingObjectReader reader = new CountingObjectReader(repository.newObjectReader())) {
+            T result = process(repository, reader);
+            if (result instanceof RemoteResultWrapper) {
+                RemoteResultWrapper<?> wrapper = (RemoteResultWrapper<?>) result;
+                CacheStatistics after = StorageProfile.getCacheStatistics();
+                wrapper.logInfo("JGit storage profile: %s", profile);
+                wrapper.logInfo(after.describeSince(before));
+
+                ForensicsMetrics metrics = wrapper.getMetrics();
+                metrics.stop(ForensicsMetrics.CALLBACK, start);
+                metrics.add(ForensicsMetrics.CACHE_HITS, after.getHitsSince(before));
+                metrics.add(ForensicsMetrics.CACHE_MISSES, after.getMissesSince(before));
+                metrics.add(ForensicsMetrics.OBJECTS_READ, reader.getObjects());
+                metrics.add(ForensicsMetrics.BYTES_INFLATED, reader.getBytes());
+            }
+            return result;
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    /**
+     * Executes this callback for the specified repository. The repository and the reader are managed by the caller and
+     * must not be closed by this callback.
+     *
+     * @param repository
+     *         the repository to analyze
+     * @param reader
+     *         the reader to use to read the objects of the repository
+     *
+     * @return the result of the callback
+     * @throws IOException
+     *         if the repository could not be read
+     * @throws InterruptedException
+     *         if the user canceled the execution
+     */
+    protected abstract T process(Repository repository, ObjectReader reader)
+            throws IOException, InterruptedException;
+
     /**
      * Returns the root directory of the repository working tree. This path is absolute and normalized using the UNIX
      * path separator.
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+
+/**
+ * An {@link ObjectReader} that counts the objects that have been opened and the number of bytes of these objects in
+ * their inflated form. All other operations are delegated to the wrapped reader.
+ *
+ * @author Ullrich Hafner
+ */
+class CountingObjectReader extends ObjectReader.Filter {
+    private final ObjectReader delegate;
+
+    private long objects;
+    private long bytes;
+
+    CountingObjectReader(final ObjectReader delegate) {
+        super();
+
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected ObjectReader delegate() {
+        return delegate;
+    }
+
+    @Override
+    public ObjectLoader open(final AnyObjectId objectId) throws IOException {
+        return count(delegate.open(objectId));
+    }
+
+    @Override
+    public ObjectLoader open(final AnyObjectId objectId, final int typeHint) throws IOException {
+        return count(delegate.open(objectId, typeHint));
+    }
+
+    private ObjectLoader count(final ObjectLoader loader) {
+        objects++;
+        bytes += loader.getSize();
+        return loader;
+    }
+
+    /**
+     * Returns the number of objects that have been opened.
+     *
+     * @return the number of objects
+     */
+    long getObjects() {
+        return objects;
+    }
+
+    /**
+     * Returns the total size of the opened objects in their inflated form.
+     *
+     * @return the number of inflated bytes
+     */
+    long getBytes() {
+        return bytes;
+    }
+}
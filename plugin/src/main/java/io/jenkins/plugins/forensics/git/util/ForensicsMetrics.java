@@ -0,0 +1,247 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Timers and counters of the hot paths of a forensics callback. The timers measure the duration of the individual
+ * phases of a callback (e.g., collecting commits or computing the blame of a file), the counters measure the amount of
+ * processed data (e.g., the number of commits or files). Additionally, the slowest entries of a phase (e.g., the files
+ * that took the longest time to blame) are retained in a bounded {@link SlowestEntries} heap. The metrics are created
+ * on the agent, transferred back to the controller as part of the {@link RemoteResultWrapper}, and stored in the build
+ * using a {@link ForensicsMetricsAction}.
+ *
+ * @author Ullrich Hafner
+ */
+@ExportedBean
+public class ForensicsMetrics implements Serializable {
+    private static final long serialVersionUID = -7093218361745036224L;
+
+    /** Timer of the whole remote call, measured on the controller. */
+    public static final String REMOTE_CALL = "remote call";
+    /** Timer of the callback on the agent. */
+    public static final String CALLBACK = "callback";
+    /** Timer of the transfer of the result from the agent to the controller. */
+    public static final String TRANSFER = "transfer";
+    /** Counter of hits in the JGit window cache. */
+    public static final String CACHE_HITS = "cache hits";
+    /** Counter of misses in the JGit window cache. */
+    public static final String CACHE_MISSES = "cache misses";
+    /** Counter of the objects that have been read from the repository by a callback. */
+    public static final String OBJECTS_READ = "objects read";
+    /** Counter of the bytes of the objects that have been read from the repository, in their inflated form. */
+    public static final String BYTES_INFLATED = "bytes inflated";
+
+    /** Number of slowest entries that are retained for each phase. */
+    static final int SLOWEST_SIZE = SystemProperties.getInteger(ForensicsMetrics.class.getName() + ".slowest", 10);
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final Map<String, SlowestEntries> slowest = new LinkedHashMap<>();
+
+    /**
+     * Starts a timer.
+     *
+     * @return the start time that needs to be passed to {@link #stop(String, long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops the timer of the specified phase. If the phase has been timed before, then the durations will be summed.
+     *
+     * @param phase
+     *         the name of the phase
+     * @param start
+     *         the start time, obtained by {@link #start()}
+     */
+    public void stop(final String phase, final long start) {
+        addDuration(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Adds a duration to the timer of the specified phase.
+     *
+     * @param phase
+     *         the name of the phase
+     * @param nanos
+     *         the duration in nanoseconds
+     */
+    public void addDuration(final String phase, final long nanos) {
+        durations.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Increments the specified counter by one.
+     *
+     * @param counter
+     *         the name of the counter
+     */
+    public void increment(final String counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Adds a value to the specified counter.
+     *
+     * @param counter
+     *         the name of the counter
+     * @param value
+     *         the value to add
+     */
+    public void add(final String counter, final long value) {
+        counters.merge(counter, value, Long::sum);
+    }
+
+    /**
+     * Records the duration of an individual entry of the specified phase. Only the slowest entries of each phase are
+     * retained.
+     *
+     * @param phase
+     *         the name of the phase, e.g. "slowest files"
+     * @param entry
+     *         the name of the entry, e.g. the file name
+     * @param start
+     *         the start time, obtained by {@link #start()}
+     */
+    public void stopEntry(final String phase, final String entry, final long start) {
+        getSlowestEntries(phase).add(entry, System.nanoTime() - start);
+    }
+
+    private SlowestEntries getSlowestEntries(final String phase) {
+        return slowest.computeIfAbsent(phase, key -> new SlowestEntries(SLOWEST_SIZE));
+    }
+
+    /**
+     * Adds all timers, counters, and slowest entries of the specified metrics to these metrics.
+     *
+     * @param other
+     *         the metrics to add
+     */
+    public void merge(final ForensicsMetrics other) {
+        other.durations.forEach(this::addDuration);
+        other.counters.forEach(this::add);
+        other.slowest.forEach((phase, entries) -> getSlowestEntries(phase).merge(entries));
+    }
+
+    /**
+     * Returns the duration of the specified phase.
+     *
+     * @param phase
+     *         the name of the phase
+     *
+     * @return the duration in milliseconds, or 0 if the phase has not been timed
+     */
+    public long getDuration(final String phase) {
+        return TimeUnit.NANOSECONDS.toMillis(getNanos(phase));
+    }
+
+    /**
+     * Returns the value of the specified counter.
+     *
+     * @param counter
+     *         the name of the counter
+     *
+     * @return the value, or 0 if the counter has not been incremented
+     */
+    public long getCount(final String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    long getNanos(final String phase) {
+        return durations.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * Returns the throughput of the specified counter during the specified phase.
+     *
+     * @param counter
+     *         the name of the counter
+     * @param phase
+     *         the name of the phase
+     *
+     * @return the number of counted elements per second
+     */
+    public long getRate(final String counter, final String phase) {
+        long nanos = getNanos(phase);
+        if (nanos == 0) {
+            return 0;
+        }
+        return getCount(counter) * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Returns the durations of all timed phases.
+     *
+     * @return the durations in milliseconds, in the order of the first occurrence
+     */
+    @Exported
+    public Map<String, Long> getDurations() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        durations.forEach((phase, nanos) -> millis.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return millis;
+    }
+
+    @Exported
+    public Map<String, Long> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Returns the slowest entries of all phases that recorded individual entries.
+     *
+     * @return the slowest entries, mapped by the name of the phase
+     */
+    @Exported
+    public Map<String, SlowestEntries> getSlowest() {
+        return Collections.unmodifiableMap(slowest);
+    }
+
+    /**
+     * Returns the slowest entries of the specified phase.
+     *
+     * @param phase
+     *         the name of the phase
+     *
+     * @return the slowest entries, the slowest entry first
+     */
+    public List<SlowestEntries.Entry> getSlowest(final String phase) {
+        SlowestEntries entries = slowest.get(phase);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        return entries.getEntries();
+    }
+
+    /**
+     * Logs the slowest entries of the specified phase.
+     *
+     * @param phase
+     *         the name of the phase
+     * @param log
+     *         the log to write the entries to
+     */
+    public void logSlowest(final String phase, final FilteredLog log) {
+        List<SlowestEntries.Entry> entries = getSlowest(phase);
+        if (!entries.isEmpty()) {
+            log.logInfo("-> %s:", phase);
+            entries.forEach(entry -> log.logInfo("   %s", entry));
+        }
+    }
+
+    public boolean isEmpty() {
+        return durations.isEmpty() && counters.isEmpty() && slowest.isEmpty();
+    }
+}
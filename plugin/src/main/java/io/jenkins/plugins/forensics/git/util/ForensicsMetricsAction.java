@@ -0,0 +1,90 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Stores the {@link ForensicsMetrics} of the forensics components (e.g., blamer or miner) that have been executed in a
+ * build. The metrics are shown in the summary of the build and are available in the remote API of the build.
+ *
+ * @author Ullrich Hafner
+ */
+@ExportedBean
+public class ForensicsMetricsAction implements RunAction2 {
+    private transient Run<?, ?> owner;
+
+    private final Map<String, ForensicsMetrics> metrics = new LinkedHashMap<>();
+
+    /**
+     * Records the metrics of the specified component in the build. If the component has been executed several times
+     * in the same build, then the metrics will be summed. The build is not saved: the metrics are recorded while the
+     * build is running, so they are persisted together with the other actions when the build has been completed.
+     *
+     * @param build
+     *         the build to attach the metrics to
+     * @param component
+     *         the name of the component
+     * @param componentMetrics
+     *         the metrics of the component
+     */
+    public static void record(@CheckForNull final Run<?, ?> build, final String component,
+            final ForensicsMetrics componentMetrics) {
+        if (build == null || componentMetrics.isEmpty()) {
+            return;
+        }
+        synchronized (build) {
+            ForensicsMetricsAction action = build.getAction(ForensicsMetricsAction.class);
+            if (action == null) {
+                action = new ForensicsMetricsAction();
+                build.addAction(action);
+            }
+            action.metrics.computeIfAbsent(component, key -> new ForensicsMetrics()).merge(componentMetrics);
+        }
+    }
+
+    public Run<?, ?> getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the metrics of all recorded components.
+     *
+     * @return the metrics, mapped by the name of the component
+     */
+    @Exported
+    public Map<String, ForensicsMetrics> getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> run) {
+        owner = run;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> run) {
+        onAttached(run);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.Metrics_DisplayName();
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+}
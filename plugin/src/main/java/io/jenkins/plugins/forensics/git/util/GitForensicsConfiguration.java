@@ -0,0 +1,137 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import org.kohsuke.stapler.DataBoundSetter;
+import org.jenkinsci.Symbol;
+import hudson.Extension;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Global configuration of the Git forensics plugin. Defines the {@link StorageProfile} that is used by all jobs and the
+ * alias rules of the author identities that are used in addition to the {@code .mailmap} file of the repository.
+ *
+ * @author Ullrich Hafner
+ */
+@Extension
+@Symbol("gitForensics")
+public class GitForensicsConfiguration extends GlobalConfiguration {
+    private int packedGitLimit;
+    private int deltaBaseCacheLimit;
+    private int streamFileThreshold;
+    private String identityAliases = StringUtils.EMPTY;
+
+    /**
+     * Creates the global configuration and loads the initial values from the corresponding XML file.
+     */
+    public GitForensicsConfiguration() {
+        super();
+
+        load();
+    }
+
+    /**
+     * Returns the singleton instance of this configuration.
+     *
+     * @return the configuration or {@code null} if Jenkins has not been started yet
+     */
+    @CheckForNull
+    public static GitForensicsConfiguration getInstance() {
+        return GlobalConfiguration.all().get(GitForensicsConfiguration.class);
+    }
+
+    /**
+     * Returns the alias rules of the identities of authors and committers that are defined in the global
+     * configuration.
+     *
+     * @return the alias rules in the format of a {@code .mailmap} file, or an empty string if Jenkins has not been
+     *         started yet
+     */
+    public static String getGlobalIdentityAliases() {
+        GitForensicsConfiguration configuration = getInstance();
+        if (configuration == null) {
+            return StringUtils.EMPTY;
+        }
+        return configuration.getIdentityAliases();
+    }
+
+    /**
+     * Returns the storage profile that is used by all jobs.
+     *
+     * @return the global storage profile
+     */
+    public StorageProfile getStorageProfile() {
+        return new StorageProfile(packedGitLimit, deltaBaseCacheLimit, streamFileThreshold);
+    }
+
+    public int getPackedGitLimit() {
+        return packedGitLimit;
+    }
+
+    /**
+     * Sets the maximum number of megabytes of pack file windows to keep in memory.
+     *
+     * @param packedGitLimit
+     *         the limit in megabytes, 0 if not configured
+     */
+    @DataBoundSetter
+    public void setPackedGitLimit(final int packedGitLimit) {
+        this.packedGitLimit = packedGitLimit;
+
+        save();
+    }
+
+    public int getDeltaBaseCacheLimit() {
+        return deltaBaseCacheLimit;
+    }
+
+    /**
+     * Sets the maximum number of megabytes of delta bases to keep in memory.
+     *
+     * @param deltaBaseCacheLimit
+     *         the limit in megabytes, 0 if not configured
+     */
+    @DataBoundSetter
+    public void setDeltaBaseCacheLimit(final int deltaBaseCacheLimit) {
+        this.deltaBaseCacheLimit = deltaBaseCacheLimit;
+
+        save();
+    }
+
+    public int getStreamFileThreshold() {
+        return streamFileThreshold;
+    }
+
+    /**
+     * Sets the size of objects that will be streamed rather than loaded into memory.
+     *
+     * @param streamFileThreshold
+     *         the size in megabytes, 0 if not configured
+     */
+    @DataBoundSetter
+    public void setStreamFileThreshold(final int streamFileThreshold) {
+        this.streamFileThreshold = streamFileThreshold;
+
+        save();
+    }
+
+    public String getIdentityAliases() {
+        return StringUtils.defaultString(identityAliases);
+    }
+
+    /**
+     * Sets the alias rules that map the identities of authors and committers to their canonical identity. The rules
+     * are used in addition to the {@code .mailmap} file of the repository.
+     *
+     * @param identityAliases
+     *         the alias rules in the format of a {@code .mailmap} file
+     */
+    @DataBoundSetter
+    public void setIdentityAliases(final String identityAliases) {
+        this.identityAliases = identityAliases;
+
+        save();
+    }
+}
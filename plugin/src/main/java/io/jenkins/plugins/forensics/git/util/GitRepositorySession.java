@@ -0,0 +1,180 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.model.listeners.SCMListener;
+import hudson.scm.SCM;
+import hudson.scm.SCMRevisionState;
+
+/**
+ * The result of the validation of a Git repository in the working tree of a build. The session is created by the first
+ * forensics component that validates the working tree (e.g., the checkout listener, the blamer, or the miner). All
+ * subsequent components of the same build reuse the name of the HEAD revision and the shallow clone state of the
+ * session, so HEAD is resolved on the agent only once per checkout. The session does not store a Git client: a client
+ * is bound to the listener of the component that created it. Sessions are invalidated by every checkout of the
+ * working tree and expire when the build has been completed.
+ *
+ * @author Ullrich Hafner
+ */
+public final class GitRepositorySession {
+    private static final Map<String, GitRepositorySession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final String buildId;
+    private final String head;
+    private final boolean shallow;
+
+    private GitRepositorySession(final String buildId, final String head, final boolean shallow) {
+        this.buildId = buildId;
+        this.head = head;
+        this.shallow = shallow;
+    }
+
+    /**
+     * Returns the session of the specified build and working tree.
+     *
+     * @param build
+     *         the current build
+     * @param workTree
+     *         the working tree of the repository
+     * @param scm
+     *         the SCM of the repository
+     *
+     * @return the session or empty if the working tree has not been validated yet
+     */
+    static Optional<GitRepositorySession> find(final Run<?, ?> build, final FilePath workTree, final SCM scm) {
+        return createKey(build, workTree, scm).map(SESSIONS::get);
+    }
+
+    /**
+     * Creates a new session for the specified build and working tree. The session will be reused by all subsequent
+     * forensics components of the build.
+     *
+     * @param build
+     *         the current build
+     * @param workTree
+     *         the working tree of the repository
+     * @param scm
+     *         the SCM of the repository
+     * @param head
+     *         the name of the resolved HEAD revision (either the content of GIT_COMMIT or HEAD)
+     *
+     * @return the created session
+     */
+    static GitRepositorySession create(final Run<?, ?> build, final FilePath workTree, final SCM scm,
+            final String head) {
+        return store(build, workTree, scm, new GitRepositorySession(getBuildId(build), head, false));
+    }
+
+    /**
+     * Creates a new session for the specified build and working tree that has been cloned shallow. Such a working
+     * tree cannot be used by the forensics components.
+     *
+     * @param build
+     *         the current build
+     * @param workTree
+     *         the working tree of the repository
+     * @param scm
+     *         the SCM of the repository
+     *
+     * @return the created session
+     */
+    static GitRepositorySession createShallow(final Run<?, ?> build, final FilePath workTree, final SCM scm) {
+        return store(build, workTree, scm, new GitRepositorySession(getBuildId(build), StringUtils.EMPTY, true));
+    }
+
+    private static GitRepositorySession store(final Run<?, ?> build, final FilePath workTree, final SCM scm,
+            final GitRepositorySession session) {
+        createKey(build, workTree, scm).ifPresent(key -> SESSIONS.put(key, session));
+        return session;
+    }
+
+    private static String getBuildId(final Run<?, ?> build) {
+        return StringUtils.defaultString(build.getExternalizableId());
+    }
+
+    /**
+     * Removes the session of the specified build and working tree, so the next forensics component validates the
+     * working tree again.
+     *
+     * @param build
+     *         the current build
+     * @param workTree
+     *         the working tree of the repository
+     * @param scm
+     *         the SCM of the repository
+     */
+    static void invalidate(final Run<?, ?> build, final FilePath workTree, final SCM scm) {
+        createKey(build, workTree, scm).ifPresent(SESSIONS::remove);
+    }
+
+    private static Optional<String> createKey(final Run<?, ?> build, final FilePath workTree, final SCM scm) {
+        String buildId = build.getExternalizableId();
+        if (StringUtils.isBlank(buildId)) {
+            return Optional.empty();
+        }
+        return Optional.of(String.join("@", buildId, workTree.getRemote(), scm.getKey()));
+    }
+
+    @VisibleForTesting
+    static void expire(final Run<?, ?> build) {
+        String buildId = build.getExternalizableId();
+        if (StringUtils.isNotBlank(buildId)) {
+            SESSIONS.values().removeIf(session -> buildId.equals(session.buildId));
+        }
+    }
+
+    @VisibleForTesting
+    static int size() {
+        return SESSIONS.size();
+    }
+
+    public String getHead() {
+        return head;
+    }
+
+    public boolean isShallow() {
+        return shallow;
+    }
+
+    /**
+     * Removes the session of a working tree when the working tree is checked out again, so a new HEAD of the same SCM
+     * will not be hidden by the session of a previous checkout. This listener runs before the listeners that validate
+     * the new checkout.
+     */
+    @Extension(ordinal = 1000)
+    public static class SessionInvalidation extends SCMListener {
+        @Override
+        public void onCheckout(final Run<?, ?> build, final SCM scm, final FilePath workspace,
+                final TaskListener listener, final File changelogFile, final SCMRevisionState pollingBaseline) {
+            invalidate(build, workspace, scm);
+        }
+    }
+
+    /**
+     * Removes the sessions of a build when the build has been completed.
+     */
+    @Extension
+    public static class SessionExpiration extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(final Run<?, ?> run, final TaskListener listener) {
+            expire(run);
+        }
+
+        @Override
+        public void onDeleted(final Run<?, ?> run) {
+            expire(run);
+        }
+    }
+}
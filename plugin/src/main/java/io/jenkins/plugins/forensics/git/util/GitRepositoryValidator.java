@@ -1,9 +1,13 @@
 package io.jenkins.plugins.forensics.git.util;
 
 import java.io.IOException;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.ObjectId;
 
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 import org.jenkinsci.plugins.gitclient.GitClient;
 import hudson.EnvVars;
@@ -34,6 +38,11 @@ public class GitRepositoryValidator {
     private final TaskListener listener;
     private final FilteredLog logger;
 
+    @CheckForNull
+    private GitRepositorySession session;
+    @CheckForNull
+    private GitClient gitClient;
+
     /**
      * Creates a new {@link GitRepositoryValidator}.
      *
@@ -72,15 +81,23 @@ public class GitRepositoryValidator {
     }
 
     private boolean isValidGitRoot(final GitSCM git) {
-        if (isShallow(git)) {
-            logger.logInfo(INFO_SHALLOW_CLONE);
+        Optional<GitRepositorySession> validated = GitRepositorySession.find(build, workTree, scm);
+        if (validated.isPresent()) {
+            return isValidSession(validated.get());
+        }
 
-            return false;
+        if (isShallow(git)) {
+            return isValidSession(GitRepositorySession.createShallow(build, workTree, scm));
         }
 
         try {
-            GitClient gitClient = createClient();
-            if (gitClient.revParse(getHead()) != null) {
+            GitClient client = createNewClient();
+            String head = getHeadFromEnvironment();
+            ObjectId headCommit = client.revParse(head);
+            if (headCommit != null) {
+                gitClient = client;
+                session = GitRepositorySession.create(build, workTree, scm, head);
+
                 return true;
             }
         }
@@ -92,6 +109,17 @@ public class GitRepositoryValidator {
         return false;
     }
 
+    private boolean isValidSession(final GitRepositorySession validated) {
+        if (validated.isShallow()) {
+            logger.logInfo(INFO_SHALLOW_CLONE);
+
+            return false;
+        }
+        session = validated;
+
+        return true;
+    }
+
     private boolean isShallow(final GitSCM git) {
         CloneOption option = git.getExtensions().get(CloneOption.class);
         if (option != null) {
@@ -101,11 +129,20 @@ public class GitRepositoryValidator {
     }
 
     /**
-     * Creates a {@link GitClient} using the field values.
+     * Returns a {@link GitClient} for the working tree. If this validator has created a client to validate the
+     * working tree, then this client will be reused. Otherwise, a new client will be created that reports to the
+     * listener of this validator.
      *
      * @return a {@link GitClient}
      */
     public GitClient createClient() {
+        if (gitClient == null) {
+            gitClient = createNewClient();
+        }
+        return gitClient;
+    }
+
+    private GitClient createNewClient() {
         try {
             EnvVars environment = build.getEnvironment(listener);
             return ((GitSCM) scm).createClient(listener, environment, build, workTree);
@@ -121,6 +158,22 @@ public class GitRepositoryValidator {
      * @return a {@link GitClient}
      */
     public String getHead() {
+        if (session != null) {
+            return session.getHead();
+        }
+        return getHeadFromEnvironment();
+    }
+
+    /**
+     * Returns the storage profile that should be used for the JGit caches when reading the repository.
+     *
+     * @return the global storage profile
+     */
+    public StorageProfile getStorageProfile() {
+        return StorageProfile.global();
+    }
+
+    private String getHeadFromEnvironment() {
         try {
             EnvVars environment = build.getEnvironment(listener);
             return environment.getOrDefault("GIT_COMMIT", HEAD);
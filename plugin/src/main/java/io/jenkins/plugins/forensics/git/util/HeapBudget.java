@@ -0,0 +1,125 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Guards the heap of the agent against forensics callbacks that collect too much data. A callback registers the
+ * estimated size of the data it retains (e.g., the statistics of a file or the blames of a file) using {@link
+ * #allocate(long)} and asks with {@link #isExhausted()} whether it should continue. The budget is exhausted if the
+ * estimated size of the retained data exceeds the heap headroom that was available when the budget has been created, or
+ * if the live heap of the JVM (measured after the latest garbage collection) exceeds the configured share of the
+ * maximum heap. A callback with an exhausted budget should switch to a degraded mode (e.g., skip the remaining files)
+ * rather than crash the agent with an {@link OutOfMemoryError}.
+ *
+ * <p>
+ * The share of the maximum heap can be configured using the system property {@code
+ * io.jenkins.plugins.forensics.git.util.HeapBudget.maxUsage} (in percent, default 80) on the agent.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class HeapBudget {
+    private static final int MAX_USAGE = SystemProperties.getInteger(HeapBudget.class.getName() + ".maxUsage", 80);
+    /** Number of calls of {@link #isExhausted()} between two measurements of the heap. */
+    private static final int CHECK_INTERVAL = 256;
+    private static final long MB = 1024 * 1024;
+
+    private final long limit;
+    private final long budget;
+    private final LongSupplier liveHeap;
+
+    private long estimated;
+    private int calls;
+    private boolean exhausted;
+
+    /**
+     * Creates a budget for the heap of this JVM.
+     *
+     * @return the budget
+     */
+    public static HeapBudget create() {
+        return new HeapBudget(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax(), MAX_USAGE,
+                HeapBudget::getLiveHeap);
+    }
+
+    /**
+     * Returns the used heap after the latest garbage collection. Since the used heap also contains garbage that has
+     * not been collected yet, the usage after the latest collection is a better estimate of the live data. If the
+     * JVM provides no collection usage, then the currently used heap is returned.
+     */
+    private static long getLiveHeap() {
+        long live = 0;
+        boolean hasCollectionUsage = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null) {
+                    live += usage.getUsed();
+                    hasCollectionUsage = true;
+                }
+            }
+        }
+        if (hasCollectionUsage) {
+            return live;
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @VisibleForTesting
+    HeapBudget(final long maxHeap, final int maxUsage, final LongSupplier liveHeap) {
+        this.liveHeap = liveHeap;
+
+        if (maxHeap <= 0) { // maximum is not defined
+            limit = Long.MAX_VALUE;
+            budget = Long.MAX_VALUE;
+        }
+        else {
+            limit = maxHeap / 100 * Math.min(Math.max(maxUsage, 1), 100);
+            budget = Math.max(0, limit - liveHeap.getAsLong());
+        }
+    }
+
+    /**
+     * Registers the estimated size of data that will be retained until the end of the callback.
+     *
+     * @param bytes
+     *         the estimated size in bytes
+     */
+    public void allocate(final long bytes) {
+        estimated += bytes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimated;
+    }
+
+    /**
+     * Returns whether the budget has been exhausted. Once exhausted, the budget remains exhausted.
+     *
+     * @return {@code true} if the callback should switch to a degraded mode, {@code false} otherwise
+     */
+    public boolean isExhausted() {
+        if (!exhausted) {
+            exhausted = estimated > budget || (calls++ % CHECK_INTERVAL == 0 && liveHeap.getAsLong() > limit);
+        }
+        return exhausted;
+    }
+
+    @Override
+    public String toString() {
+        if (budget == Long.MAX_VALUE) {
+            return String.format(Locale.ENGLISH, "estimated %d MB, no heap limit", estimated / MB);
+        }
+        return String.format(Locale.ENGLISH, "estimated %d MB of %d MB budget, heap limit %d MB",
+                estimated / MB, budget / MB, limit / MB);
+    }
+}
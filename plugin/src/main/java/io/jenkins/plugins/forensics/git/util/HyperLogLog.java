@@ -0,0 +1,328 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct values (e.g., authors) with a fixed amount of memory. A
+ * sketch with precision {@code p} uses {@code 2^p} registers of one byte, the relative standard error of the estimate
+ * is {@code 1.04 / sqrt(2^p)}. Two sketches with the same precision are merged by taking the maximum of each register,
+ * so the sketches of files can be combined into the sketch of a directory, and the sketches of two builds can be
+ * combined without knowing the actual values.
+ *
+ * <p>
+ * Most sketches (e.g., the sketch of the authors of a single file) see only a few values. These sketches store the
+ * non-empty registers in a small sparse array and switch to the dense array of registers only when the sparse array
+ * would require more memory.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class HyperLogLog implements Serializable {
+    private static final long serialVersionUID = -1604863498223520389L;
+
+    /** Minimum precision (16 registers). */
+    public static final int MIN_PRECISION = 4;
+    /** Maximum precision (65536 registers). */
+    public static final int MAX_PRECISION = 16;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int RANK_BITS = 8;
+    private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+    private final int precision;
+    /** Sparse representation: each entry packs the register index and the rank, {@code null} if dense. */
+    @CheckForNull
+    private int[] sparse = new int[2];
+    private int sparseSize;
+    /** Dense representation: one rank per register, {@code null} if sparse. */
+    @CheckForNull
+    private byte[] registers;
+
+    /**
+     * Creates a sketch whose relative standard error does not exceed the specified error.
+     *
+     * @param relativeError
+     *         the relative standard error, e.g. 0.02 for 2 percent
+     *
+     * @return the sketch
+     */
+    public static HyperLogLog forError(final double relativeError) {
+        return new HyperLogLog(getPrecision(relativeError));
+    }
+
+    /**
+     * Returns the smallest precision whose relative standard error does not exceed the specified error.
+     *
+     * @param relativeError
+     *         the relative standard error, e.g. 0.02 for 2 percent
+     *
+     * @return the precision in the range [{@link #MIN_PRECISION}, {@link #MAX_PRECISION}]
+     */
+    public static int getPrecision(final double relativeError) {
+        if (relativeError <= 0) {
+            return MAX_PRECISION;
+        }
+        double registerCount = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(registerCount) / Math.log(2));
+        return Math.min(Math.max(precision, MIN_PRECISION), MAX_PRECISION);
+    }
+
+    /**
+     * Creates a new empty sketch.
+     *
+     * @param precision
+     *         the number of bits of the register index, in the range [{@link #MIN_PRECISION}, {@link
+     *         #MAX_PRECISION}]
+     */
+    public HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be in the range [4, 16]: " + precision);
+        }
+        this.precision = precision;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the relative standard error of the estimates of this sketch.
+     *
+     * @return the relative standard error
+     */
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(getRegisterCount());
+    }
+
+    private int getRegisterCount() {
+        return 1 << precision;
+    }
+
+    /**
+     * Adds the specified value.
+     *
+     * @param value
+     *         the value to add
+     */
+    public void add(final String value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Adds a value with the specified 64-bit hash.
+     *
+     * @param hash
+     *         the hash of the value
+     */
+    public void addHash(final long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), Long.SIZE - precision) + 1;
+        update(index, rank);
+    }
+
+    private void update(final int index, final int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparse[i] >>> RANK_BITS == index) {
+                if ((sparse[i] & RANK_MASK) < rank) {
+                    sparse[i] = (index << RANK_BITS) | rank;
+                }
+                return;
+            }
+        }
+        if (sparseSize == sparse.length) {
+            if (sparseSize * Integer.BYTES * 2 > getRegisterCount()) {
+                toDense();
+                registers[index] = (byte) Math.max(registers[index], rank);
+                return;
+            }
+            sparse = Arrays.copyOf(sparse, sparseSize * 2);
+        }
+        sparse[sparseSize++] = (index << RANK_BITS) | rank;
+    }
+
+    private void toDense() {
+        registers = new byte[getRegisterCount()];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> RANK_BITS] = (byte) (sparse[i] & RANK_MASK);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    /**
+     * Returns whether this sketch uses the sparse representation.
+     *
+     * @return {@code true} if the sketch is sparse, {@code false} if it is dense
+     */
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    /**
+     * Merges the specified sketch into this sketch.
+     *
+     * @param other
+     *         the sketch to merge
+     *
+     * @throws IllegalArgumentException
+     *         if the precision of the sketches is different
+     */
+    public void merge(final HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(String.format("Can't merge sketches with precision %d and %d",
+                    precision, other.precision));
+        }
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                update(other.sparse[i] >>> RANK_BITS, other.sparse[i] & RANK_MASK);
+            }
+        }
+        else {
+            if (registers == null) {
+                toDense();
+            }
+            for (int i = 0; i < registers.length; i++) {
+                registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of this sketch.
+     *
+     * @return the copy
+     */
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     *
+     * @return the estimated number of distinct values
+     */
+    public long estimate() {
+        int count = getRegisterCount();
+        double sum = 0;
+        int zeros = 0;
+        if (registers == null) {
+            zeros = count - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & RANK_MASK));
+            }
+        }
+        else {
+            for (byte register : registers) {
+                if (register == 0) {
+                    zeros++;
+                }
+                sum += 1.0 / (1L << register);
+            }
+        }
+
+        double estimate = getAlpha(count) * count * count / sum;
+        if (estimate <= 2.5 * count && zeros > 0) {
+            estimate = count * Math.log((double) count / zeros); // linear counting for small cardinalities
+        }
+        return Math.round(estimate);
+    }
+
+    private double getAlpha(final int count) {
+        switch (count) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / count);
+        }
+    }
+
+    /**
+     * Writes this sketch in a compact binary format.
+     *
+     * @param output
+     *         the output to write to
+     *
+     * @throws IOException
+     *         if the sketch could not be written
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        output.writeByte(precision);
+        if (registers == null) {
+            output.writeBoolean(true);
+            output.writeInt(sparseSize);
+            for (int i = 0; i < sparseSize; i++) {
+                output.writeInt(sparse[i]);
+            }
+        }
+        else {
+            output.writeBoolean(false);
+            output.write(registers);
+        }
+    }
+
+    /**
+     * Reads a sketch that has been written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *         the input to read from
+     *
+     * @return the sketch
+     * @throws IOException
+     *         if the sketch could not be read
+     */
+    public static HyperLogLog readFrom(final DataInput input) throws IOException {
+        HyperLogLog sketch = new HyperLogLog(input.readByte());
+        if (input.readBoolean()) {
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                int entry = input.readInt();
+                sketch.update(entry >>> RANK_BITS, entry & RANK_MASK);
+            }
+        }
+        else {
+            sketch.toDense();
+            input.readFully(sketch.registers);
+        }
+        return sketch;
+    }
+
+    /**
+     * Computes a 64-bit hash of the specified value (FNV-1a of the UTF-8 bytes, followed by the finalizer of
+     * MurmurHash3 to distribute the bits).
+     */
+    private static long hash(final String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
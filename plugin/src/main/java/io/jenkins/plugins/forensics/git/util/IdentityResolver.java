@@ -0,0 +1,300 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.errors.LargeObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import edu.hm.hafner.util.FilteredLog;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Resolves the identities of authors and committers to their canonical name and email address. The same person
+ * often uses several email addresses (or several spellings of the name), so the statistics would count the person
+ * several times. The mapping is defined by the {@code .mailmap} file of the repository (see <a
+ * href="https://git-scm.com/docs/gitmailmap">gitmailmap</a>) and by additional alias rules in the same format that
+ * override the entries of the {@code .mailmap} file. Emails and names are matched case-insensitively.
+ *
+ * <p>
+ * The resolved identities are cached for each distinct pair of name and email address. So each identity is resolved
+ * only once, and the same person is always represented by the same {@link Identity} instance: the sets of authors in
+ * the statistics share the strings of the canonical identities.
+ * </p>
+ *
+ * <p>
+ * The identities are resolved when the commits are mined, so the analyses of previous builds contain the identities
+ * that have been resolved with the mappings of that time. The {@link #getFingerprint() fingerprint} of the mappings
+ * identifies these mappings: if the fingerprint changes, then all commits need to be mined again.
+ * </p>
+ *
+ * <p>
+ * A {@code .mailmap} file that is larger than {@value #MAX_MAILMAP_SIZE} bytes is ignored.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class IdentityResolver {
+    static final String MAILMAP = ".mailmap";
+    static final int MAX_MAILMAP_SIZE = 1024 * 1024;
+
+    private final Map<String, MailmapEntry> entries = new HashMap<>();
+    private final Map<String, Map<String, Identity>> cache = new HashMap<>();
+    private String mappings = StringUtils.EMPTY;
+
+    /**
+     * Creates an identity resolver without any mappings. Each identity is mapped to itself.
+     *
+     * @return the resolver
+     */
+    public static IdentityResolver empty() {
+        return new IdentityResolver();
+    }
+
+    /**
+     * Creates an identity resolver for the {@code .mailmap} file of the specified commit and the specified alias
+     * rules.
+     *
+     * @param reader
+     *         the reader to read the {@code .mailmap} file with
+     * @param head
+     *         the commit that contains the {@code .mailmap} file
+     * @param aliases
+     *         additional alias rules in the format of a {@code .mailmap} file
+     * @param log
+     *         the logger
+     *
+     * @return the resolver
+     */
+    public static IdentityResolver create(final ObjectReader reader, final ObjectId head, final String aliases,
+            final FilteredLog log) {
+        IdentityResolver resolver = new IdentityResolver();
+        try {
+            resolver.parse(readMailmap(reader, head));
+        }
+        catch (IOException | LargeObjectException exception) {
+            log.logException(exception, "Can't read the file '%s' of commit %s", MAILMAP, head.getName());
+        }
+        resolver.parse(aliases);
+        if (!resolver.isEmpty()) {
+            log.logInfo("Resolving author identities using %d mailmap entries", resolver.entries.size());
+        }
+        return resolver;
+    }
+
+    private static String readMailmap(final ObjectReader reader, final ObjectId head) throws IOException {
+        try (RevWalk walk = new RevWalk(reader);
+                TreeWalk treeWalk = TreeWalk.forPath(reader, MAILMAP, walk.parseCommit(head).getTree())) {
+            if (treeWalk == null) {
+                return StringUtils.EMPTY;
+            }
+            ObjectLoader loader = reader.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB);
+            if (loader.getSize() > MAX_MAILMAP_SIZE) {
+                throw new IOException(String.format("The file has %d bytes, the maximum size is %d bytes",
+                        loader.getSize(), MAX_MAILMAP_SIZE));
+            }
+            return new String(loader.getCachedBytes(MAX_MAILMAP_SIZE), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Parses the specified mappings in the format of a {@code .mailmap} file. Each line maps the identity used in
+     * the commits to the canonical identity using one of the following forms:
+     * <pre>
+     * Proper Name &lt;commit@email&gt;
+     * &lt;proper@email&gt; &lt;commit@email&gt;
+     * Proper Name &lt;proper@email&gt; &lt;commit@email&gt;
+     * Proper Name &lt;proper@email&gt; Commit Name &lt;commit@email&gt;
+     * </pre>
+     *
+     * @param mailmap
+     *         the mappings
+     */
+    void parse(final String mailmap) {
+        for (String line : StringUtils.split(StringUtils.defaultString(mailmap), "\r\n")) {
+            parseLine(line);
+        }
+        mappings += StringUtils.defaultString(mailmap) + "\n";
+        cache.clear();
+    }
+
+    private void parseLine(final String line) {
+        String content = StringUtils.substringBefore(line, "#");
+        int firstStart = content.indexOf('<');
+        int firstEnd = content.indexOf('>', firstStart + 1);
+        if (firstStart < 0 || firstEnd < 0) {
+            return;
+        }
+        String properName = toValue(content.substring(0, firstStart));
+        String firstEmail = toValue(content.substring(firstStart + 1, firstEnd));
+
+        int secondStart = content.indexOf('<', firstEnd + 1);
+        int secondEnd = content.indexOf('>', secondStart + 1);
+        if (secondStart < 0 || secondEnd < 0) {
+            if (firstEmail != null && properName != null) {
+                getEntry(firstEmail).setReplacement(null, new Identity(properName, null));
+            }
+        }
+        else {
+            String commitName = toValue(content.substring(firstEnd + 1, secondStart));
+            String commitEmail = toValue(content.substring(secondStart + 1, secondEnd));
+            if (commitEmail != null) {
+                getEntry(commitEmail).setReplacement(commitName, new Identity(properName, firstEmail));
+            }
+        }
+    }
+
+    @CheckForNull
+    private static String toValue(final String text) {
+        return StringUtils.trimToNull(text);
+    }
+
+    private MailmapEntry getEntry(final String email) {
+        return entries.computeIfAbsent(toKey(email), key -> new MailmapEntry());
+    }
+
+    private static String toKey(final String value) {
+        return value.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns whether this resolver has no mappings.
+     *
+     * @return {@code true} if each identity is mapped to itself, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns a fingerprint of the mappings of this resolver. Two resolvers with the same fingerprint resolve all
+     * identities in the same way.
+     *
+     * @return the fingerprint, or an empty string if each identity is mapped to itself
+     */
+    public String getFingerprint() {
+        if (isEmpty()) {
+            return StringUtils.EMPTY;
+        }
+        return new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB,
+                mappings.getBytes(StandardCharsets.UTF_8)).getName();
+    }
+
+    /**
+     * Resolves the specified person to the canonical identity.
+     *
+     * @param person
+     *         the author or committer of a commit
+     *
+     * @return the canonical identity
+     */
+    public Identity resolve(final PersonIdent person) {
+        return resolve(person.getName(), person.getEmailAddress());
+    }
+
+    /**
+     * Resolves the specified name and email address to the canonical identity.
+     *
+     * @param name
+     *         the name of the author or committer
+     * @param email
+     *         the email address of the author or committer
+     *
+     * @return the canonical identity
+     */
+    public Identity resolve(@CheckForNull final String name, @CheckForNull final String email) {
+        Map<String, Identity> identitiesOfEmail = cache.computeIfAbsent(StringUtils.defaultString(email),
+                key -> new HashMap<>());
+        String nameKey = StringUtils.defaultString(name);
+        Identity identity = identitiesOfEmail.get(nameKey);
+        if (identity == null) {
+            identity = map(name, email);
+            identitiesOfEmail.put(nameKey, identity);
+        }
+        return identity;
+    }
+
+    private Identity map(@CheckForNull final String name, @CheckForNull final String email) {
+        if (email != null) {
+            MailmapEntry entry = entries.get(toKey(email));
+            if (entry != null) {
+                Identity replacement = entry.getReplacement(name);
+                if (replacement != null) {
+                    return new Identity(StringUtils.defaultString(replacement.getName(), name),
+                            StringUtils.defaultString(replacement.getEmail(), email));
+                }
+            }
+        }
+        return new Identity(name, email);
+    }
+
+    /**
+     * The mappings of an email address used in the commits: a mapping for all names and mappings for specific names.
+     */
+    private static class MailmapEntry {
+        @CheckForNull
+        private Identity anyName;
+        private final Map<String, Identity> byName = new HashMap<>();
+
+        void setReplacement(@CheckForNull final String commitName, final Identity replacement) {
+            if (commitName == null) {
+                anyName = replacement;
+            }
+            else {
+                byName.put(toKey(commitName), replacement);
+            }
+        }
+
+        @CheckForNull
+        Identity getReplacement(@CheckForNull final String name) {
+            if (name != null && !byName.isEmpty()) {
+                Identity replacement = byName.get(toKey(name));
+                if (replacement != null) {
+                    return replacement;
+                }
+            }
+            return anyName;
+        }
+    }
+
+    /**
+     * The canonical name and email address of a person.
+     */
+    public static class Identity {
+        @CheckForNull
+        private final String name;
+        @CheckForNull
+        private final String email;
+
+        Identity(@CheckForNull final String name, @CheckForNull final String email) {
+            this.name = name;
+            this.email = email;
+        }
+
+        @CheckForNull
+        public String getName() {
+            return name;
+        }
+
+        @CheckForNull
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s <%s>", name, email);
+        }
+    }
+}
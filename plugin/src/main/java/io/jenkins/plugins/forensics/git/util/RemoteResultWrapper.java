@@ -15,7 +15,8 @@ import edu.hm.hafner.util.FilteredLog;
 public class RemoteResultWrapper<T extends Serializable> extends FilteredLog {
     private static final long serialVersionUID = -6411417555105688927L;
 
-    private final T result;
+    private T result;
+    private final ForensicsMetrics metrics = new ForensicsMetrics();
 
     /**
      * Creates a new instance of {@link RemoteResultWrapper}.
@@ -34,4 +35,24 @@ public class RemoteResultWrapper<T extends Serializable> extends FilteredLog {
     public T getResult() {
         return result;
     }
+
+    /**
+     * Replaces the wrapped result. Used by the {@link StreamingRepositoryCallback} to transfer the messages and
+     * metrics of this wrapper without the wrapped result.
+     *
+     * @param result
+     *         the new result
+     */
+    void setResult(final T result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns the timers and counters that have been recorded while creating the result.
+     *
+     * @return the metrics
+     */
+    public ForensicsMetrics getMetrics() {
+        return metrics;
+    }
 }
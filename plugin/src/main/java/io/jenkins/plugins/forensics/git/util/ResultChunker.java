@@ -0,0 +1,85 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Iterator;
+
+/**
+ * Splits a result of a {@link AbstractRepositoryCallback} into small chunks on the agent and merges these chunks into a
+ * new result on the controller. Used by the {@link StreamingRepositoryCallback} to transfer large results without
+ * serializing the whole result in a single object graph. Large properties of the result that provide a compact binary
+ * format can be written directly into the stream (see {@link #writeBinary(Serializable, DataOutput)}) rather than
+ * being split into chunks.
+ *
+ * @param <T>
+ *         the type of the result
+ *
+ * @author Ullrich Hafner
+ */
+public interface ResultChunker<T extends Serializable> extends Serializable {
+    /**
+     * Creates an empty copy of the specified result. The copy must contain all properties of the result that are
+     * neither part of the chunks nor written in the binary format. It will be used as the target of all chunks on the
+     * controller.
+     *
+     * @param result
+     *         the result to copy
+     *
+     * @return an empty copy of the result
+     */
+    T createEmptyCopy(T result);
+
+    /**
+     * Splits the specified result into chunks.
+     *
+     * @param result
+     *         the result to split
+     *
+     * @return the chunks of the result
+     */
+    Iterator<? extends Serializable> split(T result);
+
+    /**
+     * Merges the specified chunk into the target result.
+     *
+     * @param target
+     *         the result that will be rebuilt on the controller
+     * @param chunk
+     *         the chunk to merge
+     */
+    void merge(T target, Serializable chunk);
+
+    /**
+     * Writes the properties of the specified result that provide a compact binary format. These properties are
+     * written after the empty copy and before the chunks. By default, no properties are written.
+     *
+     * @param result
+     *         the result to write
+     * @param output
+     *         the output to write to
+     *
+     * @throws IOException
+     *         if the properties could not be written
+     */
+    default void writeBinary(final T result, final DataOutput output) throws IOException {
+        // no binary properties
+    }
+
+    /**
+     * Reads the properties that have been written by {@link #writeBinary(Serializable, DataOutput)} into the target
+     * result.
+     *
+     * @param target
+     *         the result that will be rebuilt on the controller
+     * @param input
+     *         the input to read from
+     *
+     * @throws IOException
+     *         if the properties could not be read
+     */
+    default void readBinary(final T target, final DataInput input) throws IOException {
+        // no binary properties
+    }
+}
@@ -0,0 +1,147 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * The slowest entries (e.g., files or commits) of a phase of a forensics callback. Only the {@code size} slowest
+ * entries are retained in a bounded min-heap, so the memory cost is fixed regardless of the number of added entries:
+ * a new entry replaces the fastest retained entry if it is slower.
+ *
+ * @author Ullrich Hafner
+ */
+@ExportedBean
+public class SlowestEntries implements Serializable {
+    private static final long serialVersionUID = -2385125632208613532L;
+
+    private final int size;
+    private final PriorityQueue<Entry> heap;
+
+    /**
+     * Creates a new instance of {@link SlowestEntries}.
+     *
+     * @param size
+     *         the maximum number of entries to retain
+     */
+    public SlowestEntries(final int size) {
+        this.size = Math.max(size, 1);
+        heap = new PriorityQueue<>(this.size);
+    }
+
+    /**
+     * Adds an entry. The entry will be retained only if it is one of the {@code size} slowest entries.
+     *
+     * @param name
+     *         the name of the entry, e.g. the file name or the commit ID
+     * @param nanos
+     *         the duration in nanoseconds
+     */
+    public void add(final String name, final long nanos) {
+        add(new Entry(name, nanos));
+    }
+
+    private void add(final Entry entry) {
+        if (heap.size() < size) {
+            heap.add(entry);
+        }
+        else if (entry.compareTo(heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * Adds all entries of the specified instance to this instance.
+     *
+     * @param other
+     *         the entries to add
+     */
+    public void merge(final SlowestEntries other) {
+        other.heap.forEach(this::add);
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Returns the retained entries.
+     *
+     * @return the entries, the slowest entry first
+     */
+    @Exported
+    public List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(Collections.reverseOrder());
+        return entries;
+    }
+
+    /**
+     * An entry with its duration.
+     */
+    @ExportedBean
+    public static class Entry implements Comparable<Entry>, Serializable {
+        private static final long serialVersionUID = 2434137427834208017L;
+
+        private final String name;
+        private final long nanos;
+
+        Entry(final String name, final long nanos) {
+            this.name = name;
+            this.nanos = nanos;
+        }
+
+        @Exported
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the duration of this entry.
+         *
+         * @return the duration in milliseconds
+         */
+        @Exported
+        public long getDuration() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        @Override
+        public int compareTo(final Entry other) {
+            int comparison = Long.compare(nanos, other.nanos);
+            if (comparison == 0) {
+                return other.name.compareTo(name);
+            }
+            return comparison;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return nanos == entry.nanos && name.equals(entry.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + Long.hashCode(nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d ms", name, getDuration());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.storage.file.WindowCacheStats;
+
+import edu.hm.hafner.util.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+/**
+ * Sizes the JGit storage caches (pack window cache, delta base cache, and streaming threshold) of the agent before a
+ * forensics callback starts to read the repository. Each limit is given in megabytes. The profile is set globally (see
+ * {@link GitForensicsConfiguration}).
+ *
+ * <p>
+ * Note that JGit uses a single window cache per JVM that is shared with all other users of JGit on the agent (e.g.,
+ * the Git client plugin). So the caches are only changed if an administrator explicitly configured a limit: if all
+ * limits are 0, then the JGit configuration of the agent is left untouched. Otherwise, the configured limits are
+ * installed and the remaining limits are sized from the maximum heap of the agent. Installing a new configuration
+ * drops all cached windows, so the configuration is only installed if it differs from the currently installed one.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class StorageProfile implements Serializable {
+    private static final long serialVersionUID = 2850342474853521874L;
+
+    private static final long MB = 1024 * 1024;
+    private static final long MIN_PACKED_GIT_LIMIT = 10 * MB;
+    private static final long MIN_DELTA_BASE_CACHE_LIMIT = 10 * MB;
+    private static final long MIN_STREAM_FILE_THRESHOLD = 50 * MB;
+    private static final int PACKED_GIT_OPEN_FILES = 512;
+    private static final String JGIT_DEFAULTS = "JGit defaults of the agent";
+
+    /** The configuration that has been installed in this JVM by the latest callback. */
+    @CheckForNull
+    private static String installedConfiguration;
+
+    private final int packedGitLimit;
+    private final int deltaBaseCacheLimit;
+    private final int streamFileThreshold;
+
+    /**
+     * Returns a profile that does not change the JGit caches of the agent.
+     *
+     * @return the profile that keeps the JGit defaults
+     */
+    public static StorageProfile jgitDefaults() {
+        return new StorageProfile(0, 0, 0);
+    }
+
+    /**
+     * Returns the global profile of the {@link GitForensicsConfiguration}.
+     *
+     * @return the global storage profile, or a profile that keeps the JGit defaults if Jenkins has not been started yet
+     */
+    public static StorageProfile global() {
+        GitForensicsConfiguration configuration = GitForensicsConfiguration.getInstance();
+        if (configuration == null) {
+            return jgitDefaults();
+        }
+        return configuration.getStorageProfile();
+    }
+
+    /**
+     * Creates a new instance of {@link StorageProfile}.
+     *
+     * @param packedGitLimit
+     *         the maximum number of megabytes of pack file windows to keep in memory (0: not configured)
+     * @param deltaBaseCacheLimit
+     *         the maximum number of megabytes of delta bases to keep in memory (0: not configured)
+     * @param streamFileThreshold
+     *         the size in megabytes of objects that will be streamed rather than loaded into memory (0: not
+     *         configured)
+     */
+    public StorageProfile(final int packedGitLimit, final int deltaBaseCacheLimit, final int streamFileThreshold) {
+        this.packedGitLimit = Math.max(packedGitLimit, 0);
+        this.deltaBaseCacheLimit = Math.max(deltaBaseCacheLimit, 0);
+        this.streamFileThreshold = Math.max(streamFileThreshold, 0);
+    }
+
+    public int getPackedGitLimit() {
+        return packedGitLimit;
+    }
+
+    public int getDeltaBaseCacheLimit() {
+        return deltaBaseCacheLimit;
+    }
+
+    public int getStreamFileThreshold() {
+        return streamFileThreshold;
+    }
+
+    /**
+     * Returns whether at least one limit of this profile has been configured explicitly. Otherwise, this profile
+     * keeps the JGit defaults of the agent.
+     *
+     * @return {@code true} if this profile changes the JGit caches, {@code false} otherwise
+     */
+    public boolean isConfigured() {
+        return packedGitLimit > 0 || deltaBaseCacheLimit > 0 || streamFileThreshold > 0;
+    }
+
+    /**
+     * Creates the JGit configuration of this profile for a JVM with the specified maximum heap.
+     *
+     * @param maxHeap
+     *         the maximum heap of the JVM in bytes
+     *
+     * @return the JGit configuration
+     */
+    @VisibleForTesting
+    WindowCacheConfig createConfiguration(final long maxHeap) {
+        WindowCacheConfig configuration = new WindowCacheConfig();
+        configuration.setPackedGitOpenFiles(PACKED_GIT_OPEN_FILES);
+        configuration.setPackedGitLimit(toBytes(packedGitLimit, maxHeap / 4, MIN_PACKED_GIT_LIMIT));
+        configuration.setDeltaBaseCacheLimit(
+                toIntBytes(toBytes(deltaBaseCacheLimit, maxHeap / 16, MIN_DELTA_BASE_CACHE_LIMIT)));
+        configuration.setStreamFileThreshold(
+                toIntBytes(toBytes(streamFileThreshold, maxHeap / 8, MIN_STREAM_FILE_THRESHOLD)));
+        return configuration;
+    }
+
+    private long toBytes(final int megabytes, final long fromHeap, final long minimum) {
+        if (megabytes > 0) {
+            return megabytes * MB;
+        }
+        return Math.max(fromHeap, minimum);
+    }
+
+    private int toIntBytes(final long bytes) {
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Installs this profile in the JVM of the agent. The JGit configuration will be only replaced if this profile has
+     * been configured and if it differs from the currently installed configuration.
+     *
+     * @return a description of the installed configuration
+     */
+    String apply() {
+        if (!isConfigured()) {
+            return JGIT_DEFAULTS;
+        }
+        WindowCacheConfig configuration = createConfiguration(Runtime.getRuntime().maxMemory());
+        String description = describe(configuration);
+        synchronized (StorageProfile.class) {
+            if (!description.equals(installedConfiguration)) {
+                configuration.install();
+                installedConfiguration = description;
+            }
+        }
+        return description;
+    }
+
+    private String describe(final WindowCacheConfig configuration) {
+        return String.format(Locale.ENGLISH,
+                "packedGitLimit = %d MB, deltaBaseCacheLimit = %d MB, streamFileThreshold = %d MB",
+                configuration.getPackedGitLimit() / MB, configuration.getDeltaBaseCacheLimit() / MB,
+                configuration.getStreamFileThreshold() / MB);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the JGit window cache of this JVM.
+     *
+     * @return the current statistics
+     */
+    static CacheStatistics getCacheStatistics() {
+        WindowCacheStats stats = WindowCacheStats.getStats();
+        return new CacheStatistics(stats.getHitCount(), stats.getMissCount(), stats.getOpenByteCount());
+    }
+
+    /**
+     * Hit and miss counts of the JGit window cache.
+     */
+    static class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final long openBytes;
+
+        CacheStatistics(final long hits, final long misses, final long openBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.openBytes = openBytes;
+        }
+
+        long getHitsSince(final CacheStatistics before) {
+            return hits - before.hits;
+        }
+
+        long getMissesSince(final CacheStatistics before) {
+            return misses - before.misses;
+        }
+
+        /**
+         * Describes the cache accesses that occurred since the specified snapshot has been taken. Since the cache is
+         * shared by all callbacks of the JVM, concurrent callbacks will be included in the counts as well.
+         *
+         * @param before
+         *         the snapshot before the callback has been started
+         *
+         * @return a description of the cache accesses
+         */
+        String describeSince(final CacheStatistics before) {
+            long hitDelta = getHitsSince(before);
+            long missDelta = getMissesSince(before);
+            long total = hitDelta + missDelta;
+            return String.format(Locale.ENGLISH,
+                    "JGit window cache: %d hits, %d misses (hit ratio %d%%), %d MB open",
+                    hitDelta, missDelta, total == 0 ? 100 : hitDelta * 100 / total, openBytes / MB);
+        }
+    }
+}
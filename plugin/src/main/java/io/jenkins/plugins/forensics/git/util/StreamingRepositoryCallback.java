@@ -0,0 +1,262 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+
+import edu.hm.hafner.util.VisibleForTesting;
+
+import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.remoting.ClassFilter;
+import hudson.remoting.ObjectInputStreamEx;
+import hudson.remoting.Pipe;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Transfers the result of a {@link AbstractRepositoryCallback} from the agent to the controller using a compressed
+ * stream rather than a single serialized object. The result is split into chunks by a {@link ResultChunker}, the
+ * chunks are written to a {@link Pipe} and merged into a new result on the controller while the callback is still
+ * running. Large properties of the result are written in their compact binary format. So neither the agent nor the
+ * controller need to hold the serialized form of the whole result in memory. Note that the callback creates the
+ * whole result on the agent before the transfer starts. The invoked callback is responsible for the {@link
+ * StorageProfile}. If the controller fails to read the result, then the pipe is closed, so the agent does not block
+ * while writing the remaining chunks.
+ *
+ * @param <T>
+ *         the type of the result
+ *
+ * @author Ullrich Hafner
+ */
+public class StreamingRepositoryCallback<T extends Serializable> extends AbstractRepositoryCallback<Integer> {
+    private static final long serialVersionUID = 6290722178113400135L;
+
+    /** Number of elements that are serialized together in a single chunk. */
+    @VisibleForTesting
+    static final int CHUNK_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Time to wait for the reader to complete after the callback failed. */
+    private static final long READER_TIMEOUT_SECONDS = 10;
+    private static final String READ_ERROR = "Can't read the result of the Git callback";
+
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), "Git forensics result reader"));
+
+    private final AbstractRepositoryCallback<RemoteResultWrapper<T>> callback;
+    private final ResultChunker<T> chunker;
+    private final Pipe pipe;
+
+    /**
+     * Invokes the specified callback and transfers the result using a compressed stream.
+     *
+     * @param gitClient
+     *         the Git client to invoke the callback with
+     * @param callback
+     *         the callback to invoke
+     * @param chunker
+     *         the chunker that splits and merges the result
+     * @param <T>
+     *         the type of the result
+     *
+     * @return the result of the callback, rebuilt on the controller
+     * @throws IOException
+     *         if the callback or the transfer failed
+     * @throws InterruptedException
+     *         if the user canceled the execution
+     */
+    public static <T extends Serializable> RemoteResultWrapper<T> transfer(final GitClient gitClient,
+            final AbstractRepositoryCallback<RemoteResultWrapper<T>> callback, final ResultChunker<T> chunker)
+            throws IOException, InterruptedException {
+        Pipe pipe = Pipe.createRemoteToLocal();
+        InputStream input = pipe.getIn();
+        Future<RemoteResultWrapper<T>> reader = READERS.submit(() -> readAndClose(input, chunker));
+        try {
+            long start = System.nanoTime();
+            try {
+                gitClient.withRepository(new StreamingRepositoryCallback<>(callback, chunker, pipe));
+            }
+            catch (IOException exception) {
+                throw getReaderFailure(reader, exception).orElse(exception);
+            }
+            RemoteResultWrapper<T> result = reader.get();
+
+            long duration = System.nanoTime() - start;
+            ForensicsMetrics metrics = result.getMetrics();
+            metrics.addDuration(ForensicsMetrics.REMOTE_CALL, duration);
+            metrics.addDuration(ForensicsMetrics.TRANSFER,
+                    Math.max(0, duration - metrics.getNanos(ForensicsMetrics.CALLBACK)));
+            return result;
+        }
+        catch (ExecutionException exception) {
+            throw new IOException(READ_ERROR, exception.getCause());
+        }
+        finally {
+            reader.cancel(true);
+            input.close();
+        }
+    }
+
+    /**
+     * Returns the failure of the reader if the callback failed because the reader stopped reading the stream. In this
+     * case the failure of the callback is only a consequence of the closed pipe.
+     */
+    private static Optional<IOException> getReaderFailure(final Future<?> reader, final IOException callbackFailure)
+            throws InterruptedException {
+        try {
+            reader.get(READER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return Optional.empty();
+        }
+        catch (ExecutionException exception) {
+            IOException readerFailure = new IOException(READ_ERROR, exception.getCause());
+            readerFailure.addSuppressed(callbackFailure);
+            return Optional.of(readerFailure);
+        }
+        catch (TimeoutException exception) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the result from the specified stream and closes the stream afterwards, even if reading fails. Closing the
+     * local end of the pipe lets the writer on the agent fail fast instead of blocking on a full pipe.
+     */
+    private static <T extends Serializable> RemoteResultWrapper<T> readAndClose(final InputStream input,
+            final ResultChunker<T> chunker) throws IOException, ClassNotFoundException {
+        try {
+            return read(input, chunker);
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    @VisibleForTesting
+    StreamingRepositoryCallback(final AbstractRepositoryCallback<RemoteResultWrapper<T>> callback,
+            final ResultChunker<T> chunker, final Pipe pipe) {
+        super();
+
+        this.callback = callback;
+        this.chunker = chunker;
+        this.pipe = pipe;
+    }
+
+    @Override
+    public Integer invoke(final Repository repository, final VirtualChannel channel)
+            throws IOException, InterruptedException {
+        try (OutputStream output = pipe.getOut()) {
+            return write(callback.invoke(repository, channel), output);
+        }
+    }
+
+    /**
+     * Not supported: the wrapped callback manages the repository and its reader, see {@link #invoke(Repository,
+     * VirtualChannel)}.
+     *
+     * @throws IllegalStateException
+     *         always
+     */
+    @Override
+    protected Integer process(final Repository repository, final ObjectReader reader) {
+        throw new IllegalStateException("The streaming callback must be invoked with a repository");
+    }
+
+    /**
+     * Writes the specified result to the stream. The stream contains the wrapper with an empty copy of the result
+     * (including the info and error messages and the metrics), the binary properties and the chunks of the result,
+     * terminated by {@code null}.
+     *
+     * @param result
+     *         the result to write
+     * @param output
+     *         the stream to write to
+     *
+     * @return the number of written chunks
+     * @throws IOException
+     *         if the result could not be written
+     */
+    private int write(final RemoteResultWrapper<T> result, final OutputStream output) throws IOException {
+        try (ObjectOutputStream stream = new ObjectOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(output, BUFFER_SIZE), BUFFER_SIZE))) {
+            T full = result.getResult();
+            result.setResult(chunker.createEmptyCopy(full));
+            try {
+                stream.writeObject(result);
+            }
+            finally {
+                result.setResult(full);
+            }
+            chunker.writeBinary(full, stream);
+
+            int chunks = 0;
+            Iterator<? extends Serializable> elements = chunker.split(full);
+            while (elements.hasNext()) {
+                ArrayList<Serializable> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (elements.hasNext() && chunk.size() < CHUNK_SIZE) {
+                    chunk.add(elements.next());
+                }
+                stream.writeObject(chunk);
+                stream.reset(); // do not keep references to the written chunks
+                chunks++;
+            }
+            stream.writeObject(null);
+            return chunks;
+        }
+    }
+
+    /**
+     * Reads a result that has been written by {@link #write(RemoteResultWrapper, OutputStream)}.
+     *
+     * @param input
+     *         the stream to read from
+     * @param chunker
+     *         the chunker that merges the chunks into the result
+     * @param <T>
+     *         the type of the result
+     *
+     * @return the result
+     * @throws IOException
+     *         if the stream could not be read
+     * @throws ClassNotFoundException
+     *         if the stream contains an unknown class
+     */
+    @VisibleForTesting
+    @SuppressWarnings("unchecked")
+    static <T extends Serializable> RemoteResultWrapper<T> read(final InputStream input,
+            final ResultChunker<T> chunker) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream stream = new ObjectInputStreamEx(
+                new GZIPInputStream(new BufferedInputStream(input, BUFFER_SIZE), BUFFER_SIZE),
+                StreamingRepositoryCallback.class.getClassLoader(), ClassFilter.DEFAULT)) {
+            RemoteResultWrapper<T> result = (RemoteResultWrapper<T>) stream.readObject();
+            T target = result.getResult();
+            chunker.readBinary(target, stream);
+
+            for (Object chunk = stream.readObject(); chunk != null; chunk = stream.readObject()) {
+                for (Serializable element : (List<Serializable>) chunk) {
+                    chunker.merge(target, element);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/* global jQuery3 */
+/**
+ * Initializes the table of the file statistics. The rows are paged, sorted, and filtered on the controller, the
+ * browser requests the rows of the visible page only.
+ */
+(function ($) {
+    $(document).ready(function () {
+        const table = $('#forensics');
+        const columns = table.find('thead th').map(function () {
+            return {
+                data: $(this).data('property'),
+                render: $.fn.dataTable.render.text() // file names are user content, render them as text
+            };
+        }).get();
+
+        table.DataTable({
+            serverSide: true,
+            processing: true,
+            searchDelay: 500,
+            ajax: {
+                url: table.data('url'),
+                type: 'GET'
+            },
+            columns: columns,
+            order: [[0, 'asc']]
+        });
+    });
+})(jQuery3);
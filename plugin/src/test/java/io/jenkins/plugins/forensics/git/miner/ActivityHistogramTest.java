@@ -0,0 +1,176 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link ActivityHistogram} and {@link ActivityHistograms}.
+ *
+ * @author Ullrich Hafner
+ */
+class ActivityHistogramTest {
+    private static final String FILE = "file.txt";
+    private static final String OTHER_FILE = "other.txt";
+
+    @Test
+    void shouldEncodeEmptyBucketsAsRuns() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        assertThat(histogram.isEmpty()).isTrue();
+
+        histogram.add(10);
+        histogram.add(10);
+        histogram.add(11);
+        histogram.add(100);
+
+        assertThat(histogram.isEmpty()).isFalse();
+        assertThat(histogram.getStart()).isEqualTo(10);
+        assertThat(histogram.getEnd()).isEqualTo(101);
+        assertThat(histogram.toString()).isEqualTo("[10, 101): [2, 1, -88, 1]");
+        assertThat(histogram.get(9)).isEqualTo(0);
+        assertThat(histogram.get(10)).isEqualTo(2);
+        assertThat(histogram.get(11)).isEqualTo(1);
+        assertThat(histogram.get(50)).isEqualTo(0);
+        assertThat(histogram.get(100)).isEqualTo(1);
+        assertThat(histogram.get(101)).isEqualTo(0);
+        assertThat(histogram.getTotal()).isEqualTo(4);
+        assertThat(histogram.toArray(9, 13)).containsExactly(0, 2, 1, 0);
+    }
+
+    @Test
+    void shouldAddCommitsOfOlderBuckets() {
+        ActivityHistogram histogram = new ActivityHistogram();
+
+        histogram.add(10);
+        histogram.add(20);
+        histogram.add(15);
+        histogram.add(5, 3);
+        histogram.add(20);
+
+        assertThat(histogram.toString()).isEqualTo("[5, 21): [3, -4, 1, -4, 1, -4, 2]");
+        assertThat(histogram.getTotal()).isEqualTo(7);
+        assertThat(histogram.get(15)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMergeHistograms() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        histogram.add(3);
+        histogram.add(8);
+
+        ActivityHistogram other = new ActivityHistogram();
+        other.add(1);
+        other.add(8, 2);
+        other.add(12);
+
+        histogram.addAll(other);
+
+        assertThat(histogram.toArray(0, 13)).containsExactly(0, 1, 0, 1, 0, 0, 0, 0, 3, 0, 0, 0, 1);
+        assertThat(histogram.getTotal()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldComputeWeekBuckets() {
+        BucketSize week = BucketSize.WEEK;
+
+        int monday = toSeconds(LocalDate.of(2020, 6, 1));
+        int sunday = toSeconds(LocalDate.of(2020, 6, 7)) + 23 * 60 * 60;
+        int nextMonday = toSeconds(LocalDate.of(2020, 6, 8));
+
+        assertThat(week.getBucket(sunday)).isEqualTo(week.getBucket(monday));
+        assertThat(week.getBucket(nextMonday)).isEqualTo(week.getBucket(monday) + 1);
+        assertThat(week.getStartDate(week.getBucket(sunday))).isEqualTo(LocalDate.of(2020, 6, 1));
+        assertThat(week.getStartDate(week.getBucket(0))).isEqualTo(LocalDate.of(1969, 12, 29));
+    }
+
+    @Test
+    void shouldComputeMonthBuckets() {
+        BucketSize month = BucketSize.MONTH;
+
+        int january = toSeconds(LocalDate.of(2020, 1, 31));
+        int february = toSeconds(LocalDate.of(2020, 2, 1));
+        int december = toSeconds(LocalDate.of(2019, 12, 15));
+
+        assertThat(month.getBucket(february)).isEqualTo(month.getBucket(january) + 1);
+        assertThat(month.getBucket(december)).isEqualTo(month.getBucket(january) - 1);
+        assertThat(month.getStartDate(month.getBucket(january))).isEqualTo(LocalDate.of(2020, 1, 1));
+        assertThat(month.getStartDate(month.getBucket(december))).isEqualTo(LocalDate.of(2019, 12, 1));
+    }
+
+    @Test
+    void shouldMergeWithPreviousHistograms() {
+        ActivityHistograms previous = new ActivityHistograms("", "1", BucketSize.WEEK);
+        previous.addCommit(1);
+        previous.addCommit(FILE, 1);
+        previous.addCommit(OTHER_FILE, 1);
+
+        ActivityHistograms delta = new ActivityHistograms("1", "2", BucketSize.WEEK);
+        delta.addCommit(2);
+        delta.addCommit(FILE, 2);
+        delta.addCommit(2);
+        delta.deleteFile(OTHER_FILE);
+
+        ActivityHistograms merged = delta.merge(previous);
+
+        assertThat(merged.getBaseCommitId()).isEmpty();
+        assertThat(merged.getLatestCommitId()).isEqualTo("2");
+        assertThat(merged.getRepository().toArray(1, 3)).containsExactly(1, 2);
+        assertThat(merged.getFiles()).containsExactly(FILE);
+        assertThat(merged.get(FILE)).hasValueSatisfying(
+                histogram -> assertThat(histogram.toArray(1, 3)).containsExactly(1, 1));
+        assertThat(merged.get(OTHER_FILE)).isEmpty();
+    }
+
+    @Test
+    void shouldSkipPreviousHistogramsWithOtherBucketSize() {
+        ActivityHistograms previous = new ActivityHistograms("", "1", BucketSize.MONTH);
+        previous.addCommit(FILE, 1);
+
+        ActivityHistograms delta = new ActivityHistograms("1", "2", BucketSize.WEEK);
+        delta.addCommit(OTHER_FILE, 2);
+
+        assertThat(delta.merge(previous)).isSameAs(delta);
+    }
+
+    @Test
+    void shouldWriteAndReadHistograms() throws IOException {
+        ActivityHistograms histograms = new ActivityHistograms("1", "2", BucketSize.MONTH);
+        histograms.addCommit(100);
+        histograms.addCommit(200);
+        histograms.addCommit(FILE, 100);
+        histograms.addCommit(FILE, 200);
+        histograms.addCommit(OTHER_FILE, 200);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histograms.writeTo(new DataOutputStream(bytes));
+        ActivityHistograms read = ActivityHistograms.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getBaseCommitId()).isEqualTo("1");
+        assertThat(read.getLatestCommitId()).isEqualTo("2");
+        assertThat(read.getBucketSize()).isEqualTo(BucketSize.MONTH);
+        assertThat(read.getRepository().toString()).isEqualTo(histograms.getRepository().toString());
+        assertThat(read.getFiles()).containsExactlyInAnyOrder(FILE, OTHER_FILE);
+        assertThat(read.get(FILE)).hasValueSatisfying(histogram -> {
+            assertThat(histogram.getEnd()).isEqualTo(201);
+            assertThat(histogram.getTotal()).isEqualTo(2);
+        });
+
+        read.getRepository().add(200);
+        assertThat(read.getRepository().get(200)).isEqualTo(2);
+    }
+
+    private int toSeconds(final LocalDate date) {
+        return (int) date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    }
+}
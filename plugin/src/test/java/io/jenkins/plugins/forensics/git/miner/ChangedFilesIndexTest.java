@@ -0,0 +1,200 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link ChangedFilesIndex} and {@link CommitChanges}.
+ *
+ * @author Ullrich Hafner
+ */
+class ChangedFilesIndexTest {
+    private static final String A = "A.java";
+    private static final String B = "B.java";
+    private static final String C = "C.java";
+    private static final String D = "D.java";
+
+    @Test
+    void shouldRecordChangesOfCommits() {
+        CommitChanges changes = new CommitChanges();
+        changes.startCommit(commit(1), "");
+        changes.addFile(A);
+        changes.addFile(B);
+        changes.startCommit(commit(2), commit(1));
+        changes.startCommit(commit(3), commit(2));
+        changes.addFile(B);
+
+        assertThat(changes.size()).isEqualTo(3);
+        assertThat(changes.getCommits()).containsExactly(commit(1), commit(2), commit(3));
+        assertThat(changes.getParents()).containsExactly("", commit(1), commit(2));
+        assertThat(changes.getPaths()).containsExactly(A, B);
+        assertThat(changes.getChanges(0)).containsExactly(0, 1);
+        assertThat(changes.getChanges(1)).isEmpty();
+        assertThat(changes.getChanges(2)).containsExactly(1);
+    }
+
+    @Test
+    void shouldWriteAndReadChangesInBinaryFormat() throws IOException {
+        CommitChanges changes = createChanges(1, 5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        changes.writeTo(new DataOutputStream(bytes));
+        CommitChanges read = CommitChanges.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getCommits()).isEqualTo(changes.getCommits());
+        assertThat(read.getParents()).isEqualTo(changes.getParents());
+        assertThat(read.getPaths()).containsExactly(A, B, C, D);
+        for (int commit = 0; commit < changes.size(); commit++) {
+            assertThat(read.getChanges(commit)).isEqualTo(changes.getChanges(commit));
+        }
+
+        read.startCommit(commit(6), commit(5));
+        read.addFile(B);
+        assertThat(read.getPaths()).hasSize(4);
+        assertThat(read.getChanges(5)).containsExactly(1);
+    }
+
+    @Test
+    void shouldFindChangedFilesBetweenCommits(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+        assertThat(index.size()).isZero();
+        assertThat(index.getChangedFiles("", commit(1))).isEmpty();
+
+        assertThat(index.append(createChanges(1, 3))).isEqualTo(3);
+        assertThat(index.append(createChanges(4, 5))).isEqualTo(2);
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.contains(commit(5))).isTrue();
+        assertThat(index.contains(commit(6))).isFalse();
+        assertThat(index.contains("HEAD")).isFalse();
+
+        assertThat(index.getChangedFiles("", commit(5))).contains(asSet(A, B, C, D));
+        assertThat(index.getChangedFiles("", commit(1))).contains(asSet(A));
+        assertThat(index.getChangedFiles(commit(1), commit(3))).contains(asSet(B, C));
+        assertThat(index.getChangedFiles(commit(3), commit(5))).contains(asSet(A, D));
+        assertThat(index.getChangedFiles(commit(4), commit(4))).contains(asSet());
+        assertThat(index.getChangedFiles(commit(5), commit(1))).isEmpty();
+        assertThat(index.getChangedFiles(commit(6), commit(1))).isEmpty();
+        assertThat(index.getChangedFiles(commit(1), commit(6))).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreCommitsThatAreNotOnTheFirstParentChain(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+        index.append(createChanges(1, 3));
+
+        CommitChanges rewritten = new CommitChanges(); // e.g., a force push that replaced commits 2 and 3
+        rewritten.startCommit(commit(12), commit(1));
+        rewritten.addFile(D);
+        rewritten.startCommit(commit(13), commit(12));
+        rewritten.addFile(A);
+        assertThat(index.append(rewritten)).isEqualTo(2);
+
+        assertThat(index.getChangedFiles(commit(1), commit(13))).contains(asSet(A, D));
+        assertThat(index.getChangedFiles(commit(3), commit(13))).isEmpty();
+        assertThat(index.getChangedFiles("", commit(13))).contains(asSet(A, D));
+        assertThat(index.getChangedFiles(commit(1), commit(3))).contains(asSet(B, C));
+    }
+
+    @Test
+    void shouldNotAnswerQueriesBeyondUnknownParents(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+
+        CommitChanges shallow = new CommitChanges(); // e.g., the parent of the first commit has not been mined
+        shallow.startCommit(commit(2), commit(1));
+        shallow.addFile(B);
+        shallow.startCommit(commit(3), commit(2));
+        shallow.addFile(C);
+        index.append(shallow);
+
+        assertThat(index.getChangedFiles(commit(2), commit(3))).contains(asSet(C));
+        assertThat(index.getChangedFiles("", commit(3))).isEmpty();
+    }
+
+    @Test
+    void shouldSkipCommitsThatAreAlreadyIndexed(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+
+        assertThat(index.append(createChanges(1, 3))).isEqualTo(3);
+        assertThat(index.append(createChanges(2, 4))).isEqualTo(1);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.getChangedFiles(commit(3), commit(4))).contains(asSet(D));
+    }
+
+    @Test
+    void shouldReadPersistedIndex(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex.open(directory).append(createChanges(1, 3));
+        ChangedFilesIndex.invalidate(directory);
+
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.getChangedFiles(commit(1), commit(3))).contains(asSet(B, C));
+
+        index.append(createChanges(4, 5));
+        ChangedFilesIndex.invalidate(directory);
+
+        ChangedFilesIndex reloaded = ChangedFilesIndex.open(directory);
+        assertThat(reloaded.size()).isEqualTo(5);
+        assertThat(reloaded.getChangedFiles(commit(3), commit(5))).contains(asSet(A, D));
+    }
+
+    @Test
+    void shouldTruncateIncompleteEntries(@TempDir final Path directory) throws IOException {
+        ChangedFilesIndex.open(directory).append(createChanges(1, 3));
+        ChangedFilesIndex.invalidate(directory);
+
+        Files.write(directory.resolve("paths.bin"), new byte[] {0, 42, 'X'}, StandardOpenOption.APPEND);
+        Files.write(directory.resolve("commits.bin"), new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        ChangedFilesIndex index = ChangedFilesIndex.open(directory);
+        assertThat(index.size()).isEqualTo(3);
+
+        index.append(createChanges(4, 5));
+        ChangedFilesIndex.invalidate(directory);
+
+        ChangedFilesIndex reloaded = ChangedFilesIndex.open(directory);
+        assertThat(reloaded.size()).isEqualTo(5);
+        assertThat(reloaded.getChangedFiles("", commit(5))).contains(asSet(A, B, C, D));
+        assertThat(reloaded.getChangedFiles(commit(3), commit(5))).contains(asSet(A, D));
+    }
+
+    /**
+     * Creates the changes of the commits in the specified range. Each commit is the first parent of the next commit.
+     * The commits change the following files: 1: A, 2: B, 3: B and C, 4: D, 5: A and D.
+     */
+    private CommitChanges createChanges(final int from, final int to) {
+        String[][] files = {{A}, {B}, {B, C}, {D}, {A, D}};
+
+        CommitChanges changes = new CommitChanges();
+        for (int i = from; i <= to; i++) {
+            changes.startCommit(commit(i), i == 1 ? "" : commit(i - 1));
+            for (String file : files[i - 1]) {
+                changes.addFile(file);
+            }
+        }
+        return changes;
+    }
+
+    private String commit(final int number) {
+        return String.format("%040x", number);
+    }
+
+    private Set<String> asSet(final String... files) {
+        return new TreeSet<>(Arrays.asList(files));
+    }
+}
@@ -0,0 +1,124 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.ChurnCalculator.Churn;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link ChurnCalculator}.
+ *
+ * @author Ullrich Hafner
+ */
+class ChurnCalculatorTest {
+    private static final String FILE = "file.txt";
+    private static final long LIMIT = 1024;
+
+    private final InMemoryRepository repository = new InMemoryRepository(new DfsRepositoryDescription("churn"));
+    private ObjectReader reader;
+
+    @BeforeEach
+    void openReader() {
+        reader = repository.newObjectReader();
+    }
+
+    @AfterEach
+    void closeReader() {
+        reader.close();
+        repository.close();
+    }
+
+    @Test
+    void shouldCountAddedAndDeletedLines() throws IOException {
+        ObjectId first = insert("1\n2\n3\n4\n");
+        ObjectId second = insert("1\nchanged\n3\n4\n5\n6\n");
+
+        ChurnCalculator calculator = new ChurnCalculator(reader, LIMIT, LIMIT);
+
+        assertChurn(calculator.compute(change(ObjectId.zeroId(), first)), 4, 0);
+        assertChurn(calculator.compute(change(first, second)), 3, 1);
+        assertChurn(calculator.compute(change(second, ObjectId.zeroId())), 0, 6);
+
+        assertThat(calculator.getCacheHits()).isEqualTo(2);
+        assertThat(calculator.getBinaryFiles()).isZero();
+        assertThat(calculator.getLargeFiles()).isZero();
+    }
+
+    @Test
+    void shouldSkipBinaryFiles() throws IOException {
+        ObjectId text = insert("text\n");
+        ObjectId binary = insert("bin\0ary\n");
+
+        ChurnCalculator calculator = new ChurnCalculator(reader, LIMIT, LIMIT);
+
+        assertChurn(calculator.compute(change(text, binary)), 0, 0);
+        assertChurn(calculator.compute(change(binary, text)), 0, 0);
+        assertThat(calculator.getBinaryFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipLargeFiles() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < LIMIT; i++) {
+            content.append(i).append('\n');
+        }
+        ObjectId small = insert("small\n");
+        ObjectId large = insert(content.toString());
+
+        ChurnCalculator calculator = new ChurnCalculator(reader, LIMIT, LIMIT);
+
+        assertChurn(calculator.compute(change(small, large)), 0, 0);
+        assertThat(calculator.getLargeFiles()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipAllFilesIfDisabled() throws IOException {
+        ObjectId text = insert("text\n");
+
+        ChurnCalculator calculator = new ChurnCalculator(reader, 0, LIMIT);
+
+        assertChurn(calculator.compute(change(ObjectId.zeroId(), text)), 0, 0);
+    }
+
+    @Test
+    void shouldEvictTextsIfCacheIsFull() throws IOException {
+        ObjectId first = insert("first\n");
+        ObjectId second = insert("second\n");
+        ObjectId third = insert("third\n");
+
+        ChurnCalculator calculator = new ChurnCalculator(reader, LIMIT, 8);
+
+        assertChurn(calculator.compute(change(first, second)), 1, 1);
+        assertChurn(calculator.compute(change(second, third)), 1, 1);
+        assertThat(calculator.getCacheHits()).isEqualTo(1);
+    }
+
+    private void assertChurn(final Churn churn, final int added, final int deleted) {
+        assertThat(churn.getAdded()).as("added lines").isEqualTo(added);
+        assertThat(churn.getDeleted()).as("deleted lines").isEqualTo(deleted);
+    }
+
+    private FileChange change(final ObjectId oldId, final ObjectId newId) {
+        return new FileChange(FILE, oldId, newId, ObjectId.zeroId().equals(newId));
+    }
+
+    private ObjectId insert(final String content) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            ObjectId id = inserter.insert(Constants.OBJ_BLOB, content.getBytes(StandardCharsets.UTF_8));
+            inserter.flush();
+            return id;
+        }
+    }
+}
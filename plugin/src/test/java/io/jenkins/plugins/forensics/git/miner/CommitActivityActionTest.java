@@ -0,0 +1,54 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CommitActivityAction}.
+ *
+ * @author Ullrich Hafner
+ */
+class CommitActivityActionTest {
+    @Test
+    void shouldFindBucketSizeOfPreviousBuild() {
+        Run<?, ?> first = createBuild(null, true);
+        Mockito.doReturn(new CommitActivityAction(new ActivityHistograms("", "1", BucketSize.MONTH)))
+                .when(first).getAction(CommitActivityAction.class);
+        Run<?, ?> second = createBuild(first, false);
+        Run<?, ?> third = createBuild(second, false);
+
+        assertThat(CommitActivityAction.findPreviousBucketSize(third)).contains(BucketSize.MONTH);
+        assertThat(CommitActivityAction.findPreviousBucketSize(second)).contains(BucketSize.MONTH);
+        assertThat(CommitActivityAction.findPreviousBucketSize(first)).isEmpty();
+        assertThat(CommitActivityAction.findPreviousBucketSize(null)).isEmpty();
+    }
+
+    @Test
+    void shouldStopAtPreviousMiningBuildWithoutHistograms() {
+        Run<?, ?> first = createBuild(null, true);
+        Mockito.doReturn(new CommitActivityAction(new ActivityHistograms("", "1", BucketSize.MONTH)))
+                .when(first).getAction(CommitActivityAction.class);
+        Run<?, ?> second = createBuild(first, true);
+        Run<?, ?> third = createBuild(second, false);
+
+        assertThat(CommitActivityAction.findPreviousBucketSize(third)).isEmpty();
+        assertThat(CommitActivityAction.findPreviousBucketSize(second)).contains(BucketSize.MONTH);
+    }
+
+    private Run<?, ?> createBuild(final Run<?, ?> previous, final boolean hasMined) {
+        Run<?, ?> build = Mockito.mock(Run.class);
+        Mockito.doReturn(previous).when(build).getPreviousBuild();
+        if (hasMined) {
+            Mockito.doReturn(Mockito.mock(ForensicsBuildAction.class))
+                    .when(build).getAction(ForensicsBuildAction.class);
+        }
+        return build;
+    }
+}
@@ -0,0 +1,98 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.TemporalCoupling.CoupledFiles;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CouplingAnalyzer}.
+ *
+ * @author Ullrich Hafner
+ */
+class CouplingAnalyzerTest {
+    private static final String A = "A.java";
+    private static final String B = "B.java";
+    private static final String C = "C.java";
+    private static final String D = "D.java";
+    private static final String BASE = "base";
+    private static final String HEAD = "head";
+
+    @Test
+    void shouldCountFilesThatChangeTogether() {
+        CouplingAnalyzer analyzer = new CouplingAnalyzer(10, 100);
+
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(B, A, C));
+        analyzer.inspect(Arrays.asList(A));
+        analyzer.inspect(Arrays.asList(C, D));
+
+        assertThat(analyzer.getPairs()).isEqualTo(4);
+
+        TemporalCoupling coupling = analyzer.getCoupling(BASE, HEAD);
+        List<CoupledFiles> pairs = coupling.getPairs(10);
+        assertThat(pairs).hasSize(4);
+
+        CoupledFiles mostCoupled = pairs.get(0);
+        assertThat(mostCoupled.getFirstFile()).isEqualTo(A);
+        assertThat(mostCoupled.getSecondFile()).isEqualTo(B);
+        assertThat(mostCoupled.getSharedCommits()).isEqualTo(2);
+        assertThat(mostCoupled.getFirstCommits()).isEqualTo(3);
+        assertThat(mostCoupled.getSecondCommits()).isEqualTo(2);
+        assertThat(mostCoupled.getDegree()).isCloseTo(0.8, within(1e-9));
+        assertThat(mostCoupled).hasToString("A.java <-> B.java: 2 shared commits (80%)");
+
+        assertThat(pairs).extracting(CoupledFiles::getSharedCommits).containsExactly(2, 1, 1, 1);
+    }
+
+    @Test
+    void shouldReturnTopPairsOnly() {
+        CouplingAnalyzer analyzer = new CouplingAnalyzer(10, 100);
+
+        analyzer.inspect(Arrays.asList(C, D));
+        analyzer.inspect(Arrays.asList(C, D));
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(A, C));
+
+        TemporalCoupling coupling = analyzer.getCoupling(BASE, HEAD);
+        assertThat(coupling.getPairs(2)).extracting(CoupledFiles::getSecondFile).containsExactly(B, D);
+        assertThat(coupling.getPairs(0)).isEmpty();
+    }
+
+    @Test
+    void shouldSkipCommitsWithTooManyFiles() {
+        CouplingAnalyzer analyzer = new CouplingAnalyzer(2, 100);
+
+        analyzer.inspect(Arrays.asList(A, B, C));
+        analyzer.inspect(Arrays.asList(A, B));
+
+        assertThat(analyzer.getSkippedCommits()).isEqualTo(1);
+        TemporalCoupling coupling = analyzer.getCoupling(BASE, HEAD);
+        assertThat(coupling.getSkippedCommits()).isEqualTo(1);
+        assertThat(coupling.getPairs()).hasSize(1);
+        assertThat(coupling.getPairs().get(0).getFirstCommits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPruneRarelyCoupledPairs() {
+        CouplingAnalyzer analyzer = new CouplingAnalyzer(10, 4);
+
+        for (int i = 0; i < 5; i++) {
+            analyzer.inspect(Arrays.asList(A, B));
+        }
+        analyzer.inspect(Arrays.asList("1", "2"));
+        analyzer.inspect(Arrays.asList("3", "4"));
+        analyzer.inspect(Arrays.asList("5", "6"));
+        analyzer.inspect(Arrays.asList("7", "8"));
+
+        assertThat(analyzer.getPairs()).isLessThanOrEqualTo(4);
+        assertThat(analyzer.getPrunedPairs()).isEqualTo(4);
+        assertThat(analyzer.getCoupling(BASE, HEAD).getPairs(1).get(0).getSharedCommits()).isEqualTo(5);
+    }
+}
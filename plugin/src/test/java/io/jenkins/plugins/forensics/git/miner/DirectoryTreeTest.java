@@ -0,0 +1,175 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link DirectoryTree} and {@link DirectoryRollups}.
+ *
+ * @author Ullrich Hafner
+ */
+class DirectoryTreeTest {
+    private static final String MAIN = "src/main/Main.java";
+    private static final String UTIL = "src/main/util/Util.java";
+    private static final String TEST = "src/test/MainTest.java";
+    private static final String README = "README.md";
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    @Test
+    void shouldRollupStatisticsOfDirectories() {
+        DirectoryTree tree = new DirectoryTree();
+
+        tree.startCommit();
+        tree.inspect(MAIN, 100, ALICE);
+        tree.inspect(UTIL, 100, ALICE);
+        tree.startCommit();
+        tree.inspect(TEST, 200, BOB);
+        tree.startCommit();
+        tree.inspect(README, 300, BOB);
+        tree.addExistingFiles(Arrays.asList(MAIN, UTIL, TEST, README));
+
+        DirectoryRollups rollups = tree.rollup("", "3");
+
+        assertThat(rollups.size()).isEqualTo(5);
+        assertDirectory(rollups, "", 4, 3, 2, 300);
+        assertDirectory(rollups, "src", 3, 2, 2, 200);
+        assertDirectory(rollups, "src/main", 2, 1, 1, 100);
+        assertDirectory(rollups, "src/main/util", 1, 1, 1, 100);
+        assertDirectory(rollups, "src/test", 1, 1, 1, 200);
+        assertThat(rollups.get(MAIN)).isEmpty();
+    }
+
+    @Test
+    void shouldSkipDirectoriesWithoutExistingFiles() {
+        DirectoryTree tree = new DirectoryTree();
+
+        tree.startCommit();
+        tree.inspect(MAIN, 100, ALICE);
+        tree.inspect(TEST, 100, ALICE);
+        tree.addExistingFiles(Arrays.asList(MAIN, README));
+
+        DirectoryRollups rollups = tree.rollup("", "1");
+
+        assertThat(rollups.getDirectories()).extracting(DirectoryStatistics::getPath)
+                .containsExactlyInAnyOrder("", "src", "src/main");
+        assertDirectory(rollups, "", 2, 1, 1, 100);
+    }
+
+    @Test
+    void shouldMergeWithPreviousRollups() {
+        DirectoryTree first = new DirectoryTree();
+        first.startCommit();
+        first.inspect(MAIN, 100, ALICE);
+        first.startCommit();
+        first.inspect(TEST, 200, BOB);
+        first.addExistingFiles(Arrays.asList(MAIN, TEST));
+        DirectoryRollups previous = first.rollup("", "2");
+
+        DirectoryTree second = new DirectoryTree();
+        second.startCommit();
+        second.inspect(UTIL, 300, "carol");
+        second.inspect(MAIN, 300, "carol");
+        second.addExistingFiles(Arrays.asList(MAIN, UTIL));
+        DirectoryRollups delta = second.rollup("2", "3");
+
+        DirectoryRollups merged = delta.merge(previous);
+
+        assertThat(merged.getBaseCommitId()).isEmpty();
+        assertThat(merged.getLatestCommitId()).isEqualTo("3");
+        assertThat(merged.getDirectories()).extracting(DirectoryStatistics::getPath)
+                .containsExactlyInAnyOrder("", "src", "src/main", "src/main/util");
+        assertDirectory(merged, "", 2, 3, 3, 300);
+        assertDirectory(merged, "src/main", 2, 2, 2, 300);
+        assertDirectory(merged, "src/main/util", 1, 1, 1, 300);
+    }
+
+    @Test
+    void shouldWriteAndReadBinaryFormat() throws IOException {
+        DirectoryTree tree = new DirectoryTree();
+        tree.startCommit();
+        tree.inspect(MAIN, 100, ALICE);
+        tree.inspect(README, 100, BOB);
+        tree.addExistingFiles(Arrays.asList(MAIN, README));
+        DirectoryRollups rollups = tree.rollup("1", "2");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rollups.writeTo(new DataOutputStream(bytes));
+        DirectoryRollups read = DirectoryRollups.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getBaseCommitId()).isEqualTo("1");
+        assertThat(read.getLatestCommitId()).isEqualTo("2");
+        assertThat(read.size()).isEqualTo(3);
+        assertDirectory(read, "", 2, 1, 2, 100);
+        assertDirectory(read, "src/main", 1, 1, 1, 100);
+    }
+
+    @Test
+    void shouldCountAuthorsApproximately() throws IOException {
+        DirectoryTree first = new DirectoryTree(12);
+        assertThat(first.isApproximate()).isTrue();
+        first.startCommit();
+        first.inspect(MAIN, 100, ALICE);
+        first.startCommit();
+        first.inspect(UTIL, 200, BOB);
+        first.addExistingFiles(Arrays.asList(MAIN, UTIL));
+        DirectoryRollups previous = first.rollup("", "2");
+
+        assertDirectory(previous, "src/main", 2, 2, 2, 200);
+        assertDirectory(previous, "src/main/util", 1, 1, 1, 200);
+        assertThat(previous.get("src")).hasValueSatisfying(
+                directory -> assertThat(directory.isApproximate()).isTrue());
+
+        DirectoryTree second = new DirectoryTree(12);
+        second.startCommit();
+        second.inspect(MAIN, 300, "carol");
+        second.inspect(UTIL, 300, BOB);
+        second.addExistingFiles(Arrays.asList(MAIN, UTIL));
+
+        DirectoryRollups merged = second.rollup("2", "3").merge(previous);
+        assertDirectory(merged, "src/main", 2, 3, 3, 300);
+        assertDirectory(merged, "src/main/util", 1, 2, 1, 300);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        merged.writeTo(new DataOutputStream(bytes));
+        DirectoryRollups read = DirectoryRollups.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertDirectory(read, "src/main", 2, 3, 3, 300);
+    }
+
+    @Test
+    void shouldKeepCurrentAuthorsIfModeChanged() {
+        DirectoryTree exact = new DirectoryTree(0);
+        exact.startCommit();
+        exact.inspect(MAIN, 100, ALICE);
+        exact.addExistingFiles(Arrays.asList(MAIN));
+
+        DirectoryTree approximate = new DirectoryTree(12);
+        approximate.startCommit();
+        approximate.inspect(MAIN, 200, BOB);
+        approximate.addExistingFiles(Arrays.asList(MAIN));
+
+        DirectoryRollups merged = approximate.rollup("1", "2").merge(exact.rollup("", "1"));
+
+        assertDirectory(merged, "src/main", 1, 2, 1, 200);
+    }
+
+    private void assertDirectory(final DirectoryRollups rollups, final String path, final int files,
+            final int commits, final int authors, final int lastModification) {
+        assertThat(rollups.get(path)).hasValueSatisfying(directory -> {
+            assertThat(directory.getNumberOfFiles()).as("files of '%s'", path).isEqualTo(files);
+            assertThat(directory.getNumberOfCommits()).as("commits of '%s'", path).isEqualTo(commits);
+            assertThat(directory.getNumberOfAuthors()).as("authors of '%s'", path).isEqualTo(authors);
+            assertThat(directory.getLastModificationTime()).as("time of '%s'", path).isEqualTo(lastModification);
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.util.HeapBudget;
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the class {@link FileStatisticsAggregator}.
+ *
+ * @author Ullrich Hafner
+ */
+class FileStatisticsAggregatorTest {
+    private static final String[] FILES = {"a.txt", "b.txt", "c.txt", "d.txt"};
+    private static final String[] AUTHORS = {"foo@jenkins.io", "bar@jenkins.io", "baz@jenkins.io"};
+    private static final int CHANGES = 40;
+
+    @Test
+    void shouldAggregateInMemory() throws IOException {
+        HeapBudget budget = mock(HeapBudget.class);
+
+        try (FileStatisticsAggregator aggregator = new FileStatisticsAggregator(budget, 2)) {
+            List<String> statistics = aggregate(aggregator);
+
+            assertThat(aggregator.isSpilling()).isFalse();
+            assertThat(aggregator.getRuns()).isZero();
+            assertThat(statistics).hasSize(FILES.length);
+            verify(budget, times(FILES.length)).allocate(anyLong());
+        }
+    }
+
+    @Test
+    void shouldCreateSameStatisticsWhenSpilling() throws IOException {
+        HeapBudget inMemoryBudget = mock(HeapBudget.class);
+        List<String> expected;
+        try (FileStatisticsAggregator aggregator = new FileStatisticsAggregator(inMemoryBudget, 2)) {
+            expected = aggregate(aggregator);
+        }
+
+        HeapBudget exhaustedBudget = mock(HeapBudget.class);
+        when(exhaustedBudget.isExhausted()).thenReturn(false, false, false, false, false, true);
+        FileStatisticsAggregator aggregator = new FileStatisticsAggregator(exhaustedBudget, 3);
+        List<String> actual = aggregate(aggregator);
+
+        assertThat(aggregator.isSpilling()).isTrue();
+        assertThat(aggregator.getRuns()).isGreaterThan(1);
+        assertThat(aggregator.getSpilledChanges()).isEqualTo(CHANGES - 5);
+        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+
+        Path spillDirectory = aggregator.getSpillDirectory();
+        assertThat(spillDirectory).exists();
+        aggregator.close();
+        assertThat(spillDirectory).doesNotExist();
+    }
+
+    private List<String> aggregate(final FileStatisticsAggregator aggregator) throws IOException {
+        for (int i = 0; i < CHANGES; i++) {
+            aggregator.inspect(FILES[i * 7 % FILES.length], 1000 + i, AUTHORS[i % AUTHORS.length]);
+        }
+        List<FileStatistics> statistics = new ArrayList<>();
+        aggregator.finish(statistics::add);
+        return statistics.stream().map(this::describe).collect(Collectors.toList());
+    }
+
+    private String describe(final FileStatistics statistics) {
+        return String.format("%s: %d commits, %d authors, created %d, modified %d", statistics.getFileName(),
+                statistics.getNumberOfCommits(), statistics.getNumberOfAuthors(), statistics.getCreationTime(),
+                statistics.getLastModificationTime());
+    }
+}
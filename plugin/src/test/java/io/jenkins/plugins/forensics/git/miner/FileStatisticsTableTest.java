@@ -0,0 +1,138 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.FileStatisticsTable.Column;
+import io.jenkins.plugins.forensics.git.miner.FileStatisticsTable.Page;
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link FileStatisticsTable} and {@link FileStatisticsTableAction}.
+ *
+ * @author Ullrich Hafner
+ */
+class FileStatisticsTableTest {
+    private static final String A = "src/A.java";
+    private static final String B = "src/B.java";
+    private static final String C = "test/C.java";
+    private static final String D = "test/D.java";
+    private static final int DAY = 24 * 60 * 60;
+
+    @Test
+    void shouldSortRowsByEachColumn() {
+        FileStatisticsTable table = createTable();
+
+        assertThat(table.size()).isEqualTo(4);
+        assertThat(getAll(table, Column.FILE, true)).containsExactly(A, B, C, D);
+        assertThat(getAll(table, Column.FILE, false)).containsExactly(D, C, B, A);
+        assertThat(getAll(table, Column.AUTHORS, false)).containsExactly(B, A, D, C);
+        assertThat(getAll(table, Column.COMMITS, true)).containsExactly(C, D, A, B);
+        assertThat(getAll(table, Column.LAST_COMMIT, false)).containsExactly(D, C, B, A);
+        assertThat(getAll(table, Column.ADDED, true)).containsExactly(A, B, C, D);
+    }
+
+    @Test
+    void shouldCacheSortedIndex() {
+        FileStatisticsTable table = createTable();
+
+        int[] sorted = table.getSortedIndex(Column.COMMITS);
+        assertThat(table.getSortedIndex(Column.COMMITS)).isSameAs(sorted);
+    }
+
+    @Test
+    void shouldPageRows() {
+        FileStatisticsTable table = createTable();
+
+        Page first = table.getPage(0, 3, Column.FILE, true, "");
+        assertThat(first.getFileNames()).containsExactly(A, B, C);
+        assertThat(first.getRecordsTotal()).isEqualTo(4);
+        assertThat(first.getRecordsFiltered()).isEqualTo(4);
+
+        assertThat(table.getPage(3, 3, Column.FILE, true, "").getFileNames()).containsExactly(D);
+        assertThat(table.getPage(1, 2, Column.FILE, false, "").getFileNames()).containsExactly(C, B);
+        assertThat(table.getPage(10, 3, Column.FILE, true, "").getFileNames()).isEmpty();
+        assertThat(table.getPage(-1, 1, Column.FILE, true, "").getFileNames()).containsExactly(A);
+        assertThat(table.getPage(0, 0, Column.FILE, true, "").getFileNames()).isEmpty();
+    }
+
+    @Test
+    void shouldFilterRowsByFileName() {
+        FileStatisticsTable table = createTable();
+
+        Page page = table.getPage(0, 10, Column.FILE, false, " TEST/ ");
+        assertThat(page.getFileNames()).containsExactly(D, C);
+        assertThat(page.getRecordsTotal()).isEqualTo(4);
+        assertThat(page.getRecordsFiltered()).isEqualTo(2);
+
+        assertThat(table.getPage(1, 10, Column.FILE, false, "test/").getFileNames()).containsExactly(C);
+        assertThat(table.getPage(0, 10, Column.AUTHORS, false, "test/").getFileNames()).containsExactly(D, C);
+        assertThat(table.getPage(0, 10, Column.FILE, true, "B.java").getFileNames()).containsExactly(B);
+        assertThat(table.getPage(0, 10, Column.FILE, true, "nothing").getRecordsFiltered()).isZero();
+    }
+
+    @Test
+    void shouldMapRequestParameters() {
+        FileStatisticsTable table = createTable();
+
+        assertThat(FileStatisticsTableAction.getPage(table, "1", "2", "2", "desc", "").getFileNames())
+                .containsExactly(A, D);
+        assertThat(FileStatisticsTableAction.getPage(table, null, null, null, null, null).getFileNames())
+                .containsExactly(A, B, C, D);
+        assertThat(FileStatisticsTableAction.getPage(table, "0", "-1", "99", "asc", "src").getFileNames())
+                .containsExactly(A, B);
+    }
+
+    @Test
+    void shouldWriteVisiblePageAsJson() throws IOException {
+        FileStatisticsTable table = createTable();
+
+        StringWriter writer = new StringWriter();
+        table.getPage(0, 1, Column.FILE, true, "").writeTo(7, ZoneOffset.UTC, writer);
+
+        assertThat(writer.toString()).isEqualTo("{\"draw\":7,\"recordsTotal\":4,\"recordsFiltered\":4,"
+                + "\"data\":[{\"fileName\":\"src/A.java\",\"authors\":2,\"commits\":3,"
+                + "\"lastCommit\":\"1970-01-04\",\"added\":\"1970-01-02\"}]}");
+    }
+
+    @Test
+    void shouldHandleEmptyStatistics() {
+        FileStatisticsTable table = new FileStatisticsTable(new ArrayList<>());
+
+        Page page = table.getPage(0, 10, Column.COMMITS, false, "A");
+        assertThat(page.getFileNames()).isEmpty();
+        assertThat(page.getRecordsTotal()).isZero();
+        assertThat(page.getRecordsFiltered()).isZero();
+    }
+
+    private FileStatisticsTable createTable() {
+        List<FileStatistics> statistics = Arrays.asList(
+                createStatistics(D, 2, 8, "one"),
+                createStatistics(C, 1, 6, "one"),
+                createStatistics(B, 4, 5, "one", "two", "three"),
+                createStatistics(A, 3, 3, "one", "two"));
+        return new FileStatisticsTable(statistics);
+    }
+
+    private FileStatistics createStatistics(final String file, final int commits, final int lastCommitDay,
+            final String... authors) {
+        FileStatistics statistics = new FileStatisticsBuilder().build(file);
+        for (int i = 0; i < commits; i++) {
+            statistics.inspectCommit((lastCommitDay - commits + i + 1) * DAY, authors[i % authors.length]);
+        }
+        return statistics;
+    }
+
+    private List<String> getAll(final FileStatisticsTable table, final Column column, final boolean ascending) {
+        return Arrays.asList(table.getPage(0, table.size(), column, ascending, "").getFileNames());
+    }
+}
@@ -0,0 +1,48 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link GitActivityStep}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitActivityStepTest {
+    private static final String FILE = "file.txt";
+    private static final int JANUARY_2020 = 2020 * 12;
+
+    @Test
+    void shouldReturnLatestBucketsOfRepositoryAndFile() {
+        ActivityHistograms histograms = new ActivityHistograms("", "1", BucketSize.MONTH);
+        histograms.addCommit(JANUARY_2020);
+        histograms.addCommit(JANUARY_2020 + 2);
+        histograms.addCommit(JANUARY_2020 + 2);
+        histograms.addCommit(FILE, JANUARY_2020);
+
+        List<Map<String, Object>> repository = GitActivityStep.toMaps(histograms, "", 3);
+        assertThat(repository).extracting(values -> values.get("start"))
+                .containsExactly("2020-01-01", "2020-02-01", "2020-03-01");
+        assertThat(repository).extracting(values -> values.get("commits")).containsExactly(1, 0, 2);
+
+        assertThat(GitActivityStep.toMaps(histograms, FILE, 2))
+                .extracting(values -> values.get("commits")).containsExactly(0, 0);
+        assertThat(GitActivityStep.toMaps(histograms, FILE, 4))
+                .extracting(values -> values.get("commits")).containsExactly(0, 1, 0, 0);
+        assertThat(GitActivityStep.toMaps(histograms, "unknown.txt", 2))
+                .extracting(values -> values.get("commits")).containsExactly(0, 0);
+    }
+
+    @Test
+    void shouldReturnEmptyListWithoutCommits() {
+        ActivityHistograms histograms = new ActivityHistograms("", "1", BucketSize.WEEK);
+
+        assertThat(GitActivityStep.toMaps(histograms, "", 3)).isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link GitDirectoryStatisticsStep}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitDirectoryStatisticsStepTest {
+    private static final String MAIN = "src/main/Main.java";
+    private static final String MAIN_TEST = "src/main-test/MainTest.java";
+    private static final String README = "README.md";
+
+    @Test
+    void shouldReturnStatisticsOfDirectoryAndSubdirectories() {
+        DirectoryTree tree = new DirectoryTree();
+        tree.startCommit();
+        tree.inspect(MAIN, 100, "alice");
+        tree.inspect(MAIN_TEST, 100, "alice");
+        tree.startCommit();
+        tree.inspect(README, 200, "bob");
+        tree.addExistingFiles(Arrays.asList(MAIN, MAIN_TEST, README));
+        DirectoryRollups rollups = tree.rollup("", "2");
+
+        assertThat(GitDirectoryStatisticsStep.toMaps(rollups, ""))
+                .extracting(values -> values.get("path"))
+                .containsExactly("", "src", "src/main", "src/main-test");
+        assertThat(GitDirectoryStatisticsStep.toMaps(rollups, "src/main/"))
+                .extracting(values -> values.get("path"))
+                .containsExactly("src/main");
+        assertThat(GitDirectoryStatisticsStep.toMaps(rollups, "src")).first().satisfies(values -> {
+            assertThat(values).containsEntry("files", 2);
+            assertThat(values).containsEntry("commits", 1);
+            assertThat(values).containsEntry("authors", 1);
+            assertThat(values).containsEntry("approximateAuthors", false);
+            assertThat(values).containsEntry("lastModificationTime", 100);
+        });
+        assertThat(GitDirectoryStatisticsStep.toMaps(rollups, "unknown")).isEmpty();
+    }
+}
@@ -1,9 +1,13 @@
 package io.jenkins.plugins.forensics.git.miner;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import hudson.model.FreeStyleProject;
 import hudson.model.Run;
 import hudson.plugins.git.GitSCM;
@@ -61,7 +65,155 @@ public class GitMinerStepITest extends GitITest {
 
         build = buildSuccessfully(job);
 
-        getJenkins().assertLogContains("created report for 2 files", build);
+        getJenkins().assertLogContains("created report for 1 files", build);
+    }
+
+    /**
+     * Verifies that the ownership index of incremental builds counts each commit only once: each commit is compared
+     * with its parent, so the first new commit of a build is compared with the latest commit of the previous build.
+     */
+    @Test
+    public void shouldCountOwnersOfIncrementalBuildsOnlyOnce() {
+        writeFileAsAuthorFoo("First");
+
+        FreeStyleProject job = createJobWithMiner();
+        buildSuccessfully(job);
+
+        writeFileAsAuthorBar("Second");
+        buildSuccessfully(job);
+
+        writeFileAsAuthorFoo("Third");
+        writeFileAsAuthorFoo("Fourth");
+        Run<?, ?> build = buildSuccessfully(job);
+
+        OwnershipIndex ownership = getOwnership(build);
+        assertThat(getCommitsPerOwner(ownership, FILE_NAME)).containsExactly(FOO_EMAIL + ":3", BAR_EMAIL + ":1");
+        assertThat(getCommitsPerOwner(ownership, "file")).hasSize(1).allMatch(owner -> owner.endsWith(":1"));
+    }
+
+    /** Verifies that the temporal coupling of an incremental build is merged with the coupling of the last build. */
+    @Test
+    public void shouldMergeTemporalCouplingOfIncrementalBuilds() {
+        changeFilesTogether("First");
+
+        FreeStyleProject job = createJobWithMiner();
+        buildSuccessfully(job);
+
+        changeFilesTogether("Second");
+        Run<?, ?> build = buildSuccessfully(job);
+
+        TemporalCouplingAction action = build.getAction(TemporalCouplingAction.class);
+        assertThat(action).isNotNull();
+        TemporalCoupling coupling = action.getIndex()
+                .orElseThrow(() -> new AssertionError("No coupling index for " + build));
+        assertThat(coupling.getPairs()).hasSize(1);
+        assertThat(coupling.getPairs().get(0).getSharedCommits()).isEqualTo(2);
+    }
+
+    private void changeFilesTogether(final String content) {
+        writeFile("file", content);
+        writeFile(FILE_NAME, content);
+        addFile(FILE_NAME);
+        commit(content);
+    }
+
+    private OwnershipIndex getOwnership(final Run<?, ?> build) {
+        CodeOwnershipAction action = build.getAction(CodeOwnershipAction.class);
+        assertThat(action).isNotNull();
+        return action.getIndex().orElseThrow(() -> new AssertionError("No ownership index for " + build));
+    }
+
+    private List<String> getCommitsPerOwner(final OwnershipIndex ownership, final String file) {
+        return ownership.getOwners(file).stream()
+                .map(owner -> owner.getAuthor() + ":" + owner.getCommits())
+                .collect(Collectors.toList());
+    }
+
+    /** Verifies that the step {@code gitChangedFiles} returns the files that have been changed since a reference. */
+    @Test
+    public void shouldReturnChangedFilesSinceReferenceBuild() throws IOException {
+        writeFileAsAuthorFoo("First");
+
+        WorkflowJob job = createPipelineWithMiner();
+        Run<?, ?> build = buildSuccessfully(job);
+        getJenkins().assertLogContains("No reference build found that mined the repository", build);
+        getJenkins().assertLogContains("changed=null", build);
+
+        writeFileAsAuthorBar("Second");
+        build = buildSuccessfully(job);
+        getJenkins().assertLogContains("changed=[source.txt]", build);
+
+        build = buildSuccessfully(job);
+        getJenkins().assertLogContains("changed=[]", build);
+
+        writeFile("other.txt", "Other");
+        addFile("other.txt");
+        commit("Add other file");
+        build = buildSuccessfully(job);
+        getJenkins().assertLogContains("changed=[other.txt]", build);
+
+        job.setDefinition(createMinerScript("changed", "gitChangedFiles(referenceBuild: 1)"));
+        build = buildSuccessfully(job);
+        getJenkins().assertLogContains("Found 2 changed files since build #1", build);
+        getJenkins().assertLogContains("changed=[other.txt, source.txt]", build);
+    }
+
+    private WorkflowJob createPipelineWithMiner() {
+        WorkflowJob job = createPipeline();
+        job.setDefinition(createMinerScript("changed", "gitChangedFiles()"));
+        return job;
+    }
+
+    private CpsFlowDefinition createMinerScript(final String name, final String step) {
+        return new CpsFlowDefinition("node {\n"
+                + "  checkout([$class: 'GitSCM', branches: [[name: 'master']], "
+                + "userRemoteConfigs: [[url: '" + sampleRepo + "']]])\n"
+                + "  mineRepository()\n"
+                + "  echo '" + name + "=' + " + step + "\n"
+                + "}", true);
+    }
+
+    /** Verifies that the step {@code gitHotspots} returns the top files of the mined statistics. */
+    @Test
+    public void shouldReturnHotspotsOfMinedStatistics() {
+        writeFileAsAuthorFoo("First");
+        writeFileAsAuthorBar("Second");
+
+        WorkflowJob job = createPipeline();
+        job.setDefinition(createMinerScript("hotspot",
+                "gitHotspots(metric: 'commits', count: 1).get(0).get('fileName')"));
+        Run<?, ?> build = buildSuccessfully(job);
+        getJenkins().assertLogContains("hotspot=source.txt", build);
+
+        HotspotsAction action = build.getAction(HotspotsAction.class);
+        assertThat(action).isNotNull();
+        assertThat(action.getHotspots()).hasValueSatisfying(hotspots -> assertThat(hotspots.size()).isEqualTo(2));
+    }
+
+    /** Verifies that the step {@code gitActivity} returns the commits of the latest bucket of the histograms. */
+    @Test
+    public void shouldReturnCommitActivityOfMinedRepository() {
+        writeFileAsAuthorFoo("First");
+        writeFileAsAuthorBar("Second");
+
+        WorkflowJob job = createPipeline();
+        job.setDefinition(createMinerScript("activity",
+                "gitActivity(file: 'source.txt', count: 1).get(0).get('commits') > 0"));
+        Run<?, ?> build = buildSuccessfully(job);
+        getJenkins().assertLogContains("activity=true", build);
+    }
+
+    /** Verifies that the table of the file statistics is linked in the side panel of the build. */
+    @Test
+    public void shouldLinkFileStatisticsTableInSidePanel() {
+        FreeStyleProject job = createJobWithMiner();
+        Run<?, ?> build = buildSuccessfully(job);
+
+        FileStatisticsTableAction action = build.getAction(FileStatisticsTableAction.class);
+        assertThat(action).isNotNull();
+        assertThat(action.getIconFileName()).isNotNull();
+        assertThat(action.getUrlName()).isEqualTo("forensics-files");
+        assertThat(action.getTable()).hasValueSatisfying(table -> assertThat(table.size()).isEqualTo(1));
     }
 
     /** Verifies that the latest revision id is saved in the build result. */
@@ -1,12 +1,23 @@
 package io.jenkins.plugins.forensics.git.miner;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import edu.hm.hafner.util.FilteredLog;
 
+import hudson.model.FreeStyleProject;
+import hudson.model.Run;
+import hudson.plugins.git.GitSCM;
+
+import io.jenkins.plugins.forensics.git.miner.ActivityHistograms.BucketSize;
+import io.jenkins.plugins.forensics.git.util.GitForensicsConfiguration;
 import io.jenkins.plugins.forensics.git.util.GitITest;
 import io.jenkins.plugins.forensics.miner.FileStatistics;
+import io.jenkins.plugins.forensics.miner.RepositoryMinerStep;
 import io.jenkins.plugins.forensics.miner.RepositoryStatistics;
 
 import static io.jenkins.plugins.forensics.assertions.Assertions.*;
@@ -81,6 +92,92 @@ public class GitRepositoryMinerITest extends GitITest {
         assertThat(fileStatistics).hasNumberOfCommits(4);
     }
 
+    /**
+     * Verifies that all commits are mined again if the identity mappings have been changed since the previous build.
+     * The indexes of the second build must not contain the commits of the first build twice.
+     */
+    @Test
+    public void shouldMineAllCommitsAgainIfIdentityMappingsHaveBeenChanged() {
+        writeFileAsAuthorFoo("First");
+        writeFileAsAuthorBar("Second");
+
+        FreeStyleProject job = createJobWithMiner();
+        buildSuccessfully(job);
+
+        writeFileAsAuthorFoo("Third");
+
+        GitForensicsConfiguration configuration = GitForensicsConfiguration.getInstance();
+        assertThat(configuration).isNotNull();
+        configuration.setIdentityAliases(FOO_NAME + " <" + FOO_EMAIL + "> <" + BAR_EMAIL + ">");
+        try {
+            Run<?, ?> build = buildSuccessfully(job);
+
+            getJenkins().assertLogContains(
+                    "The identity mappings have been changed since the previous analysis, mining all commits again",
+                    build);
+            assertThat(getCommitsPerOwner(build, GitITest.FILE_NAME)).containsExactly(FOO_EMAIL + ":3");
+            assertThat(getTotalCommits(build)).isEqualTo(4);
+        }
+        finally {
+            configuration.setIdentityAliases(StringUtils.EMPTY);
+        }
+    }
+
+    /**
+     * Verifies that all commits are mined again if the bucket size of the activity histograms has been changed since
+     * the previous build. The histograms of the second build must not contain the commits of the first build twice.
+     */
+    @Test
+    public void shouldMineAllCommitsAgainIfBucketSizeHasBeenChanged() {
+        writeFileAsAuthorFoo("First");
+        writeFileAsAuthorBar("Second");
+
+        FreeStyleProject job = createJobWithMiner();
+        Run<?, ?> first = buildSuccessfully(job);
+        assertThat(getTotalCommits(first)).isEqualTo(3);
+
+        CommitActivityAction.record(first, new ActivityHistograms(StringUtils.EMPTY, getHead(), BucketSize.MONTH),
+                LOG);
+
+        writeFileAsAuthorFoo("Third");
+        Run<?, ?> build = buildSuccessfully(job);
+
+        getJenkins().assertLogContains(
+                "The bucket size of the activity histograms has been changed from MONTH to WEEK", build);
+        assertThat(getTotalCommits(build)).isEqualTo(4);
+        assertThat(getCommitsPerOwner(build, GitITest.FILE_NAME)).containsExactly(FOO_EMAIL + ":2", BAR_EMAIL + ":1");
+    }
+
+    private List<String> getCommitsPerOwner(final Run<?, ?> build, final String file) {
+        CodeOwnershipAction action = build.getAction(CodeOwnershipAction.class);
+        assertThat(action).isNotNull();
+        OwnershipIndex ownership = action.getIndex()
+                .orElseThrow(() -> new AssertionError("No ownership index for " + build));
+        return ownership.getOwners(file).stream()
+                .map(owner -> owner.getAuthor() + ":" + owner.getCommits())
+                .collect(Collectors.toList());
+    }
+
+    private long getTotalCommits(final Run<?, ?> build) {
+        CommitActivityAction action = build.getAction(CommitActivityAction.class);
+        assertThat(action).isNotNull();
+        ActivityHistograms activity = action.getIndex()
+                .orElseThrow(() -> new AssertionError("No activity histograms for " + build));
+        return activity.getRepository().getTotal();
+    }
+
+    private FreeStyleProject createJobWithMiner() {
+        try {
+            FreeStyleProject job = createFreeStyleProject();
+            job.setScm(new GitSCM(getRepositoryRoot()));
+            job.getPublishersList().add(new RepositoryMinerStep());
+            return job;
+        }
+        catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
     private RepositoryStatistics createRepositoryStatistics() throws InterruptedException {
         return new GitRepositoryMiner(createGitClient()).mine(new RepositoryStatistics(), LOG);
     }
@@ -0,0 +1,136 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.AbortException;
+
+import io.jenkins.plugins.forensics.git.miner.Hotspots.Hotspot;
+import io.jenkins.plugins.forensics.git.miner.Hotspots.Metric;
+import io.jenkins.plugins.forensics.miner.FileStatistics;
+import io.jenkins.plugins.forensics.miner.FileStatistics.FileStatisticsBuilder;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link Hotspots} and {@link GitHotspotsStep}.
+ *
+ * @author Ullrich Hafner
+ */
+class HotspotsTest {
+    private static final String A = "A.java";
+    private static final String B = "B.java";
+    private static final String C = "C.java";
+    private static final String D = "D.java";
+
+    @Test
+    void shouldSelectTopFilesOfEachMetric() {
+        Hotspots hotspots = createHotspots();
+
+        assertThat(hotspots.size()).isEqualTo(4);
+        assertThat(getFiles(hotspots.getTop(Metric.COMMITS, 2))).containsExactly(A, B);
+        assertThat(getFiles(hotspots.getTop(Metric.AUTHORS, 2))).containsExactly(B, A);
+        assertThat(getFiles(hotspots.getTop(Metric.CHURN, 3))).containsExactly(C, D, A);
+        assertThat(getFiles(hotspots.getTop(Metric.RECENCY, 1))).containsExactly(D);
+    }
+
+    @Test
+    void shouldOrderFilesWithSameValueByName() {
+        Hotspots hotspots = createHotspots();
+
+        assertThat(getFiles(hotspots.getTop(Metric.COMMITS, 4))).containsExactly(A, B, C, D);
+        assertThat(getFiles(hotspots.getTop(Metric.AUTHORS, 4))).containsExactly(B, A, C, D);
+    }
+
+    @Test
+    void shouldHandleLimits() {
+        Hotspots hotspots = createHotspots();
+
+        assertThat(hotspots.getTop(Metric.COMMITS, 0)).isEmpty();
+        assertThat(hotspots.getTop(Metric.COMMITS, -1)).isEmpty();
+        assertThat(hotspots.getTop(Metric.COMMITS, 100)).hasSize(4);
+        assertThat(new Hotspots(new ArrayList<>(), null).getTop(Metric.CHURN, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldUseRankIndexWithSameResults() {
+        Hotspots hotspots = createHotspots();
+
+        for (Metric metric : Metric.values()) {
+            List<String> selected = getFiles(hotspots.getTop(metric, 3));
+            assertThat(hotspots.hasRanking(metric)).isFalse();
+
+            assertThat(getFiles(hotspots.getTop(metric, 3))).isEqualTo(selected);
+            assertThat(hotspots.hasRanking(metric)).isTrue();
+
+            int[] ranking = hotspots.getRanking(metric);
+            assertThat(ranking).hasSize(4);
+            assertThat(hotspots.getRanking(metric)).isSameAs(ranking);
+
+            assertThat(getFiles(hotspots.getTop(metric, 3))).isEqualTo(selected);
+        }
+    }
+
+    @Test
+    void shouldProvideValuesOfFiles() {
+        Hotspot hotspot = createHotspots().getTop(Metric.CHURN, 1).get(0);
+
+        assertThat(hotspot.getFileName()).isEqualTo(C);
+        assertThat(hotspot.getNumberOfCommits()).isEqualTo(1);
+        assertThat(hotspot.getNumberOfAuthors()).isEqualTo(1);
+        assertThat(hotspot.getChurn()).isEqualTo(100);
+        assertThat(hotspot.getLastModificationTime()).isEqualTo(30);
+
+        List<Map<String, Object>> maps = GitHotspotsStep.toMaps(Arrays.asList(hotspot));
+        assertThat(maps).hasSize(1);
+        assertThat(maps.get(0)).containsEntry("fileName", C).containsEntry("churn", 100L)
+                .containsEntry("commits", 1).containsEntry("authors", 1);
+    }
+
+    @Test
+    void shouldParseMetric() throws AbortException {
+        assertThat(GitHotspotsStep.parseMetric("churn")).isEqualTo(Metric.CHURN);
+        assertThat(GitHotspotsStep.parseMetric(" Recency ")).isEqualTo(Metric.RECENCY);
+        assertThatExceptionOfType(AbortException.class).isThrownBy(() -> GitHotspotsStep.parseMetric("lines"))
+                .withMessageContaining("lines");
+    }
+
+    @Test
+    void shouldIgnoreMissingChurn() {
+        List<FileStatistics> statistics = Arrays.asList(createStatistics(A, 1, 10, "one"));
+
+        assertThat(new Hotspots(statistics, null).getTop(Metric.CHURN, 1).get(0).getChurn()).isZero();
+    }
+
+    private Hotspots createHotspots() {
+        OwnershipIndex ownership = new OwnershipIndex("", "1");
+        ownership.addCommit(A, "one", 5, 5);
+        ownership.addCommit(C, "one", 90, 10);
+        ownership.addCommit(D, "two", 20, 0);
+
+        List<FileStatistics> statistics = Arrays.asList(
+                createStatistics(D, 1, 40, "two"),
+                createStatistics(C, 1, 30, "one"),
+                createStatistics(B, 3, 20, "one", "two", "three"),
+                createStatistics(A, 3, 10, "one", "two"));
+        return new Hotspots(statistics, ownership);
+    }
+
+    private FileStatistics createStatistics(final String file, final int commits, final int lastCommitTime,
+            final String... authors) {
+        FileStatistics statistics = new FileStatisticsBuilder().build(file);
+        for (int i = 0; i < commits; i++) {
+            statistics.inspectCommit(lastCommitTime - commits + i + 1, authors[i % authors.length]);
+        }
+        return statistics;
+    }
+
+    private List<String> getFiles(final List<Hotspot> hotspots) {
+        return hotspots.stream().map(Hotspot::getFileName).collect(Collectors.toList());
+    }
+}
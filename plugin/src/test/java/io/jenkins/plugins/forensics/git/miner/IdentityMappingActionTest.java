@@ -0,0 +1,53 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.miner.ForensicsBuildAction;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link IdentityMappingAction}.
+ *
+ * @author Ullrich Hafner
+ */
+class IdentityMappingActionTest {
+    private static final String FINGERPRINT = "fingerprint";
+
+    @Test
+    void shouldFindFingerprintOfPreviousMiningBuild() {
+        Run<?, ?> first = createBuild(null, true);
+        Mockito.doReturn(new IdentityMappingAction(FINGERPRINT)).when(first).getAction(IdentityMappingAction.class);
+        Run<?, ?> second = createBuild(first, false);
+        Run<?, ?> third = createBuild(second, false);
+
+        assertThat(IdentityMappingAction.findPrevious(third)).contains(FINGERPRINT);
+        assertThat(IdentityMappingAction.findPrevious(second)).contains(FINGERPRINT);
+        assertThat(IdentityMappingAction.findPrevious(first)).isEmpty();
+        assertThat(IdentityMappingAction.findPrevious(null)).isEmpty();
+    }
+
+    @Test
+    void shouldStopAtPreviousMiningBuildWithoutFingerprint() {
+        Run<?, ?> first = createBuild(null, true);
+        Mockito.doReturn(new IdentityMappingAction(FINGERPRINT)).when(first).getAction(IdentityMappingAction.class);
+        Run<?, ?> second = createBuild(first, true);
+        Run<?, ?> third = createBuild(second, false);
+
+        assertThat(IdentityMappingAction.findPrevious(third)).isEmpty();
+        assertThat(IdentityMappingAction.findPrevious(second)).contains(FINGERPRINT);
+    }
+
+    private Run<?, ?> createBuild(final Run<?, ?> previous, final boolean hasMined) {
+        Run<?, ?> build = Mockito.mock(Run.class);
+        Mockito.doReturn(previous).when(build).getPreviousBuild();
+        if (hasMined) {
+            Mockito.doReturn(Mockito.mock(ForensicsBuildAction.class))
+                    .when(build).getAction(ForensicsBuildAction.class);
+        }
+        return build;
+    }
+}
@@ -0,0 +1,135 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.OwnershipIndex.Owner;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link OwnershipIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class OwnershipIndexTest {
+    private static final String FILE = "src/main/java/Main.java";
+    private static final String OTHER_FILE = "README.md";
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    @Test
+    void shouldComputeSharesOfAuthors() {
+        OwnershipIndex index = new OwnershipIndex("", "2");
+
+        index.addCommit(FILE, ALICE, 10, 0);
+        index.addCommit(FILE, BOB, 20, 10);
+        index.addCommit(FILE, ALICE, 10, 0);
+        index.addCommit(OTHER_FILE, BOB, 5, 0);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.getNumberOfAuthors()).isEqualTo(2);
+        assertThat(index.getFiles()).containsExactlyInAnyOrder(FILE, OTHER_FILE);
+
+        assertThat(index.getOwners(FILE)).hasSize(2);
+        Owner alice = index.getOwners(FILE).get(0);
+        assertThat(alice.getAuthor()).isEqualTo(ALICE);
+        assertThat(alice.getCommits()).isEqualTo(2);
+        assertThat(alice.getChurn()).isEqualTo(20);
+        assertThat(alice.getCommitShare()).isCloseTo(2.0 / 3, within(1e-9));
+        assertThat(alice.getChurnShare()).isCloseTo(0.4, within(1e-9));
+
+        Owner bob = index.getOwners(FILE).get(1);
+        assertThat(bob.getAuthor()).isEqualTo(BOB);
+        assertThat(bob.getCommitShare()).isCloseTo(1.0 / 3, within(1e-9));
+        assertThat(bob.getChurnShare()).isCloseTo(0.6, within(1e-9));
+        assertThat(bob.getLinesAdded()).isEqualTo(20);
+        assertThat(bob.getLinesDeleted()).isEqualTo(10);
+
+        assertThat(index.getLinesAdded(FILE)).isEqualTo(40);
+        assertThat(index.getLinesDeleted(FILE)).isEqualTo(10);
+        assertThat(index.getChurn(FILE)).isEqualTo(50);
+        assertThat(index.getChurn("unknown")).isZero();
+
+        assertThat(index.getPrimaryOwner(OTHER_FILE)).hasValueSatisfying(
+                owner -> assertThat(owner.getAuthor()).isEqualTo(BOB));
+        assertThat(index.getOwners("unknown")).isEmpty();
+        assertThat(index.getPrimaryOwner("unknown")).isEmpty();
+    }
+
+    @Test
+    void shouldMergeWithPreviousIndex() {
+        OwnershipIndex previous = new OwnershipIndex("", "1");
+        previous.addCommit(FILE, ALICE, 10, 0);
+        previous.addCommit(OTHER_FILE, ALICE, 1, 0);
+
+        OwnershipIndex delta = new OwnershipIndex("1", "2");
+        delta.addCommit(FILE, BOB, 5, 0);
+        delta.addCommit(FILE, ALICE, 2, 0);
+
+        OwnershipIndex merged = delta.merge(previous);
+
+        assertThat(merged.getBaseCommitId()).isEmpty();
+        assertThat(merged.getLatestCommitId()).isEqualTo("2");
+        assertThat(merged.getFiles()).containsExactlyInAnyOrder(FILE, OTHER_FILE);
+        assertThat(merged.getOwners(FILE)).extracting(Owner::getAuthor).containsExactly(ALICE, BOB);
+        assertThat(merged.getOwners(FILE)).extracting(Owner::getCommits).containsExactly(2, 1);
+        assertThat(merged.getOwners(FILE)).extracting(Owner::getChurn).containsExactly(12L, 5L);
+    }
+
+    @Test
+    void shouldRemoveHistoryOfDeletedFiles() {
+        OwnershipIndex previous = new OwnershipIndex("", "1");
+        previous.addCommit(FILE, ALICE, 10, 0);
+        previous.addCommit(OTHER_FILE, ALICE, 1, 0);
+
+        OwnershipIndex delta = new OwnershipIndex("1", "2");
+        delta.deleteFile(OTHER_FILE);
+        delta.deleteFile(FILE);
+        delta.addCommit(FILE, BOB, 3, 0);
+
+        OwnershipIndex merged = delta.merge(previous);
+
+        assertThat(merged.getFiles()).containsExactly(FILE);
+        assertThat(merged.getOwners(FILE)).extracting(Owner::getAuthor).containsExactly(BOB);
+    }
+
+    @Test
+    void shouldWriteAndReadBinaryFormat() throws IOException {
+        OwnershipIndex index = new OwnershipIndex("1", "2");
+        for (int i = 0; i < 10; i++) {
+            index.addCommit(FILE, "author-" + i, i, 2 * i);
+        }
+        index.addCommit(OTHER_FILE, BOB, 7, 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        OwnershipIndex read = OwnershipIndex.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getBaseCommitId()).isEqualTo("1");
+        assertThat(read.getLatestCommitId()).isEqualTo("2");
+        assertThat(read.getFiles()).containsExactlyInAnyOrder(FILE, OTHER_FILE);
+        assertThat(read.getNumberOfAuthors()).isEqualTo(11);
+        assertThat(read.getOwners(FILE))
+                .usingElementComparatorOnFields("author", "commits", "linesAdded", "linesDeleted")
+                .containsExactlyElementsOf(index.getOwners(FILE));
+
+        read.addCommit(OTHER_FILE, BOB, 1, 0);
+        assertThat(read.getOwners(OTHER_FILE)).extracting(Owner::getCommits).containsExactly(2);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        byte[] bytes = {0, 0, 0, 42};
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(
+                () -> OwnershipIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes))))
+                .withMessageContaining("42");
+    }
+}
@@ -0,0 +1,100 @@
+package io.jenkins.plugins.forensics.git.miner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.miner.TemporalCoupling.CoupledFiles;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link TemporalCoupling}.
+ *
+ * @author Ullrich Hafner
+ */
+class TemporalCouplingTest {
+    private static final String A = "A.java";
+    private static final String B = "B.java";
+    private static final String C = "C.java";
+
+    @Test
+    void shouldMergeWithPreviousIndex() {
+        CouplingAnalyzer first = new CouplingAnalyzer(2, 100);
+        first.inspect(Arrays.asList(A, B));
+        first.inspect(Arrays.asList(A, B, C));
+        TemporalCoupling previous = first.getCoupling("", "1");
+
+        CouplingAnalyzer second = new CouplingAnalyzer(2, 100);
+        second.inspect(Arrays.asList(B, A));
+        second.inspect(Arrays.asList(C, B));
+        second.inspect(Arrays.asList(C));
+        TemporalCoupling delta = second.getCoupling("1", "2");
+
+        TemporalCoupling merged = delta.merge(previous);
+
+        assertThat(merged.getBaseCommitId()).isEmpty();
+        assertThat(merged.getLatestCommitId()).isEqualTo("2");
+        assertThat(merged.size()).isEqualTo(2);
+        assertThat(merged.getNumberOfFiles()).isEqualTo(3);
+        assertThat(merged.getSkippedCommits()).isEqualTo(1);
+        assertThat(merged.getPairs()).extracting(CoupledFiles::toString).containsExactly(
+                "A.java <-> B.java: 2 shared commits (80%)",
+                "B.java <-> C.java: 1 shared commits (40%)");
+    }
+
+    @Test
+    void shouldRemovePairsOfDeletedFiles() {
+        CouplingAnalyzer first = new CouplingAnalyzer(10, 100);
+        first.inspect(Arrays.asList(A, B));
+        first.inspect(Arrays.asList(B, C));
+        TemporalCoupling previous = first.getCoupling("", "1");
+
+        CouplingAnalyzer second = new CouplingAnalyzer(10, 100);
+        second.deleteFile(A);
+        second.inspect(Arrays.asList(B, C));
+        TemporalCoupling merged = second.getCoupling("1", "2").merge(previous);
+
+        assertThat(merged.getPairs()).hasSize(1).first().satisfies(pair -> {
+            assertThat(pair.getFirstFile()).isEqualTo(B);
+            assertThat(pair.getSecondFile()).isEqualTo(C);
+            assertThat(pair.getSharedCommits()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void shouldWriteAndReadBinaryFormat() throws IOException {
+        CouplingAnalyzer analyzer = new CouplingAnalyzer(2, 100);
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(A, B));
+        analyzer.inspect(Arrays.asList(A, C));
+        analyzer.inspect(Arrays.asList(A, B, C));
+        TemporalCoupling index = analyzer.getCoupling("1", "2");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        TemporalCoupling read = TemporalCoupling.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read.getBaseCommitId()).isEqualTo("1");
+        assertThat(read.getLatestCommitId()).isEqualTo("2");
+        assertThat(read.getSkippedCommits()).isEqualTo(1);
+        assertThat(read.size()).isEqualTo(2);
+        assertThat(read.getPairs()).extracting(CoupledFiles::toString)
+                .containsExactlyElementsOf(index.getPairs().stream().map(CoupledFiles::toString)::iterator);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        byte[] bytes = {0, 0, 0, 42};
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(
+                () -> TemporalCoupling.readFrom(new DataInputStream(new ByteArrayInputStream(bytes))))
+                .withMessageContaining("42");
+    }
+}
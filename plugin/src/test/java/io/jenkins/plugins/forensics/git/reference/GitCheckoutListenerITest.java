@@ -57,6 +57,9 @@ public class GitCheckoutListenerITest extends IntegrationTestWithJenkinsPerSuite
                 .hasNoErrorMessages()
                 .hasInfoMessages("Found no previous build with recorded Git commits",
                         "-> Starting initial recording of commits");
+        assertThat(GitCommitsRecordIndex.findRecordForScm(referenceBuild.getOwner(), referenceBuild.getScmKey()))
+                .containsSame(referenceBuild);
+        assertThat(GitCommitsRecordIndex.findRecordForScm(referenceBuild.getOwner(), "unknown")).isEmpty();
 
         createAndCommitFile("Third.java", "third commit after init");
 
@@ -72,6 +75,39 @@ public class GitCheckoutListenerITest extends IntegrationTestWithJenkinsPerSuite
                 String.format("-> Starting recording of new commits since '%s'", referenceBuildHead));
     }
 
+    /**
+     * Creates a build with 3 commits and verifies that the metadata of the commits is recorded in the same order as
+     * the commits.
+     *
+     * @throws Exception
+     *         in case of an IO exception
+     */
+    @Test
+    public void shouldRecordCommitMetadata() throws Exception {
+        gitRepo.init();
+        String initialCommit = gitRepo.head();
+        createAndCommitFile("First.java", "first commit after init");
+        String firstCommit = gitRepo.head();
+        createAndCommitFile("Second.java", "second commit after init");
+
+        FreeStyleProject job = createFreeStyleProject("metadata");
+
+        GitCommitsRecord record = buildSuccessfully(job).getAction(GitCommitsRecord.class);
+        assertThat(record).isNotNull().hasSize(3);
+
+        CommitMetadata metadata = record.getMetadata();
+        assertThat(metadata.size()).isEqualTo(3);
+        assertThat(metadata.getNumberOfAuthors()).isEqualTo(1);
+        assertThat(metadata.getParents(0)).containsExactly(firstCommit);
+        assertThat(metadata.getParents(1)).containsExactly(initialCommit);
+        assertThat(metadata.getParents(2)).isEmpty();
+        for (int i = 0; i < metadata.size(); i++) {
+            assertThat(metadata.getChangedPaths(i)).isEqualTo(1);
+            assertThat(metadata.getCommitTime(i)).isPositive();
+            assertThat(metadata.isMerge(i)).isFalse();
+        }
+    }
+
     /**
      * Creates three builds: the first one is the starting point, then we have one additional commit for build #2 and
      * #3. Then the reference point is queried for #3 which should return build #2.
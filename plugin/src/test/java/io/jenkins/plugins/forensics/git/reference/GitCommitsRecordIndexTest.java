@@ -0,0 +1,60 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import hudson.model.Run;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link GitCommitsRecordIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitCommitsRecordIndexTest {
+    private static final String FIRST = "first";
+    private static final String SECOND = "second";
+
+    @Test
+    void shouldFindRecordsUsingIndex() {
+        Run<?, ?> build = Mockito.mock(Run.class);
+        GitCommitsRecord first = createRecord(build, FIRST);
+        GitCommitsRecord second = createRecord(build, SECOND);
+        Mockito.doReturn(Arrays.asList(first, second)).when(build).getActions(GitCommitsRecord.class);
+
+        GitCommitsRecordIndex index = new GitCommitsRecordIndex();
+        index.onLoad(build);
+        Mockito.doReturn(index).when(build).getAction(GitCommitsRecordIndex.class);
+
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, FIRST)).containsSame(first);
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, SECOND)).containsSame(second);
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, "unknown")).isEmpty();
+        assertThat(GitCommitsRecordIndex.findRecords(build)).containsExactly(first, second);
+
+        Mockito.verify(build, Mockito.times(1)).getActions(GitCommitsRecord.class);
+    }
+
+    @Test
+    void shouldFindRecordsOfBuildsWithoutIndex() {
+        Run<?, ?> build = Mockito.mock(Run.class);
+        GitCommitsRecord first = createRecord(build, FIRST);
+        GitCommitsRecord second = createRecord(build, SECOND);
+        Mockito.doReturn(Arrays.asList(first, second)).when(build).getActions(GitCommitsRecord.class);
+
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, FIRST)).containsSame(first);
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, SECOND)).containsSame(second);
+        assertThat(GitCommitsRecordIndex.findRecordForScm(build, "unknown")).isEmpty();
+        assertThat(GitCommitsRecordIndex.findRecords(build)).containsExactly(first, second);
+    }
+
+    private GitCommitsRecord createRecord(final Run<?, ?> build, final String scmKey) {
+        return new GitCommitsRecord(build, scmKey, new FilteredLog("errors"), scmKey,
+                Collections.singletonList(scmKey));
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import hudson.model.Run;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link GitCommitsRecord}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitCommitsRecordTest {
+    private static final String SCM_KEY = "git";
+
+    @Test
+    void shouldFindBuildWithCommit() {
+        Run<?, ?> first = createBuild(null, "c1", "c0");
+        Run<?, ?> second = createBuild(first, "c3", "c2");
+        Run<?, ?> third = createBuild(second, "c5", "c4");
+        GitCommitsRecord latest = getRecord(third);
+
+        assertThat(latest.findBuildWithCommit("c4", 10, false)).contains(third);
+        assertThat(latest.findBuildWithCommit("c2", 10, false)).contains(second);
+        assertThat(latest.findBuildWithCommit("c0", 10, false)).contains(first);
+        assertThat(latest.findBuildWithCommit("unknown", 10, false)).isEmpty();
+
+        assertThat(latest.findBuildWithCommit("c3", 10, true)).contains(second);
+        assertThat(latest.findBuildWithCommit("c2", 10, true)).contains(first);
+        assertThat(latest.findBuildWithCommit("c0", 10, true)).isEmpty();
+    }
+
+    @Test
+    void shouldStopSearchAfterMaximumNumberOfCommits() {
+        Run<?, ?> first = createBuild(null, "c1", "c0");
+        Run<?, ?> second = createBuild(first, "c3", "c2");
+        Run<?, ?> third = createBuild(second, "c5", "c4");
+        GitCommitsRecord latest = getRecord(third);
+
+        assertThat(latest.findBuildWithCommit("c0", 5, false)).contains(first);
+        assertThat(latest.findBuildWithCommit("c0", 4, false)).isEmpty();
+        assertThat(latest.findBuildWithCommit("c2", 3, false)).contains(second);
+        assertThat(latest.findBuildWithCommit("c2", 2, false)).isEmpty();
+    }
+
+    private Run<?, ?> createBuild(final Run<?, ?> previous, final String... commits) {
+        Run<?, ?> build = Mockito.mock(Run.class);
+        Mockito.doReturn(previous).when(build).getPreviousBuild();
+        GitCommitsRecord record = new GitCommitsRecord(build, SCM_KEY, new FilteredLog("errors"), commits[0],
+                Arrays.asList(commits));
+        Mockito.doReturn(Collections.singletonList(record)).when(build).getActions(GitCommitsRecord.class);
+        return build;
+    }
+
+    private GitCommitsRecord getRecord(final Run<?, ?> build) {
+        return GitCommitsRecordIndex.findRecordForScm(build, SCM_KEY).orElseThrow(AssertionError::new);
+    }
+}
@@ -115,6 +115,43 @@ public class GitReferenceRecorderITest extends GitITest {
                 .hasReferenceBuild(Optional.of(masterBuild));
     }
 
+    /**
+     * Checks if the reference build will be found using the merge base, even if the number of commits to compare is
+     * too low to find an intersection of the recorded commits.
+     *
+     * <pre>
+     * {@code
+     * M:  [M1]#1 - [M2]#2
+     *       \
+     *   F:  [F1]#1}
+     * </pre>
+     */
+    @Test
+    public void shouldFindReferenceBuildUsingMergeBase() {
+        WorkflowMultiBranchProject project = initializeGitAndMultiBranchProject();
+
+        buildProject(project);
+        WorkflowRun masterBuild = verifyMasterBuild(project, 1);
+        verifyRecordSize(masterBuild, 2);
+
+        createFeatureBranchAndAddCommits("maxCommits: 2", "useMergeBase: true");
+
+        addAdditionalFileTo(MASTER);
+
+        buildProject(project);
+        WorkflowRun nextMaster = verifyMasterBuild(project, 2);
+        verifyRecordSize(nextMaster, 1);
+
+        buildProject(project);
+        WorkflowRun featureBuild = verifyFeatureBuild(project, 1);
+        verifyRecordSize(featureBuild, 3);
+
+        assertThat(featureBuild.getAction(ReferenceBuild.class)).isNotNull()
+                .hasOwner(featureBuild)
+                .hasReferenceBuildId(masterBuild.getExternalizableId())
+                .hasReferenceBuild(Optional.of(masterBuild));
+    }
+
     /**
      * Checks if the reference build is found even if the reference build has commits that the feature build does not.
      * This also checks the algorithm if the config {@code skipUnknownCommits} is disabled.
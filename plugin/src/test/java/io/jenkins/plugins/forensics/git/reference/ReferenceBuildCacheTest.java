@@ -0,0 +1,78 @@
+package io.jenkins.plugins.forensics.git.reference;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import io.jenkins.plugins.forensics.git.reference.ReferenceBuildCache.CacheInvalidator;
+import io.jenkins.plugins.forensics.git.reference.ReferenceBuildCache.Key;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link ReferenceBuildCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class ReferenceBuildCacheTest {
+    private static final String SCM_KEY = "git";
+
+    @Test
+    void shouldSearchReferenceBuildOnlyOnce() {
+        Run<?, ?> owner = createRun("feature", 1);
+        Run<?, ?> reference = createRun("master", 2);
+
+        AtomicInteger searches = new AtomicInteger();
+        Key key = new Key(owner, reference, SCM_KEY, 100, false, false);
+        assertThat(ReferenceBuildCache.get(key, () -> search(searches))).isEmpty();
+        assertThat(ReferenceBuildCache.get(key, () -> search(searches))).isEmpty();
+        assertThat(searches).hasValue(1);
+
+        Key otherParameters = new Key(owner, reference, SCM_KEY, 10, false, false);
+        assertThat(ReferenceBuildCache.get(otherParameters, () -> search(searches))).isEmpty();
+        assertThat(searches).hasValue(2);
+
+        Run<?, ?> nextReference = createRun("master", 3);
+        Key nextReferenceBuild = new Key(owner, nextReference, SCM_KEY, 100, false, false);
+        assertThat(ReferenceBuildCache.get(nextReferenceBuild, () -> search(searches))).isEmpty();
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void shouldInvalidateEntriesOfReferenceJob() {
+        Run<?, ?> owner = createRun("branch", 1);
+        Run<?, ?> reference = createRun("main", 1);
+
+        AtomicInteger searches = new AtomicInteger();
+        Key key = new Key(owner, reference, SCM_KEY, 100, false, false);
+        ReferenceBuildCache.get(key, () -> search(searches));
+        int size = ReferenceBuildCache.size();
+
+        new CacheInvalidator().onDeleted(createRun("main", 2));
+
+        assertThat(ReferenceBuildCache.size()).isEqualTo(size - 1);
+        ReferenceBuildCache.get(key, () -> search(searches));
+        assertThat(searches).hasValue(2);
+    }
+
+    private Optional<Run<?, ?>> search(final AtomicInteger searches) {
+        searches.incrementAndGet();
+        return Optional.empty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Run<?, ?> createRun(final String jobName, final int number) {
+        Job job = Mockito.mock(Job.class);
+        Mockito.when(job.getFullName()).thenReturn(jobName);
+
+        Run run = Mockito.mock(Run.class);
+        Mockito.when(run.getParent()).thenReturn(job);
+        Mockito.when(run.getExternalizableId()).thenReturn(jobName + "#" + number);
+        return run;
+    }
+}
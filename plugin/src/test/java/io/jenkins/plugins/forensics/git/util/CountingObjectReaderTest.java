@@ -0,0 +1,47 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link CountingObjectReader}.
+ *
+ * @author Ullrich Hafner
+ */
+class CountingObjectReaderTest {
+    @Test
+    void shouldCountObjectsAndInflatedBytes() throws IOException {
+        try (InMemoryRepository repository = new InMemoryRepository(new DfsRepositoryDescription("counting"))) {
+            ObjectId first = insert(repository, "first");
+            ObjectId second = insert(repository, "second");
+
+            try (CountingObjectReader reader = new CountingObjectReader(repository.newObjectReader())) {
+                assertThat(reader.getObjects()).isZero();
+                assertThat(reader.getBytes()).isZero();
+
+                assertThat(reader.open(first).getBytes()).isEqualTo("first".getBytes(StandardCharsets.UTF_8));
+                reader.open(second, Constants.OBJ_BLOB);
+
+                assertThat(reader.getObjects()).isEqualTo(2);
+                assertThat(reader.getBytes()).isEqualTo(11);
+            }
+        }
+    }
+
+    private ObjectId insert(final InMemoryRepository repository, final String content) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            ObjectId id = inserter.insert(Constants.OBJ_BLOB, content.getBytes(StandardCharsets.UTF_8));
+            inserter.flush();
+            return id;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link ForensicsMetrics}.
+ *
+ * @author Ullrich Hafner
+ */
+class ForensicsMetricsTest {
+    private static final String PHASE = "phase";
+    private static final String COUNTER = "counter";
+
+    @Test
+    void shouldSumDurationsAndCounters() {
+        ForensicsMetrics metrics = new ForensicsMetrics();
+        assertThat(metrics.isEmpty()).isTrue();
+
+        metrics.addDuration(PHASE, TimeUnit.MILLISECONDS.toNanos(1500));
+        metrics.addDuration(PHASE, TimeUnit.MILLISECONDS.toNanos(500));
+        metrics.increment(COUNTER);
+        metrics.add(COUNTER, 99);
+
+        assertThat(metrics.isEmpty()).isFalse();
+        assertThat(metrics.getDuration(PHASE)).isEqualTo(2000);
+        assertThat(metrics.getCount(COUNTER)).isEqualTo(100);
+        assertThat(metrics.getRate(COUNTER, PHASE)).isEqualTo(50);
+        assertThat(metrics.getDurations()).containsEntry(PHASE, 2000L);
+        assertThat(metrics.getCounters()).containsEntry(COUNTER, 100L);
+    }
+
+    @Test
+    void shouldMergeMetrics() {
+        ForensicsMetrics first = new ForensicsMetrics();
+        first.addDuration(PHASE, 1000);
+        first.add(COUNTER, 1);
+
+        ForensicsMetrics second = new ForensicsMetrics();
+        second.addDuration(PHASE, 2000);
+        second.addDuration("other", 3000);
+        second.add(COUNTER, 2);
+
+        first.merge(second);
+
+        assertThat(first.getNanos(PHASE)).isEqualTo(3000);
+        assertThat(first.getNanos("other")).isEqualTo(3000);
+        assertThat(first.getCount(COUNTER)).isEqualTo(3);
+        assertThat(first.getRate(COUNTER, "unknown")).isZero();
+    }
+
+    @Test
+    void shouldRecordAndMergeSlowestEntries() {
+        ForensicsMetrics first = new ForensicsMetrics();
+        first.stopEntry(PHASE, "first", first.start() - TimeUnit.MILLISECONDS.toNanos(200));
+
+        ForensicsMetrics second = new ForensicsMetrics();
+        second.stopEntry(PHASE, "second", second.start() - TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(second.isEmpty()).isFalse();
+
+        first.merge(second);
+
+        assertThat(first.getSlowest(PHASE)).extracting(SlowestEntries.Entry::getName)
+                .containsExactly("first", "second");
+        assertThat(first.getSlowest("unknown")).isEmpty();
+        assertThat(first.getSlowest()).containsOnlyKeys(PHASE);
+    }
+}
@@ -0,0 +1,139 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.assertj.core.util.Lists;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import org.jenkinsci.plugins.gitclient.GitClient;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.TaskListener;
+import hudson.plugins.git.GitSCM;
+import hudson.plugins.git.extensions.impl.CloneOption;
+import hudson.util.DescribableList;
+
+import io.jenkins.plugins.forensics.git.util.GitRepositorySession.SessionExpiration;
+import io.jenkins.plugins.forensics.git.util.GitRepositorySession.SessionInvalidation;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the classes {@link GitRepositorySession} and {@link GitRepositoryValidator}.
+ *
+ * @author Ullrich Hafner
+ */
+class GitRepositorySessionTest {
+    private static final TaskListener NULL_LISTENER = TaskListener.NULL;
+    private static final String GIT_COMMIT = "test_commit";
+
+    @Test
+    void shouldValidateWorkingTreeOnlyOncePerBuild() throws IOException, InterruptedException {
+        Run<?, ?> run = createRun("job#1");
+        FilePath workspace = createWorkTreeStub();
+        GitClient gitClient = Mockito.mock(GitClient.class);
+        ObjectId commit = Mockito.mock(ObjectId.class);
+        Mockito.when(gitClient.revParse(ArgumentMatchers.anyString())).thenReturn(commit);
+        GitSCM gitSCM = createScm(run, workspace, gitClient);
+
+        GitRepositoryValidator first = new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER,
+                new FilteredLog("errors"));
+        assertThat(first.isGitRepository()).isTrue();
+        assertThat(first.createClient()).isSameAs(gitClient);
+        assertThat(first.getHead()).isEqualTo(GIT_COMMIT);
+
+        GitRepositoryValidator second = new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER,
+                new FilteredLog("errors"));
+        assertThat(second.isGitRepository()).isTrue();
+        assertThat(second.createClient()).isSameAs(gitClient);
+        assertThat(second.getHead()).isEqualTo(GIT_COMMIT);
+
+        Mockito.verify(gitSCM, Mockito.times(2)).createClient(NULL_LISTENER, run.getEnvironment(NULL_LISTENER),
+                run, workspace);
+        Mockito.verify(gitClient, Mockito.times(1)).revParse(GIT_COMMIT);
+
+        int size = GitRepositorySession.size();
+        new SessionExpiration().onCompleted(run, NULL_LISTENER);
+        assertThat(GitRepositorySession.size()).isEqualTo(size - 1);
+    }
+
+    @Test
+    void shouldValidateWorkingTreeAgainAfterCheckout() throws IOException, InterruptedException {
+        Run<?, ?> run = createRun("job#2");
+        FilePath workspace = createWorkTreeStub();
+        GitClient gitClient = Mockito.mock(GitClient.class);
+        ObjectId commit = Mockito.mock(ObjectId.class);
+        Mockito.when(gitClient.revParse(ArgumentMatchers.anyString())).thenReturn(commit);
+        GitSCM gitSCM = createScm(run, workspace, gitClient);
+
+        assertThat(new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER,
+                new FilteredLog("errors")).isGitRepository()).isTrue();
+
+        new SessionInvalidation().onCheckout(run, gitSCM, workspace, NULL_LISTENER, null, null);
+        assertThat(GitRepositorySession.find(run, workspace, gitSCM)).isEmpty();
+
+        assertThat(new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER,
+                new FilteredLog("errors")).isGitRepository()).isTrue();
+        Mockito.verify(gitClient, Mockito.times(2)).revParse(GIT_COMMIT);
+
+        GitRepositorySession.expire(run);
+    }
+
+    @Test
+    void shouldCacheShallowClone() throws IOException, InterruptedException {
+        Run<?, ?> run = createRun("job#3");
+        FilePath workspace = createWorkTreeStub();
+        GitSCM gitSCM = createScm(run, workspace, Mockito.mock(GitClient.class));
+        CloneOption shallowCloneOption = Mockito.mock(CloneOption.class);
+        Mockito.when(shallowCloneOption.isShallow()).thenReturn(true);
+        Mockito.when(gitSCM.getExtensions())
+                .thenReturn(new DescribableList<>(Saveable.NOOP, Lists.list(shallowCloneOption)));
+
+        FilteredLog logger = new FilteredLog("errors");
+        assertThat(new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER, logger).isGitRepository())
+                .isFalse();
+        assertThat(new GitRepositoryValidator(gitSCM, run, workspace, NULL_LISTENER, logger).isGitRepository())
+                .isFalse();
+
+        assertThat(logger.getInfoMessages()).containsExactly(
+                GitRepositoryValidator.INFO_SHALLOW_CLONE, GitRepositoryValidator.INFO_SHALLOW_CLONE);
+        Mockito.verify(gitSCM, Mockito.times(1)).getExtensions();
+        Mockito.verify(gitSCM, Mockito.never()).createClient(NULL_LISTENER, run.getEnvironment(NULL_LISTENER),
+                run, workspace);
+
+        GitRepositorySession.expire(run);
+    }
+
+    private GitSCM createScm(final Run<?, ?> run, final FilePath workspace, final GitClient gitClient)
+            throws IOException, InterruptedException {
+        GitSCM gitSCM = Mockito.mock(GitSCM.class);
+        Mockito.when(gitSCM.getExtensions()).thenReturn(new DescribableList<>(Saveable.NOOP));
+        Mockito.when(gitSCM.getKey()).thenReturn("git");
+        Mockito.when(gitSCM.createClient(NULL_LISTENER, run.getEnvironment(NULL_LISTENER), run, workspace))
+                .thenReturn(gitClient);
+        return gitSCM;
+    }
+
+    private Run<?, ?> createRun(final String id) throws IOException, InterruptedException {
+        Run<?, ?> run = Mockito.mock(Run.class);
+        EnvVars envVars = new EnvVars();
+        envVars.put("GIT_COMMIT", GIT_COMMIT);
+        Mockito.when(run.getEnvironment(NULL_LISTENER)).thenReturn(envVars);
+        Mockito.when(run.getExternalizableId()).thenReturn(id);
+        return run;
+    }
+
+    private FilePath createWorkTreeStub() {
+        File mock = Mockito.mock(File.class);
+        Mockito.when(mock.getPath()).thenReturn("/");
+        return new FilePath(mock);
+    }
+}
@@ -0,0 +1,57 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link HeapBudget}.
+ *
+ * @author Ullrich Hafner
+ */
+class HeapBudgetTest {
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void shouldBeExhaustedIfEstimateExceedsHeadroom() {
+        HeapBudget budget = new HeapBudget(1000 * MB, 80, () -> 300 * MB);
+
+        budget.allocate(400 * MB);
+        assertThat(budget.isExhausted()).isFalse();
+
+        budget.allocate(100 * MB + 1);
+        assertThat(budget.isExhausted()).isTrue();
+        assertThat(budget.getEstimatedBytes()).isEqualTo(500 * MB + 1);
+        assertThat(budget).hasToString("estimated 500 MB of 500 MB budget, heap limit 800 MB");
+    }
+
+    @Test
+    void shouldBeExhaustedIfLiveHeapExceedsLimit() {
+        AtomicLong liveHeap = new AtomicLong(100 * MB);
+        HeapBudget budget = new HeapBudget(1000 * MB, 50, liveHeap::get);
+
+        assertThat(budget.isExhausted()).isFalse();
+
+        liveHeap.set(600 * MB);
+        boolean exhausted = false;
+        for (int i = 0; i < 1000 && !exhausted; i++) {
+            exhausted = budget.isExhausted();
+        }
+        assertThat(exhausted).isTrue();
+
+        liveHeap.set(0);
+        assertThat(budget.isExhausted()).as("exhausted budget must remain exhausted").isTrue();
+    }
+
+    @Test
+    void shouldNeverBeExhaustedWithoutHeapLimit() {
+        HeapBudget budget = new HeapBudget(-1, 80, () -> Long.MAX_VALUE / 2);
+
+        budget.allocate(Long.MAX_VALUE / 2);
+
+        assertThat(budget.isExhausted()).isFalse();
+        assertThat(budget).hasToString("estimated " + Long.MAX_VALUE / 2 / MB + " MB, no heap limit");
+    }
+}
@@ -0,0 +1,105 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link HyperLogLog}.
+ *
+ * @author Ullrich Hafner
+ */
+class HyperLogLogTest {
+    private static final int PRECISION = 12;
+
+    @Test
+    void shouldEstimateDistinctValues() {
+        for (int count : new int[] {0, 1, 10, 100, 1000, 10_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+
+            for (int i = 0; i < count; i++) {
+                sketch.add(createAuthor(i));
+                sketch.add(createAuthor(0));
+            }
+
+            assertThat((double) sketch.estimate()).as("estimate of %d values", count)
+                    .isCloseTo(count, within(count * 3 * sketch.getRelativeError() + 1));
+        }
+    }
+
+    @Test
+    void shouldSwitchToDenseRepresentation() {
+        HyperLogLog sketch = new HyperLogLog(HyperLogLog.MIN_PRECISION);
+
+        sketch.add(createAuthor(1));
+        assertThat(sketch.isSparse()).isTrue();
+
+        for (int i = 0; i < 100; i++) {
+            sketch.add(createAuthor(i));
+        }
+        assertThat(sketch.isSparse()).isFalse();
+    }
+
+    @Test
+    void shouldMergeSketches() {
+        HyperLogLog first = new HyperLogLog(PRECISION);
+        HyperLogLog second = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 2000; i++) {
+            first.add(createAuthor(i));
+            second.add(createAuthor(i + 1000));
+        }
+
+        HyperLogLog merged = first.copy();
+        merged.merge(second);
+
+        assertThat((double) merged.estimate()).isCloseTo(3000, within(3000 * 3 * merged.getRelativeError()));
+        assertThat(first.estimate()).isLessThan(merged.estimate());
+
+        HyperLogLog sparse = new HyperLogLog(PRECISION);
+        sparse.add(createAuthor(5000));
+        sparse.merge(first);
+        assertThat(sparse.estimate()).isGreaterThanOrEqualTo(first.estimate());
+
+        assertThatIllegalArgumentException().isThrownBy(() -> first.merge(new HyperLogLog(PRECISION - 1)));
+    }
+
+    @Test
+    void shouldDerivePrecisionFromError() {
+        assertThat(HyperLogLog.getPrecision(0.02)).isEqualTo(12);
+        assertThat(HyperLogLog.getPrecision(0.05)).isEqualTo(9);
+        assertThat(HyperLogLog.getPrecision(0.5)).isEqualTo(HyperLogLog.MIN_PRECISION);
+        assertThat(HyperLogLog.getPrecision(0)).isEqualTo(HyperLogLog.MAX_PRECISION);
+
+        assertThat(HyperLogLog.forError(0.02).getRelativeError()).isLessThanOrEqualTo(0.02);
+        assertThatIllegalArgumentException().isThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1));
+    }
+
+    @Test
+    void shouldWriteAndReadBinaryFormat() throws IOException {
+        for (int count : new int[] {0, 10, 10_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < count; i++) {
+                sketch.add(createAuthor(i));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            sketch.writeTo(new DataOutputStream(bytes));
+            HyperLogLog read = HyperLogLog.readFrom(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+            assertThat(read.getPrecision()).isEqualTo(PRECISION);
+            assertThat(read.isSparse()).isEqualTo(sketch.isSparse());
+            assertThat(read.estimate()).isEqualTo(sketch.estimate());
+        }
+    }
+
+    private String createAuthor(final int index) {
+        return "author-" + index + "@example.com";
+    }
+}
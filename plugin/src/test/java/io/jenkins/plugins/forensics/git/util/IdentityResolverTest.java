@@ -0,0 +1,189 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.util.FilteredLog;
+
+import io.jenkins.plugins.forensics.git.util.IdentityResolver.Identity;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link IdentityResolver}.
+ *
+ * @author Ullrich Hafner
+ */
+class IdentityResolverTest {
+    private static final String MAILMAP = "# Mailmap of the project\n"
+            + "Proper Name <commit@example.com>\n"
+            + "<proper@example.com> <old@example.com>\n"
+            + "Joe Developer <joe@example.com> <joe@home.example.com>\n"
+            + "Other Joe <other@example.com> Joe <shared@example.com>\n"
+            + "Shared Account <shared@example.com> <shared@example.com>\n";
+
+    @Test
+    void shouldMapIdentitiesToThemselvesWithoutMailmap() {
+        IdentityResolver resolver = IdentityResolver.empty();
+
+        assertThat(resolver.isEmpty()).isTrue();
+        assertIdentity(resolver.resolve("Name", "name@example.com"), "Name", "name@example.com");
+        assertIdentity(resolver.resolve(null, "name@example.com"), null, "name@example.com");
+    }
+
+    @Test
+    void shouldResolveAllFormsOfMailmap() {
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse(MAILMAP);
+
+        assertThat(resolver.isEmpty()).isFalse();
+        assertIdentity(resolver.resolve("nick", "commit@example.com"), "Proper Name", "commit@example.com");
+        assertIdentity(resolver.resolve("Old", "old@example.com"), "Old", "proper@example.com");
+        assertIdentity(resolver.resolve("joe", "joe@home.example.com"), "Joe Developer", "joe@example.com");
+        assertIdentity(resolver.resolve("Joe", "shared@example.com"), "Other Joe", "other@example.com");
+        assertIdentity(resolver.resolve("Jane", "shared@example.com"), "Shared Account", "shared@example.com");
+        assertIdentity(resolver.resolve("Unknown", "unknown@example.com"), "Unknown", "unknown@example.com");
+    }
+
+    @Test
+    void shouldMatchCaseInsensitively() {
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse(MAILMAP);
+
+        assertIdentity(resolver.resolve("joe", "Joe@Home.Example.com"), "Joe Developer", "joe@example.com");
+        assertIdentity(resolver.resolve("JOE", "shared@example.com"), "Other Joe", "other@example.com");
+    }
+
+    @Test
+    void shouldCacheResolvedIdentities() {
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse(MAILMAP);
+
+        Identity first = resolver.resolve(new PersonIdent("joe", "joe@home.example.com", 1000L, 0));
+        Identity second = resolver.resolve(new PersonIdent("joe", "joe@home.example.com", 2000L, 60));
+
+        assertThat(second).isSameAs(first);
+        assertThat(resolver.resolve("joe", "joe@example.com")).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldOverrideMailmapWithAliases() {
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse(MAILMAP);
+        resolver.parse("Joseph <joseph@example.com> <joe@home.example.com>");
+
+        assertIdentity(resolver.resolve("joe", "joe@home.example.com"), "Joseph", "joseph@example.com");
+    }
+
+    @Test
+    void shouldSkipInvalidLines() {
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse("no email\n<unterminated\n  \n# <comment@example.com>\n");
+
+        assertThat(resolver.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldReadMailmapOfCommit() throws IOException {
+        try (InMemoryRepository repository = new InMemoryRepository(new DfsRepositoryDescription("mailmap"));
+                ObjectReader reader = repository.newObjectReader()) {
+            ObjectId head = commit(repository, MAILMAP);
+            FilteredLog log = new FilteredLog(StringUtils.EMPTY);
+
+            IdentityResolver resolver = IdentityResolver.create(reader, head,
+                    "Joseph <joseph@example.com> <joe@home.example.com>", log);
+
+            assertIdentity(resolver.resolve("nick", "commit@example.com"), "Proper Name", "commit@example.com");
+            assertIdentity(resolver.resolve("joe", "joe@home.example.com"), "Joseph", "joseph@example.com");
+            assertThat(log.getInfoMessages()).contains("Resolving author identities using 4 mailmap entries");
+            assertThat(log.getErrorMessages()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreMissingMailmap() throws IOException {
+        try (InMemoryRepository repository = new InMemoryRepository(new DfsRepositoryDescription("mailmap"));
+                ObjectReader reader = repository.newObjectReader()) {
+            ObjectId head = commit(repository, null);
+            FilteredLog log = new FilteredLog(StringUtils.EMPTY);
+
+            IdentityResolver resolver = IdentityResolver.create(reader, head, StringUtils.EMPTY, log);
+
+            assertThat(resolver.isEmpty()).isTrue();
+            assertThat(log.getInfoMessages()).isEmpty();
+            assertThat(log.getErrorMessages()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldIgnoreTooLargeMailmap() throws IOException {
+        try (InMemoryRepository repository = new InMemoryRepository(new DfsRepositoryDescription("mailmap"));
+                ObjectReader reader = repository.newObjectReader()) {
+            ObjectId head = commit(repository, MAILMAP + StringUtils.repeat('#', IdentityResolver.MAX_MAILMAP_SIZE));
+            FilteredLog log = new FilteredLog(StringUtils.EMPTY);
+
+            IdentityResolver resolver = IdentityResolver.create(reader, head, StringUtils.EMPTY, log);
+
+            assertThat(resolver.isEmpty()).isTrue();
+            assertThat(log.getErrorMessages()).anySatisfy(
+                    message -> assertThat(message).startsWith("Can't read the file '.mailmap'"));
+        }
+    }
+
+    @Test
+    void shouldCreateFingerprintOfMappings() {
+        assertThat(IdentityResolver.empty().getFingerprint()).isEmpty();
+
+        IdentityResolver resolver = new IdentityResolver();
+        resolver.parse(MAILMAP);
+        IdentityResolver same = new IdentityResolver();
+        same.parse(MAILMAP);
+        IdentityResolver other = new IdentityResolver();
+        other.parse(MAILMAP);
+        other.parse("Joseph <joseph@example.com> <joe@home.example.com>");
+
+        assertThat(resolver.getFingerprint()).isNotEmpty()
+                .isEqualTo(same.getFingerprint())
+                .isNotEqualTo(other.getFingerprint());
+    }
+
+    private ObjectId commit(final InMemoryRepository repository, final String mailmap) throws IOException {
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            TreeFormatter tree = new TreeFormatter(); // entries need to be sorted by name
+            if (mailmap != null) {
+                tree.append(IdentityResolver.MAILMAP, FileMode.REGULAR_FILE,
+                        inserter.insert(Constants.OBJ_BLOB, mailmap.getBytes(StandardCharsets.UTF_8)));
+            }
+            tree.append("README", FileMode.REGULAR_FILE,
+                    inserter.insert(Constants.OBJ_BLOB, "readme".getBytes(StandardCharsets.UTF_8)));
+
+            CommitBuilder commit = new CommitBuilder();
+            PersonIdent author = new PersonIdent("Author", "author@example.com");
+            commit.setAuthor(author);
+            commit.setCommitter(author);
+            commit.setMessage("Initial commit");
+            commit.setTreeId(inserter.insert(tree));
+            ObjectId id = inserter.insert(commit);
+            inserter.flush();
+            return id;
+        }
+    }
+
+    private void assertIdentity(final Identity identity, final String name, final String email) {
+        assertThat(identity.getName()).isEqualTo(name);
+        assertThat(identity.getEmail()).isEqualTo(email);
+    }
+}
@@ -0,0 +1,46 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link SlowestEntries}.
+ *
+ * @author Ullrich Hafner
+ */
+class SlowestEntriesTest {
+    @Test
+    void shouldRetainOnlySlowestEntries() {
+        SlowestEntries entries = new SlowestEntries(3);
+        assertThat(entries.isEmpty()).isTrue();
+
+        for (int i = 1; i <= 100; i++) {
+            entries.add("file-" + i, TimeUnit.MILLISECONDS.toNanos(i % 50));
+        }
+
+        assertThat(entries.isEmpty()).isFalse();
+        assertThat(entries.getEntries()).extracting(SlowestEntries.Entry::getName)
+                .containsExactly("file-49", "file-99", "file-48");
+        assertThat(entries.getEntries()).extracting(SlowestEntries.Entry::getDuration)
+                .containsExactly(49L, 49L, 48L);
+        assertThat(entries.getEntries().get(0)).hasToString("file-49: 49 ms");
+    }
+
+    @Test
+    void shouldMergeEntries() {
+        SlowestEntries first = new SlowestEntries(2);
+        first.add("a", 10);
+        first.add("b", 30);
+
+        SlowestEntries second = new SlowestEntries(2);
+        second.add("c", 20);
+        second.add("d", 40);
+
+        first.merge(second);
+
+        assertThat(first.getEntries()).extracting(SlowestEntries.Entry::getName).containsExactly("d", "b");
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.junit.jupiter.api.Test;
+
+import io.jenkins.plugins.forensics.git.util.StorageProfile.CacheStatistics;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+
+/**
+ * Tests the class {@link StorageProfile}.
+ *
+ * @author Ullrich Hafner
+ */
+class StorageProfileTest {
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void shouldSizeCachesFromHeap() {
+        WindowCacheConfig configuration = StorageProfile.jgitDefaults().createConfiguration(8 * 1024 * MB);
+
+        assertThat(configuration.getPackedGitLimit()).isEqualTo(2048 * MB);
+        assertThat(configuration.getDeltaBaseCacheLimit()).isEqualTo(512 * MB);
+        assertThat(configuration.getStreamFileThreshold()).isEqualTo(1024 * MB);
+    }
+
+    @Test
+    void shouldUseMinimumSizesForSmallHeaps() {
+        WindowCacheConfig configuration = StorageProfile.jgitDefaults().createConfiguration(64 * MB);
+
+        assertThat(configuration.getPackedGitLimit()).isEqualTo(16 * MB);
+        assertThat(configuration.getDeltaBaseCacheLimit()).isEqualTo(10 * MB);
+        assertThat(configuration.getStreamFileThreshold()).isEqualTo(50 * MB);
+    }
+
+    @Test
+    void shouldUseConfiguredSizes() {
+        WindowCacheConfig configuration = new StorageProfile(100, 20, 30).createConfiguration(8 * 1024 * MB);
+
+        assertThat(configuration.getPackedGitLimit()).isEqualTo(100 * MB);
+        assertThat(configuration.getDeltaBaseCacheLimit()).isEqualTo(20 * MB);
+        assertThat(configuration.getStreamFileThreshold()).isEqualTo(30 * MB);
+    }
+
+    @Test
+    void shouldKeepJGitDefaultsIfNothingIsConfigured() {
+        StorageProfile defaults = StorageProfile.jgitDefaults();
+
+        assertThat(defaults.isConfigured()).isFalse();
+        assertThat(defaults.apply()).isEqualTo("JGit defaults of the agent");
+
+        assertThat(new StorageProfile(0, 20, 0).isConfigured()).isTrue();
+        assertThat(new StorageProfile(-1, -1, -1).isConfigured()).isFalse();
+    }
+
+    @Test
+    void shouldDescribeCacheAccesses() {
+        CacheStatistics before = new CacheStatistics(10, 10, 0);
+        CacheStatistics after = new CacheStatistics(40, 20, 5 * MB);
+
+        assertThat(after.describeSince(before))
+                .isEqualTo("JGit window cache: 30 hits, 10 misses (hit ratio 75%), 5 MB open");
+        assertThat(before.describeSince(before)).contains("hit ratio 100%");
+    }
+}
@@ -0,0 +1,149 @@
+package io.jenkins.plugins.forensics.git.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import org.jenkinsci.plugins.gitclient.GitClient;
+
+import static io.jenkins.plugins.forensics.git.assertions.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Tests the class {@link StreamingRepositoryCallback}.
+ *
+ * @author Ullrich Hafner
+ */
+class StreamingRepositoryCallbackTest {
+    private static final String TITLE = "Errors:";
+    private static final int SIZE = StreamingRepositoryCallback.CHUNK_SIZE * 2 + 500;
+
+    @Test
+    void shouldTransferResultInChunks() throws IOException, InterruptedException {
+        RemoteResultWrapper<ArrayList<String>> result = StreamingRepositoryCallback.transfer(createGitClient(),
+                new ListCallback(), new ListChunker());
+
+        assertThat(result.getResult()).hasSize(SIZE).startsWith("0", "1").endsWith(String.valueOf(SIZE - 1));
+        assertThat(result.getResult()).containsSubsequence("9", "10", "11");
+        assertThat(result.getInfoMessages()).containsExactly("Created " + SIZE + " elements");
+        assertThat(result.getErrorMessages()).containsExactly(TITLE, "Some error with 100%");
+    }
+
+    @Test
+    void shouldPropagateExceptionOfCallback() throws IOException, InterruptedException {
+        GitClient gitClient = Mockito.mock(GitClient.class);
+        Mockito.when(gitClient.withRepository(ArgumentMatchers.any())).thenThrow(new IOException("Error"));
+
+        assertThatThrownBy(() -> StreamingRepositoryCallback.transfer(gitClient, new ListCallback(),
+                new ListChunker())).isInstanceOf(IOException.class).hasMessage("Error");
+    }
+
+    @Test
+    void shouldStopWritingIfReaderFails() throws IOException, InterruptedException {
+        GitClient gitClient = createGitClient();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+                assertThatThrownBy(() -> StreamingRepositoryCallback.transfer(gitClient, new ListCallback(),
+                        new BrokenChunker()))
+                        .isInstanceOf(IOException.class)
+                        .hasMessage("Can't read the result of the Git callback")
+                        .hasCauseInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void shouldRejectProcessWithoutRepository() {
+        StreamingRepositoryCallback<ArrayList<String>> callback = new StreamingRepositoryCallback<>(
+                new ListCallback(), new ListChunker(), null);
+
+        assertThatIllegalStateException().isThrownBy(() -> callback.process(null, null));
+    }
+
+    private GitClient createGitClient() throws IOException, InterruptedException {
+        GitClient gitClient = Mockito.mock(GitClient.class);
+        Mockito.when(gitClient.withRepository(ArgumentMatchers.any())).thenAnswer(
+                invocation -> invocation.<StreamingRepositoryCallback<?>>getArgument(0).invoke(
+                        new InMemoryRepository(new DfsRepositoryDescription("streaming")), null));
+        return gitClient;
+    }
+
+    /**
+     * Creates a list with {@link #SIZE} elements.
+     */
+    private static class ListCallback extends AbstractRepositoryCallback<RemoteResultWrapper<ArrayList<String>>> {
+        private static final long serialVersionUID = 4279233637437264431L;
+
+        @Override
+        protected RemoteResultWrapper<ArrayList<String>> process(final Repository repository,
+                final ObjectReader reader) {
+            ArrayList<String> elements = new ArrayList<>();
+            for (int i = 0; i < SIZE; i++) {
+                elements.add(String.valueOf(i));
+            }
+            RemoteResultWrapper<ArrayList<String>> result = new RemoteResultWrapper<>(elements, TITLE);
+            result.logInfo("Created %d elements", SIZE);
+            result.logError("Some error with %d%%", 100);
+            return result;
+        }
+    }
+
+    /**
+     * Transfers the first {@link #HEADER} elements of a list in a binary format and the other elements separately.
+     */
+    private static class ListChunker implements ResultChunker<ArrayList<String>> {
+        private static final long serialVersionUID = -3371867574869425577L;
+        private static final int HEADER = 10;
+
+        @Override
+        public ArrayList<String> createEmptyCopy(final ArrayList<String> result) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void writeBinary(final ArrayList<String> result, final DataOutput output) throws IOException {
+            for (int i = 0; i < HEADER; i++) {
+                output.writeUTF(result.get(i));
+            }
+        }
+
+        @Override
+        public void readBinary(final ArrayList<String> target, final DataInput input) throws IOException {
+            for (int i = 0; i < HEADER; i++) {
+                target.add(input.readUTF());
+            }
+        }
+
+        @Override
+        public Iterator<String> split(final ArrayList<String> result) {
+            return result.subList(HEADER, result.size()).iterator();
+        }
+
+        @Override
+        public void merge(final ArrayList<String> target, final Serializable chunk) {
+            target.add((String) chunk);
+        }
+    }
+
+    /**
+     * Fails to merge the elements of the list, so the reader stops reading before the writer has finished.
+     */
+    private static class BrokenChunker extends ListChunker {
+        private static final long serialVersionUID = 2837427342718093470L;
+
+        @Override
+        public void merge(final ArrayList<String> target, final Serializable chunk) {
+            throw new IllegalStateException("Can't merge " + chunk);
+        }
+    }
+}
@@ -119,6 +119,17 @@ public class DetailsTable {
         updateTableRows();
     }
 
+    /**
+     * click on the pagination button with the specified label, e.g. a page number or "Next".
+     *
+     * @param label
+     *         label of the pagination button we want to click on.
+     */
+    public void clickOnPage(final String label) {
+        page.findElement(By.xpath(String.format(".//ul/li[normalize-space(.)='%s']", label))).click();
+        updateTableRows();
+    }
+
     /**
      * search for a table entry.
      *
@@ -53,7 +53,7 @@ public class ScmForensics extends PageObject {
     public int getTotal() {
         String total = find(By.id("forensics_info")).getText();
 
-        return Integer.parseInt(StringUtils.substringAfter(total, "of ").split(" ")[0]);
+        return Integer.parseInt(StringUtils.substringAfter(total, "of ").split(" ")[0].replace(",", ""));
     }
 }
 
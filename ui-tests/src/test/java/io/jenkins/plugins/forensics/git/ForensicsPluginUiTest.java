@@ -1,12 +1,19 @@
 package io.jenkins.plugins.forensics.git;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.junit.Test;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
 
 import org.jenkinsci.test.acceptance.junit.AbstractJUnitTest;
 import org.jenkinsci.test.acceptance.junit.WithPlugins;
+import org.jenkinsci.test.acceptance.plugins.git.GitRepo;
 import org.jenkinsci.test.acceptance.plugins.git.GitScm;
 import org.jenkinsci.test.acceptance.plugins.warnings_ng.ScrollerUtil;
 import org.jenkinsci.test.acceptance.po.Build;
@@ -29,6 +36,8 @@ import static org.assertj.core.api.Assertions.*;
 @WithPlugins({"forensics-api", "git-forensics", "git"})
 public class ForensicsPluginUiTest extends AbstractJUnitTest {
     private static final String REPOSITORY_URL = "https://github.com/jenkinsci/git-forensics-plugin.git";
+    private static final int LARGE_REPOSITORY_SIZE = 2000;
+    private static final int MODIFIED_FILES = 5;
 
     /**
      * Tests the build overview page by running a Build with the forensics plugin analyzing a commit hash of the
@@ -88,6 +97,108 @@ public class ForensicsPluginUiTest extends AbstractJUnitTest {
         assertPagination(detailsTable);
     }
 
+    /**
+     * Tests the table of the files that is paged, sorted, and filtered on the controller. The build analyzes a
+     * generated repository with a large number of files, so the browser shows only a small page of the rows.
+     *
+     * @throws IOException
+     *         if the repository could not be created
+     */
+    @Test
+    public void shouldPageSortAndFilterLargeRepositoryOnServer() throws IOException {
+        try (GitRepo repository = createLargeRepository()) {
+            FreeStyleJob job = createFreeStyleJob();
+            job.addPublisher(ForensicsPublisher.class);
+            job.useScm(GitScm.class).url(repository.dir.getAbsolutePath());
+            job.save();
+            Build build = buildSuccessfully(job);
+
+            ScmForensics scmForensics = new ScmForensics(build, "forensics-files");
+            scmForensics.open();
+            DetailsTable detailsTable = new DetailsTable(scmForensics);
+
+            waitForInfo(detailsTable, "Showing 1 to 10 of 2,000 entries");
+            assertThat(scmForensics.getTotal()).isEqualTo(LARGE_REPOSITORY_SIZE);
+            assertTableHeaders(detailsTable);
+            assertThat(detailsTable.getNumberOfTableEntries()).isEqualTo(10);
+            assertRow(detailsTable, 0, getGeneratedFileName(0), 1, 2);
+
+            detailsTable.showFiftyEntries();
+            waitForInfo(detailsTable, "Showing 1 to 50 of 2,000 entries");
+            assertThat(detailsTable.getNumberOfTableEntries()).isEqualTo(50);
+
+            detailsTable.sortColumn(FILE_NAME);
+            waitForFirstRow(detailsTable, getGeneratedFileName(LARGE_REPOSITORY_SIZE - 1));
+            assertRow(detailsTable, 0, getGeneratedFileName(LARGE_REPOSITORY_SIZE - 1), 1, 1);
+
+            detailsTable.sortColumn(COMMITS);
+            detailsTable.sortColumn(COMMITS);
+            waitForFirstRow(detailsTable, getGeneratedFileName(MODIFIED_FILES - 1));
+            assertRow(detailsTable, 0, getGeneratedFileName(MODIFIED_FILES - 1), 1, 2);
+
+            detailsTable.showTenEntries();
+            waitForInfo(detailsTable, "Showing 1 to 10 of 2,000 entries");
+            detailsTable.clickOnPage("Next");
+            waitForInfo(detailsTable, "Showing 11 to 20 of 2,000 entries");
+            detailsTable.clickOnPage("200");
+            waitForInfo(detailsTable, "Showing 1,991 to 2,000 of 2,000 entries");
+
+            detailsTable.searchTable(getGeneratedFileName(1234));
+            waitForInfo(detailsTable, "Showing 1 to 1 of 1 entries (filtered from 2,000 total entries)");
+            assertRow(detailsTable, 0, getGeneratedFileName(1234), 1, 1);
+
+            detailsTable.clearSearch();
+            waitForInfo(detailsTable, "Showing 1 to 10 of 2,000 entries");
+            assertThat(detailsTable.getNumberOfTableEntries()).isEqualTo(10);
+        }
+    }
+
+    private GitRepo createLargeRepository() throws IOException {
+        GitRepo repository = new GitRepo();
+        Path folder = repository.dir.toPath().resolve("src");
+        Files.createDirectories(folder);
+        for (int i = 0; i < LARGE_REPOSITORY_SIZE; i++) {
+            writeFile(folder, i, "class File" + i + " {}");
+        }
+        repository.git("add", "-A");
+        repository.git("commit", "-m", "Add generated files");
+
+        for (int i = 0; i < MODIFIED_FILES; i++) {
+            writeFile(folder, i, "class File" + i + " { int value; }");
+        }
+        repository.git("add", "-A");
+        repository.git("commit", "-m", "Modify generated files");
+        return repository;
+    }
+
+    private void writeFile(final Path folder, final int number, final String content) throws IOException {
+        Files.write(folder.resolve(getGeneratedFileName(number)), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getGeneratedFileName(final int number) {
+        return String.format("File%04d.java", number);
+    }
+
+    private void waitForInfo(final DetailsTable detailsTable, final String info) {
+        waitUntil(() -> info.equals(detailsTable.getForensicsInfo()));
+        assertThat(detailsTable.getForensicsInfo()).isEqualTo(info);
+    }
+
+    private void waitForFirstRow(final DetailsTable detailsTable, final String fileName) {
+        waitUntil(() -> fileName.equals(detailsTable.getTableRows().get(0).getFileName()));
+    }
+
+    private void waitUntil(final Supplier<Boolean> condition) {
+        waitFor().until(() -> {
+            try {
+                return condition.get();
+            }
+            catch (WebDriverException | IndexOutOfBoundsException exception) {
+                return false; // the rows are replaced while the next page is loaded
+            }
+        });
+    }
+
     /**
      * asserts the headers of the table by their size and entries.
      *